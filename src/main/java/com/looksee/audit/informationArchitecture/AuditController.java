@@ -1,22 +1,37 @@
 package com.looksee.audit.informationArchitecture;
 
-import java.util.Base64;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.looksee.audit.informationArchitecture.audits.AudioControlAudit;
 import com.looksee.audit.informationArchitecture.audits.FormStructureAudit;
 import com.looksee.audit.informationArchitecture.audits.HeaderStructureAudit;
@@ -25,6 +40,7 @@ import com.looksee.audit.informationArchitecture.audits.InputPurposeAudit;
 import com.looksee.audit.informationArchitecture.audits.LinksAudit;
 import com.looksee.audit.informationArchitecture.audits.MetadataAudit;
 import com.looksee.audit.informationArchitecture.audits.OrientationAudit;
+import com.looksee.audit.informationArchitecture.audits.PageContext;
 import com.looksee.audit.informationArchitecture.audits.PageLanguageAudit;
 import com.looksee.audit.informationArchitecture.audits.ReflowAudit;
 import com.looksee.audit.informationArchitecture.audits.SecurityAudit;
@@ -33,19 +49,37 @@ import com.looksee.audit.informationArchitecture.audits.TextSpacingAudit;
 import com.looksee.audit.informationArchitecture.audits.TitleAndHeaderAudit;
 import com.looksee.audit.informationArchitecture.audits.UseOfColorAudit;
 import com.looksee.audit.informationArchitecture.audits.VisualPresentationAudit;
+import com.looksee.audit.informationArchitecture.services.AuditIdempotencyGuard;
+import com.looksee.audit.informationArchitecture.services.AuditIntakeQueue;
+import com.looksee.audit.informationArchitecture.services.AuditMessageCodec;
+import com.looksee.audit.informationArchitecture.services.AuditResultCache;
+import com.looksee.audit.informationArchitecture.services.CachedAudit;
+import com.looksee.audit.informationArchitecture.services.AuditProgressPublisher;
+import com.looksee.audit.informationArchitecture.services.AuditRecordBatchLoader;
+import com.looksee.audit.informationArchitecture.services.PageAuditExecutor;
+import com.looksee.audit.informationArchitecture.services.PageAuditInputs;
+import com.looksee.audit.informationArchitecture.services.PageAuditResults;
+import com.looksee.audit.informationArchitecture.services.PageBatchExecutor;
+import com.looksee.audit.informationArchitecture.services.PersistenceBuffer;
+import com.looksee.audit.informationArchitecture.services.PersistenceBulkWriter;
 import com.looksee.gcp.PubSubAuditUpdatePublisherImpl;
 import com.looksee.mapper.Body;
 import com.looksee.models.PageState;
 import com.looksee.models.audit.Audit;
 import com.looksee.models.audit.AuditRecord;
+import com.looksee.models.audit.interfaces.IExecutablePageStateAudit;
 import com.looksee.models.enums.AuditCategory;
 import com.looksee.models.enums.AuditLevel;
 import com.looksee.models.enums.AuditName;
 import com.looksee.models.message.AuditProgressUpdate;
 import com.looksee.models.message.PageAuditMessage;
 import com.looksee.services.AuditRecordService;
+import com.looksee.services.AuditService;
+import com.looksee.services.ElementStateService;
 import com.looksee.services.PageStateService;
 
+import io.micrometer.core.instrument.MeterRegistry;
+
 /**
  * REST controller that receives Pub/Sub audit messages, orchestrates page-level
  * information architecture and accessibility audits, and publishes completion updates.
@@ -61,6 +95,8 @@ import com.looksee.services.PageStateService;
 public class AuditController {
 	private static Logger log = LoggerFactory.getLogger(AuditController.class);
 
+	private static final String INVALID_ENCODING_MESSAGE = "Invalid Pub/Sub message: message.data must be base64 encoded";
+
 	@Autowired
 	private AuditRecordService audit_record_service;
 	
@@ -114,173 +150,595 @@ public class AuditController {
 	
 	@Autowired
 	private PageStateService page_state_service;
+
+	@Autowired
+	private ElementStateService element_state_service;
+
+	@Autowired
+	private AuditService audit_service;
 	
 	@Autowired
 	private PubSubAuditUpdatePublisherImpl audit_update_topic;
+
+	@Autowired
+	private PageAuditExecutor page_audit_executor;
+
+	@Autowired
+	private AuditResultCache audit_result_cache;
+
+	@Autowired
+	private AuditIntakeQueue audit_intake_queue;
+
+	@Autowired
+	private AuditIdempotencyGuard audit_idempotency_guard;
+
+	@Autowired
+	private AuditProgressPublisher audit_progress_publisher;
+
+	@Autowired
+	private PageBatchExecutor page_batch_executor;
+
+	@Autowired
+	private MeterRegistry meter_registry;
+
+	@Value("${audit.batch.max-size:100}")
+	private int batch_max_size = 100;
+
+	@Value("${audit.batch.time-budget-ms:480000}")
+	private long batch_time_budget_ms = 480000;
+
+	@Value("${audit.idempotency.duplicate-wait-ms:60000}")
+	private long duplicate_wait_ms = 60000;
+
+	@Value("${audit.intake.async:false}")
+	private boolean async_intake = false;
+
+	@Value("${audit.intake.log-sample-rate:100}")
+	private int log_sample_rate = 100;
+
+	@Value("${audit.intake.log-max-chars:512}")
+	private int log_max_chars = 512;
+
+	private final AtomicLong received_messages = new AtomicLong();
+
+	@Autowired(required = false)
+	private PlatformTransactionManager transaction_manager;
+
+	// absent when audit.persistence.bulk-writes is false; entities are then saved one at a time
+	@Autowired(required = false)
+	private PersistenceBulkWriter persistence_bulk_writer;
+
+	// absent when audit.batch.bulk-load is false; records are then loaded one at a time
+	@Autowired(required = false)
+	private AuditRecordBatchLoader audit_record_batch_loader;
+
+	@Value("${audit.persistence.flush-size:200}")
+	private int persistence_flush_size = 200;
 	
 	/**
 	 * Receives a Pub/Sub message containing a {@link PageAuditMessage}, executes all
 	 * registered information architecture audits against the referenced page, and
 	 * publishes a completion update.
 	 *
+	 * <p>When {@code audit.intake.async} is enabled the message is only validated here; the
+	 * audits run on the {@link AuditIntakeQueue} after the message has been acknowledged.</p>
+	 *
 	 * @param body the Pub/Sub push message wrapper; must not be {@code null}
-	 * @return {@code 200 OK} on success, {@code 400 BAD_REQUEST} for invalid input,
+	 * @return {@code 200 OK} on success, {@code 202 ACCEPTED} once queued in async mode,
+	 *         {@code 400 BAD_REQUEST} for invalid input,
 	 *         {@code 404 NOT_FOUND} if the audit record does not exist,
-	 *         {@code 500 INTERNAL_SERVER_ERROR} on serialisation failures
+	 *         {@code 429 TOO_MANY_REQUESTS} if the async queue is full,
+	 *         {@code 500 INTERNAL_SERVER_ERROR} on serialisation failures,
+	 *         {@code 503 SERVICE_UNAVAILABLE} if a concurrent delivery of the same audit record
+	 *         is still running after {@code audit.idempotency.duplicate-wait-ms}
 	 *
 	 * @pre {@code body != null && body.getMessage() != null}
 	 * @pre {@code body.getMessage().getData()} is a valid Base64-encoded JSON string
 	 *      representing a {@link PageAuditMessage}
-	 * @post an {@link AuditProgressUpdate} with progress {@code 1.0} is published to the
-	 *       audit update topic
+	 * @post intermediate {@link AuditProgressUpdate}s are published, rate limited, while the
+	 *       audits run, followed by a final update once they have run; its progress is the
+	 *       fraction of audits that completed and its message names the incomplete ones
 	 * @post every audit that did not already exist for the record has been persisted and
-	 *       associated with the {@link AuditRecord}
+	 *       associated with the {@link AuditRecord}; audits that failed or ran out of time are
+	 *       persisted as incomplete audits without a score
+	 * @post audits whose result is cached for identical page content are copied onto the page
+	 *       and associated with the {@link AuditRecord} without being executed again
 	 */
 	@RequestMapping(value = "/", method = RequestMethod.POST)
 	public ResponseEntity<String> receiveMessage(@RequestBody Body body)
 			throws ExecutionException, InterruptedException
 	{
-		if(body == null || body.getMessage() == null) {
-			return new ResponseEntity<String>("Invalid Pub/Sub message: body.message is required", HttpStatus.BAD_REQUEST);
-		}
-
-		Body.Message message = body.getMessage();
-		String data = message.getData();
-		if(data == null || data.isEmpty()) {
-			return new ResponseEntity<String>("Invalid Pub/Sub message: message.data is required", HttpStatus.BAD_REQUEST);
-		}
-
-		String target;
+		String data;
 		try {
-			target = new String(Base64.getDecoder().decode(data));
+			data = requireData(body);
 		}
 		catch(IllegalArgumentException e) {
-			log.warn("Invalid Pub/Sub message data encoding", e);
-			return new ResponseEntity<String>("Invalid Pub/Sub message: message.data must be base64 encoded", HttpStatus.BAD_REQUEST);
+			return new ResponseEntity<String>(e.getMessage(), HttpStatus.BAD_REQUEST);
 		}
+		logSampled(data);
 
-		if(target.isEmpty()) {
-			return new ResponseEntity<String>("Invalid Pub/Sub message: decoded message.data is empty", HttpStatus.BAD_REQUEST);
-		}
-		log.warn("page audit msg received = "+target);
-
-		ObjectMapper mapper = new ObjectMapper();
 		PageAuditMessage audit_record_msg;
 		try {
-			audit_record_msg = mapper.readValue(target, PageAuditMessage.class);
+			audit_record_msg = AuditMessageCodec.readPageAuditMessage(data);
 		}
 		catch(JsonProcessingException e) {
 			log.warn("Invalid Pub/Sub message payload", e);
 			return new ResponseEntity<String>("Invalid Pub/Sub message: payload must be valid PageAuditMessage JSON", HttpStatus.BAD_REQUEST);
 		}
-
-		AuditRecord audit_record = audit_record_service.findById(audit_record_msg.getPageAuditId()).orElse(null);
-		if(audit_record == null) {
-			return new ResponseEntity<String>("Audit record not found for id: " + audit_record_msg.getPageAuditId(), HttpStatus.NOT_FOUND);
-		}
-    	PageState page = page_state_service.getPageStateForAuditRecord(audit_record.getId());
-    	
-    	Set<Audit> audits = audit_record_service.getAllAudits(audit_record.getId());
-    	
-		//WCAG 2.1 Section 1.3.1 - Structure (headers)
-		if(!auditAlreadyExists(audits, AuditName.HEADER_STRUCTURE)) {
-			Audit header_structure_audit = header_structure_auditor.execute(page, audit_record, null);
-			audit_record_service.addAudit(audit_record_msg.getPageAuditId(), header_structure_audit.getId());
+		catch(IOException e) {
+			log.warn("Invalid Pub/Sub message data encoding", e);
+			return new ResponseEntity<String>(INVALID_ENCODING_MESSAGE, HttpStatus.BAD_REQUEST);
 		}
 
-		if(!auditAlreadyExists(audits, AuditName.TABLE_STRUCTURE)) {
-			Audit table_structure_audit = table_structure_auditor.execute(page, audit_record, null);
-			audit_record_service.addAudit(audit_record_msg.getPageAuditId(), table_structure_audit.getId());
+		if(async_intake) {
+			PageAuditMessage queued_msg = audit_record_msg;
+			if(!audit_intake_queue.submit(() -> auditPageInBackground(queued_msg))) {
+				log.warn("Audit intake queue is full; rejecting audit record "+audit_record_msg.getPageAuditId());
+				return new ResponseEntity<String>("Audit queue is full, retry later", HttpStatus.TOO_MANY_REQUESTS);
+			}
+			return new ResponseEntity<String>("Accepted page audit for processing", HttpStatus.ACCEPTED);
 		}
 
-		if(!auditAlreadyExists(audits, AuditName.FORM_STRUCTURE)) {
-			Audit form_structure_audit = form_structure_auditor.execute(page, audit_record, null);
-			audit_record_service.addAudit(audit_record_msg.getPageAuditId(), form_structure_audit.getId());
+		return auditPage(audit_record_msg);
+	}
+
+	/**
+	 * Receives a Pub/Sub message whose data is a JSON array of {@link PageAuditMessage}s and
+	 * audits every referenced page, {@code audit.batch.workers} pages at a time.
+	 *
+	 * <p>Each page is audited exactly as by {@link #receiveMessage(Body)} and publishes its own
+	 * progress updates. Messages repeating an audit record already in the batch are ignored.
+	 * The audit records, page states and existing audits of the whole batch are loaded
+	 * together before any page is audited, with the {@link AuditRecordBatchLoader} when there
+	 * is one.
+	 * Once every page is done, one summary {@link AuditProgressUpdate} per account in the batch
+	 * is published at {@link AuditLevel#DOMAIN} level, identified by the account's first audit
+	 * record in the batch, with the fraction of that account's pages that were audited.</p>
+	 *
+	 * <p>When {@code audit.intake.async} is enabled the pages are queued on the
+	 * {@link AuditIntakeQueue}, all or none of them, and audited after the message has been
+	 * acknowledged. Otherwise they are audited while the push request waits, and only pages
+	 * that can finish within {@code audit.batch.time-budget-ms} of receiving the message are
+	 * started, so the response arrives before the subscription's ack deadline.</p>
+	 *
+	 * @param body the Pub/Sub push message wrapper; must not be {@code null}
+	 * @return {@code 200 OK} if every page was audited or its audit record does not exist,
+	 *         {@code 202 ACCEPTED} once queued in async mode,
+	 *         {@code 400 BAD_REQUEST} for invalid input,
+	 *         {@code 413 PAYLOAD_TOO_LARGE} if the batch has more than
+	 *         {@code audit.batch.max-size} messages, or in async mode more than
+	 *         {@code audit.intake.queue-capacity},
+	 *         {@code 429 TOO_MANY_REQUESTS} if the async queue has no room for the batch,
+	 *         {@code 500 INTERNAL_SERVER_ERROR} if any page failed, or
+	 *         {@code 503 SERVICE_UNAVAILABLE} if pages were left for lack of time, so that
+	 *         Pub/Sub redelivers the batch; pages already audited are skipped on redelivery
+	 *
+	 * @pre {@code body != null && body.getMessage() != null}
+	 * @pre {@code body.getMessage().getData()} is a valid Base64-encoded JSON array of
+	 *      {@link PageAuditMessage}s
+	 */
+	@RequestMapping(value = "/batch", method = RequestMethod.POST)
+	public ResponseEntity<String> receiveBatch(@RequestBody Body body)
+			throws ExecutionException, InterruptedException
+	{
+		String data;
+		try {
+			data = requireData(body);
+		}
+		catch(IllegalArgumentException e) {
+			return new ResponseEntity<String>(e.getMessage(), HttpStatus.BAD_REQUEST);
 		}
 
-		if(!auditAlreadyExists(audits, AuditName.ORIENTATION)) {
-			Audit orientation_audit = orientationAudit.execute(page, audit_record, null);
-			audit_record_service.addAudit(audit_record_msg.getPageAuditId(), orientation_audit.getId());
+		PageAuditMessage[] batch_msgs;
+		try {
+			batch_msgs = AuditMessageCodec.readPageAuditBatch(data);
+		}
+		catch(JsonProcessingException e) {
+			log.warn("Invalid Pub/Sub batch payload", e);
+			return new ResponseEntity<String>("Invalid Pub/Sub message: payload must be a JSON array of PageAuditMessage", HttpStatus.BAD_REQUEST);
+		}
+		catch(IOException e) {
+			log.warn("Invalid Pub/Sub message data encoding", e);
+			return new ResponseEntity<String>(INVALID_ENCODING_MESSAGE, HttpStatus.BAD_REQUEST);
+		}
+		if(batch_msgs == null || batch_msgs.length == 0) {
+			return new ResponseEntity<String>("Invalid Pub/Sub message: batch is empty", HttpStatus.BAD_REQUEST);
+		}
+		if(batch_msgs.length > batch_max_size) {
+			return new ResponseEntity<String>("Batch has " + batch_msgs.length + " messages; at most " + batch_max_size + " are accepted", HttpStatus.PAYLOAD_TOO_LARGE);
 		}
 
-		if(!auditAlreadyExists(audits, AuditName.INPUT_PURPOSE)) {
-			Audit input_purpose_audit = inputPurposeAudit.execute(page, audit_record, null);
-			audit_record_service.addAudit(audit_record_msg.getPageAuditId(), input_purpose_audit.getId());
+		Map<Long, PageAuditMessage> page_msgs = new LinkedHashMap<>();
+		for(PageAuditMessage page_msg : batch_msgs) {
+			if(page_msg == null) {
+				return new ResponseEntity<String>("Invalid Pub/Sub message: batch contains a null message", HttpStatus.BAD_REQUEST);
+			}
+			page_msgs.putIfAbsent(page_msg.getPageAuditId(), page_msg);
 		}
+		if(async_intake) {
+			return queueBatch(page_msgs);
+		}
+		return auditBatch(page_msgs);
+	}
 
-		if(!auditAlreadyExists(audits, AuditName.IDENTIFY_PURPOSE)) {
-			Audit identify_purpose_audit = identifyPurposeAudit.execute(page, audit_record, null);
-			audit_record_service.addAudit(audit_record_msg.getPageAuditId(), identify_purpose_audit.getId());
+	/**
+	 * Queues every page of a batch on the {@link AuditIntakeQueue}, together or not at all.
+	 * The inputs of the whole batch are loaded by the first page a worker picks up, and the
+	 * summary updates are published once the last page is done.
+	 *
+	 * @return {@code 202 ACCEPTED} once queued, {@code 413 PAYLOAD_TOO_LARGE} if the batch has
+	 *         more pages than the queue can ever hold, {@code 429 TOO_MANY_REQUESTS} if the
+	 *         queue has no room for all of them now
+	 */
+	private ResponseEntity<String> queueBatch(Map<Long, PageAuditMessage> page_msgs) {
+		if(page_msgs.size() > audit_intake_queue.getCapacity()) {
+			return new ResponseEntity<String>("Batch has " + page_msgs.size() + " pages; at most " + audit_intake_queue.getCapacity() + " are accepted with async intake", HttpStatus.PAYLOAD_TOO_LARGE);
 		}
+		BatchInputs batch_inputs = new BatchInputs(page_msgs.keySet());
+		BatchSummary summary = new BatchSummary(page_msgs.values());
+		List<Runnable> page_tasks = new ArrayList<>(page_msgs.size());
+		for(PageAuditMessage page_msg : page_msgs.values()) {
+			page_tasks.add(() -> {
+				if(!summary.record(page_msg, auditBatchPage(page_msg, batch_inputs::get))) {
+					return;
+				}
+				log.info(summary.describe());
+				try {
+					summary.publish();
+				}
+				catch(InterruptedException e) {
+					Thread.currentThread().interrupt();
+					log.warn("Publishing the summary of a queued batch was interrupted");
+				}
+				catch(ExecutionException e) {
+					log.error("Failed to publish the summary of a queued batch", e);
+				}
+			});
+		}
+		if(!audit_intake_queue.submitAll(page_tasks)) {
+			log.warn("Audit intake queue is full; rejecting batch of {} pages", page_msgs.size());
+			return new ResponseEntity<String>("Audit queue is full, retry later", HttpStatus.TOO_MANY_REQUESTS);
+		}
+		log.info("Queued batch of {} pages", page_msgs.size());
+		return new ResponseEntity<String>("Accepted " + page_msgs.size() + " page audits for processing", HttpStatus.ACCEPTED);
+	}
 
-		if(!auditAlreadyExists(audits, AuditName.USE_OF_COLOR)) {
-			Audit use_of_color_audit = useOfColorAudit.execute(page, audit_record, null);
-			audit_record_service.addAudit(audit_record_msg.getPageAuditId(), use_of_color_audit.getId());
+	/**
+	 * Audits every page of a batch while the push request waits, {@code audit.batch.workers}
+	 * pages at a time, within {@code audit.batch.time-budget-ms} of receiving it. A page is
+	 * only started while it can still finish within the budget, counting its page deadline and
+	 * its wait for concurrent deliveries; the others are deferred to a redelivery.
+	 *
+	 * @return {@code 200 OK} if every page was audited or its audit record does not exist,
+	 *         {@code 500 INTERNAL_SERVER_ERROR} if any page failed,
+	 *         {@code 503 SERVICE_UNAVAILABLE} if pages were deferred
+	 */
+	private ResponseEntity<String> auditBatch(Map<Long, PageAuditMessage> page_msgs)
+			throws ExecutionException, InterruptedException
+	{
+		long received_at = System.nanoTime();
+		long page_budget_ms = page_audit_executor.getPageDeadlineMs() + duplicate_wait_ms;
+		if(batch_time_budget_ms <= page_budget_ms) {
+			throw new IllegalArgumentException("audit.batch.time-budget-ms must be greater than audit.executor.page-deadline-ms plus audit.idempotency.duplicate-wait-ms");
 		}
+		long last_start = received_at + TimeUnit.MILLISECONDS.toNanos(batch_time_budget_ms - page_budget_ms);
+		log.info("Auditing batch of {} pages", page_msgs.size());
+
+		Map<Long, PageAuditInputs> page_inputs = loadPageAuditInputs(page_msgs.keySet());
+		BatchSummary summary = new BatchSummary(page_msgs.values());
+		List<Callable<Void>> page_tasks = new ArrayList<>(page_msgs.size());
+		for(PageAuditMessage page_msg : page_msgs.values()) {
+			page_tasks.add(() -> {
+				HttpStatus status = System.nanoTime() - last_start > 0
+						? HttpStatus.SERVICE_UNAVAILABLE
+						: auditBatchPage(page_msg, () -> page_inputs);
+				summary.record(page_msg, status);
+				return null;
+			});
+		}
+		page_batch_executor.runAll(page_tasks);
+		summary.publish();
 
-		if(!auditAlreadyExists(audits, AuditName.AUDIO_CONTROL)) {
-			Audit audio_control_audit = audioControlAudit.execute(page, audit_record, null);
-			audit_record_service.addAudit(audit_record_msg.getPageAuditId(), audio_control_audit.getId());
+		return new ResponseEntity<String>(summary.describe(), summary.status());
+	}
+
+	/**
+	 * Audits one page of a batch. A page whose inputs could not be loaded with the batch loads
+	 * them itself, and fails alone.
+	 *
+	 * @return status of the page's audit; failures are logged and reported as
+	 *         {@code 500 INTERNAL_SERVER_ERROR}
+	 */
+	private HttpStatus auditBatchPage(PageAuditMessage page_msg, Supplier<Map<Long, PageAuditInputs>> batch_inputs) {
+		long page_audit_id = page_msg.getPageAuditId();
+		try {
+			return auditPage(page_msg, () -> {
+				Map<Long, PageAuditInputs> page_inputs = batch_inputs.get();
+				return page_inputs.containsKey(page_audit_id) ? page_inputs.get(page_audit_id) : loadPageAuditInputs(page_audit_id);
+			}).getStatusCode();
+		}
+		catch(InterruptedException e) {
+			Thread.currentThread().interrupt();
+			log.warn("Page audit for audit record "+page_msg.getPageAuditId()+" in batch was interrupted");
+			return HttpStatus.INTERNAL_SERVER_ERROR;
+		}
+		catch(Exception e) {
+			log.error("Page audit for audit record "+page_msg.getPageAuditId()+" in batch failed", e);
+			return HttpStatus.INTERNAL_SERVER_ERROR;
 		}
+	}
 
-		if(!auditAlreadyExists(audits, AuditName.VISUAL_PRESENTATION)) {
-			Audit visual_presentation_audit = visualPresentationAudit.execute(page, audit_record, null);
-			audit_record_service.addAudit(audit_record_msg.getPageAuditId(), visual_presentation_audit.getId());
+	/**
+	 * Returns the data of a Pub/Sub push message, still Base64 encoded.
+	 *
+	 * @return the non-empty message data
+	 *
+	 * @throws IllegalArgumentException if the message or its data is missing; the message
+	 *                                  describes the problem to the sender
+	 */
+	private String requireData(Body body) {
+		if(body == null || body.getMessage() == null) {
+			throw new IllegalArgumentException("Invalid Pub/Sub message: body.message is required");
 		}
 
-		if(!auditAlreadyExists(audits, AuditName.REFLOW)) {
-			Audit reflow_audit = reflowAudit.execute(page, audit_record, null);
-			audit_record_service.addAudit(audit_record_msg.getPageAuditId(), reflow_audit.getId());
+		String data = body.getMessage().getData();
+		if(data == null || data.isEmpty()) {
+			throw new IllegalArgumentException("Invalid Pub/Sub message: message.data is required");
 		}
+		return data;
+	}
 
-		if(!auditAlreadyExists(audits, AuditName.TEXT_SPACING)) {
-			Audit text_spacing_audit = textSpacingAudit.execute(page, audit_record, null);
-			audit_record_service.addAudit(audit_record_msg.getPageAuditId(), text_spacing_audit.getId());
+	/**
+	 * Logs the start of one in every {@code audit.intake.log-sample-rate} received messages,
+	 * at most {@code audit.intake.log-max-chars} characters of it, so busy instances do not
+	 * log every payload in full.
+	 */
+	private void logSampled(String data) {
+		if(log_sample_rate <= 0 || !log.isInfoEnabled()) {
+			return;
 		}
+		if(received_messages.getAndIncrement() % log_sample_rate == 0) {
+			log.info("page audit msg received (1 in {} logged) = {}", log_sample_rate, AuditMessageCodec.preview(data, log_max_chars));
+		}
+	}
 
-		/*********************************
-			WCAG 2.1 SECTION 3
-		**********************************/
-		if(!auditAlreadyExists(audits, AuditName.PAGE_LANGUAGE)) {
-			Audit page_language_audit = pageLanguageAudit.execute(page, audit_record, null);
-			audit_record_service.addAudit(audit_record_msg.getPageAuditId(), page_language_audit.getId());
+	/**
+	 * Runs a page audit accepted in async mode. There is no caller to report failures to, so
+	 * they are logged.
+	 *
+	 * @pre {@code audit_record_msg != null}
+	 */
+	private void auditPageInBackground(PageAuditMessage audit_record_msg) {
+		try {
+			ResponseEntity<String> response = auditPage(audit_record_msg);
+			if(!response.getStatusCode().is2xxSuccessful()) {
+				log.warn("Page audit for audit record "+audit_record_msg.getPageAuditId()+" failed :: "+response.getBody());
+			}
 		}
+		catch(InterruptedException e) {
+			Thread.currentThread().interrupt();
+			log.warn("Page audit for audit record "+audit_record_msg.getPageAuditId()+" was interrupted");
+		}
+		catch(Exception e) {
+			log.error("Page audit for audit record "+audit_record_msg.getPageAuditId()+" failed", e);
+		}
+	}
 
+	/**
+	 * Executes every pending audit for the page referenced by a decoded message and publishes
+	 * the completion update.
+	 *
+	 * <p>Each audit is claimed through the {@link AuditIdempotencyGuard} first. Audits another
+	 * delivery of the same message is already running are waited for rather than run again, for
+	 * at most {@code audit.idempotency.duplicate-wait-ms}, and a delivery whose audits all
+	 * completed recently is answered without reading the database.</p>
+	 *
+	 * @return {@code 200 OK} on success, {@code 404 NOT_FOUND} if the audit record does not
+	 *         exist, {@code 500 INTERNAL_SERVER_ERROR} on serialisation failures or if a
+	 *         concurrent delivery running some of the audits failed,
+	 *         {@code 503 SERVICE_UNAVAILABLE} if that delivery is still running them, so that
+	 *         Pub/Sub redelivers the message
+	 *
+	 * @pre {@code audit_record_msg != null}
+	 */
+	private ResponseEntity<String> auditPage(PageAuditMessage audit_record_msg)
+			throws ExecutionException, InterruptedException
+	{
+		return auditPage(audit_record_msg, () -> loadPageAuditInputs(audit_record_msg.getPageAuditId()));
+	}
 
-		//************************************************
-		//Original UX audits section
-		//*************************************************
+	/**
+	 * Loads the audit record, page state and existing audits of each of
+	 * {@code audit_record_ids} with the {@link AuditRecordBatchLoader}, or one record at a time
+	 * through the services when there is none.
+	 *
+	 * @return inputs keyed by audit record id, {@code null} for records that do not exist;
+	 *         records whose inputs could not be loaded have no entry
+	 */
+	private Map<Long, PageAuditInputs> loadPageAuditInputs(Collection<Long> audit_record_ids) {
+		Map<Long, PageAuditInputs> inputs = new LinkedHashMap<>();
+		if(audit_record_batch_loader != null) {
+			Map<Long, PageAuditInputs> loaded;
+			try {
+				loaded = audit_record_batch_loader.loadAll(audit_record_ids);
+			}
+			catch(RuntimeException e) {
+				log.warn("Failed to load inputs of {} audit records in one batch :: {}", audit_record_ids.size(), e.getMessage());
+				return inputs;
+			}
+			for(Long audit_record_id : audit_record_ids) {
+				inputs.put(audit_record_id, loaded.get(audit_record_id));
+			}
+			return inputs;
+		}
+		for(Long audit_record_id : audit_record_ids) {
+			try {
+				inputs.put(audit_record_id, loadPageAuditInputs(audit_record_id));
+			}
+			catch(RuntimeException e) {
+				log.warn("Failed to load inputs of audit record {} :: {}", audit_record_id, e.getMessage());
+			}
+		}
+		return inputs;
+	}
 
-		if(!auditAlreadyExists(audits, AuditName.LINKS)) {
-			Audit link_audit = links_auditor.execute(page, audit_record, null);
-			audit_record_service.addAudit(audit_record_msg.getPageAuditId(), link_audit.getId());
+	/**
+	 * @return inputs of one audit record loaded through the services, or {@code null} if the
+	 *         record does not exist
+	 */
+	private PageAuditInputs loadPageAuditInputs(long audit_record_id) {
+		AuditRecord audit_record = audit_record_service.findById(audit_record_id).orElse(null);
+		if(audit_record == null) {
+			return null;
 		}
+		return new PageAuditInputs(audit_record,
+								   page_state_service.getPageStateForAuditRecord(audit_record.getId()),
+								   audit_record_service.getAllAudits(audit_record.getId()));
+	}
 
-		if(!auditAlreadyExists(audits, AuditName.TITLES)) {
-    		Audit title_and_headers = title_and_header_auditor.execute(page, audit_record, null);
-    		audit_record_service.addAudit(audit_record_msg.getPageAuditId(), title_and_headers.getId());
+	/**
+	 * Audits one page, loading its inputs only once the idempotency check has passed.
+	 *
+	 * @param page_inputs supplies the inputs of the page's audit record, {@code null} if it
+	 *                    does not exist
+	 */
+	private ResponseEntity<String> auditPage(PageAuditMessage audit_record_msg, Supplier<PageAuditInputs> page_inputs)
+			throws ExecutionException, InterruptedException
+	{
+		long page_audit_id = audit_record_msg.getPageAuditId();
+		Map<AuditName, IExecutablePageStateAudit> page_audits = pageAudits();
+		if(audit_idempotency_guard.isCompleted(page_audit_id, page_audits.keySet())) {
+			log.info("Ignoring duplicate delivery of completed audit record "+page_audit_id);
+			return new ResponseEntity<String>("Information architecture audit already completed", HttpStatus.OK);
 		}
 
-		if(!auditAlreadyExists(audits, AuditName.ENCRYPTED)) {
-			Audit security_audit = security_auditor.execute(page, audit_record, null);
-			audit_record_service.addAudit(audit_record_msg.getPageAuditId(), security_audit.getId());
+		PageAuditInputs inputs = page_inputs.get();
+		if(inputs == null) {
+			return new ResponseEntity<String>("Audit record not found for id: " + audit_record_msg.getPageAuditId(), HttpStatus.NOT_FOUND);
 		}
+		AuditRecord audit_record = inputs.getAuditRecord();
+		PageState page = inputs.getPageState();
+		Set<Audit> audits = inputs.getAudits();
+
+		String content_key = audit_result_cache.contentKey(page);
+		Map<AuditName, IExecutablePageStateAudit> pending_audits = new LinkedHashMap<>();
+		Map<AuditName, CachedAudit> cached_audits = new LinkedHashMap<>();
+		Map<AuditName, CompletableFuture<Long>> concurrent_audits = new LinkedHashMap<>();
+		Set<AuditName> owned_audits = new HashSet<>();
+		Set<AuditName> incomplete_audits = new HashSet<>();
+		AuditProgressPublisher.Tracker progress_tracker = null;
+		try {
+			for(Map.Entry<AuditName, IExecutablePageStateAudit> entry : page_audits.entrySet()) {
+				if(auditAlreadyExists(audits, entry.getKey())) {
+					continue;
+				}
+				CompletableFuture<Long> concurrent_audit = audit_idempotency_guard.claim(page_audit_id, entry.getKey());
+				if(concurrent_audit != null) {
+					concurrent_audits.put(entry.getKey(), concurrent_audit);
+					continue;
+				}
+				owned_audits.add(entry.getKey());
+				CachedAudit cached_audit = audit_result_cache.find(content_key, entry.getKey());
+				if(cached_audit != null) {
+					cached_audits.put(entry.getKey(), cached_audit);
+				}
+				else {
+					pending_audits.put(entry.getKey(), entry.getValue());
+				}
+			}
 
-		if(!auditAlreadyExists(audits, AuditName.METADATA)) {
-			Audit metadata = metadata_auditor.execute(page, audit_record, null);
-			audit_record_service.addAudit(audit_record_msg.getPageAuditId(), metadata.getId());
+			AuditProgressPublisher.Tracker tracker = audit_progress_publisher.start(audit_record_msg.getAccountId(),
+																					page_audit_id,
+																					page_audits.size(),
+																					page_audits.size() - pending_audits.size() - concurrent_audits.size());
+			progress_tracker = tracker;
+			PersistenceBuffer persistence_buffer = new PersistenceBuffer(transaction_manager, persistence_bulk_writer, persistence_flush_size);
+			PageContext page_context = new PageContext(page, page_state_service, persistence_buffer);
+			PageAuditResults results = page_audit_executor.executeAll(pending_audits,
+																	  page_context,
+																	  audit_record,
+																	  (audit_name, completed) -> tracker.auditFinished(completed));
+			// each record gets its own copy of a cached audit, related to this page's element states
+			Map<AuditName, Audit> copied_audits = new LinkedHashMap<>();
+			for(Map.Entry<AuditName, CachedAudit> entry : cached_audits.entrySet()) {
+				copied_audits.put(entry.getKey(), page_context.saveAudit(entry.getValue().copyFor(page_context, element_state_service), audit_service));
+			}
+			// audits still running past their deadline can no longer queue writes for this page
+			persistence_buffer.close();
+			for(Map.Entry<AuditName, Audit> entry : results.getCompleted().entrySet()) {
+				Audit saved_audit = persistence_buffer.resolve(entry.getValue());
+				countSavedIssueMessages(entry.getKey(), saved_audit);
+				Long audit_id = saved_audit.getId();
+				audit_record_service.addAudit(audit_record_msg.getPageAuditId(), audit_id);
+				if(audit_id != null) {
+					audit_result_cache.store(content_key, entry.getKey(), saved_audit);
+				}
+				audit_idempotency_guard.complete(page_audit_id, entry.getKey(), audit_id);
+				owned_audits.remove(entry.getKey());
+			}
+			// incomplete audits are recorded so the page shows why they are missing, but never cached
+			for(Map.Entry<AuditName, Audit> entry : results.getIncomplete().entrySet()) {
+				Long audit_id = persistence_buffer.resolve(entry.getValue()).getId();
+				audit_record_service.addAudit(audit_record_msg.getPageAuditId(), audit_id);
+				audit_idempotency_guard.complete(page_audit_id, entry.getKey(), audit_id);
+				owned_audits.remove(entry.getKey());
+				incomplete_audits.add(entry.getKey());
+			}
+			for(Map.Entry<AuditName, Audit> entry : copied_audits.entrySet()) {
+				Long audit_id = persistence_buffer.resolve(entry.getValue()).getId();
+				audit_record_service.addAudit(audit_record_msg.getPageAuditId(), audit_id);
+				audit_idempotency_guard.complete(page_audit_id, entry.getKey(), audit_id);
+				owned_audits.remove(entry.getKey());
+			}
+			if(!cached_audits.isEmpty()) {
+				log.info("Reused {} cached audits for unchanged page {}", cached_audits.size(), page.getUrl());
+			}
+		}
+		finally {
+			if(progress_tracker != null) {
+				progress_tracker.close();
+			}
+			// audits that were not recorded, for example because a write failed, may be run by a redelivery
+			for(AuditName audit_name : owned_audits) {
+				audit_idempotency_guard.release(page_audit_id, audit_name,
+												new CancellationException(audit_name+" audit did not complete"));
+			}
+		}
+
+		// the owner may take longer than this delivery may wait, so give up before Pub/Sub redelivers it
+		long wait_deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(duplicate_wait_ms);
+		for(Map.Entry<AuditName, CompletableFuture<Long>> entry : concurrent_audits.entrySet()) {
+			try {
+				entry.getValue().get(Math.max(0, wait_deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+			}
+			catch(TimeoutException e) {
+				log.info("Concurrent delivery of audit record "+page_audit_id+" is still running "+entry.getKey()+"; asking for redelivery");
+				return new ResponseEntity<String>("Concurrent delivery is still running " + entry.getKey() + " audit, retry later", HttpStatus.SERVICE_UNAVAILABLE);
+			}
+			catch(ExecutionException e) {
+				log.warn("Concurrent delivery of audit record "+page_audit_id+" failed to complete "+entry.getKey());
+				return new ResponseEntity<String>("Concurrent delivery failed to complete " + entry.getKey() + " audit", HttpStatus.INTERNAL_SERVER_ERROR);
+			}
+		}
+		if(!concurrent_audits.isEmpty()) {
+			log.info("Waited for {} audits run by a concurrent delivery of audit record {}", concurrent_audits.size(), page_audit_id);
 		}
 		
+		String completion_message = "Completed information architecture audit";
+		if(!incomplete_audits.isEmpty()) {
+			completion_message += "; incomplete audits: " + incomplete_audits.stream().map(AuditName::name).sorted().collect(Collectors.joining(", "));
+		}
+		double progress = (double)(page_audits.size() - incomplete_audits.size()) / page_audits.size();
 		AuditProgressUpdate audit_update = new AuditProgressUpdate(audit_record_msg.getAccountId(),
-															1.0,
-															"Completed information architecture audit",
+															progress,
+															completion_message,
 															AuditCategory.INFORMATION_ARCHITECTURE,
 															AuditLevel.PAGE,
 															audit_record_msg.getPageAuditId());
 
 		String audit_record_json;
 		try {
-			audit_record_json = mapper.writeValueAsString(audit_update);
+			audit_record_json = AuditMessageCodec.writeProgressUpdate(audit_update);
 		}
 		catch(JsonProcessingException e) {
 			log.error("Failed to serialize audit progress update", e);
@@ -289,9 +747,63 @@ public class AuditController {
 
 		audit_update_topic.publish(audit_record_json);
 		
+		if(!incomplete_audits.isEmpty()) {
+			return new ResponseEntity<String>(completion_message, HttpStatus.OK);
+		}
 		return new ResponseEntity<String>("Successfully audited information architecture", HttpStatus.OK);
 	}
 
+	/**
+	 * Counts the issue messages of a persisted audit that were saved, in
+	 * {@code audit.issues.saved} tagged with the {@code audit}.
+	 */
+	private void countSavedIssueMessages(AuditName audit_name, Audit saved_audit) {
+		if(saved_audit.getMessages() == null) {
+			return;
+		}
+		long saved = saved_audit.getMessages().stream().filter(message -> message != null && message.getId() != null).count();
+		meter_registry.counter("audit.issues.saved", "audit", audit_name.name()).increment(saved);
+	}
+
+	/**
+	 * Builds the ordered set of page audits run by this service, keyed by {@link AuditName}.
+	 *
+	 * @return audits in execution order; never {@code null}
+	 *
+	 * @post returned map contains one entry per audit field of this controller
+	 */
+	private Map<AuditName, IExecutablePageStateAudit> pageAudits() {
+		Map<AuditName, IExecutablePageStateAudit> page_audits = new LinkedHashMap<>();
+
+		//WCAG 2.1 Section 1.3.1 - Structure (headers)
+		page_audits.put(AuditName.HEADER_STRUCTURE, header_structure_auditor);
+		page_audits.put(AuditName.TABLE_STRUCTURE, table_structure_auditor);
+		page_audits.put(AuditName.FORM_STRUCTURE, form_structure_auditor);
+		page_audits.put(AuditName.ORIENTATION, orientationAudit);
+		page_audits.put(AuditName.INPUT_PURPOSE, inputPurposeAudit);
+		page_audits.put(AuditName.IDENTIFY_PURPOSE, identifyPurposeAudit);
+		page_audits.put(AuditName.USE_OF_COLOR, useOfColorAudit);
+		page_audits.put(AuditName.AUDIO_CONTROL, audioControlAudit);
+		page_audits.put(AuditName.VISUAL_PRESENTATION, visualPresentationAudit);
+		page_audits.put(AuditName.REFLOW, reflowAudit);
+		page_audits.put(AuditName.TEXT_SPACING, textSpacingAudit);
+
+		/*********************************
+			WCAG 2.1 SECTION 3
+		**********************************/
+		page_audits.put(AuditName.PAGE_LANGUAGE, pageLanguageAudit);
+
+		//************************************************
+		//Original UX audits section
+		//*************************************************
+		page_audits.put(AuditName.LINKS, links_auditor);
+		page_audits.put(AuditName.TITLES, title_and_header_auditor);
+		page_audits.put(AuditName.ENCRYPTED, security_auditor);
+		page_audits.put(AuditName.METADATA, metadata_auditor);
+
+		return page_audits;
+	}
+
 	/**
 	 * Checks whether any of the provided {@link Audit audits} already have the given
 	 * {@link AuditName}.
@@ -316,4 +828,104 @@ public class AuditController {
 		}
 		return false;
 	}
+
+	/**
+	 * Inputs of the pages of a queued batch, loaded once by the first page that needs them.
+	 */
+	private final class BatchInputs {
+		private final Collection<Long> audit_record_ids;
+		private Map<Long, PageAuditInputs> inputs;
+
+		BatchInputs(Collection<Long> audit_record_ids) {
+			this.audit_record_ids = new ArrayList<>(audit_record_ids);
+		}
+
+		synchronized Map<Long, PageAuditInputs> get() {
+			if(inputs == null) {
+				inputs = loadPageAuditInputs(audit_record_ids);
+			}
+			return inputs;
+		}
+	}
+
+	/**
+	 * Outcome of the pages of a batch, counted per account for the summary updates.
+	 *
+	 * <p><b>Class invariant:</b> every account of the batch has an entry in
+	 * {@code account_pages} whose first count is its number of pages in the batch.</p>
+	 */
+	private final class BatchSummary {
+		// [0] pages of the account in the batch, [1] pages audited
+		private final Map<Long, int[]> account_pages = new LinkedHashMap<>();
+		private final Map<Long, Long> account_first_record = new LinkedHashMap<>();
+		private final int pages;
+		private int remaining;
+		private int audited;
+		private int not_found;
+		private int failed;
+		private int deferred;
+
+		BatchSummary(Collection<PageAuditMessage> page_msgs) {
+			for(PageAuditMessage page_msg : page_msgs) {
+				account_pages.computeIfAbsent(page_msg.getAccountId(), account_id -> new int[2])[0]++;
+				account_first_record.putIfAbsent(page_msg.getAccountId(), page_msg.getPageAuditId());
+			}
+			this.pages = page_msgs.size();
+			this.remaining = pages;
+		}
+
+		/**
+		 * @return {@code true} once every page of the batch has been recorded
+		 */
+		synchronized boolean record(PageAuditMessage page_msg, HttpStatus status) {
+			if(status.is2xxSuccessful()) {
+				audited++;
+				account_pages.get(page_msg.getAccountId())[1]++;
+			}
+			else if(status == HttpStatus.NOT_FOUND) {
+				not_found++;
+			}
+			else if(status == HttpStatus.SERVICE_UNAVAILABLE) {
+				deferred++;
+			}
+			else {
+				failed++;
+			}
+			return --remaining == 0;
+		}
+
+		synchronized HttpStatus status() {
+			if(failed > 0) {
+				return HttpStatus.INTERNAL_SERVER_ERROR;
+			}
+			return deferred > 0 ? HttpStatus.SERVICE_UNAVAILABLE : HttpStatus.OK;
+		}
+
+		synchronized String describe() {
+			String description = "Audited " + audited + " of " + pages + " pages; " + not_found + " not found; " + failed + " failed";
+			return deferred > 0 ? description + "; " + deferred + " deferred" : description;
+		}
+
+		/**
+		 * Publishes one summary update per account with the fraction of its pages that were
+		 * audited.
+		 */
+		synchronized void publish() throws ExecutionException, InterruptedException {
+			for(Map.Entry<Long, int[]> entry : account_pages.entrySet()) {
+				int[] counts = entry.getValue();
+				AuditProgressUpdate batch_update = new AuditProgressUpdate(entry.getKey(),
+																		   (double)counts[1] / counts[0],
+																		   "Audited information architecture of " + counts[1] + " of " + counts[0] + " pages in batch",
+																		   AuditCategory.INFORMATION_ARCHITECTURE,
+																		   AuditLevel.DOMAIN,
+																		   account_first_record.get(entry.getKey()));
+				try {
+					audit_update_topic.publish(AuditMessageCodec.writeProgressUpdate(batch_update));
+				}
+				catch(JsonProcessingException e) {
+					log.error("Failed to serialize batch progress update", e);
+				}
+			}
+		}
+	}
 }
@@ -8,19 +8,19 @@ import java.util.List;
 import java.util.Objects;
 import java.util.Set;
 
-import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
-import org.jsoup.select.Elements;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import com.looksee.audit.informationArchitecture.rules.ElementRule;
+import com.looksee.audit.informationArchitecture.rules.ElementRuleEngine;
+import com.looksee.audit.informationArchitecture.rules.ElementRuleMatches;
 import com.looksee.models.ElementState;
 import com.looksee.models.PageState;
 import com.looksee.models.audit.Audit;
 import com.looksee.models.audit.AuditRecord;
 import com.looksee.models.audit.GenericIssue;
-import com.looksee.models.audit.interfaces.IExecutablePageStateAudit;
 import com.looksee.models.audit.messages.ElementStateIssueMessage;
 import com.looksee.models.audit.messages.UXIssueMessage;
 import com.looksee.models.designsystem.DesignSystem;
@@ -40,7 +40,14 @@ import com.looksee.services.ElementStateService;
  * {@code elementStateService}) are non-null after Spring construction.</p>
  */
 @Component
-public class AudioControlAudit implements IExecutablePageStateAudit {
+public class AudioControlAudit implements IExecutablePageContextAudit {
+
+	// audio[autoplay], video[autoplay]
+	static final ElementRule AUTOPLAY_MEDIA = new ElementRule("audio-control.autoplay-media", Set.of("audio", "video"), Set.of("autoplay"), element -> true);
+	static final ElementRule IFRAMES = ElementRule.forTags("audio-control.iframes", "iframe");
+
+	/** Rules backing {@link #checkMatches(ElementRuleMatches, ElementSelectorIndex)}. */
+	static final ElementRuleEngine RULES = new ElementRuleEngine(List.of(AUTOPLAY_MEDIA, IFRAMES));
 
 	@Autowired
 	private AuditService auditService;
@@ -61,7 +68,7 @@ public class AudioControlAudit implements IExecutablePageStateAudit {
 	 * per WCAG 2.1 Section 1.4.2. Identifies autoplaying media that lacks user
 	 * controls or mute options.
 	 *
-	 * @pre {@code page_state != null} - the page state to audit must be provided
+	 * @pre {@code page_context != null} - the page context to audit must be provided
 	 * @pre {@code audit_record != null} - the parent audit record must be provided
 	 * @post returned {@code Audit} is non-null and has been persisted
 	 *
@@ -69,8 +76,9 @@ public class AudioControlAudit implements IExecutablePageStateAudit {
 	 * @throws URISyntaxException
 	 */
 	@Override
-	public Audit execute(PageState page_state, AuditRecord audit_record, DesignSystem design_system) {
-		Objects.requireNonNull(page_state, "page_state must not be null");
+	public Audit execute(PageContext page_context, AuditRecord audit_record, DesignSystem design_system) {
+		Objects.requireNonNull(page_context, "page_context must not be null");
+		PageState page_state = page_context.getPageState();
 		Objects.requireNonNull(audit_record, "audit_record must not be null");
 
 		//check if page state already had a link audit performed.
@@ -83,11 +91,10 @@ public class AudioControlAudit implements IExecutablePageStateAudit {
 		labels.add("tables");
 		labels.add("wcag");
 		
-		Document jsoup_doc = Jsoup.parse(page_state.getSrc());
-        List<GenericIssue> issues = checkCompliance(jsoup_doc);
+        List<GenericIssue> issues = checkMatches(page_context.getRuleMatches(), page_context.getSelectorIndex());
         
         for(GenericIssue issue: issues){
-            ElementState element_state = elementStateService.findByPageAndCssSelector(page_state.getId(), issue.getCssSelector());
+            ElementState element_state = page_context.findElementState(issue.getCssSelector(), elementStateService);
             UXIssueMessage issue_msg = new ElementStateIssueMessage(Priority.HIGH,
                                                                 issue.getDescription(),
                                                                 issue.getRecommendation(),
@@ -128,7 +135,7 @@ public class AudioControlAudit implements IExecutablePageStateAudit {
 								 true);
 		
 		Objects.requireNonNull(audit, "Postcondition failed: audit must not be null");
-		return auditService.save(audit);
+		return page_context.saveAudit(audit, auditService);
 	}
 
     /**
@@ -147,12 +154,28 @@ public class AudioControlAudit implements IExecutablePageStateAudit {
         if (document == null) {
             throw new IllegalArgumentException("Document must not be null");
         }
-        List<GenericIssue> issues = new ArrayList<>();
+        return checkMatches(RULES.run(document), ElementSelectorIndex.of(document));
+    }
 
-        // Select all audio and video elements
-        Elements audioElements = document.select("audio[autoplay], video[autoplay]");
+    /**
+     * Builds the Section 1.4.2 issues from elements already matched by {@link #RULES}, so the
+     * document does not have to be walked again.
+     *
+     * @pre {@code matches != null}
+     * @pre {@code selectors != null}
+     * @post returned list is non-null (may be empty if no issues are found)
+     *
+     * @param matches matches from an engine that includes {@link #RULES}
+     * @param selectors CSS selectors of the document the matches were found in
+     * @return A list of GenericIssue objects representing any issues found.
+     */
+    public static List<GenericIssue> checkMatches(ElementRuleMatches matches, ElementSelectorIndex selectors) {
+        Objects.requireNonNull(matches, "matches must not be null");
+        Objects.requireNonNull(selectors, "selectors must not be null");
+        List<GenericIssue> issues = new ArrayList<>();
 
-        for (Element element : audioElements) {
+        // Autoplaying audio and video elements
+        for (Element element : matches.get(AUTOPLAY_MEDIA)) {
             boolean hasControls = element.hasAttr("controls");
             boolean hasNoAudio = element.hasAttr("muted");
 
@@ -160,23 +183,21 @@ public class AudioControlAudit implements IExecutablePageStateAudit {
                 issues.add(new GenericIssue(
                         "Autoplaying audio or video found without user controls or mute options.",
                         "Audio Control Violation",
-                        element.cssSelector(),
+                        selectors.cssSelector(element),
                         "Ensure that audio or video elements with autoplay have user controls or are muted."
                 ));
             }
         }
 
         // Check for embedded content (iframes) that might include autoplaying audio
-        Elements iframes = document.select("iframe");
-
-        for (Element iframe : iframes) {
+        for (Element iframe : matches.get(IFRAMES)) {
             if (iframe.hasAttr("src")) {
                 String src = iframe.attr("src");
                 if (src.contains("autoplay=1")) {
                     issues.add(new GenericIssue(
                             "Embedded content with autoplaying audio or video found.",
                             "Audio Control Violation",
-                            iframe.cssSelector(),
+                            selectors.cssSelector(iframe),
                             "Ensure embedded content with autoplay has user controls or the autoplay feature is disabled."
                     ));
                 }
@@ -0,0 +1,257 @@
+package com.looksee.audit.informationArchitecture.audits;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A CSS length or number as it appears in a rendered style, such as {@code 16px},
+ * {@code 1.5em} or {@code 120%}, split into its numeric value and its {@link Unit}.
+ *
+ * <p>Values are read by a scanner that walks the characters once and builds neither
+ * substrings nor regular expressions. Pages reuse a handful of values across thousands of
+ * elements, so {@link #parse} keeps the lengths it has read in a cache keyed by the raw
+ * value; once a value is cached, parsing it again allocates nothing. The cache stops growing
+ * at {@value #MAX_INTERNED} values, after which new values are scanned on every call.</p>
+ *
+ * <p>Font relative units are resolved against the font size passed to
+ * {@link #toPixels(double)}, so {@code 0.1em} of a 20px element is 2px. {@code rem} is
+ * resolved against the browser default root font size of {@value #DEFAULT_FONT_SIZE_PX}px.
+ * Keywords ({@code normal}, {@code auto}), functions ({@code calc(...)}) and unknown units
+ * are {@link #INVALID}, which resolves to 0.</p>
+ *
+ * <p><b>Class invariant:</b> instances are immutable; {@code unit} is non-null for every
+ * instance except {@link #INVALID}.</p>
+ */
+public final class CssLength {
+
+	/** Font size browsers use when a page does not set one, and the root font size for {@code rem}. */
+	public static final double DEFAULT_FONT_SIZE_PX = 16.0;
+
+	/** Largest number of distinct raw values {@link #parse} remembers. */
+	public static final int MAX_INTERNED = 1024;
+
+	/** Value of anything that is not a number with a known unit. */
+	public static final CssLength INVALID = new CssLength(0.0, null);
+
+	private static final double[] POWERS_OF_TEN = {
+		1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+		1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+	};
+
+	private static final ConcurrentMap<String, CssLength> interned = new ConcurrentHashMap<>();
+
+	/**
+	 * Units a length can be given in, with the number of pixels one unit is worth. Font
+	 * relative units are worth that fraction of the element's font size.
+	 */
+	public enum Unit {
+		PX("px", 1.0, false),
+		PT("pt", 96.0 / 72.0, false),
+		PC("pc", 16.0, false),
+		IN("in", 96.0, false),
+		CM("cm", 96.0 / 2.54, false),
+		MM("mm", 96.0 / 25.4, false),
+		Q("q", 96.0 / 101.6, false),
+		REM("rem", DEFAULT_FONT_SIZE_PX, false),
+		EM("em", 1.0, true),
+		EX("ex", 0.5, true),
+		CH("ch", 0.5, true),
+		PERCENT("%", 0.01, true),
+		/** A number without a unit, taken as pixels except where a property says otherwise. */
+		NUMBER("", 1.0, false);
+
+		private static final Unit[] UNITS = values();
+
+		private final String symbol;
+		private final double factor;
+		private final boolean font_relative;
+
+		Unit(String symbol, double factor, boolean font_relative) {
+			this.symbol = symbol;
+			this.factor = factor;
+			this.font_relative = font_relative;
+		}
+
+		public String getSymbol() {
+			return symbol;
+		}
+
+		public boolean isFontRelative() {
+			return font_relative;
+		}
+
+		/**
+		 * @return {@code value} of this unit in pixels for an element with the given font size
+		 */
+		public double toPixels(double value, double font_size_px) {
+			return font_relative ? value * factor * font_size_px : value * factor;
+		}
+
+		/**
+		 * @return unit whose symbol equals {@code raw} between {@code start} and {@code end},
+		 *         ignoring case, or {@code null} if there is none
+		 */
+		private static Unit of(String raw, int start, int end) {
+			int length = end - start;
+			for(Unit unit : UNITS) {
+				if(unit.symbol.length() == length && raw.regionMatches(true, start, unit.symbol, 0, length)) {
+					return unit;
+				}
+			}
+			return null;
+		}
+	}
+
+	private final double value;
+	private final Unit unit;
+
+	private CssLength(double value, Unit unit) {
+		this.value = value;
+		this.unit = unit;
+	}
+
+	/**
+	 * Reads a CSS length, remembering the result for the next time the same value is read.
+	 *
+	 * @pre none (null, empty and invalid values return {@link #INVALID})
+	 * @post returned value is non-null
+	 */
+	public static CssLength parse(String raw) {
+		if(raw == null || raw.isEmpty()) {
+			return INVALID;
+		}
+		CssLength length = interned.get(raw);
+		if(length != null) {
+			return length;
+		}
+
+		length = scan(raw);
+		if(interned.size() < MAX_INTERNED) {
+			interned.putIfAbsent(raw, length);
+		}
+		return length;
+	}
+
+	/**
+	 * Reads a CSS length without consulting or filling the cache: optional surrounding white
+	 * space, an optional sign, digits with an optional fraction and exponent, then a unit.
+	 *
+	 * @pre none (null, empty and invalid values return {@link #INVALID})
+	 * @post returned value is non-null
+	 */
+	public static CssLength scan(String raw) {
+		if(raw == null) {
+			return INVALID;
+		}
+		int end = raw.length();
+		int i = 0;
+		while(i < end && Character.isWhitespace(raw.charAt(i))) {
+			i++;
+		}
+		while(end > i && Character.isWhitespace(raw.charAt(end - 1))) {
+			end--;
+		}
+
+		boolean negative = false;
+		if(i < end && (raw.charAt(i) == '-' || raw.charAt(i) == '+')) {
+			negative = raw.charAt(i) == '-';
+			i++;
+		}
+
+		long mantissa = 0;
+		int exponent = 0;
+		int digits = 0;
+		while(i < end && isDigit(raw.charAt(i))) {
+			if(mantissa < 100_000_000_000_000_000L) {
+				mantissa = mantissa * 10 + (raw.charAt(i) - '0');
+			}
+			else {
+				exponent++;
+			}
+			digits++;
+			i++;
+		}
+		if(i < end && raw.charAt(i) == '.') {
+			i++;
+			while(i < end && isDigit(raw.charAt(i))) {
+				if(mantissa < 100_000_000_000_000_000L) {
+					mantissa = mantissa * 10 + (raw.charAt(i) - '0');
+					exponent--;
+				}
+				digits++;
+				i++;
+			}
+		}
+		if(digits == 0) {
+			return INVALID;
+		}
+
+		// an 'e' is an exponent only when digits follow it, otherwise it starts a unit such as em
+		if(i < end && (raw.charAt(i) == 'e' || raw.charAt(i) == 'E')) {
+			int j = i + 1;
+			boolean negative_exponent = false;
+			if(j < end && (raw.charAt(j) == '-' || raw.charAt(j) == '+')) {
+				negative_exponent = raw.charAt(j) == '-';
+				j++;
+			}
+			if(j < end && isDigit(raw.charAt(j))) {
+				int written_exponent = 0;
+				while(j < end && isDigit(raw.charAt(j))) {
+					written_exponent = Math.min(written_exponent * 10 + (raw.charAt(j) - '0'), 1000);
+					j++;
+				}
+				exponent += negative_exponent ? -written_exponent : written_exponent;
+				i = j;
+			}
+		}
+
+		Unit unit = Unit.of(raw, i, end);
+		if(unit == null) {
+			return INVALID;
+		}
+		double value = scale(mantissa, exponent);
+		return new CssLength(negative ? -value : value, unit);
+	}
+
+	public double getValue() {
+		return value;
+	}
+
+	/**
+	 * @return unit of this length, or {@code null} for {@link #INVALID}
+	 */
+	public Unit getUnit() {
+		return unit;
+	}
+
+	public boolean isValid() {
+		return unit != null;
+	}
+
+	/**
+	 * @return this length in pixels for an element whose font size is {@code font_size_px},
+	 *         or 0 if it is {@link #INVALID}
+	 */
+	public double toPixels(double font_size_px) {
+		return unit == null ? 0.0 : unit.toPixels(value, font_size_px);
+	}
+
+	@Override
+	public String toString() {
+		return unit == null ? "invalid" : value + unit.symbol;
+	}
+
+	private static boolean isDigit(char c) {
+		return c >= '0' && c <= '9';
+	}
+
+	private static double scale(long mantissa, int exponent) {
+		if(exponent == 0 || mantissa == 0) {
+			return mantissa;
+		}
+		if(exponent > 0) {
+			return exponent < POWERS_OF_TEN.length ? mantissa * POWERS_OF_TEN[exponent] : mantissa * Math.pow(10, exponent);
+		}
+		return -exponent < POWERS_OF_TEN.length ? mantissa / POWERS_OF_TEN[-exponent] : mantissa / Math.pow(10, -exponent);
+	}
+}
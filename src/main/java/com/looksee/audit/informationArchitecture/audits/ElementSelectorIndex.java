@@ -0,0 +1,203 @@
+package com.looksee.audit.informationArchitecture.audits;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+
+import com.looksee.services.BrowserService;
+
+/**
+ * CSS selector of every element of a page, computed in one top-down walk so that reporting
+ * an issue does not walk the element's ancestors again for each issue.
+ *
+ * <p>The selectors are the ones {@link Element#cssSelector()} returns, since they are matched
+ * against the selectors stored with the page's {@link com.looksee.models.ElementState}s: an
+ * element with an id that is unique in the document is {@code #id}; any other element is its
+ * parent's selector, {@code " > "}, its tag and classes, and {@code :nth-child(n)} when a
+ * sibling matches the same tag and classes. jsoup builds each selector from its parent's by
+ * recursion and selects the parent's children again at every level; here the parent's
+ * selector is already in the table and siblings are counted once per parent. Elements whose
+ * id, tag or classes are not plain CSS identifiers are left to {@link Element#cssSelector()},
+ * as are their descendants.</p>
+ *
+ * <p>XPaths come from {@link BrowserService#getXPath} and are remembered per element, as are
+ * the selectors {@link BrowserService#generateCssSelectorFromXpath} generates from them.</p>
+ *
+ * <p><b>Class invariant:</b> {@code css_selectors} is non-null and never changes after
+ * construction; an instance may be shared by several audit threads.</p>
+ */
+public final class ElementSelectorIndex {
+	private static final Pattern IDENTIFIER = Pattern.compile("[A-Za-z0-9_-]+");
+
+	private final Map<Element, String> css_selectors;
+	private final Map<Element, String> xpaths = Collections.synchronizedMap(new IdentityHashMap<>());
+	private final Map<Element, String> xpath_css_selectors = Collections.synchronizedMap(new IdentityHashMap<>());
+
+	private ElementSelectorIndex(Map<Element, String> css_selectors) {
+		this.css_selectors = css_selectors;
+	}
+
+	/**
+	 * Computes the CSS selector of every element of {@code doc}.
+	 *
+	 * @pre {@code doc != null}
+	 * @post returned value is non-null
+	 */
+	public static ElementSelectorIndex of(Document doc) {
+		Objects.requireNonNull(doc, "doc must not be null");
+
+		List<Element> elements = doc.getAllElements();
+		Map<String, Integer> id_counts = new HashMap<>();
+		for(Element element : elements) {
+			String id = element.id();
+			if(!id.isEmpty()) {
+				id_counts.merge(id, 1, Integer::sum);
+			}
+		}
+
+		Map<Element, String> css_selectors = new IdentityHashMap<>(elements.size() * 2);
+		for(Element parent : elements) {
+			String parent_selector = parent instanceof Document ? null : css_selectors.get(parent);
+			if(!(parent instanceof Document) && parent_selector == null) {
+				// the parent's own selector is left to jsoup, so are its children's
+				continue;
+			}
+
+			List<Element> children = parent.children();
+			Map<String, Integer> component_counts = new HashMap<>();
+			for(int i = 0; i < children.size(); i++) {
+				Element child = children.get(i);
+				String id = child.id();
+				if(!id.isEmpty()) {
+					if(!IDENTIFIER.matcher(id).matches()) {
+						continue;
+					}
+					if(id_counts.get(id) == 1) {
+						css_selectors.put(child, "#" + id);
+						continue;
+					}
+				}
+
+				String component = component(child);
+				if(component == null) {
+					continue;
+				}
+				if(parent_selector == null) {
+					css_selectors.put(child, component);
+					continue;
+				}
+
+				int matching = component_counts.computeIfAbsent(component, c -> countMatching(children, child));
+				StringBuilder selector = new StringBuilder(parent_selector.length() + component.length() + 20)
+						.append(parent_selector).append(" > ").append(component);
+				if(matching > 1) {
+					selector.append(":nth-child(").append(i + 1).append(')');
+				}
+				css_selectors.put(child, selector.toString());
+			}
+		}
+		return new ElementSelectorIndex(css_selectors);
+	}
+
+	/**
+	 * Returns an index with no precomputed selectors, for checking a single element outside a
+	 * {@link PageContext}: selectors come from {@link Element#cssSelector()} and only XPaths
+	 * are remembered.
+	 *
+	 * @post returned value is non-null
+	 */
+	public static ElementSelectorIndex direct() {
+		return new ElementSelectorIndex(Collections.emptyMap());
+	}
+
+	/**
+	 * @return the CSS selector of {@code element}, equal to {@link Element#cssSelector()}
+	 *
+	 * @pre {@code element != null}
+	 * @post returned value is non-null
+	 */
+	public String cssSelector(Element element) {
+		Objects.requireNonNull(element, "element must not be null");
+		String selector = css_selectors.get(element);
+		return selector != null ? selector : element.cssSelector();
+	}
+
+	/**
+	 * @return the XPath {@link BrowserService#getXPath} builds for {@code element}, built at
+	 *         most once per element
+	 *
+	 * @pre {@code element != null}
+	 */
+	public String xpath(Element element) {
+		Objects.requireNonNull(element, "element must not be null");
+		return xpaths.computeIfAbsent(element, BrowserService::getXPath);
+	}
+
+	/**
+	 * @return the CSS selector {@link BrowserService#generateCssSelectorFromXpath} generates
+	 *         from the XPath of {@code element}, generated at most once per element
+	 *
+	 * @pre {@code element != null}
+	 */
+	public String cssSelectorFromXpath(Element element) {
+		Objects.requireNonNull(element, "element must not be null");
+		return xpath_css_selectors.computeIfAbsent(element, e -> BrowserService.generateCssSelectorFromXpath(xpath(e)));
+	}
+
+	/**
+	 * @return tag name and classes of {@code element} as jsoup writes them in a selector, or
+	 *         {@code null} if they are not plain identifiers
+	 */
+	private static String component(Element element) {
+		String tag = element.tagName();
+		if(!tag.equals(element.normalName()) || !IDENTIFIER.matcher(tag).matches()) {
+			return null;
+		}
+		Set<String> classes = element.classNames();
+		if(classes.isEmpty()) {
+			return tag;
+		}
+
+		StringBuilder component = new StringBuilder(tag);
+		for(String class_name : classes) {
+			if(!IDENTIFIER.matcher(class_name).matches()) {
+				return null;
+			}
+			component.append('.').append(class_name);
+		}
+		return component.toString();
+	}
+
+	/**
+	 * @return number of {@code siblings} that {@code " > " + component(element)} selects from
+	 *         their parent, {@code element} included
+	 */
+	private static int countMatching(List<Element> siblings, Element element) {
+		Set<String> classes = element.classNames();
+		int matching = 0;
+		for(Element sibling : siblings) {
+			if(!sibling.normalName().equals(element.normalName())) {
+				continue;
+			}
+			boolean has_classes = true;
+			for(String class_name : classes) {
+				if(!sibling.hasClass(class_name)) {
+					has_classes = false;
+					break;
+				}
+			}
+			if(has_classes) {
+				matching++;
+			}
+		}
+		return matching;
+	}
+}
@@ -0,0 +1,93 @@
+package com.looksee.audit.informationArchitecture.audits;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+import com.looksee.models.ElementState;
+
+/**
+ * In-memory lookup of a page's {@link ElementState}s by CSS selector and by XPath, built from
+ * a single bulk load so that resolving an issue to its element does not need a database
+ * round trip.
+ *
+ * <p>When several element states share a selector or XPath the first one loaded wins, which
+ * matches what a single-row lookup by that key would return.</p>
+ *
+ * <p><b>Class invariant:</b> both maps are non-null, unmodifiable and contain no null keys or
+ * values.</p>
+ */
+public final class ElementStateIndex {
+	private static final ElementStateIndex EMPTY = new ElementStateIndex(Collections.emptyMap(), Collections.emptyMap());
+
+	private final Map<String, ElementState> by_css_selector;
+	private final Map<String, ElementState> by_xpath;
+
+	private ElementStateIndex(Map<String, ElementState> by_css_selector, Map<String, ElementState> by_xpath) {
+		this.by_css_selector = by_css_selector;
+		this.by_xpath = by_xpath;
+	}
+
+	/**
+	 * Indexes the given element states.
+	 *
+	 * @param element_states element states of a single page; null entries and null keys are
+	 *                       skipped
+	 * @return index over {@code element_states}
+	 *
+	 * @pre {@code element_states != null}
+	 * @post returned value is non-null
+	 */
+	public static ElementStateIndex of(Collection<ElementState> element_states) {
+		Objects.requireNonNull(element_states, "element_states must not be null");
+		if(element_states.isEmpty()) {
+			return EMPTY;
+		}
+
+		Map<String, ElementState> css = new HashMap<>(element_states.size() * 2);
+		Map<String, ElementState> xpath = new HashMap<>(element_states.size() * 2);
+		for(ElementState element_state : element_states) {
+			if(element_state == null) {
+				continue;
+			}
+			if(element_state.getCssSelector() != null) {
+				css.putIfAbsent(element_state.getCssSelector(), element_state);
+			}
+			if(element_state.getXpath() != null) {
+				xpath.putIfAbsent(element_state.getXpath(), element_state);
+			}
+		}
+		return new ElementStateIndex(Collections.unmodifiableMap(css), Collections.unmodifiableMap(xpath));
+	}
+
+	/**
+	 * @param css_selector CSS selector, matched exactly
+	 * @return the element state with that selector, or {@code null} if there is none
+	 *
+	 * @pre {@code css_selector != null}
+	 */
+	public ElementState findByCssSelector(String css_selector) {
+		Objects.requireNonNull(css_selector, "css_selector must not be null");
+		return by_css_selector.get(css_selector);
+	}
+
+	/**
+	 * @param xpath XPath, matched exactly
+	 * @return the element state with that XPath, or {@code null} if there is none
+	 *
+	 * @pre {@code xpath != null}
+	 */
+	public ElementState findByXpath(String xpath) {
+		Objects.requireNonNull(xpath, "xpath must not be null");
+		return by_xpath.get(xpath);
+	}
+
+	/**
+	 * @return number of distinct CSS selectors indexed
+	 */
+	public int size() {
+		return by_css_selector.size();
+	}
+}
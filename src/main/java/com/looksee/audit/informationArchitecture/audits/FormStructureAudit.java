@@ -6,7 +6,6 @@ import java.util.List;
 import java.util.Objects;
 import java.util.Set;
 
-import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
 import org.jsoup.select.Elements;
@@ -18,7 +17,6 @@ import com.looksee.models.PageState;
 import com.looksee.models.audit.Audit;
 import com.looksee.models.audit.AuditRecord;
 import com.looksee.models.audit.GenericIssue;
-import com.looksee.models.audit.interfaces.IExecutablePageStateAudit;
 import com.looksee.models.audit.messages.ElementStateIssueMessage;
 import com.looksee.models.audit.messages.UXIssueMessage;
 import com.looksee.models.designsystem.DesignSystem;
@@ -38,7 +36,7 @@ import com.looksee.services.ElementStateService;
  * {@code elementStateService}) are non-null after Spring construction.</p>
  */
 @Component
-public class FormStructureAudit implements IExecutablePageStateAudit {
+public class FormStructureAudit implements IExecutablePageContextAudit {
 
 	@Autowired
 	private AuditService auditService;
@@ -58,13 +56,14 @@ public class FormStructureAudit implements IExecutablePageStateAudit {
 	 *
 	 * Audits form controls on a page for labeling and semantic structure compliance.
 	 *
-	 * @pre {@code page_state != null}
+	 * @pre {@code page_context != null}
 	 * @pre {@code audit_record != null}
 	 * @post returned {@code Audit} is non-null and persisted
 	 */
 	@Override
-	public Audit execute(PageState page_state, AuditRecord audit_record, DesignSystem design_system) {
-		Objects.requireNonNull(page_state, "page_state must not be null");
+	public Audit execute(PageContext page_context, AuditRecord audit_record, DesignSystem design_system) {
+		Objects.requireNonNull(page_context, "page_context must not be null");
+		PageState page_state = page_context.getPageState();
 		Objects.requireNonNull(audit_record, "audit_record must not be null");
 
 		//check if page state already had a link audit performed.
@@ -77,15 +76,15 @@ public class FormStructureAudit implements IExecutablePageStateAudit {
 		labels.add("forms");
 		labels.add("wcag");
 		
-		Document jsoup_doc = Jsoup.parse(page_state.getSrc());
+		Document jsoup_doc = page_context.getDocument();
         List<Element> forms = jsoup_doc.getElementsByTag("form");
         List<GenericIssue> issues = new ArrayList<>();
         for(Element form: forms){
-            issues.addAll(validateForm(form));
+            issues.addAll(validateForm(form, page_context.getSelectorIndex()));
         }
         
         for(GenericIssue issue: issues){
-            ElementState element_state = elementStateService.findByPageAndCssSelector(page_state.getId(), issue.getCssSelector());
+            ElementState element_state = page_context.findElementState(issue.getCssSelector(), elementStateService);
             UXIssueMessage issue_msg = new ElementStateIssueMessage(Priority.HIGH,
                                                                     issue.getDescription(),
                                                                     issue.getRecommendation(),
@@ -126,7 +125,7 @@ public class FormStructureAudit implements IExecutablePageStateAudit {
                                 true);
 
 		Objects.requireNonNull(audit, "Postcondition failed: audit must not be null");
-		return auditService.save(audit);
+		return page_context.saveAudit(audit, auditService);
 	}
 
     /**
@@ -138,7 +137,23 @@ public class FormStructureAudit implements IExecutablePageStateAudit {
      * @return A list of validation messages.
      */
     public static List<GenericIssue> validateForm(Element form) {
+        return validateForm(form, ElementSelectorIndex.direct());
+    }
+
+    /**
+     * Validates a single HTML form element for WCAG 2.1 Section 1.3.1 compliance, taking the
+     * selectors of its controls from {@code selectors}.
+     *
+     * @pre {@code form != null}
+     * @pre {@code selectors != null}
+     * @post returned list is non-null
+     * @param form The form element to validate.
+     * @param selectors CSS selectors of the document {@code form} belongs to
+     * @return A list of validation messages.
+     */
+    public static List<GenericIssue> validateForm(Element form, ElementSelectorIndex selectors) {
         Objects.requireNonNull(form, "form must not be null");
+        Objects.requireNonNull(selectors, "selectors must not be null");
         List<GenericIssue> validationMessages = new ArrayList<>();
 
         // Select all input, select, and textarea elements within the form
@@ -160,13 +175,13 @@ public class FormStructureAudit implements IExecutablePageStateAudit {
                     String description = "Form control with id '" + id + "' is missing an associated label, aria-label, or aria-labelledby attribute.";
                     String title = "Form control is missing label";
                     String recommendation = "Add a <label> element and associate it with the input control, or add either the aria-label or aria-labelledby attribute to the input control.";
-                    validationMessages.add(new GenericIssue(description, title, control.cssSelector(), recommendation));
+                    validationMessages.add(new GenericIssue(description, title, selectors.cssSelector(control), recommendation));
                 } else {
                     //validationMessages.add("Form control with id '" + id + "' uses aria-label or aria-labelledby attributes.");
                     String description = "Form control with id '" + id + "' has an associated label via aria attributes with text: " + ariaLabel;
                     String title = "Form control has associated label!";
                     String recommendation = "";
-                    validationMessages.add(new GenericIssue(description, title, control.cssSelector(), recommendation));
+                    validationMessages.add(new GenericIssue(description, title, selectors.cssSelector(control), recommendation));
                 }
             } else {
                 //validationMessages.add("Form control with id '" + id + "' has an associated label with text: " + label.text());
@@ -174,7 +189,7 @@ public class FormStructureAudit implements IExecutablePageStateAudit {
                 String description = "Form control with id '" + id + "' has an associated label with text: " + label.text();
                 String title = "Form control has associated label!";
                 String recommendation = "";
-                validationMessages.add(new GenericIssue(description, title, control.cssSelector(), recommendation));
+                validationMessages.add(new GenericIssue(description, title, selectors.cssSelector(control), recommendation));
             }
         }
 
@@ -1,27 +1,29 @@
 package com.looksee.audit.informationArchitecture.audits;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 
-import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
-import org.jsoup.select.Elements;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import com.looksee.audit.informationArchitecture.rules.ElementRule;
+import com.looksee.audit.informationArchitecture.rules.ElementRuleEngine;
+import com.looksee.audit.informationArchitecture.rules.ElementRuleMatches;
 import com.looksee.models.ElementState;
 import com.looksee.models.PageState;
 import com.looksee.models.audit.Audit;
 import com.looksee.models.audit.AuditRecord;
-import com.looksee.models.audit.interfaces.IExecutablePageStateAudit;
 import com.looksee.models.audit.messages.ElementStateIssueMessage;
 import com.looksee.models.audit.messages.UXIssueMessage;
 import com.looksee.models.designsystem.DesignSystem;
@@ -44,9 +46,15 @@ import com.looksee.services.UXIssueMessageService;
  * {@code issueMessageService}, {@code elementStateService}) are non-null after Spring construction.</p>
  */
 @Component
-public class HeaderStructureAudit implements IExecutablePageStateAudit {
+public class HeaderStructureAudit implements IExecutablePageContextAudit {
 	private static Logger log = LoggerFactory.getLogger(HeaderStructureAudit.class);
 
+	static final ElementRule H1_HEADERS = ElementRule.forTags("header-structure.h1", "h1");
+	static final ElementRule HEADERS = ElementRule.forTags("header-structure.headers", "h1", "h2", "h3", "h4", "h5", "h6");
+
+	/** Rules backing {@link #checkH1Matches(ElementRuleMatches)} and {@link #findOutOfOrderHeaderMatches(ElementRuleMatches)}. */
+	static final ElementRuleEngine RULES = new ElementRuleEngine(List.of(H1_HEADERS, HEADERS));
+
 	@Autowired
 	private AuditService auditService;
 
@@ -68,17 +76,18 @@ public class HeaderStructureAudit implements IExecutablePageStateAudit {
 	 *
 	 * Scores heading structure on a page based on H1 usage and heading hierarchy consistency.
 	 *
-	 * @pre {@code page_state != null}
+	 * @pre {@code page_context != null}
 	 * @pre {@code audit_record != null}
 	 * @post returned {@code Audit} is non-null and persisted
 	 */
 	@Override
-	public Audit execute(PageState page_state, AuditRecord audit_record, DesignSystem design_system) {
-		Objects.requireNonNull(page_state, "page_state must not be null");
+	public Audit execute(PageContext page_context, AuditRecord audit_record, DesignSystem design_system) {
+		Objects.requireNonNull(page_context, "page_context must not be null");
+		PageState page_state = page_context.getPageState();
 		Objects.requireNonNull(audit_record, "audit_record must not be null");
 
 		//check if page state already had a link audit performed.
-		Set<UXIssueMessage> issue_messages = new HashSet<>();
+		Set<UXIssueMessage> issue_messages = Collections.newSetFromMap(new IdentityHashMap<>());
 		String ada_compliance = "WCAG 2.1 Section 1.3.1 - Structure";
 
 		Set<String> labels = new HashSet<>();
@@ -87,8 +96,8 @@ public class HeaderStructureAudit implements IExecutablePageStateAudit {
 		labels.add("headers");
 		labels.add("wcag");
 		
-		Document jsoup_doc = Jsoup.parse(page_state.getSrc());
-        Boolean h1CheckPassed = checkH1Headers(jsoup_doc);
+		ElementRuleMatches rule_matches = page_context.getRuleMatches();
+        Boolean h1CheckPassed = checkH1Matches(rule_matches);
         
         if(h1CheckPassed == null){
             String description = "The <h1> header is vital for accessibility and WCAG 2.1 compliance, as it guides users with assistive technologies through the main topic of the page, ensuring a clear and accessible content structure.";
@@ -106,7 +115,7 @@ public class HeaderStructureAudit implements IExecutablePageStateAudit {
 															2,
 															recommendation);
 			
-			favicon_issue = issueMessageService.save(favicon_issue);
+			favicon_issue = page_context.saveIssueMessage(favicon_issue, issueMessageService);
 			issue_messages.add(favicon_issue);
         }
         else if(Boolean.FALSE.equals(h1CheckPassed)){
@@ -125,7 +134,7 @@ public class HeaderStructureAudit implements IExecutablePageStateAudit {
                         2,
                         recommendation);
 
-            favicon_issue = issueMessageService.save(favicon_issue);
+            favicon_issue = page_context.saveIssueMessage(favicon_issue, issueMessageService);
             issue_messages.add(favicon_issue);
         }
         else if(Boolean.TRUE.equals(h1CheckPassed)){
@@ -144,18 +153,17 @@ public class HeaderStructureAudit implements IExecutablePageStateAudit {
                         2,
                         recommendation);
 
-            favicon_issue = issueMessageService.save(favicon_issue);
+            favicon_issue = page_context.saveIssueMessage(favicon_issue, issueMessageService);
             issue_messages.add(favicon_issue);
         }
 
         // Identify headers that skip levels (for example, h2 -> h4)
-        List<Element> outOfOrderHeaders = findOutOfOrderHeaders(jsoup_doc);
+        List<Element> outOfOrderHeaders = findOutOfOrderHeaderMatches(rule_matches);
 
         for (Element header : outOfOrderHeaders) {
             String header_xpath = BrowserService.getXPath(header);
-            String css_selector = BrowserService.generateCssSelectorFromXpath(header_xpath);
-            ElementState header_elem = elementStateService.findByPageAndCssSelector(page_state.getId(), css_selector);
-            log.warn("found out-of-order header {} ; css selector = {}", header_elem, css_selector);
+            ElementState header_elem = page_context.findElementStateByXpath(header_xpath, elementStateService);
+            log.warn("found out-of-order header {} ; xpath = {}", header_elem, header_xpath);
             String issue_description = "Having headers in hierarchical order is crucial for accessibility and WCAG 2.1 compliance because it provides a clear and logical structure to the content. This hierarchy helps users, especially those using assistive technologies like screen readers, to easily navigate the webpage and understand the relationship between different sections. Properly ordered headers guide users through the content, improving their experience and ensuring the website is accessible to all.\n";
             String recommendation = "Reconfigure document so that headers are in hierarchical order. When headers are not in hierarchical order, it makes content difficult to understand for people that require assistive technology";
             String title = "Headers are not in hierarchical order.";
@@ -199,7 +207,7 @@ public class HeaderStructureAudit implements IExecutablePageStateAudit {
 								 true);
 
 		Objects.requireNonNull(audit, "Postcondition failed: audit must not be null");
-		return auditService.save(audit);
+		return page_context.saveAudit(audit, auditService);
 	}
 
     /**
@@ -222,9 +230,22 @@ public class HeaderStructureAudit implements IExecutablePageStateAudit {
         if (doc == null) {
             throw new IllegalArgumentException("Document must not be null");
         }
+        return checkH1Matches(RULES.run(doc));
+    }
+
+    /**
+     * Same contract as {@link #checkH1Headers(Document)}, using <h1> elements already matched by
+     * {@link #RULES}.
+     *
+     * @pre {@code matches != null}
+     * @param matches matches from an engine that includes {@link #RULES}
+     * @return Boolean indicating the number of <h1> headers (null, true, or false)
+     */
+    public static Boolean checkH1Matches(ElementRuleMatches matches) {
+        Objects.requireNonNull(matches, "matches must not be null");
 
         // Retrieve all <h1> elements from the document
-        Elements h1Headers = doc.select("h1");
+        List<Element> h1Headers = matches.get(H1_HEADERS);
 
         // Postconditions: ensure return value follows the contract
         int headerCount = h1Headers.size();
@@ -258,8 +279,21 @@ public class HeaderStructureAudit implements IExecutablePageStateAudit {
         if (doc == null) {
             throw new IllegalArgumentException("Document must not be null");
         }
+        return findOutOfOrderHeaderMatches(RULES.run(doc));
+    }
+
+    /**
+     * Same as {@link #findOutOfOrderHeaders(Document)}, using headers already matched by
+     * {@link #RULES}.
+     *
+     * @pre {@code matches != null}
+     * @param matches matches from an engine that includes {@link #RULES}
+     * @return list of header elements that break hierarchy
+     */
+    public static List<Element> findOutOfOrderHeaderMatches(ElementRuleMatches matches) {
+        Objects.requireNonNull(matches, "matches must not be null");
 
-        Elements headers = doc.select("h1, h2, h3, h4, h5, h6");
+        List<Element> headers = matches.get(HEADERS);
         List<Element> outOfOrder = new ArrayList<>();
         int previousLevel = 0;
 
@@ -0,0 +1,44 @@
+package com.looksee.audit.informationArchitecture.audits;
+
+import com.looksee.models.PageState;
+import com.looksee.models.audit.Audit;
+import com.looksee.models.audit.AuditRecord;
+import com.looksee.models.audit.interfaces.IExecutablePageStateAudit;
+import com.looksee.models.designsystem.DesignSystem;
+
+/**
+ * Page audit that reads the page through a shared {@link PageContext} so the page source is
+ * parsed once per message instead of once per audit.
+ *
+ * <p>The {@link PageState} overload is kept for callers that audit a single page on its own;
+ * it wraps the page in a fresh context and delegates.</p>
+ */
+public interface IExecutablePageContextAudit extends IExecutablePageStateAudit {
+
+	/**
+	 * Executes the audit against a page context shared with the other audits of the same
+	 * message.
+	 *
+	 * @param page_context  context for the page being audited
+	 * @param audit_record  parent audit record
+	 * @param design_system design system to audit against, may be {@code null}
+	 * @return the completed audit
+	 *
+	 * @pre {@code page_context != null}
+	 * @post returned {@code Audit} is non-null
+	 */
+	Audit execute(PageContext page_context, AuditRecord audit_record, DesignSystem design_system);
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * Wraps {@code page_state} in a new {@link PageContext} and delegates to
+	 * {@link #execute(PageContext, AuditRecord, DesignSystem)}.
+	 *
+	 * @pre {@code page_state != null}
+	 */
+	@Override
+	default Audit execute(PageState page_state, AuditRecord audit_record, DesignSystem design_system) {
+		return execute(new PageContext(page_state), audit_record, design_system);
+	}
+}
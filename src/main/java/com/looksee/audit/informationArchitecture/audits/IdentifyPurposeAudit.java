@@ -5,20 +5,21 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
 import java.util.Set;
+import java.util.function.Predicate;
 
-import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
-import org.jsoup.select.Elements;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import com.looksee.audit.informationArchitecture.rules.ElementRule;
+import com.looksee.audit.informationArchitecture.rules.ElementRuleEngine;
+import com.looksee.audit.informationArchitecture.rules.ElementRuleMatches;
 import com.looksee.models.ElementState;
 import com.looksee.models.PageState;
 import com.looksee.models.audit.Audit;
 import com.looksee.models.audit.AuditRecord;
 import com.looksee.models.audit.GenericIssue;
-import com.looksee.models.audit.interfaces.IExecutablePageStateAudit;
 import com.looksee.models.audit.messages.ElementStateIssueMessage;
 import com.looksee.models.audit.messages.UXIssueMessage;
 import com.looksee.models.designsystem.DesignSystem;
@@ -38,7 +39,24 @@ import com.looksee.services.ElementStateService;
  * {@code elementStateService}) are non-null after Spring construction.</p>
  */
 @Component
-public class IdentifyPurposeAudit implements IExecutablePageStateAudit {
+public class IdentifyPurposeAudit implements IExecutablePageContextAudit {
+
+	private static final Predicate<Element> BUTTON_TYPE = ElementRule.attributeEquals("type", "button");
+
+	// img:not([alt]), img[alt='']
+	static final ElementRule UNLABELLED_IMAGES = new ElementRule("identify-purpose.images", Set.of("img"), Set.of(),
+			element -> !element.hasAttr("alt") || element.attr("alt").trim().isEmpty());
+	// button:not([aria-label]):not([aria-labelledby]), input[type='button']:not([aria-label]):not([aria-labelledby])
+	static final ElementRule UNLABELLED_BUTTONS = new ElementRule("identify-purpose.buttons", Set.of("button", "input"), Set.of(),
+			element -> ("button".equals(element.normalName()) || BUTTON_TYPE.test(element))
+						&& !element.hasAttr("aria-label")
+						&& !element.hasAttr("aria-labelledby"));
+	// div[role], section[role], nav[role], header[role], footer[role]
+	static final ElementRule ROLE_REGIONS = new ElementRule("identify-purpose.regions", Set.of("div", "section", "nav", "header", "footer"), Set.of("role"),
+			element -> true);
+
+	/** Rules backing {@link #checkMatches(ElementRuleMatches, ElementSelectorIndex)}. */
+	static final ElementRuleEngine RULES = new ElementRuleEngine(List.of(UNLABELLED_IMAGES, UNLABELLED_BUTTONS, ROLE_REGIONS));
 
 	@Autowired
 	private AuditService auditService;
@@ -57,13 +75,14 @@ public class IdentifyPurposeAudit implements IExecutablePageStateAudit {
 	 *
 	 * Audits UI components for programmatic purpose identification per WCAG 2.1 Section 1.3.6.
 	 *
-	 * @pre {@code page_state != null}
+	 * @pre {@code page_context != null}
 	 * @pre {@code audit_record != null}
 	 * @post returned {@code Audit} is non-null and persisted
 	 */
 	@Override
-	public Audit execute(PageState page_state, AuditRecord audit_record, DesignSystem design_system) {
-		Objects.requireNonNull(page_state, "page_state must not be null");
+	public Audit execute(PageContext page_context, AuditRecord audit_record, DesignSystem design_system) {
+		Objects.requireNonNull(page_context, "page_context must not be null");
+		PageState page_state = page_context.getPageState();
 		Objects.requireNonNull(audit_record, "audit_record must not be null");
 
 		//check if page state already had a link audit performed.
@@ -76,11 +95,10 @@ public class IdentifyPurposeAudit implements IExecutablePageStateAudit {
 		labels.add("tables");
 		labels.add("wcag");
 		
-		Document jsoup_doc = Jsoup.parse(page_state.getSrc());
-        List<GenericIssue> issues = checkCompliance(jsoup_doc);
+        List<GenericIssue> issues = checkMatches(page_context.getRuleMatches(), page_context.getSelectorIndex());
 
         for(GenericIssue issue: issues){
-            ElementState element_state = elementStateService.findByPageAndCssSelector(page_state.getId(), issue.getCssSelector());
+            ElementState element_state = page_context.findElementState(issue.getCssSelector(), elementStateService);
             UXIssueMessage issue_msg = new ElementStateIssueMessage(Priority.HIGH,
                                                                 issue.getDescription(),
                                                                 issue.getRecommendation(),
@@ -121,7 +139,7 @@ public class IdentifyPurposeAudit implements IExecutablePageStateAudit {
                                 true);
 
 		Objects.requireNonNull(audit, "Postcondition failed: audit must not be null");
-		return auditService.save(audit);
+		return page_context.saveAudit(audit, auditService);
 	}
 
     /**
@@ -137,39 +155,52 @@ public class IdentifyPurposeAudit implements IExecutablePageStateAudit {
         if (doc == null) {
             throw new IllegalArgumentException("Document cannot be null");
         }
+        return checkMatches(RULES.run(doc), ElementSelectorIndex.of(doc));
+    }
 
+    /**
+     * Builds the Section 1.3.6 issues from elements already matched by {@link #RULES}, so the
+     * document does not have to be walked again.
+     *
+     * @pre {@code matches != null}
+     * @pre {@code selectors != null}
+     * @post returned list is non-null
+     * @param matches matches from an engine that includes {@link #RULES}
+     * @param selectors CSS selectors of the document the matches were found in
+     * @return A list of GenericIssue objects describing any compliance issues found.
+     */
+    public static List<GenericIssue> checkMatches(ElementRuleMatches matches, ElementSelectorIndex selectors) {
+        Objects.requireNonNull(matches, "matches must not be null");
+        Objects.requireNonNull(selectors, "selectors must not be null");
         List<GenericIssue> issues = new ArrayList<>();
         
         // Check for images with missing or empty alt attributes
-        Elements images = doc.select("img:not([alt]), img[alt='']");
-        for (Element img : images) {
+        for (Element img : matches.get(UNLABELLED_IMAGES)) {
             issues.add(new GenericIssue(
                     "Image element is missing a valid alt attribute",
                     "Missing alt attribute",
-                    img.cssSelector(),
+                    selectors.cssSelector(img),
                     "Add a meaningful alt attribute to the image element to describe its purpose."
             ));
         }
 
         // Check for buttons or input[type="button"] without aria-label or aria-labelledby
-        Elements buttons = doc.select("button:not([aria-label]):not([aria-labelledby]), input[type='button']:not([aria-label]):not([aria-labelledby])");
-        for (Element button : buttons) {
+        for (Element button : matches.get(UNLABELLED_BUTTONS)) {
             issues.add(new GenericIssue(
                     "Button is missing a valid aria-label or aria-labelledby attribute",
                     "Missing aria-label/aria-labelledby",
-                    button.cssSelector(),
+                    selectors.cssSelector(button),
                     "Add an aria-label or aria-labelledby attribute to describe the button's purpose."
             ));
         }
 
         // Check for regions (like divs or sections) without role, aria-label, or aria-labelledby
-        Elements regions = doc.select("div[role], section[role], nav[role], header[role], footer[role]");
-        for (Element region : regions) {
+        for (Element region : matches.get(ROLE_REGIONS)) {
             if (!region.hasAttr("aria-label") && !region.hasAttr("aria-labelledby")) {
                 issues.add(new GenericIssue(
                         "Region element with role attribute is missing aria-label or aria-labelledby",
                         "Missing aria-label/aria-labelledby for region",
-                        region.cssSelector(),
+                        selectors.cssSelector(region),
                         "Add an aria-label or aria-labelledby attribute to the region to describe its purpose."
                 ));
             }
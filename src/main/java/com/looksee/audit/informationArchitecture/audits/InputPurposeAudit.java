@@ -8,19 +8,19 @@ import java.util.Objects;
 import java.util.Set;
 import java.util.regex.Pattern;
 
-import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
-import org.jsoup.select.Elements;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import com.looksee.audit.informationArchitecture.rules.ElementRule;
+import com.looksee.audit.informationArchitecture.rules.ElementRuleEngine;
+import com.looksee.audit.informationArchitecture.rules.ElementRuleMatches;
 import com.looksee.models.ElementState;
 import com.looksee.models.PageState;
 import com.looksee.models.audit.Audit;
 import com.looksee.models.audit.AuditRecord;
 import com.looksee.models.audit.GenericIssue;
-import com.looksee.models.audit.interfaces.IExecutablePageStateAudit;
 import com.looksee.models.audit.messages.ElementStateIssueMessage;
 import com.looksee.models.audit.messages.UXIssueMessage;
 import com.looksee.models.designsystem.DesignSystem;
@@ -40,7 +40,12 @@ import com.looksee.services.ElementStateService;
  * {@code elementStateService}) are non-null after Spring construction.</p>
  */
 @Component
-public class InputPurposeAudit implements IExecutablePageStateAudit {
+public class InputPurposeAudit implements IExecutablePageContextAudit {
+
+	static final ElementRule INPUTS = ElementRule.forTags("input-purpose.inputs", "input");
+
+	/** Rules backing {@link #checkMatches(ElementRuleMatches, ElementSelectorIndex)}. */
+	static final ElementRuleEngine RULES = new ElementRuleEngine(List.of(INPUTS));
 
 	@Autowired
 	private AuditService auditService;
@@ -78,13 +83,14 @@ public class InputPurposeAudit implements IExecutablePageStateAudit {
 	 * Evaluates input elements on the page for WCAG 2.1 Section 1.3.5 compliance by checking
 	 * autocomplete attributes and ARIA labels.
 	 *
-	 * @pre {@code page_state != null} -- the page state to audit must be provided
+	 * @pre {@code page_context != null} -- the page context to audit must be provided
 	 * @pre {@code audit_record != null} -- the audit record context must be provided
 	 * @post the returned {@code Audit} is non-null and has been persisted via {@code auditService}
 	 */
 	@Override
-	public Audit execute(PageState page_state, AuditRecord audit_record, DesignSystem design_system) {
-		Objects.requireNonNull(page_state, "Precondition failed: page_state must not be null");
+	public Audit execute(PageContext page_context, AuditRecord audit_record, DesignSystem design_system) {
+		Objects.requireNonNull(page_context, "Precondition failed: page_context must not be null");
+		PageState page_state = page_context.getPageState();
 		Objects.requireNonNull(audit_record, "Precondition failed: audit_record must not be null");
 
 		//check if page state already had a link audit performed.
@@ -97,11 +103,10 @@ public class InputPurposeAudit implements IExecutablePageStateAudit {
 		labels.add("tables");
 		labels.add("wcag");
 		
-		Document jsoup_doc = Jsoup.parse(page_state.getSrc());
-        List<GenericIssue> issues = checkCompliance(jsoup_doc);
+        List<GenericIssue> issues = checkMatches(page_context.getRuleMatches(), page_context.getSelectorIndex());
         
         for(GenericIssue issue: issues){
-            ElementState element_state = elementStateService.findByPageAndCssSelector(page_state.getId(), issue.getCssSelector());
+            ElementState element_state = page_context.findElementState(issue.getCssSelector(), elementStateService);
             UXIssueMessage issue_msg = new ElementStateIssueMessage(Priority.HIGH,
                                                                 issue.getDescription(),
                                                                 issue.getRecommendation(),
@@ -142,7 +147,7 @@ public class InputPurposeAudit implements IExecutablePageStateAudit {
                                 true);
 		
 		Objects.requireNonNull(audit, "Postcondition failed: audit must not be null");
-		return auditService.save(audit);
+		return page_context.saveAudit(audit, auditService);
 	}
 
     /**
@@ -176,18 +181,31 @@ public class InputPurposeAudit implements IExecutablePageStateAudit {
      * @return A list of {@code GenericIssue} objects representing any non-compliance issues found. The list is never null.
      */
     public static List<GenericIssue> checkCompliance(Document doc) {
-        List<GenericIssue> issues = new ArrayList<>();
-
         // Preconditions: Document should not be null
         if (doc == null) {
             throw new IllegalArgumentException("Document cannot be null");
         }
+        return checkMatches(RULES.run(doc), ElementSelectorIndex.of(doc));
+    }
 
-        // Select all input elements within the document
-        Elements inputElements = doc.select("input");
+    /**
+     * Builds the Section 1.3.5 issues from input elements already matched by {@link #RULES}, so
+     * the document does not have to be walked again.
+     *
+     * @pre {@code matches != null}
+     * @pre {@code selectors != null}
+     * @post the returned list is never null
+     * @param matches matches from an engine that includes {@link #RULES}
+     * @param selectors CSS selectors of the document the matches were found in
+     * @return A list of {@code GenericIssue} objects representing any non-compliance issues found.
+     */
+    public static List<GenericIssue> checkMatches(ElementRuleMatches matches, ElementSelectorIndex selectors) {
+        Objects.requireNonNull(matches, "matches must not be null");
+        Objects.requireNonNull(selectors, "selectors must not be null");
+        List<GenericIssue> issues = new ArrayList<>();
 
         // Iterate over each input element to check for compliance
-        for (Element input : inputElements) {
+        for (Element input : matches.get(INPUTS)) {
             String autocomplete = input.attr("autocomplete");
             String name = input.attr("name");
             String ariaLabel = input.attr("aria-label");
@@ -196,7 +214,7 @@ public class InputPurposeAudit implements IExecutablePageStateAudit {
             if (autocomplete.isEmpty() || !AUTOCOMPLETE_VALUES.contains(autocomplete)) {
                 String description = "Input element autocomplete attribute is missing or incorrect.";
                 String title = "Non-compliant Autocomplete Attribute";
-                String cssSelector = input.cssSelector();
+                String cssSelector = selectors.cssSelector(input);
                 String recommendation = "Ensure that the autocomplete attribute is present and has a valid value. " +
                                         "Refer to WCAG 2.1 section 1.3.5 for the list of acceptable values.";
 
@@ -206,7 +224,7 @@ public class InputPurposeAudit implements IExecutablePageStateAudit {
             else{
                 String description = "Input element has an autocomplete attribute.";
                 String title = "Compliant autocomplete attribute";
-                String cssSelector = input.cssSelector();
+                String cssSelector = selectors.cssSelector(input);
                 String recommendation = "";
 
                 // Add the issue to the list of issues
@@ -217,7 +235,7 @@ public class InputPurposeAudit implements IExecutablePageStateAudit {
             if (ariaLabel.isEmpty() || !isAriaLabelMeaningful(ariaLabel, name)) {
                 String description = "Input element's ARIA label is missing or does not match the purpose of the input.";
                 String title = "Non-compliant ARIA Label";
-                String cssSelector = input.cssSelector();
+                String cssSelector = selectors.cssSelector(input);
                 String recommendation = "Ensure that the ARIA label is present and provides meaningful information about the input's purpose.";
 
                 // Add the issue to the list of issues
@@ -226,7 +244,7 @@ public class InputPurposeAudit implements IExecutablePageStateAudit {
             else{
                 String description = "Input element's ARIA label matches the purpose of the input.";
                 String title = "Compliant ARIA label";
-                String cssSelector = input.cssSelector();
+                String cssSelector = selectors.cssSelector(input);
                 String recommendation = "";
 
                 // Add the issue to the list of issues
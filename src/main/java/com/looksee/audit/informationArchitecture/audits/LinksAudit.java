@@ -1,31 +1,35 @@
 package com.looksee.audit.informationArchitecture.audits;
 
-import java.awt.image.BufferedImage;
 import java.io.IOException;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
-
-import javax.imageio.ImageIO;
+import java.util.concurrent.CompletableFuture;
 
 import org.jsoup.Jsoup;
-import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
-import com.looksee.gcp.CloudVisionUtils;
+import com.looksee.audit.informationArchitecture.imagetext.ImageTextExtractor;
+import com.looksee.audit.informationArchitecture.links.LinkChecker;
+import com.looksee.audit.informationArchitecture.links.LinkStatusCache;
+import com.looksee.audit.informationArchitecture.links.LinkStatus;
 import com.looksee.models.ElementState;
 import com.looksee.models.PageState;
 import com.looksee.models.audit.Audit;
 import com.looksee.models.audit.AuditRecord;
-import com.looksee.models.audit.interfaces.IExecutablePageStateAudit;
 import com.looksee.models.audit.messages.ElementStateIssueMessage;
 import com.looksee.models.audit.messages.UXIssueMessage;
 import com.looksee.models.designsystem.DesignSystem;
@@ -43,11 +47,24 @@ import com.looksee.utils.BrowserUtils;
  * Audits hyperlinks on a page for information architecture quality, checking href presence,
  * URL validity, destination reachability, and link text accessibility.
  *
+ * <p>Destinations of all links on the page are looked up in the {@link LinkStatusCache}
+ * before the links are scored, so uncached destinations are checked concurrently by the
+ * {@link LinkChecker} and destinations seen on earlier pages are not checked again.</p>
+ *
+ * <p>Links that share an href are validated once per page: the URL format check and the
+ * reachability verdict of each distinct destination are reused for every link pointing at
+ * it, while each link still receives its own issue messages.</p>
+ *
+ * <p>For links without visible text, the text of their images is looked up through the
+ * {@link ImageTextExtractor} for every such link on the page before scoring starts, so
+ * screenshot downloads and OCR run alongside the rest of the audit.</p>
+ *
  * <p><b>Class invariant:</b> All {@code @Autowired} dependencies ({@code page_state_service},
- * {@code audit_service}, {@code issue_message_service}) are non-null after Spring construction.</p>
+ * {@code audit_service}, {@code issue_message_service}, {@code link_status_cache},
+ * {@code image_text_extractor}) are non-null after Spring construction.</p>
  */
 @Component
-public class LinksAudit implements IExecutablePageStateAudit {
+public class LinksAudit implements IExecutablePageContextAudit {
 	private static Logger log = LoggerFactory.getLogger(LinksAudit.class);
 		
 	@Autowired
@@ -59,6 +76,12 @@ public class LinksAudit implements IExecutablePageStateAudit {
 	@Autowired
 	private UXIssueMessageService issue_message_service;
 	
+	@Autowired
+	private LinkStatusCache link_status_cache;
+	
+	@Autowired
+	private ImageTextExtractor image_text_extractor;
+	
 	List<String> bad_link_text_list;
 	
 	public LinksAudit() {
@@ -80,18 +103,19 @@ public class LinksAudit implements IExecutablePageStateAudit {
 	 * Scores links on a page based on href presence, URL format validity, destination
 	 * reachability, and link text quality.
 	 *
-	 * @pre {@code page_state != null}
+	 * @pre {@code page_context != null}
 	 * @pre {@code audit_record != null}
 	 * @post returned {@code Audit} is non-null and persisted
 	 */
 	@Override
-	public Audit execute(PageState page_state, AuditRecord audit_record, DesignSystem design_system) {
-		Objects.requireNonNull(page_state, "page_state must not be null");
+	public Audit execute(PageContext page_context, AuditRecord audit_record, DesignSystem design_system) {
+		Objects.requireNonNull(page_context, "page_context must not be null");
+		PageState page_state = page_context.getPageState();
 		Objects.requireNonNull(audit_record, "audit_record must not be null");
 
 		//check if page state already had a link audit performed.
 		
-		Set<UXIssueMessage> issue_messages = new HashSet<>();
+		Set<UXIssueMessage> issue_messages = Collections.newSetFromMap(new IdentityHashMap<>());
 		List<ElementState> link_elements = page_state_service.getLinkElementStates(page_state.getId());
 		String ada_compliance = "There is no ADA guideline for dead links";
 
@@ -101,10 +125,15 @@ public class LinksAudit implements IExecutablePageStateAudit {
 		labels.add("headers");
 		labels.add("wcag");
 		
+		Map<String, Element> anchors = new HashMap<>();
+		Map<String, Destination> destinations = new HashMap<>();
+		Map<String, Reachability> reachabilities = new HashMap<>();
+		Map<String, CompletableFuture<LinkStatus>> link_statuses = checkDestinations(page_state, link_elements, anchors, destinations);
+		Map<ElementState, CompletableFuture<List<String>>> image_texts = findImageText(page_state, link_elements, anchors, destinations);
+		
 		//score each link element
 		for(ElementState link : link_elements) {
-			Document jsoup_doc = Jsoup.parseBodyFragment(link.getOuterHtml(), page_state.getUrl());
-			Element element = jsoup_doc.getElementsByTag("a").first();
+			Element element = anchor(page_state, link, anchors);
 
 			if( element.hasAttr("href") ) {
 				String recommendation = "Make sure links have a url set for the href value.";
@@ -124,8 +153,8 @@ public class LinksAudit implements IExecutablePageStateAudit {
 																1);
 
 				
-				issue_message = (ElementStateIssueMessage) issue_message_service.save(issue_message);
-				issue_message_service.addElement(issue_message.getId(), link.getId());
+				issue_message = (ElementStateIssueMessage) page_context.saveIssueMessage(issue_message, issue_message_service);
+				page_context.addElement(issue_message, link.getId(), issue_message_service);
 				issue_messages.add(issue_message);
 			}
 			else {
@@ -145,8 +174,8 @@ public class LinksAudit implements IExecutablePageStateAudit {
 																0,
 																1);
 
-				issue_message = (ElementStateIssueMessage) issue_message_service.save(issue_message);
-				issue_message_service.addElement(issue_message.getId(), link.getId());
+				issue_message = (ElementStateIssueMessage) page_context.saveIssueMessage(issue_message, issue_message_service);
+				page_context.addElement(issue_message, link.getId(), issue_message_service);
 				issue_messages.add(issue_message);
 				continue;
 			}
@@ -171,8 +200,8 @@ public class LinksAudit implements IExecutablePageStateAudit {
 																1,
 																1);
 				
-				issue_message = (ElementStateIssueMessage) issue_message_service.save(issue_message);
-				issue_message_service.addElement(issue_message.getId(), link.getId());
+				issue_message = (ElementStateIssueMessage) page_context.saveIssueMessage(issue_message, issue_message_service);
+				page_context.addElement(issue_message, link.getId(), issue_message_service);
 				issue_messages.add(issue_message);
 				continue;
 			}
@@ -194,8 +223,8 @@ public class LinksAudit implements IExecutablePageStateAudit {
 																1,
 																1);
 
-				issue_message = (ElementStateIssueMessage) issue_message_service.save(issue_message);
-				issue_message_service.addElement(issue_message.getId(), link.getId());
+				issue_message = (ElementStateIssueMessage) page_context.saveIssueMessage(issue_message, issue_message_service);
+				page_context.addElement(issue_message, link.getId(), issue_message_service);
 				issue_messages.add(issue_message);
 				continue;
 			}
@@ -224,8 +253,8 @@ public class LinksAudit implements IExecutablePageStateAudit {
 																1,
 																1);
 
-				issue_message = (ElementStateIssueMessage) issue_message_service.save(issue_message);
-				issue_message_service.addElement(issue_message.getId(), link.getId());
+				issue_message = (ElementStateIssueMessage) page_context.saveIssueMessage(issue_message, issue_message_service);
+				page_context.addElement(issue_message, link.getId(), issue_message_service);
 				issue_messages.add(issue_message);
 			}
 			else {
@@ -245,34 +274,16 @@ public class LinksAudit implements IExecutablePageStateAudit {
 																0,
 																1);
 
-				issue_message = (ElementStateIssueMessage) issue_message_service.save(issue_message);
-				issue_message_service.addElement(issue_message.getId(), link.getId());
+				issue_message = (ElementStateIssueMessage) page_context.saveIssueMessage(issue_message, issue_message_service);
+				page_context.addElement(issue_message, link.getId(), issue_message_service);
 				issue_messages.add(issue_message);
 				continue;
 			}
 			
 			// Check if element link a valid url
-			String sanitized_href = "";
-			try {
-				String host = new URL(BrowserUtils.sanitizeUrl(page_state.getUrl(), page_state.isSecured())).getHost();
-				sanitized_href = BrowserUtils.formatUrl("http", host, href, page_state.isSecured());
-				if( BrowserUtils.isJavascript(href)
-					|| href.startsWith("itms-apps:")
-					|| href.startsWith("snap:")
-					|| href.startsWith("tel:")
-					|| href.startsWith("mailto:")
-					|| href.startsWith("applenews:") //both apple news spellings are here because its' not clear which is the proper protocol
-					|| href.startsWith("applenewss:")//both apple news spellings are here because its' not clear which is the proper protocol
-				) {
-					//do something here
-					
-				}else {
-					
-					//if href is external then try creating URL object, else if it's not external then check for page state
-					URL href_url = new URL(sanitized_href);
-				}
-				
-				
+			Destination destination = destinations.computeIfAbsent(href, key -> resolveDestination(page_state, key));
+			String sanitized_href = destination.sanitized_href;
+			if(destination.format_error == null) {
 				//if starts with / then append host
 				String recommendation = "";
 				String description = "Link URL is properly formatted : "+sanitized_href;
@@ -290,10 +301,11 @@ public class LinksAudit implements IExecutablePageStateAudit {
 																1,
 																1);
 				
-				issue_message = (ElementStateIssueMessage) issue_message_service.save(issue_message);
-				issue_message_service.addElement(issue_message.getId(), link.getId());
+				issue_message = (ElementStateIssueMessage) page_context.saveIssueMessage(issue_message, issue_message_service);
+				page_context.addElement(issue_message, link.getId(), issue_message_service);
 				issue_messages.add(issue_message);
-			} catch (MalformedURLException e) {
+			}
+			else {
 				String recommendation = "Make sure link url format is valid. For example \"https://www.google.com\"";
 				String description = "link url is not a valid format "+href;
 				String title = "Invalid link url format";
@@ -310,10 +322,9 @@ public class LinksAudit implements IExecutablePageStateAudit {
 																0,
 																1);
 
-				issue_message = (ElementStateIssueMessage) issue_message_service.save(issue_message);
-				issue_message_service.addElement(issue_message.getId(), link.getId());
+				issue_message = (ElementStateIssueMessage) page_context.saveIssueMessage(issue_message, issue_message_service);
+				page_context.addElement(issue_message, link.getId(), issue_message_service);
 				issue_messages.add(issue_message);
-				e.printStackTrace();
 				continue;
 			}
 
@@ -336,12 +347,12 @@ public class LinksAudit implements IExecutablePageStateAudit {
 																	0,
 																	1);
 
-					issue_message = (ElementStateIssueMessage) issue_message_service.save(issue_message);
-					issue_message_service.addElement(issue_message.getId(), link.getId());
+					issue_message = (ElementStateIssueMessage) page_context.saveIssueMessage(issue_message, issue_message_service);
+					page_context.addElement(issue_message, link.getId(), issue_message_service);
 					issue_messages.add(issue_message);
 				}
 				else {
-					if(BrowserUtils.doesUrlExist(sanitized_href)) {
+					if(isReachable(sanitized_href, link_statuses, reachabilities)) {
 						String recommendation = "";
 						String description = "Link points to valid location - "+href;
 						String title = "Link points to valid location";
@@ -358,8 +369,8 @@ public class LinksAudit implements IExecutablePageStateAudit {
 																		1,
 																		1);
 
-						issue_message = (ElementStateIssueMessage) issue_message_service.save(issue_message);
-						issue_message_service.addElement(issue_message.getId(), link.getId());
+						issue_message = (ElementStateIssueMessage) page_context.saveIssueMessage(issue_message, issue_message_service);
+						page_context.addElement(issue_message, link.getId(), issue_message_service);
 						issue_messages.add(issue_message);
 					}
 					else {
@@ -379,8 +390,8 @@ public class LinksAudit implements IExecutablePageStateAudit {
 																		0,
 																		1);
 
-						issue_message = (ElementStateIssueMessage) issue_message_service.save(issue_message);
-						issue_message_service.addElement(issue_message.getId(), link.getId());
+						issue_message = (ElementStateIssueMessage) page_context.saveIssueMessage(issue_message, issue_message_service);
+						page_context.addElement(issue_message, link.getId(), issue_message_service);
 						issue_messages.add(issue_message);
 					}
 				}
@@ -403,8 +414,8 @@ public class LinksAudit implements IExecutablePageStateAudit {
 																3,
 																4);
 
-				issue_message = (ElementStateIssueMessage) issue_message_service.save(issue_message);
-				issue_message_service.addElement(issue_message.getId(), link.getId());
+				issue_message = (ElementStateIssueMessage) page_context.saveIssueMessage(issue_message, issue_message_service);
+				page_context.addElement(issue_message, link.getId(), issue_message_service);
 				issue_messages.add(issue_message);
 				e.printStackTrace();
 			} catch (Exception e) {
@@ -423,8 +434,8 @@ public class LinksAudit implements IExecutablePageStateAudit {
 																			3,
 																			4);
 
-				issue_message = (ElementStateIssueMessage) issue_message_service.save(issue_message);
-				issue_message_service.addElement(issue_message.getId(), link.getId());
+				issue_message = (ElementStateIssueMessage) page_context.saveIssueMessage(issue_message, issue_message_service);
+				page_context.addElement(issue_message, link.getId(), issue_message_service);
 				issue_messages.add(issue_message);
 				log.warn("Exception thrown during links audit :: "+e.getMessage());
 				e.printStackTrace();
@@ -452,8 +463,8 @@ public class LinksAudit implements IExecutablePageStateAudit {
 																	3,
 																	4);
 
-					issue_message = (ElementStateIssueMessage) issue_message_service.save(issue_message);
-					issue_message_service.addElement(issue_message.getId(), link.getId());
+					issue_message = (ElementStateIssueMessage) page_context.saveIssueMessage(issue_message, issue_message_service);
+					page_context.addElement(issue_message, link.getId(), issue_message_service);
 					issue_messages.add(issue_message);
 				}
 				else {
@@ -472,8 +483,8 @@ public class LinksAudit implements IExecutablePageStateAudit {
 																	4,
 																	4);
 	
-					issue_message = (ElementStateIssueMessage) issue_message_service.save(issue_message);
-					issue_message_service.addElement(issue_message.getId(), link.getId());
+					issue_message = (ElementStateIssueMessage) page_context.saveIssueMessage(issue_message, issue_message_service);
+					page_context.addElement(issue_message, link.getId(), issue_message_service);
 					issue_messages.add(issue_message);
 				}
 			}
@@ -485,32 +496,8 @@ public class LinksAudit implements IExecutablePageStateAudit {
 				// NOTE 2: This is an issue for blind people and others that rely on screen readers
 				// NOTE 3: Links with image tags within then should have the alt-text extracted and reviewed.
 
-				boolean element_includes_text = false;
-	
-				//send img src to google for text extraction
-				try {
-					//check if link contains image, if so then extract image source
-					if(link.getOuterHtml().contains("<img")) {
-						//link contains image
-					}
-	
-					URL url = new URL( link.getScreenshotUrl() );
-					BufferedImage img_src = ImageIO.read( url );
-					List<String> image_text_list = CloudVisionUtils.extractImageText(img_src);
-					
-					for(String text : image_text_list) {
-						if(text != null && !text.isEmpty()) {
-							element_includes_text = true;
-						}
-					}
-				} catch (MalformedURLException e) {
-					e.printStackTrace();
-				} catch (IOException e) {
-					e.printStackTrace();
-				} catch (Exception e) {
-					e.printStackTrace();
-				}
-				
+				CompletableFuture<List<String>> image_text = image_texts.get(link);
+				boolean element_includes_text = image_text != null && !image_text.join().isEmpty();
 				 
 				if(!element_includes_text) {
 					String recommendation = "For best usability make sure links include text. You can assign text to a link by entering text within the link tag or by using an image with text";
@@ -530,8 +517,8 @@ public class LinksAudit implements IExecutablePageStateAudit {
 																	3,
 																	4);
 					 //does element use image as links?
-					issue_message = (ElementStateIssueMessage) issue_message_service.save(issue_message);
-					issue_message_service.addElement(issue_message.getId(), link.getId());
+					issue_message = (ElementStateIssueMessage) page_context.saveIssueMessage(issue_message, issue_message_service);
+					page_context.addElement(issue_message, link.getId(), issue_message_service);
 					issue_messages.add(issue_message);				 
 				 }
 				 else {
@@ -550,8 +537,8 @@ public class LinksAudit implements IExecutablePageStateAudit {
 																							4,
 																							4);
 	
-					issue_message = (ElementStateIssueMessage) issue_message_service.save(issue_message);
-					issue_message_service.addElement(issue_message.getId(), link.getId());
+					issue_message = (ElementStateIssueMessage) page_context.saveIssueMessage(issue_message, issue_message_service);
+					page_context.addElement(issue_message, link.getId(), issue_message_service);
 					issue_messages.add(issue_message);
 				 }
 			}
@@ -588,7 +575,196 @@ public class LinksAudit implements IExecutablePageStateAudit {
 								 true);
 
 		Objects.requireNonNull(audit, "Postcondition failed: audit must not be null");
-		return audit_service.save(audit);
+		return page_context.saveAudit(audit, audit_service);
 	}
 
+	/**
+	 * Starts a reachability check for the destination of every link that the scoring loop in
+	 * {@link #execute} will check, so that all requests for the page are in flight at once.
+	 * Parsed anchors and validated destinations are recorded in {@code anchors} and
+	 * {@code destinations} for the scoring loop to reuse.
+	 *
+	 * @return pending results keyed by sanitized href
+	 *
+	 * @pre {@code page_state != null}
+	 * @pre {@code link_elements != null}
+	 * @post returned value is non-null
+	 */
+	private Map<String, CompletableFuture<LinkStatus>> checkDestinations(PageState page_state,
+																		 List<ElementState> link_elements,
+																		 Map<String, Element> anchors,
+																		 Map<String, Destination> destinations)
+	{
+		Set<String> urls = new LinkedHashSet<>();
+		for(ElementState link : link_elements) {
+			Element element = anchor(page_state, link, anchors);
+			if(element == null || !element.hasAttr("href")) {
+				continue;
+			}
+			String href = element.attr("href");
+			if(href.isEmpty() || href.startsWith("mailto:") || href.startsWith("tel:") || BrowserUtils.isJavascript(href)) {
+				continue;
+			}
+			Destination destination = destinations.computeIfAbsent(href, key -> resolveDestination(page_state, key));
+			if(destination.format_error == null) {
+				urls.add(destination.sanitized_href);
+			}
+		}
+		return link_status_cache.checkAll(urls);
+	}
+
+	/**
+	 * Starts looking up the image text of every link that the scoring loop in {@link #execute}
+	 * will find to have no visible text.
+	 *
+	 * @return pending image text keyed by link
+	 *
+	 * @pre {@code page_state != null}
+	 * @pre {@code link_elements != null}
+	 * @post returned value is non-null
+	 */
+	private Map<ElementState, CompletableFuture<List<String>>> findImageText(PageState page_state,
+																			 List<ElementState> link_elements,
+																			 Map<String, Element> anchors,
+																			 Map<String, Destination> destinations)
+	{
+		Map<ElementState, CompletableFuture<List<String>>> image_texts = new IdentityHashMap<>();
+		for(ElementState link : link_elements) {
+			if(!link.getAllText().isEmpty()) {
+				continue;
+			}
+			Element element = anchor(page_state, link, anchors);
+			if(element == null || !element.hasAttr("href")) {
+				continue;
+			}
+			String href = element.attr("href");
+			if(href.isEmpty() || href.startsWith("mailto:") || href.startsWith("tel:")) {
+				continue;
+			}
+			if(destinations.computeIfAbsent(href, key -> resolveDestination(page_state, key)).format_error != null) {
+				continue;
+			}
+			image_texts.put(link, image_text_extractor.extract(element, link.getScreenshotUrl()));
+		}
+		return image_texts;
+	}
+
+	/**
+	 * @return the first anchor in the link's outer HTML, parsed once per distinct outer HTML
+	 */
+	private static Element anchor(PageState page_state, ElementState link, Map<String, Element> anchors) {
+		return anchors.computeIfAbsent(link.getOuterHtml(),
+				outer_html -> Jsoup.parseBodyFragment(outer_html, page_state.getUrl()).getElementsByTag("a").first());
+	}
+
+	/**
+	 * Resolves an href against the page and validates the resulting URL.
+	 *
+	 * @pre {@code page_state != null}
+	 * @pre {@code href != null}
+	 * @post returned value is non-null
+	 */
+	private static Destination resolveDestination(PageState page_state, String href) {
+		try {
+			String sanitized_href = sanitizeHref(page_state, href);
+			if( BrowserUtils.isJavascript(href)
+				|| href.startsWith("itms-apps:")
+				|| href.startsWith("snap:")
+				|| href.startsWith("tel:")
+				|| href.startsWith("mailto:")
+				|| href.startsWith("applenews:") //both apple news spellings are here because its' not clear which is the proper protocol
+				|| href.startsWith("applenewss:")//both apple news spellings are here because its' not clear which is the proper protocol
+			) {
+				//do something here
+
+			}else {
+
+				//if href is external then try creating URL object, else if it's not external then check for page state
+				new URL(sanitized_href);
+			}
+			return new Destination(sanitized_href, null);
+		} catch (MalformedURLException e) {
+			e.printStackTrace();
+			return new Destination("", e);
+		}
+	}
+
+	/**
+	 * Resolves an href against the page it appears on.
+	 *
+	 * @pre {@code page_state != null}
+	 * @pre {@code href != null}
+	 */
+	private static String sanitizeHref(PageState page_state, String href) throws MalformedURLException {
+		String host = new URL(BrowserUtils.sanitizeUrl(page_state.getUrl(), page_state.isSecured())).getHost();
+		return BrowserUtils.formatUrl("http", host, href, page_state.isSecured());
+	}
+
+	/**
+	 * Returns whether a destination can be reached, checking each destination at most once
+	 * per page. A failed check is rethrown for every link that points at the destination.
+	 *
+	 * @return {@code true} if the destination answered with anything other than not found
+	 * @throws IOException if no answer was received from the destination
+	 *
+	 * @pre {@code sanitized_href != null}
+	 * @pre {@code link_statuses != null}
+	 * @pre {@code reachabilities != null}
+	 */
+	private boolean isReachable(String sanitized_href,
+								Map<String, CompletableFuture<LinkStatus>> link_statuses,
+								Map<String, Reachability> reachabilities) throws Exception
+	{
+		Reachability reachability = reachabilities.get(sanitized_href);
+		if(reachability == null) {
+			try {
+				reachability = new Reachability(checkReachable(sanitized_href, link_statuses), null);
+			} catch (Exception e) {
+				reachability = new Reachability(false, e);
+			}
+			reachabilities.put(sanitized_href, reachability);
+		}
+		if(reachability.error != null) {
+			throw reachability.error;
+		}
+		return reachability.reachable;
+	}
+
+	private boolean checkReachable(String sanitized_href, Map<String, CompletableFuture<LinkStatus>> link_statuses) throws IOException {
+		CompletableFuture<LinkStatus> pending = link_statuses.get(sanitized_href);
+		if(pending == null) {
+			pending = link_status_cache.check(sanitized_href);
+		}
+		LinkStatus status = pending.join();
+		if(status.getVerdict() == LinkStatus.Verdict.ERROR) {
+			throw new IOException(status.getError());
+		}
+		return status.isReachable();
+	}
+
+	/**
+	 * Outcome of resolving and validating one href.
+	 */
+	private static final class Destination {
+		private final String sanitized_href;
+		private final MalformedURLException format_error;
+
+		Destination(String sanitized_href, MalformedURLException format_error) {
+			this.sanitized_href = sanitized_href;
+			this.format_error = format_error;
+		}
+	}
+
+	/**
+	 * Outcome of checking whether one destination can be reached.
+	 */
+	private static final class Reachability {
+		private final boolean reachable;
+		private final Exception error;
+
+		Reachability(boolean reachable, Exception error) {
+			this.reachable = reachable;
+			this.error = error;
+		}
+	}
 }
@@ -2,11 +2,13 @@ package com.looksee.audit.informationArchitecture.audits;
 
 import java.net.MalformedURLException;
 import java.net.URISyntaxException;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.Objects;
 import java.util.Set;
 
-import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
 import org.jsoup.select.Elements;
@@ -17,7 +19,6 @@ import com.looksee.models.PageState;
 import com.looksee.models.audit.Audit;
 import com.looksee.models.audit.AuditRecord;
 import com.looksee.models.audit.Score;
-import com.looksee.models.audit.interfaces.IExecutablePageStateAudit;
 import com.looksee.models.audit.messages.UXIssueMessage;
 import com.looksee.models.designsystem.DesignSystem;
 import com.looksee.models.enums.AuditCategory;
@@ -41,7 +42,7 @@ import io.whelk.flesch.kincaid.ReadabilityCalculator;
  * {@code issue_message_service}) are non-null after Spring construction.</p>
  */
 @Component
-public class MetadataAudit implements IExecutablePageStateAudit {
+public class MetadataAudit implements IExecutablePageContextAudit {
 	
 	@Autowired
 	private AuditService audit_service;
@@ -54,21 +55,22 @@ public class MetadataAudit implements IExecutablePageStateAudit {
 	 *
 	 * Evaluates page metadata including title, description, and refresh tags.
 	 *
-	 * @pre {@code page_state != null}
+	 * @pre {@code page_context != null}
 	 * @post returned {@code Audit} is non-null and persisted
 	 */
 	@Override
-	public Audit execute(PageState page_state,
+	public Audit execute(PageContext page_context,
 						 AuditRecord audit_record,
 						 DesignSystem design_system)
 	{
-		Objects.requireNonNull(page_state, "page_state must not be null");
-		Set<UXIssueMessage> issue_messages = new HashSet<>();
+		Objects.requireNonNull(page_context, "page_context must not be null");
+		PageState page_state = page_context.getPageState();
+		Set<UXIssueMessage> issue_messages = Collections.newSetFromMap(new IdentityHashMap<>());
 		//List<PageVersion> pages = domain_service.getPages(domain.getHost());
 
-		Score title_score = scoreTitle(page_state);
-		Score description_score = scoreDescription(page_state);
-		Score refresh_score = scoreRefreshes(page_state);
+		Score title_score = scoreTitle(page_context);
+		Score description_score = scoreDescription(page_context);
+		Score refresh_score = scoreRefreshes(page_context);
 		// Score keyword_score = scoreKeywords(page_state);   TODO: uncomment once keywords are part of dataset
 		
 		issue_messages.addAll(title_score.getIssueMessages());
@@ -99,7 +101,7 @@ public class MetadataAudit implements IExecutablePageStateAudit {
 								 false);
 
 		Objects.requireNonNull(audit, "Postcondition failed: audit must not be null");
-		return audit_service.save(audit);
+		return page_context.saveAudit(audit, audit_service);
 	}
 
 	/**
@@ -122,10 +124,16 @@ public class MetadataAudit implements IExecutablePageStateAudit {
 	 */
 	private Score scoreTitle(PageState page_state) {
 		Objects.requireNonNull(page_state, "page_state must not be null");
+		return scoreTitle(new PageContext(page_state));
+	}
+
+	private Score scoreTitle(PageContext page_context) {
+		Objects.requireNonNull(page_context, "page_context must not be null");
+		PageState page_state = page_context.getPageState();
 
 		int points_achieved = 0;
 		int max_points = 1;
-		Set<UXIssueMessage> issue_messages = new HashSet<>();
+		Set<UXIssueMessage> issue_messages = Collections.newSetFromMap(new IdentityHashMap<>());
 		
 		//extract title from page_state
 		String page_title = page_state.getTitle();
@@ -161,7 +169,7 @@ public class MetadataAudit implements IExecutablePageStateAudit {
 														1,
 														recommendation);
 			
-			issue_messages.add(issue_message_service.save(ux_issue));
+			issue_messages.add(page_context.saveIssueMessage(ux_issue, issue_message_service));
 
 		}
 		else {
@@ -199,7 +207,7 @@ public class MetadataAudit implements IExecutablePageStateAudit {
 														1,
 														recommendation );
 			
-			issue_messages.add(issue_message_service.save(ux_issue));
+			issue_messages.add(page_context.saveIssueMessage(ux_issue, issue_message_service));
 
 		}
 		max_points++;
@@ -241,7 +249,7 @@ public class MetadataAudit implements IExecutablePageStateAudit {
 
 		int points_achieved = 0;
 		int max_points = 0;
-		Set<UXIssueMessage> issue_messages = new HashSet<>();
+		Set<UXIssueMessage> issue_messages = Collections.newSetFromMap(new IdentityHashMap<>());
 		
 		//extract keywords from metadata tags for keywords
 		//add keywords to page_state
@@ -260,15 +268,19 @@ public class MetadataAudit implements IExecutablePageStateAudit {
 	 */
 	private Score scoreDescription(PageState page_state) {
 		Objects.requireNonNull(page_state, "page_state must not be null");
+		return scoreDescription(new PageContext(page_state));
+	}
+
+	private Score scoreDescription(PageContext page_context) {
+		Objects.requireNonNull(page_context, "page_context must not be null");
 		int score = 0;
 		int max_points = 0;
 		
 		int description_count = 0;
-		Set<UXIssueMessage> issue_messages = new HashSet<>();
+		Set<UXIssueMessage> issue_messages = Collections.newSetFromMap(new IdentityHashMap<>());
 
-		Document html_doc = Jsoup.parse(page_state.getSrc());
 		//review element tree top down to identify elements that own text.
-		Elements meta_elements = html_doc.getElementsByTag("meta");
+		List<Element> meta_elements = page_context.getElementsByTag("meta");
 		//List<Element> jsoup_elements = body_elem.get(0).children();
 		Set<String> labels = new HashSet<>();
 		labels.add("information_architecture");
@@ -310,7 +322,7 @@ public class MetadataAudit implements IExecutablePageStateAudit {
 																	1,
 																	recommendation);
 						
-						issue_messages.add(issue_message_service.save(issue_msg));
+						issue_messages.add(page_context.saveIssueMessage(issue_msg, issue_message_service));
 					}
 					else if (meta_description.length() > 150) {
 						String recommendation = "Try to be more concise with your meta description and make sure the description is no longer than 150 characters";
@@ -334,7 +346,7 @@ public class MetadataAudit implements IExecutablePageStateAudit {
 																	1,
 																	recommendation);
 						
-						issue_messages.add(issue_message_service.save(issue_msg));
+						issue_messages.add(page_context.saveIssueMessage(issue_msg, issue_message_service));
 					}
 					else {
 						String recommendation = "Add some more context to your description, so that it's easy for a user to understand if they will find what they are looking for on the page";
@@ -358,7 +370,7 @@ public class MetadataAudit implements IExecutablePageStateAudit {
 																	1,
 																	recommendation);
 
-						issue_messages.add(issue_message_service.save(issue_msg));
+						issue_messages.add(page_context.saveIssueMessage(issue_msg, issue_message_service));
 					}
 				
 					//if element with type description contains text that is between 5-8th grade reading level then add 1 to score
@@ -389,7 +401,7 @@ public class MetadataAudit implements IExecutablePageStateAudit {
 																	  1, 
 																	  recommendation);
 						
-						issue_messages.add(issue_message_service.save(issue_msg));
+						issue_messages.add(page_context.saveIssueMessage(issue_msg, issue_message_service));
 					}
 					else {
 						String recommendation = "Simplify the language in your meta description so that it is within the 5-7 grade reading level";
@@ -417,7 +429,7 @@ public class MetadataAudit implements IExecutablePageStateAudit {
 																	1,
 																	recommendation);
 						
-						issue_messages.add(issue_message_service.save(issue_msg));
+						issue_messages.add(page_context.saveIssueMessage(issue_msg, issue_message_service));
 					}
 				}
 				else {
@@ -442,7 +454,7 @@ public class MetadataAudit implements IExecutablePageStateAudit {
 																1,
 																recommendation);
 					
-					issue_messages.add(issue_message_service.save(issue_msg));
+					issue_messages.add(page_context.saveIssueMessage(issue_msg, issue_message_service));
 				}
 			}
 			max_points += 5;
@@ -471,7 +483,7 @@ public class MetadataAudit implements IExecutablePageStateAudit {
 														2,
 														recommendation);
 			
-			issue_messages.add(issue_message_service.save(issue_msg));
+			issue_messages.add(page_context.saveIssueMessage(issue_msg, issue_message_service));
 		}
 		if(description_count > 1) {
 			score = score / description_count;
@@ -497,7 +509,7 @@ public class MetadataAudit implements IExecutablePageStateAudit {
 														2,
 														recommendation);
 			
-			issue_messages.add(issue_message_service.save(issue_msg));
+			issue_messages.add(page_context.saveIssueMessage(issue_msg, issue_message_service));
 		}
 		
 		return new Score(score, max_points, issue_messages);
@@ -505,12 +517,17 @@ public class MetadataAudit implements IExecutablePageStateAudit {
 	
 	private Score scoreRefreshes(PageState page_state) {
 		Objects.requireNonNull(page_state, "page_state must not be null");
+		return scoreRefreshes(new PageContext(page_state));
+	}
+
+	private Score scoreRefreshes(PageContext page_context) {
+		Objects.requireNonNull(page_context, "page_context must not be null");
 		
 		int score = 0;
 		int max_points = 1;
-		Set<UXIssueMessage> issue_messages = new HashSet<>();
+		Set<UXIssueMessage> issue_messages = Collections.newSetFromMap(new IdentityHashMap<>());
 
-		Document html_doc = Jsoup.parse(page_state.getSrc());
+		Document html_doc = page_context.getDocument();
 		//review element tree top down to identify elements that own text.
 		Elements meta_elements = html_doc.getElementsByTag("meta");
 		//List<Element> jsoup_elements = body_elem.get(0).children();
@@ -549,7 +566,7 @@ public class MetadataAudit implements IExecutablePageStateAudit {
 														1,
 														recommendation);
 			
-			issue_messages.add(issue_message_service.save(issue_msg));
+			issue_messages.add(page_context.saveIssueMessage(issue_msg, issue_message_service));
 		}
 		else {
 			String recommendation = "Remove the meta tag with the attribute name='refresh'";
@@ -572,7 +589,7 @@ public class MetadataAudit implements IExecutablePageStateAudit {
 														1,
 														recommendation);
 			
-			issue_messages.add(issue_message_service.save(issue_msg));
+			issue_messages.add(page_context.saveIssueMessage(issue_msg, issue_message_service));
 		}
 		
 		return new Score(score, max_points, issue_messages);
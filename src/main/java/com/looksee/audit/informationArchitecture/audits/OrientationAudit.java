@@ -8,19 +8,19 @@ import java.util.List;
 import java.util.Objects;
 import java.util.Set;
 
-import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
-import org.jsoup.select.Elements;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import com.looksee.audit.informationArchitecture.rules.ElementRule;
+import com.looksee.audit.informationArchitecture.rules.ElementRuleEngine;
+import com.looksee.audit.informationArchitecture.rules.ElementRuleMatches;
 import com.looksee.models.ElementState;
 import com.looksee.models.PageState;
 import com.looksee.models.audit.Audit;
 import com.looksee.models.audit.AuditRecord;
 import com.looksee.models.audit.GenericIssue;
-import com.looksee.models.audit.interfaces.IExecutablePageStateAudit;
 import com.looksee.models.audit.messages.ElementStateIssueMessage;
 import com.looksee.models.audit.messages.UXIssueMessage;
 import com.looksee.models.designsystem.DesignSystem;
@@ -40,7 +40,14 @@ import com.looksee.services.ElementStateService;
  * {@code elementStateService}) are non-null after Spring construction.</p>
  */
 @Component
-public class OrientationAudit implements IExecutablePageStateAudit {
+public class OrientationAudit implements IExecutablePageContextAudit {
+
+	static final ElementRule STYLE_TAGS = ElementRule.forTags("orientation.style-tags", "style");
+	// meta[name=viewport]
+	static final ElementRule VIEWPORT_META = new ElementRule("orientation.viewport-meta", Set.of("meta"), Set.of("name"), ElementRule.attributeEquals("name", "viewport"));
+
+	/** Rules backing {@link #checkOrientationMatches(ElementRuleMatches)}. */
+	static final ElementRuleEngine RULES = new ElementRuleEngine(List.of(STYLE_TAGS, VIEWPORT_META));
 
 	@Autowired
 	private AuditService auditService;
@@ -60,13 +67,14 @@ public class OrientationAudit implements IExecutablePageStateAudit {
 	 *
 	 * Checks for CSS or viewport-based orientation restrictions on the page.
 	 *
-	 * @pre {@code page_state != null}
+	 * @pre {@code page_context != null}
 	 * @pre {@code audit_record != null}
 	 * @post returned {@code Audit} is non-null and persisted
 	 */
 	@Override
-	public Audit execute(PageState page_state, AuditRecord audit_record, DesignSystem design_system) {
-		Objects.requireNonNull(page_state, "page_state must not be null");
+	public Audit execute(PageContext page_context, AuditRecord audit_record, DesignSystem design_system) {
+		Objects.requireNonNull(page_context, "page_context must not be null");
+		PageState page_state = page_context.getPageState();
 		Objects.requireNonNull(audit_record, "audit_record must not be null");
 
 		//check if page state already had a link audit performed.
@@ -79,11 +87,10 @@ public class OrientationAudit implements IExecutablePageStateAudit {
 		labels.add("tables");
 		labels.add("wcag");
 		
-		Document jsoup_doc = Jsoup.parse(page_state.getSrc());
-        List<GenericIssue> issues = checkOrientationRestrictions(jsoup_doc);
+        List<GenericIssue> issues = checkOrientationMatches(page_context.getRuleMatches());
         
         for(GenericIssue issue: issues){
-            ElementState element_state = elementStateService.findByPageAndCssSelector(page_state.getId(), issue.getCssSelector());
+            ElementState element_state = page_context.findElementState(issue.getCssSelector(), elementStateService);
             UXIssueMessage issue_msg = new ElementStateIssueMessage(Priority.HIGH,
                                                                 issue.getDescription(),
                                                                 issue.getRecommendation(),
@@ -124,7 +131,7 @@ public class OrientationAudit implements IExecutablePageStateAudit {
 								 true);
 
 		Objects.requireNonNull(audit, "Postcondition failed: audit must not be null");
-		return auditService.save(audit);
+		return page_context.saveAudit(audit, auditService);
 	}
 
     /**
@@ -138,13 +145,26 @@ public class OrientationAudit implements IExecutablePageStateAudit {
      */
     public static List<GenericIssue> checkOrientationRestrictions(Document doc) {
         Objects.requireNonNull(doc, "Document must not be null");
+        return checkOrientationMatches(RULES.run(doc));
+    }
+
+    /**
+     * Checks elements already matched by {@link #RULES} for orientation restrictions, so the
+     * document does not have to be walked again.
+     *
+     * @pre {@code matches != null}
+     * @post returned list is non-null
+     * @param matches matches from an engine that includes {@link #RULES}
+     * @return a list of orientation restriction issues found
+     */
+    public static List<GenericIssue> checkOrientationMatches(ElementRuleMatches matches) {
+        Objects.requireNonNull(matches, "matches must not be null");
         List<GenericIssue> issues = new ArrayList<>();
 
         // Check for any media queries that restrict orientation
-        Elements styleTags = doc.select("style");
         boolean orientationRestrictionFound = false;
 
-        for (Element styleTag : styleTags) {
+        for (Element styleTag : matches.get(STYLE_TAGS)) {
             String styleContent = styleTag.html();
 
             // Check for orientation media queries
@@ -155,8 +175,7 @@ public class OrientationAudit implements IExecutablePageStateAudit {
         }
 
         // Additionally, check for any meta viewport tags that might suggest an orientation lock
-        Elements metaTags = doc.select("meta[name=viewport]");
-        for (Element metaTag : metaTags) {
+        for (Element metaTag : matches.get(VIEWPORT_META)) {
             String content = metaTag.attr("content");
             if (content.contains("orientation")) {
                 System.out.println("Warning: Viewport meta tag suggests possible orientation restriction: " + metaTag);
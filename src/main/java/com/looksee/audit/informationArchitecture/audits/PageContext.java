@@ -0,0 +1,568 @@
+package com.looksee.audit.informationArchitecture.audits;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Attribute;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.jsoup.select.Elements;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.looksee.audit.informationArchitecture.rules.ElementRuleMatches;
+import com.looksee.audit.informationArchitecture.services.ElementStatePropertyLoader;
+import com.looksee.audit.informationArchitecture.services.PersistenceBuffer;
+import com.looksee.models.ElementState;
+import com.looksee.models.PageState;
+import com.looksee.models.audit.Audit;
+import com.looksee.models.audit.messages.UXIssueMessage;
+import com.looksee.services.AuditService;
+import com.looksee.services.BrowserService;
+import com.looksee.services.ElementStateService;
+import com.looksee.services.PageStateService;
+import com.looksee.services.UXIssueMessageService;
+
+/**
+ * Per-message view of a {@link PageState} that parses the page source at most once and
+ * shares the resulting {@link Document} with every audit run for that message.
+ *
+ * <p>The document, the element indexes (by tag, by id and by attribute name) and the
+ * element rule matches are built lazily on first use, so audits that only need the
+ * {@link PageState} never pay for a parse. The rule matches come from one walk of the
+ * document shared by every rule-based audit, and so do the CSS selectors audits report
+ * issues against ({@link #getSelectorIndex()}). A single context may be read from several audit threads at once; audits must
+ * treat the document as read-only.</p>
+ *
+ * <p>Audits resolve issues to {@link ElementState}s through {@link #findElementState}. When
+ * the context was created with a {@link PageStateService}, every element state of the page is
+ * loaded with one query on first lookup and later lookups are served from an
+ * {@link ElementStateIndex}. Otherwise each distinct selector is queried once and
+ * remembered. {@link #getElementStateRoundTrips()} reports the queries made either way.
+ * Audits that scan every element state of the page share the same bulk load through
+ * {@link #getElementStates} and read rendered CSS values from one
+ * {@link RenderedStyleTable} ({@link #getRenderedStyles}).</p>
+ *
+ * <p>Audits persist issue messages and their own result through {@link #saveIssueMessage},
+ * {@link #addElement} and {@link #saveAudit}. With a {@link PersistenceBuffer} these writes
+ * are queued until the buffer is flushed; without one they go straight to the service.</p>
+ *
+ * <p><b>Class invariant:</b> {@code page_state} is non-null, and once built the document
+ * and indexes never change.</p>
+ */
+public final class PageContext {
+	private static Logger log = LoggerFactory.getLogger(PageContext.class);
+
+	private final PageState page_state;
+	private final PageStateService page_state_service;
+	private final PersistenceBuffer persistence_buffer;
+	private final AtomicInteger element_state_round_trips = new AtomicInteger();
+	private final ConcurrentMap<String, Optional<ElementState>> element_state_lookups = new ConcurrentHashMap<>();
+
+	private volatile String source;
+	private volatile Document document;
+	private volatile Indexes indexes;
+	private volatile ElementRuleMatches rule_matches;
+	private volatile ElementSelectorIndex selector_index;
+	private volatile List<ElementState> element_states;
+	private volatile RenderedStyleTable rendered_styles;
+	private volatile ElementStateIndex element_state_index;
+	private volatile boolean element_state_index_failed;
+
+	/**
+	 * Creates a context for the given page. The source is not read or parsed until needed.
+	 * Element states are looked up one selector at a time.
+	 *
+	 * @param page_state page being audited
+	 *
+	 * @pre {@code page_state != null}
+	 */
+	public PageContext(PageState page_state) {
+		this(page_state, null);
+	}
+
+	/**
+	 * Creates a context for the given page that bulk loads the page's element states on the
+	 * first element state lookup.
+	 *
+	 * @param page_state         page being audited
+	 * @param page_state_service service used to load every element state of the page in one
+	 *                           query; {@code null} to look up one selector at a time
+	 *
+	 * @pre {@code page_state != null}
+	 */
+	public PageContext(PageState page_state, PageStateService page_state_service) {
+		this(page_state, page_state_service, null);
+	}
+
+	/**
+	 * Creates a context for the given page whose audits queue their writes in
+	 * {@code persistence_buffer}.
+	 *
+	 * @param page_state         page being audited
+	 * @param page_state_service service used to bulk load the page's element states;
+	 *                           {@code null} to look up one selector at a time
+	 * @param persistence_buffer buffer that collects the audits' writes until it is flushed;
+	 *                           {@code null} to write immediately
+	 *
+	 * @pre {@code page_state != null}
+	 */
+	public PageContext(PageState page_state, PageStateService page_state_service, PersistenceBuffer persistence_buffer) {
+		this.page_state = Objects.requireNonNull(page_state, "page_state must not be null");
+		this.page_state_service = page_state_service;
+		this.persistence_buffer = persistence_buffer;
+	}
+
+	/**
+	 * @return the page being audited
+	 *
+	 * @post returned value is non-null
+	 */
+	public PageState getPageState() {
+		return page_state;
+	}
+
+	/**
+	 * Returns the page source, reading it from the {@link PageState} on first call.
+	 *
+	 * @return the page HTML source
+	 *
+	 * @pre {@code getPageState().getSrc() != null}
+	 * @post returned value is non-null
+	 */
+	public String getSource() {
+		String src = source;
+		if(src == null) {
+			synchronized(this) {
+				src = source;
+				if(src == null) {
+					src = Objects.requireNonNull(page_state.getSrc(), "page source must not be null");
+					source = src;
+				}
+			}
+		}
+		return src;
+	}
+
+	/**
+	 * Returns the parsed page, parsing the source on first call.
+	 *
+	 * @return the parsed document shared by all audits for this page
+	 *
+	 * @pre {@code getPageState().getSrc() != null}
+	 * @post returned value is non-null and is the same instance on every call
+	 */
+	public Document getDocument() {
+		Document doc = document;
+		if(doc == null) {
+			synchronized(this) {
+				doc = document;
+				if(doc == null) {
+					doc = Jsoup.parse(getSource());
+					document = doc;
+				}
+			}
+		}
+		return doc;
+	}
+
+	/**
+	 * Returns every element with the given tag name in document order.
+	 *
+	 * @param tag tag name, matched case-insensitively
+	 * @return unmodifiable list of matching elements, empty if there are none
+	 *
+	 * @pre {@code tag != null}
+	 * @post returned value is non-null
+	 */
+	public List<Element> getElementsByTag(String tag) {
+		Objects.requireNonNull(tag, "tag must not be null");
+		return indexes().by_tag.getOrDefault(tag.trim().toLowerCase(), Collections.emptyList());
+	}
+
+	/**
+	 * Returns the first element in document order with the given id.
+	 *
+	 * @param id element id, matched exactly
+	 * @return the element, or {@code null} if no element has that id
+	 *
+	 * @pre {@code id != null}
+	 */
+	public Element getElementById(String id) {
+		Objects.requireNonNull(id, "id must not be null");
+		return indexes().by_id.get(id);
+	}
+
+	/**
+	 * Returns every element that declares the given attribute in document order.
+	 *
+	 * @param attribute attribute name, matched case-insensitively
+	 * @return unmodifiable list of matching elements, empty if there are none
+	 *
+	 * @pre {@code attribute != null}
+	 * @post returned value is non-null
+	 */
+	public List<Element> getElementsWithAttribute(String attribute) {
+		Objects.requireNonNull(attribute, "attribute must not be null");
+		return indexes().by_attribute.getOrDefault(attribute.trim().toLowerCase(), Collections.emptyList());
+	}
+
+	/**
+	 * Returns the elements matched by every page audit's element rules. The rules are matched
+	 * in a single walk of the document on first call.
+	 *
+	 * @return rule matches shared by all audits for this page
+	 *
+	 * @pre {@code getPageState().getSrc() != null}
+	 * @post returned value is non-null and is the same instance on every call
+	 */
+	public ElementRuleMatches getRuleMatches() {
+		ElementRuleMatches matches = rule_matches;
+		if(matches == null) {
+			synchronized(this) {
+				matches = rule_matches;
+				if(matches == null) {
+					matches = PageRules.ENGINE.run(getDocument());
+					rule_matches = matches;
+				}
+			}
+		}
+		return matches;
+	}
+
+	/**
+	 * Returns the CSS selector of every element of the page, computed in one walk of the
+	 * document on first call.
+	 *
+	 * @return selectors shared by all audits for this page
+	 *
+	 * @pre {@code getPageState().getSrc() != null}
+	 * @post returned value is non-null and is the same instance on every call
+	 */
+	public ElementSelectorIndex getSelectorIndex() {
+		ElementSelectorIndex index = selector_index;
+		if(index == null) {
+			synchronized(this) {
+				index = selector_index;
+				if(index == null) {
+					index = ElementSelectorIndex.of(getDocument());
+					selector_index = index;
+				}
+			}
+		}
+		return index;
+	}
+
+	/**
+	 * Returns every element state of the page, loaded with one query on first call. The
+	 * context's own {@link PageStateService} is used when it has one, otherwise
+	 * {@code page_state_service}.
+	 *
+	 * @param page_state_service service used when the context was created without one
+	 * @return unmodifiable list of the page's element states shared by all audits for this page
+	 *
+	 * @pre {@code page_state_service != null}
+	 * @post returned value is non-null and is the same instance on every call
+	 */
+	public List<ElementState> getElementStates(PageStateService page_state_service) {
+		Objects.requireNonNull(page_state_service, "page_state_service must not be null");
+		List<ElementState> states = element_states;
+		if(states == null) {
+			synchronized(this) {
+				states = element_states;
+				if(states == null) {
+					states = loadElementStates(this.page_state_service != null ? this.page_state_service : page_state_service);
+				}
+			}
+		}
+		return states;
+	}
+
+	/**
+	 * Returns the rendered CSS values of every element state of the page, read into columns
+	 * on first call.
+	 *
+	 * @param page_state_service service used to load the element states when the context was
+	 *                           created without one
+	 * @return table shared by all audits for this page
+	 *
+	 * @pre {@code page_state_service != null}
+	 * @post returned value is non-null and is the same instance on every call
+	 */
+	public RenderedStyleTable getRenderedStyles(PageStateService page_state_service) {
+		return getRenderedStyles(page_state_service, null);
+	}
+
+	/**
+	 * Returns the rendered CSS values of every element state of the page, read into columns
+	 * on first call. Unless the page's element states were already loaded for this context,
+	 * the table is {@link RenderedStyleTable#load loaded} through {@code loader} a batch at a
+	 * time, without the element states, and issues are related to its rows by element state id.
+	 *
+	 * @param page_state_service service used to load the element states when the context was
+	 *                           created without one
+	 * @param loader             reads the CSS values without loading the element states;
+	 *                           {@code null} to build the table from the element states
+	 * @return table shared by all audits for this page
+	 *
+	 * @pre {@code page_state_service != null}
+	 * @post returned value is non-null and is the same instance on every call
+	 */
+	public RenderedStyleTable getRenderedStyles(PageStateService page_state_service, ElementStatePropertyLoader loader) {
+		Objects.requireNonNull(page_state_service, "page_state_service must not be null");
+		RenderedStyleTable styles = rendered_styles;
+		if(styles == null) {
+			synchronized(this) {
+				styles = rendered_styles;
+				if(styles == null) {
+					if(loader != null && element_states == null && page_state.getId() != null) {
+						element_state_round_trips.incrementAndGet();
+						styles = RenderedStyleTable.load(page_state.getId(), loader);
+					}
+					else {
+						styles = RenderedStyleTable.of(loadElementStates(this.page_state_service != null ? this.page_state_service : page_state_service));
+					}
+					rendered_styles = styles;
+				}
+			}
+		}
+		return styles;
+	}
+
+	/**
+	 * Resolves a CSS selector to the page's element state.
+	 *
+	 * @param css_selector          selector of the element
+	 * @param element_state_service service used when the page's element states are not bulk
+	 *                              loaded
+	 * @return the element state, or {@code null} if the page has none with that selector
+	 *
+	 * @pre {@code css_selector != null}
+	 * @pre {@code element_state_service != null}
+	 */
+	public ElementState findElementState(String css_selector, ElementStateService element_state_service) {
+		Objects.requireNonNull(css_selector, "css_selector must not be null");
+		Objects.requireNonNull(element_state_service, "element_state_service must not be null");
+
+		ElementStateIndex index = elementStateIndex();
+		if(index != null) {
+			return index.findByCssSelector(css_selector);
+		}
+		return element_state_lookups.computeIfAbsent(css_selector, selector -> {
+			element_state_round_trips.incrementAndGet();
+			return Optional.ofNullable(element_state_service.findByPageAndCssSelector(page_state.getId(), selector));
+		}).orElse(null);
+	}
+
+	/**
+	 * Resolves a jsoup XPath to the page's element state, falling back to the CSS selector
+	 * generated from it when no element state was stored with that XPath.
+	 *
+	 * @param xpath                 XPath of the element, as built by {@link BrowserService#getXPath}
+	 * @param element_state_service service used when the page's element states are not bulk
+	 *                              loaded
+	 * @return the element state, or {@code null} if none matches
+	 *
+	 * @pre {@code xpath != null}
+	 * @pre {@code element_state_service != null}
+	 */
+	public ElementState findElementStateByXpath(String xpath, ElementStateService element_state_service) {
+		Objects.requireNonNull(xpath, "xpath must not be null");
+		Objects.requireNonNull(element_state_service, "element_state_service must not be null");
+
+		ElementStateIndex index = elementStateIndex();
+		if(index != null) {
+			ElementState element_state = index.findByXpath(xpath);
+			if(element_state != null) {
+				return element_state;
+			}
+		}
+		return findElementState(BrowserService.generateCssSelectorFromXpath(xpath), element_state_service);
+	}
+
+	/**
+	 * @return number of element state queries made for this page so far
+	 *
+	 * @post returned value is non-negative
+	 */
+	public int getElementStateRoundTrips() {
+		return element_state_round_trips.get();
+	}
+
+	/**
+	 * Saves an issue message, or queues it when this context has a persistence buffer.
+	 *
+	 * @return the saved message, or {@code issue_message} itself when queued
+	 *
+	 * @pre {@code issue_message != null}
+	 * @pre {@code issue_message_service != null}
+	 */
+	public UXIssueMessage saveIssueMessage(UXIssueMessage issue_message, UXIssueMessageService issue_message_service) {
+		Objects.requireNonNull(issue_message, "issue_message must not be null");
+		Objects.requireNonNull(issue_message_service, "issue_message_service must not be null");
+		if(persistence_buffer != null) {
+			return persistence_buffer.saveIssueMessage(issue_message, issue_message_service);
+		}
+		return issue_message_service.save(issue_message);
+	}
+
+	/**
+	 * Relates an issue message to an element state, or queues the relation when this context
+	 * has a persistence buffer.
+	 *
+	 * @param issue_message message returned by {@link #saveIssueMessage}
+	 * @param element_id    id of the element state
+	 *
+	 * @pre {@code issue_message != null}
+	 * @pre {@code issue_message_service != null}
+	 */
+	public void addElement(UXIssueMessage issue_message, long element_id, UXIssueMessageService issue_message_service) {
+		Objects.requireNonNull(issue_message, "issue_message must not be null");
+		Objects.requireNonNull(issue_message_service, "issue_message_service must not be null");
+		if(persistence_buffer != null) {
+			persistence_buffer.addElement(issue_message, element_id, issue_message_service);
+		}
+		else {
+			issue_message_service.addElement(issue_message.getId(), element_id);
+		}
+	}
+
+	/**
+	 * Saves an issue message and relates it to an element state by id, or queues both when
+	 * this context has a persistence buffer.
+	 *
+	 * @param element_id id of the element state
+	 * @return the saved message, or {@code issue_message} itself when queued
+	 *
+	 * @pre {@code issue_message != null}
+	 * @pre {@code issue_message_service != null}
+	 */
+	public UXIssueMessage saveIssueMessage(UXIssueMessage issue_message, long element_id, UXIssueMessageService issue_message_service) {
+		UXIssueMessage saved = saveIssueMessage(issue_message, issue_message_service);
+		addElement(saved, element_id, issue_message_service);
+		return saved;
+	}
+
+	/**
+	 * Saves an audit, or queues it when this context has a persistence buffer.
+	 *
+	 * @return the saved audit, or {@code audit} itself when queued
+	 *
+	 * @pre {@code audit != null}
+	 * @pre {@code audit_service != null}
+	 */
+	public Audit saveAudit(Audit audit, AuditService audit_service) {
+		Objects.requireNonNull(audit, "audit must not be null");
+		Objects.requireNonNull(audit_service, "audit_service must not be null");
+		if(persistence_buffer != null) {
+			return persistence_buffer.saveAudit(audit, audit_service);
+		}
+		return audit_service.save(audit);
+	}
+
+	/**
+	 * Loads the page's element states on first call.
+	 *
+	 * @return the index, or {@code null} if there is no bulk loader or the bulk load failed
+	 */
+	private ElementStateIndex elementStateIndex() {
+		if(page_state_service == null || element_state_index_failed) {
+			return null;
+		}
+		ElementStateIndex index = element_state_index;
+		if(index == null) {
+			synchronized(this) {
+				index = element_state_index;
+				if(index == null && !element_state_index_failed) {
+					try {
+						index = ElementStateIndex.of(loadElementStates(page_state_service));
+						element_state_index = index;
+					}
+					catch(RuntimeException e) {
+						log.warn("Bulk element state load failed for page {}; looking up selectors individually", page_state.getId(), e);
+						element_state_index_failed = true;
+					}
+				}
+			}
+		}
+		return index;
+	}
+
+	/**
+	 * Loads the page's element states unless they were loaded already. Callers hold the lock
+	 * on this context.
+	 */
+	private List<ElementState> loadElementStates(PageStateService service) {
+		List<ElementState> states = element_states;
+		if(states == null) {
+			element_state_round_trips.incrementAndGet();
+			List<ElementState> loaded = service.getElementStates(page_state.getId());
+			states = loaded != null ? Collections.unmodifiableList(loaded) : Collections.emptyList();
+			element_states = states;
+		}
+		return states;
+	}
+
+	private Indexes indexes() {
+		Indexes idx = indexes;
+		if(idx == null) {
+			synchronized(this) {
+				idx = indexes;
+				if(idx == null) {
+					idx = new Indexes(getDocument().getAllElements());
+					indexes = idx;
+				}
+			}
+		}
+		return idx;
+	}
+
+	/**
+	 * Element lookups built from a single walk of the document.
+	 */
+	private static final class Indexes {
+		private final Map<String, List<Element>> by_tag;
+		private final Map<String, Element> by_id;
+		private final Map<String, List<Element>> by_attribute;
+
+		Indexes(Elements elements) {
+			Map<String, List<Element>> tags = new HashMap<>();
+			Map<String, Element> ids = new HashMap<>();
+			Map<String, List<Element>> attributes = new HashMap<>();
+
+			for(Element element : elements) {
+				tags.computeIfAbsent(element.normalName(), k -> new ArrayList<>()).add(element);
+
+				String id = element.id();
+				if(!id.isEmpty()) {
+					ids.putIfAbsent(id, element);
+				}
+
+				for(Attribute attribute : element.attributes()) {
+					attributes.computeIfAbsent(attribute.getKey().toLowerCase(), k -> new ArrayList<>()).add(element);
+				}
+			}
+
+			this.by_tag = freeze(tags);
+			this.by_id = Collections.unmodifiableMap(ids);
+			this.by_attribute = freeze(attributes);
+		}
+
+		private static Map<String, List<Element>> freeze(Map<String, List<Element>> index) {
+			Map<String, List<Element>> frozen = new HashMap<>(index.size() * 2);
+			for(Map.Entry<String, List<Element>> entry : index.entrySet()) {
+				frozen.put(entry.getKey(), Collections.unmodifiableList(entry.getValue()));
+			}
+			return Collections.unmodifiableMap(frozen);
+		}
+	}
+}
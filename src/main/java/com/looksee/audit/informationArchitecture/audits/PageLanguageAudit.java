@@ -7,7 +7,6 @@ import java.util.List;
 import java.util.Objects;
 import java.util.Set;
 
-import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -16,7 +15,6 @@ import org.springframework.stereotype.Component;
 import com.looksee.models.PageState;
 import com.looksee.models.audit.Audit;
 import com.looksee.models.audit.AuditRecord;
-import com.looksee.models.audit.interfaces.IExecutablePageStateAudit;
 import com.looksee.models.audit.messages.UXIssueMessage;
 import com.looksee.models.designsystem.DesignSystem;
 import com.looksee.models.enums.AuditCategory;
@@ -37,7 +35,7 @@ import com.looksee.services.PageStateService;
  * {@code elementStateService}, {@code pageStateService}) are non-null after Spring construction.</p>
  */
 @Component
-public class PageLanguageAudit implements IExecutablePageStateAudit {
+public class PageLanguageAudit implements IExecutablePageContextAudit {
 
 	@Autowired
 	private AuditService auditService;
@@ -59,13 +57,14 @@ public class PageLanguageAudit implements IExecutablePageStateAudit {
 	 *
 	 * Checks that the page has a valid lang attribute on the html element.
 	 *
-	 * @pre {@code page_state != null}
+	 * @pre {@code page_context != null}
 	 * @pre {@code audit_record != null}
 	 * @post returned {@code Audit} is non-null and persisted
 	 */
 	@Override
-	public Audit execute(PageState page_state, AuditRecord audit_record, DesignSystem design_system) {
-		Objects.requireNonNull(page_state, "page_state must not be null");
+	public Audit execute(PageContext page_context, AuditRecord audit_record, DesignSystem design_system) {
+		Objects.requireNonNull(page_context, "page_context must not be null");
+		PageState page_state = page_context.getPageState();
 		Objects.requireNonNull(audit_record, "audit_record must not be null");
 
 		//check if page state already had a link audit performed.
@@ -77,7 +76,7 @@ public class PageLanguageAudit implements IExecutablePageStateAudit {
 		labels.add("tables");
 		labels.add("wcag");
 		
-        Document jsoup_doc = Jsoup.parse(page_state.getSrc());
+        Document jsoup_doc = page_context.getDocument();
         issue_messages.addAll(checkLanguageCompliance(jsoup_doc));
 
 		String why_it_matters = "Grouping form controls within a <fieldset> element is important for accessibility because it provides a clear, semantic structure that enhances the understanding of the form's organization, especially for users with disabilities. The <fieldset> element, often paired with a <legend>, helps screen readers and other assistive technologies to convey related groups of controls as a single, coherent unit, ensuring that users can navigate and comprehend the form's layout more effectively. This practice aligns with WCAG 2.1 guidelines, supporting a more inclusive and accessible web experience.";
@@ -107,7 +106,7 @@ public class PageLanguageAudit implements IExecutablePageStateAudit {
 								true);
 
 		Objects.requireNonNull(audit, "Postcondition failed: audit must not be null");
-		return auditService.save(audit);
+		return page_context.saveAudit(audit, auditService);
 	}
 
     // Set of all valid ISO 639-1 language codes
@@ -0,0 +1,29 @@
+package com.looksee.audit.informationArchitecture.audits;
+
+import com.looksee.audit.informationArchitecture.models.ListStructureAudit;
+import com.looksee.audit.informationArchitecture.models.WcagEmphasisComplianceAudit;
+import com.looksee.audit.informationArchitecture.rules.ElementRuleEngine;
+
+/**
+ * Element rules of every page audit that reads the document through
+ * {@link PageContext#getRuleMatches()}. Combining them lets a single walk of the document
+ * serve all of those audits.
+ *
+ * <p>An audit that adds a rule to its own {@code RULES} engine is picked up automatically; an
+ * audit that starts using {@link PageContext#getRuleMatches()} must be added here, otherwise
+ * looking up its rules fails with an {@link IllegalArgumentException}.</p>
+ */
+final class PageRules {
+
+	static final ElementRuleEngine ENGINE = ElementRuleEngine.combine(HeaderStructureAudit.RULES,
+																	  OrientationAudit.RULES,
+																	  InputPurposeAudit.RULES,
+																	  IdentifyPurposeAudit.RULES,
+																	  UseOfColorAudit.RULES,
+																	  AudioControlAudit.RULES,
+																	  VisualPresentationAudit.RULES,
+																	  ListStructureAudit.RULES,
+																	  WcagEmphasisComplianceAudit.RULES);
+
+	private PageRules() {}
+}
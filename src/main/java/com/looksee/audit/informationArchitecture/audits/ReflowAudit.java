@@ -9,11 +9,13 @@ import java.util.Set;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import com.looksee.audit.informationArchitecture.audits.RenderedStyleTable.Keyword;
+import com.looksee.audit.informationArchitecture.audits.RenderedStyleTable.Length;
+import com.looksee.audit.informationArchitecture.services.ElementStatePropertyLoader;
 import com.looksee.models.ElementState;
 import com.looksee.models.PageState;
 import com.looksee.models.audit.Audit;
 import com.looksee.models.audit.AuditRecord;
-import com.looksee.models.audit.interfaces.IExecutablePageStateAudit;
 import com.looksee.models.audit.messages.UXIssueMessage;
 import com.looksee.models.designsystem.DesignSystem;
 import com.looksee.models.enums.AuditCategory;
@@ -34,7 +36,7 @@ import com.looksee.services.PageStateService;
  * {@code elementStateService}, {@code pageStateService}) are non-null after Spring construction.</p>
  */
 @Component
-public class ReflowAudit implements IExecutablePageStateAudit {
+public class ReflowAudit implements IExecutablePageContextAudit {
 
 	@Autowired
 	private AuditService auditService;
@@ -45,6 +47,11 @@ public class ReflowAudit implements IExecutablePageStateAudit {
     @Autowired
     private PageStateService pageStateService;
 
+    // absent when audit.element-states.paged-load is false; the rendered styles are then
+    // read from the element states loaded through the page context
+    @Autowired(required = false)
+    private ElementStatePropertyLoader elementStatePropertyLoader;
+
 	List<String> bad_link_text_list;
 	
 	public ReflowAudit() {
@@ -57,13 +64,14 @@ public class ReflowAudit implements IExecutablePageStateAudit {
 	 * Evaluates page elements for reflow compliance, identifying fixed-width elements
 	 * that may cause horizontal scrolling.
 	 *
-	 * @pre {@code page_state != null}
+	 * @pre {@code page_context != null}
 	 * @pre {@code audit_record != null}
 	 * @post returned {@code Audit} is non-null and persisted
 	 */
 	@Override
-	public Audit execute(PageState page_state, AuditRecord audit_record, DesignSystem design_system) {
-		Objects.requireNonNull(page_state, "page_state must not be null");
+	public Audit execute(PageContext page_context, AuditRecord audit_record, DesignSystem design_system) {
+		Objects.requireNonNull(page_context, "page_context must not be null");
+		PageState page_state = page_context.getPageState();
 		Objects.requireNonNull(audit_record, "audit_record must not be null");
 
 		//check if page state already had a link audit performed.
@@ -75,7 +83,7 @@ public class ReflowAudit implements IExecutablePageStateAudit {
 		labels.add("tables");
 		labels.add("wcag");
 		
-        issue_messages.addAll(checkForCompliance(page_state));
+        issue_messages.addAll(checkForCompliance(page_context.getRenderedStyles(pageStateService, elementStatePropertyLoader)));
         
         
 
@@ -106,14 +114,28 @@ public class ReflowAudit implements IExecutablePageStateAudit {
                                 true);
 
 		Objects.requireNonNull(audit, "Postcondition failed: audit must not be null");
-		return auditService.save(audit);
+		return page_context.saveAudit(audit, auditService);
 	}
 
-    private List<UXIssueMessage> checkForCompliance(PageState page_state) {
-        List<UXIssueMessage> issues = new ArrayList<>();
-        List<ElementState> elements = pageStateService.getElementStates(page_state.getId());
-        for(ElementState element: elements){
-            issues.add(checkElementForReflowCompliance(element));
+    /**
+     * Checks every element state of the page for reflow compliance, reading their width and
+     * overflow from {@code styles}.
+     *
+     * @pre {@code styles != null}
+     * @post returned list is non-null and has one message per element state
+     */
+    private List<UXIssueMessage> checkForCompliance(RenderedStyleTable styles) {
+        Objects.requireNonNull(styles, "styles must not be null");
+        List<UXIssueMessage> issues = new ArrayList<>(styles.size());
+        int visible = styles.codeOf(Keyword.OVERFLOW, "visible");
+        for(int row = 0; row < styles.size(); row++) {
+            boolean fixed_width = isFixedWidth(styles.getUnit(Length.WIDTH, row));
+            boolean overflow_visible = visible != RenderedStyleTable.MISSING && styles.getCode(Keyword.OVERFLOW, row) == visible;
+            ElementState element = styles.getElement(row);
+            String element_description = element != null
+                    ? element.getName() + " with CSS Selector: " + element.getCssSelector()
+                    : "with id " + styles.getElementId(row);
+            issues.add(reflowMessage(element_description, fixed_width && !overflow_visible));
         }
 
         return issues;
@@ -132,8 +154,21 @@ public class ReflowAudit implements IExecutablePageStateAudit {
         String width = element.getRenderedCssValues().get("width");
         String overflow = element.getRenderedCssValues().get("overflow");
 
-        if (isFixedWidth(width) && !"visible".equals(overflow)) {
-            System.out.println("Potential reflow issue found in element: " + element.getName() + " with CSS Selector: " + element.getCssSelector());
+        Objects.requireNonNull(element.getName(), "Postcondition failed: element tag name should not be null");
+        return reflowMessage(element.getName() + " with CSS Selector: " + element.getCssSelector(),
+                             isFixedWidth(width) && !"visible".equals(overflow));
+    }
+
+    /**
+     * @param element_description element the message is about, as logged
+     * @param reflow_issue        whether the element has a fixed width and content that does
+     *                            not stay visible
+     *
+     * @post returned {@code UXIssueMessage} is non-null
+     */
+    private UXIssueMessage reflowMessage(String element_description, boolean reflow_issue) {
+        if (reflow_issue) {
+            System.out.println("Potential reflow issue found in element: " + element_description);
 
             String description = "Web content doesn't properly adjust to fit within the viewport, causing users to scroll horizontally or lose access to information. This often happens on small screens or when zoomed in, making it difficult for users to read or interact with the content effectively.";
             String wcag_compliance = "WCAG 2.1 Section 1.4.10 - Reflow";
@@ -155,8 +190,6 @@ public class ReflowAudit implements IExecutablePageStateAudit {
     
         }
 
-        Objects.requireNonNull(element.getName(), "Postcondition failed: element tag name should not be null");
-
         String description = "Web content adjusts to fit the viewport";
         String wcag_compliance = "WCAG 2.1 Section 1.4.10 - Reflow";
         String why_it_matters = "Reflow matters because it ensures that all users, including those with low vision or those accessing content on smaller screens, can easily read and interact with web content without excessive horizontal scrolling. This improves accessibility by providing a more seamless and user-friendly experience, allowing everyone to access information without barriers.";
@@ -176,17 +209,26 @@ public class ReflowAudit implements IExecutablePageStateAudit {
                                 recommendation);
     }
 
+    /**
+     * Determines if a width given in {@code unit} is fixed.
+     *
+     * @post returns {@code true} if {@code unit} is pixels or a percentage
+     */
+    private boolean isFixedWidth(CssLength.Unit unit) {
+        return unit == CssLength.Unit.PX || unit == CssLength.Unit.PERCENT;
+    }
+
     /**
      * Determines if the CSS width value represents a fixed width.
      *
      * @pre {@code width != null && !width.isEmpty()}
-     * @post returns {@code true} if width ends with "px" or "%"
+     * @post returns {@code true} if width is a length in pixels or a percentage
      */
     private boolean isFixedWidth(String width) {
         Objects.requireNonNull(width, "width must not be null");
         if (width.isEmpty()) {
             throw new IllegalArgumentException("width must not be empty");
         }
-        return width.endsWith("px") || width.endsWith("%");
+        return isFixedWidth(CssLength.parse(width).getUnit());
     }
 }
@@ -0,0 +1,317 @@
+package com.looksee.audit.informationArchitecture.audits;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.IntFunction;
+
+import com.looksee.audit.informationArchitecture.services.ElementStatePropertyLoader;
+import com.looksee.models.ElementState;
+
+/**
+ * The rendered CSS values the layout audits read, for every element state of a page, stored
+ * column by column so that a check over the whole page is a loop over primitive arrays rather
+ * than a map lookup and a parse per element and property.
+ *
+ * <p>Each {@link Length} property is read once per element with {@link CssLength#parse} and
+ * kept as two columns, the number and the ordinal of its unit, so relative values can still be
+ * resolved against the element's own font size. Each {@link Keyword} property is dictionary
+ * encoded: the column holds an index into a list of the distinct values of that property, so
+ * a page with twenty thousand elements and three {@code overflow} values keeps three strings.
+ * Rows are in the order of the element states the table was built from.</p>
+ *
+ * <p>A table {@link #load loaded} through an {@link ElementStatePropertyLoader} is built a batch
+ * of rows at a time from the CSS values alone and holds the id of each element state rather
+ * than the entity, so {@link #getElement} is {@code null} for its rows and issues are related
+ * to {@link #getElementId} instead.</p>
+ *
+ * <p><b>Class invariant:</b> every column holds at least {@link #size()} rows, exactly one of
+ * {@code elements} and {@code element_ids} is non-null, and the table never changes after
+ * construction; it may be shared by several audit threads.</p>
+ */
+public final class RenderedStyleTable {
+
+	/** Row value of a keyword column for an element that does not have the property. */
+	public static final int MISSING = -1;
+
+	private static final byte INVALID_UNIT = -1;
+	private static final CssLength.Unit[] UNITS = CssLength.Unit.values();
+
+	/**
+	 * Length valued properties, kept as a number and a unit.
+	 */
+	public enum Length {
+		FONT_SIZE("font-size"),
+		LINE_HEIGHT("line-height"),
+		LETTER_SPACING("letter-spacing"),
+		WORD_SPACING("word-spacing"),
+		MARGIN_BOTTOM("margin-bottom"),
+		WIDTH("width");
+
+		private final String property;
+
+		Length(String property) {
+			this.property = property;
+		}
+
+		public String getProperty() {
+			return property;
+		}
+	}
+
+	/**
+	 * Keyword valued properties, kept as an index into the property's distinct values.
+	 */
+	public enum Keyword {
+		OVERFLOW("overflow");
+
+		private final String property;
+
+		Keyword(String property) {
+			this.property = property;
+		}
+
+		public String getProperty() {
+			return property;
+		}
+	}
+
+	/** CSS properties read for each row, lengths first and then keywords, in column order. */
+	static final List<String> PROPERTIES;
+	static {
+		List<String> properties = new ArrayList<>();
+		for(Length length : Length.values()) {
+			properties.add(length.property);
+		}
+		for(Keyword keyword : Keyword.values()) {
+			properties.add(keyword.property);
+		}
+		PROPERTIES = List.copyOf(properties);
+	}
+
+	private final int size;
+	private final ElementState[] elements;
+	private final long[] element_ids;
+	private final double[][] values;
+	private final byte[][] units;
+	private final int[][] codes;
+	private final List<List<String>> dictionaries;
+
+	private RenderedStyleTable(int size, ElementState[] elements, long[] element_ids, double[][] values, byte[][] units, int[][] codes, List<List<String>> dictionaries) {
+		this.size = size;
+		this.elements = elements;
+		this.element_ids = element_ids;
+		this.values = values;
+		this.units = units;
+		this.codes = codes;
+		this.dictionaries = dictionaries;
+	}
+
+	/**
+	 * Reads the rendered CSS values of {@code element_states} into columns.
+	 *
+	 * @param element_states element states of a single page; null entries are skipped
+	 *
+	 * @pre {@code element_states != null}
+	 * @post returned value is non-null
+	 */
+	public static RenderedStyleTable of(List<ElementState> element_states) {
+		Objects.requireNonNull(element_states, "element_states must not be null");
+
+		ElementState[] elements = element_states.stream().filter(Objects::nonNull).toArray(ElementState[]::new);
+		Builder builder = new Builder(elements.length);
+		for(ElementState element : elements) {
+			Map<String, String> css = element.getRenderedCssValues();
+			builder.add(-1, css != null ? column -> css.get(PROPERTIES.get(column)) : column -> null);
+		}
+		return builder.build(elements, null);
+	}
+
+	/**
+	 * Reads the rendered CSS values of every element state of a page through {@code loader},
+	 * one batch of rows at a time, without loading the element states themselves.
+	 *
+	 * @pre {@code loader != null}
+	 * @post returned value is non-null and {@link #getElement} is {@code null} for every row
+	 */
+	public static RenderedStyleTable load(long page_state_id, ElementStatePropertyLoader loader) {
+		Objects.requireNonNull(loader, "loader must not be null");
+
+		Builder builder = new Builder(256);
+		loader.forEachRenderedCss(page_state_id, PROPERTIES, (element_state_id, row_values) -> builder.add(element_state_id, row_values::get));
+		return builder.build(null, Arrays.copyOf(builder.ids, builder.size));
+	}
+
+	/**
+	 * Appends rows to growing columns.
+	 */
+	private static final class Builder {
+		private final Length[] lengths = Length.values();
+		private final Keyword[] keywords = Keyword.values();
+		private final List<List<String>> dictionaries = new ArrayList<>(keywords.length);
+		private final List<Map<String, Integer>> dictionary_codes = new ArrayList<>(keywords.length);
+		private int size;
+		private long[] ids;
+		private double[][] values;
+		private byte[][] units;
+		private int[][] codes;
+
+		Builder(int capacity) {
+			ids = new long[capacity];
+			values = new double[lengths.length][capacity];
+			units = new byte[lengths.length][capacity];
+			codes = new int[keywords.length][capacity];
+			for(int k = 0; k < keywords.length; k++) {
+				dictionaries.add(new ArrayList<>());
+				dictionary_codes.add(new HashMap<>());
+			}
+		}
+
+		/**
+		 * Appends the row of one element state.
+		 *
+		 * @param css returns the rendered value of the property at an index of
+		 *            {@link #PROPERTIES}, or {@code null}
+		 */
+		void add(long element_state_id, IntFunction<String> css) {
+			if(size == ids.length) {
+				grow();
+			}
+			int row = size++;
+			ids[row] = element_state_id;
+			for(int l = 0; l < lengths.length; l++) {
+				CssLength length = CssLength.parse(css.apply(l));
+				values[l][row] = length.getValue();
+				units[l][row] = length.isValid() ? (byte)length.getUnit().ordinal() : INVALID_UNIT;
+			}
+			for(int k = 0; k < keywords.length; k++) {
+				String value = css.apply(lengths.length + k);
+				if(value == null) {
+					codes[k][row] = MISSING;
+					continue;
+				}
+				List<String> dictionary = dictionaries.get(k);
+				codes[k][row] = dictionary_codes.get(k).computeIfAbsent(value, v -> {
+					dictionary.add(v);
+					return dictionary.size() - 1;
+				});
+			}
+		}
+
+		private void grow() {
+			int capacity = Math.max(16, ids.length * 2);
+			ids = Arrays.copyOf(ids, capacity);
+			for(int l = 0; l < lengths.length; l++) {
+				values[l] = Arrays.copyOf(values[l], capacity);
+				units[l] = Arrays.copyOf(units[l], capacity);
+			}
+			for(int k = 0; k < keywords.length; k++) {
+				codes[k] = Arrays.copyOf(codes[k], capacity);
+			}
+		}
+
+		RenderedStyleTable build(ElementState[] elements, long[] element_ids) {
+			List<List<String>> frozen = new ArrayList<>(keywords.length);
+			for(List<String> dictionary : dictionaries) {
+				frozen.add(List.copyOf(dictionary));
+			}
+			return new RenderedStyleTable(size, elements, element_ids, values, units, codes, List.copyOf(frozen));
+		}
+	}
+
+	/**
+	 * @return number of rows, one per element state
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * @return element state of {@code row}, or {@code null} if the table was {@link #load loaded}
+	 *         without the element states
+	 *
+	 * @pre {@code 0 <= row < size()}
+	 */
+	public ElementState getElement(int row) {
+		return elements != null ? elements[row] : null;
+	}
+
+	/**
+	 * @return id of the element state of {@code row}
+	 *
+	 * @pre {@code 0 <= row < size()}
+	 */
+	public Long getElementId(int row) {
+		return elements != null ? elements[row].getId() : Long.valueOf(element_ids[row]);
+	}
+
+	/**
+	 * @return numeric part of {@code column} in {@code row}, 0 if the value is not a length
+	 *
+	 * @pre {@code column != null}
+	 * @pre {@code 0 <= row < size()}
+	 */
+	public double getValue(Length column, int row) {
+		return values[column.ordinal()][row];
+	}
+
+	/**
+	 * @return unit of {@code column} in {@code row}, or {@code null} if the element does not
+	 *         have the property or its value is not a length
+	 *
+	 * @pre {@code column != null}
+	 * @pre {@code 0 <= row < size()}
+	 */
+	public CssLength.Unit getUnit(Length column, int row) {
+		byte unit = units[column.ordinal()][row];
+		return unit == INVALID_UNIT ? null : UNITS[unit];
+	}
+
+	/**
+	 * @return {@code column} in {@code row} in pixels for an element whose font size is
+	 *         {@code font_size_px}, 0 if the value is not a length
+	 *
+	 * @pre {@code column != null}
+	 * @pre {@code 0 <= row < size()}
+	 */
+	public double toPixels(Length column, int row, double font_size_px) {
+		byte unit = units[column.ordinal()][row];
+		return unit == INVALID_UNIT ? 0.0 : UNITS[unit].toPixels(values[column.ordinal()][row], font_size_px);
+	}
+
+	/**
+	 * @return dictionary code of {@code column} in {@code row}, or {@link #MISSING}
+	 *
+	 * @pre {@code column != null}
+	 * @pre {@code 0 <= row < size()}
+	 */
+	public int getCode(Keyword column, int row) {
+		return codes[column.ordinal()][row];
+	}
+
+	/**
+	 * @return dictionary code of {@code value} in {@code column}, or {@link #MISSING} if no
+	 *         element has that value, so a column can be compared against a value without
+	 *         comparing strings per row
+	 *
+	 * @pre {@code column != null}
+	 */
+	public int codeOf(Keyword column, String value) {
+		return dictionaries.get(column.ordinal()).indexOf(value);
+	}
+
+	/**
+	 * @return value of {@code column} in {@code row}, or {@code null} if the element does not
+	 *         have the property
+	 *
+	 * @pre {@code column != null}
+	 * @pre {@code 0 <= row < size()}
+	 */
+	public String getKeyword(Keyword column, int row) {
+		int code = codes[column.ordinal()][row];
+		return code == MISSING ? null : dictionaries.get(column.ordinal()).get(code);
+	}
+}
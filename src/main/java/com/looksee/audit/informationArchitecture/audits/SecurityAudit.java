@@ -2,7 +2,9 @@ package com.looksee.audit.informationArchitecture.audits;
 
 import java.net.MalformedURLException;
 import java.net.URISyntaxException;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Objects;
 import java.util.Set;
@@ -14,7 +16,6 @@ import org.springframework.stereotype.Component;
 import com.looksee.models.PageState;
 import com.looksee.models.audit.Audit;
 import com.looksee.models.audit.AuditRecord;
-import com.looksee.models.audit.interfaces.IExecutablePageStateAudit;
 import com.looksee.models.audit.messages.UXIssueMessage;
 import com.looksee.models.designsystem.DesignSystem;
 import com.looksee.models.enums.AuditCategory;
@@ -33,7 +34,7 @@ import com.looksee.services.UXIssueMessageService;
  * after Spring dependency injection is complete.</p>
  */
 @Component
-public class SecurityAudit implements IExecutablePageStateAudit {
+public class SecurityAudit implements IExecutablePageContextAudit {
 	
 	@Autowired
 	private AuditService audit_service;
@@ -50,13 +51,14 @@ public class SecurityAudit implements IExecutablePageStateAudit {
 	 *
 	 * Checks whether the page uses HTTPS encryption.
 	 *
-	 * @pre {@code page_state != null}
+	 * @pre {@code page_context != null}
 	 * @post returned {@code Audit} is non-null and persisted
 	 */
 	@Override
-	public Audit execute(PageState page_state, AuditRecord audit_record, DesignSystem design_system) {
-		Objects.requireNonNull(page_state, "page_state must not be null");
-		Set<UXIssueMessage> issue_messages = new HashSet<>();
+	public Audit execute(PageContext page_context, AuditRecord audit_record, DesignSystem design_system) {
+		Objects.requireNonNull(page_context, "page_context must not be null");
+		PageState page_state = page_context.getPageState();
+		Set<UXIssueMessage> issue_messages = Collections.newSetFromMap(new IdentityHashMap<>());
 
 		String why_it_matters = "Sites that don't use HTTPS are highly insecure and are more likley to leak personal identifiable information(PII). Modern users are keenly aware of this fact and are less likely to trust sites that aren't secured.";
 		Set<String> labels = new HashSet<>();
@@ -84,7 +86,7 @@ public class SecurityAudit implements IExecutablePageStateAudit {
 														1, 
 														recommendation);
 			
-			issue_messages.add(issue_message_service.save(ux_issue));
+			issue_messages.add(page_context.saveIssueMessage(ux_issue, issue_message_service));
 		}
 		else {
 			String title = "Page is secure";
@@ -106,7 +108,7 @@ public class SecurityAudit implements IExecutablePageStateAudit {
 														1, 
 														recommendation);
 
-			issue_messages.add(issue_message_service.save(ux_issue));
+			issue_messages.add(page_context.saveIssueMessage(ux_issue, issue_message_service));
 		}
 		
 		String description = "";
@@ -131,7 +133,7 @@ public class SecurityAudit implements IExecutablePageStateAudit {
 								false);
 
 		Objects.requireNonNull(audit, "Postcondition failed: audit must not be null");
-		return audit_service.save(audit);
+		return page_context.saveAudit(audit, audit_service);
 	}
 	
 
@@ -8,7 +8,6 @@ import java.util.List;
 import java.util.Objects;
 import java.util.Set;
 
-import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
 import org.jsoup.select.Elements;
@@ -20,7 +19,6 @@ import com.looksee.models.PageState;
 import com.looksee.models.audit.Audit;
 import com.looksee.models.audit.AuditRecord;
 import com.looksee.models.audit.GenericIssue;
-import com.looksee.models.audit.interfaces.IExecutablePageStateAudit;
 import com.looksee.models.audit.messages.ElementStateIssueMessage;
 import com.looksee.models.audit.messages.UXIssueMessage;
 import com.looksee.models.designsystem.DesignSystem;
@@ -30,7 +28,6 @@ import com.looksee.models.enums.AuditName;
 import com.looksee.models.enums.AuditSubcategory;
 import com.looksee.models.enums.Priority;
 import com.looksee.services.AuditService;
-import com.looksee.services.BrowserService;
 import com.looksee.services.ElementStateService;
 
 /**
@@ -41,7 +38,7 @@ import com.looksee.services.ElementStateService;
  * {@code elementStateService}) are non-null after Spring construction.</p>
  */
 @Component
-public class TableStructureAudit implements IExecutablePageStateAudit {
+public class TableStructureAudit implements IExecutablePageContextAudit {
 
 	@Autowired
 	private AuditService auditService;
@@ -61,13 +58,14 @@ public class TableStructureAudit implements IExecutablePageStateAudit {
 	 *
 	 * Scores table semantics on a page to assess WCAG table structure conformance.
 	 *
-	 * @pre {@code page_state != null}
+	 * @pre {@code page_context != null}
 	 * @pre {@code audit_record != null}
 	 * @post returned {@code Audit} is non-null and persisted
 	 */
 	@Override
-	public Audit execute(PageState page_state, AuditRecord audit_record, DesignSystem design_system) {
-		Objects.requireNonNull(page_state, "page_state must not be null");
+	public Audit execute(PageContext page_context, AuditRecord audit_record, DesignSystem design_system) {
+		Objects.requireNonNull(page_context, "page_context must not be null");
+		PageState page_state = page_context.getPageState();
 		Objects.requireNonNull(audit_record, "audit_record must not be null");
 
 		//check if page state already had a link audit performed.
@@ -80,15 +78,15 @@ public class TableStructureAudit implements IExecutablePageStateAudit {
 		labels.add("tables");
 		labels.add("wcag");
 		
-		Document jsoup_doc = Jsoup.parse(page_state.getSrc());
+		Document jsoup_doc = page_context.getDocument();
         List<Element> tables = jsoup_doc.getElementsByTag("table");
         List<GenericIssue> issues = new ArrayList<>();
         for(Element table: tables){
-            issues.addAll(validateTable(page_state.getId(), table, labels));
+            issues.addAll(validateTable(page_state.getId(), table, labels, page_context.getSelectorIndex()));
         }
         
         for(GenericIssue issue: issues){
-            ElementState element_state = elementStateService.findByPageAndCssSelector(page_state.getId(), issue.getCssSelector());
+            ElementState element_state = page_context.findElementState(issue.getCssSelector(), elementStateService);
 
             int score = issue.getRecommendation().isEmpty() ? 1 : 0;
 
@@ -132,7 +130,7 @@ public class TableStructureAudit implements IExecutablePageStateAudit {
 								 true);
 
 		Objects.requireNonNull(audit, "Postcondition failed: audit must not be null");
-		return auditService.save(audit);
+		return page_context.saveAudit(audit, auditService);
 	}
 
     /**
@@ -147,8 +145,28 @@ public class TableStructureAudit implements IExecutablePageStateAudit {
      * @return list of issues found
      */
     public static List<GenericIssue> validateTable(long page_id, Element table, Set<String> labels) {
+        return validateTable(page_id, table, labels, ElementSelectorIndex.direct());
+    }
+
+    /**
+     * Validates a single HTML table element for WCAG 2.1 Section 1.3.1 compliance. The XPath
+     * and selector of each reported element come from {@code selectors}, so the table is not
+     * located again for every cell reported against it.
+     *
+     * @pre {@code table != null}
+     * @pre {@code labels != null}
+     * @pre {@code selectors != null}
+     * @post returned list is non-null
+     * @param page_id the page identifier
+     * @param table The table element to validate.
+     * @param labels the label set for categorization
+     * @param selectors selectors of the document {@code table} belongs to
+     * @return list of issues found
+     */
+    public static List<GenericIssue> validateTable(long page_id, Element table, Set<String> labels, ElementSelectorIndex selectors) {
         Objects.requireNonNull(table, "table must not be null");
         Objects.requireNonNull(labels, "labels must not be null");
+        Objects.requireNonNull(selectors, "selectors must not be null");
 
         List<GenericIssue> issues = new ArrayList<>();
         // Select all <th> elements (table headers) in the table
@@ -159,8 +177,7 @@ public class TableStructureAudit implements IExecutablePageStateAudit {
             String description = "Table headers are crucial for WCAG 2.1 Section 1.3.1 because they provide essential structure and context to data tables, ensuring that the relationships between data cells and their corresponding headers are clear. This is particularly important for users who rely on assistive technologies, like screen readers, to navigate and understand the content. Headers help users interpret the data by conveying the meaning and relationship of data cells, allowing screen readers to announce the headers in context as users move through the table. Without properly marked headers, tables can become confusing and inaccessible, making it difficult for users with disabilities to understand the information presented. Proper use of <th>, scope, and headers attributes ensures that all users, regardless of their abilities, can access and comprehend the data within a table.";
             String recommendation = "Ensure that all data tables use <th> elements to define headers for each column or row. These <th> elements should include the scope attribute to clearly indicate whether they serve as column, row, or group headers.";
             String title = "Table without <th> elements defined";
-            String xpath = BrowserService.getXPath(table);
-            String cssSelector = BrowserService.generateCssSelectorFromXpath(xpath);
+            String cssSelector = selectors.cssSelectorFromXpath(table);
             issues.add(new GenericIssue(description, title, cssSelector, recommendation));
         } else {
             String description = "Table headers are crucial for WCAG 2.1 Section 1.3.1 because they provide essential structure and context to data tables, ensuring that the relationships between data cells and their corresponding headers are clear. This is particularly important for users who rely on assistive technologies, like screen readers, to navigate and understand the content. Headers help users interpret the data by conveying the meaning and relationship of data cells, allowing screen readers to announce the headers in context as users move through the table. Without properly marked headers, tables can become confusing and inaccessible, making it difficult for users with disabilities to understand the information presented. Proper use of <th>, scope, and headers attributes ensures that all users, regardless of their abilities, can access and comprehend the data within a table.";
@@ -171,14 +188,12 @@ public class TableStructureAudit implements IExecutablePageStateAudit {
                 if (scope.isEmpty()) {
                     String recommendation = "Ensure that all data tables use <th> elements to define headers for each column or row. These <th> elements should include the scope attribute to clearly indicate whether they serve as column, row, or group headers.";
                     String title = "<th> element without a scope attribute";
-                    String xpath = BrowserService.getXPath(th);
-                    String cssSelector = BrowserService.generateCssSelectorFromXpath(xpath);
+                    String cssSelector = selectors.cssSelectorFromXpath(th);
                     issues.add(new GenericIssue(description, title, cssSelector, recommendation));
                 } else {
                     String recommendation = "";
                     String title = "<th> has scope attribute defined!";
-                    String xpath = BrowserService.getXPath(th);
-                    String cssSelector = BrowserService.generateCssSelectorFromXpath(xpath);
+                    String cssSelector = selectors.cssSelectorFromXpath(th);
                     issues.add(new GenericIssue(description, title, cssSelector, recommendation));
                 }
             }
@@ -196,8 +211,7 @@ public class TableStructureAudit implements IExecutablePageStateAudit {
                         String recommendation = "To fix <td> headers attributes that don't point to valid header IDs, first ensure that each <th> element in your table has a unique id attribute. Then, update the headers attribute on the corresponding <td> elements to match these id values. This will correctly link each data cell to its associated header, ensuring compliance with WCAG 2.1 Section 1.3.1 and improving the accessibility of your table for users with assistive technologies.";
                         String title = "No corresponding <th> with id '" + headerId + "' found.";
                         
-                        String xpath = BrowserService.getXPath(td);
-                        String cssSelector = BrowserService.generateCssSelectorFromXpath(xpath);
+                        String cssSelector = selectors.cssSelectorFromXpath(td);
                         issues.add(new GenericIssue(description, title, cssSelector, recommendation));
                     }
                     else{
@@ -205,8 +219,7 @@ public class TableStructureAudit implements IExecutablePageStateAudit {
                         String recommendation = "";
                         String title = "Table data cell is associated with a valid header";
                         
-                        String xpath = BrowserService.getXPath(td);
-                        String cssSelector = BrowserService.generateCssSelectorFromXpath(xpath);
+                        String cssSelector = selectors.cssSelectorFromXpath(td);
                         issues.add(new GenericIssue(description, title, cssSelector, recommendation));
                     }
                 }
@@ -216,8 +229,7 @@ public class TableStructureAudit implements IExecutablePageStateAudit {
                 String description = "The headers attribute on <td> elements is crucial for WCAG 2.1 Section 1.3.1 compliance because it links data cells to their corresponding headers in complex tables. This ensures that assistive technologies can accurately convey the relationships between data and headers, making the table content accessible and understandable for users with disabilities. Without this attribute, the table's structure and meaning may be unclear, leading to accessibility issues.";
                 String recommendation = "To fix <td> elements that lack headers attributes, identify the corresponding <th> elements that act as headers for each data cell. Assign unique id attributes to these <th> elements and then add the headers attribute to each <td>, referencing the relevant id values. This will establish a clear relationship between the data cells and their headers, ensuring compliance with WCAG 2.1 Section 1.3.1 and improving accessibility.";
                 String title = "No headers attribute was found for <td> element";
-                String xpath = BrowserService.getXPath(table);
-                String cssSelector = BrowserService.generateCssSelectorFromXpath(xpath);
+                String cssSelector = selectors.cssSelectorFromXpath(table);
                 issues.add(new GenericIssue(description, title, cssSelector, recommendation));
             }
         }
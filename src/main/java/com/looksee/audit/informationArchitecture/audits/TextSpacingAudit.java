@@ -3,21 +3,22 @@ package com.looksee.audit.informationArchitecture.audits;
 import java.net.MalformedURLException;
 import java.net.URISyntaxException;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import com.looksee.audit.informationArchitecture.audits.RenderedStyleTable.Length;
+import com.looksee.audit.informationArchitecture.services.ElementStatePropertyLoader;
 import com.looksee.models.ElementState;
 import com.looksee.models.PageState;
 import com.looksee.models.audit.Audit;
 import com.looksee.models.audit.AuditRecord;
-import com.looksee.models.audit.interfaces.IExecutablePageStateAudit;
 import com.looksee.models.audit.messages.ElementStateIssueMessage;
 import com.looksee.models.audit.messages.UXIssueMessage;
 import com.looksee.models.designsystem.DesignSystem;
@@ -28,16 +29,17 @@ import com.looksee.models.enums.AuditSubcategory;
 import com.looksee.models.enums.Priority;
 import com.looksee.services.AuditService;
 import com.looksee.services.PageStateService;
+import com.looksee.services.UXIssueMessageService;
 
 /**
  * Audits text spacing properties for WCAG 2.1 Section 1.4.12 compliance, checking
  * line height, letter spacing, word spacing, and paragraph spacing.
  *
- * <p><b>Class invariant:</b> All {@code @Autowired} dependencies ({@code auditService},
- * {@code pageStateService}) are non-null after Spring construction.</p>
+ * <p><b>Class invariant:</b> All required {@code @Autowired} dependencies ({@code auditService},
+ * {@code pageStateService}, {@code issueMessageService}) are non-null after Spring construction.</p>
  */
 @Component
-public class TextSpacingAudit implements IExecutablePageStateAudit {
+public class TextSpacingAudit implements IExecutablePageContextAudit {
 
 	@Autowired
 	private AuditService auditService;
@@ -45,6 +47,14 @@ public class TextSpacingAudit implements IExecutablePageStateAudit {
     @Autowired
     private PageStateService pageStateService;
 
+    @Autowired
+    private UXIssueMessageService issueMessageService;
+
+    // absent when audit.element-states.paged-load is false; the rendered styles are then
+    // read from the element states loaded through the page context
+    @Autowired(required = false)
+    private ElementStatePropertyLoader elementStatePropertyLoader;
+
 	List<String> bad_link_text_list;
 	
 	public TextSpacingAudit() {
@@ -57,25 +67,36 @@ public class TextSpacingAudit implements IExecutablePageStateAudit {
 	 *
 	 * Evaluates text spacing properties of page elements against WCAG thresholds.
 	 *
-	 * @pre {@code page_state != null}
+	 * @pre {@code page_context != null}
 	 * @pre {@code audit_record != null}
 	 * @post returned {@code Audit} is non-null and persisted
 	 */
 	@Override
-	public Audit execute(PageState page_state, AuditRecord audit_record, DesignSystem design_system) {
-		Objects.requireNonNull(page_state, "page_state must not be null");
+	public Audit execute(PageContext page_context, AuditRecord audit_record, DesignSystem design_system) {
+		Objects.requireNonNull(page_context, "page_context must not be null");
+		PageState page_state = page_context.getPageState();
 		Objects.requireNonNull(audit_record, "audit_record must not be null");
 
 		//check if page state already had a link audit performed.
-		Set<UXIssueMessage> issue_messages = new HashSet<>();
+		Set<UXIssueMessage> issue_messages = Collections.newSetFromMap(new IdentityHashMap<>());
 
 		Set<String> labels = new HashSet<>();
 		labels.add("information architecture");
 		labels.add("accessibility");
 		labels.add("wcag");
 		
-        List<ElementState> elements = pageStateService.getElementStates(page_state.getId());
-        issue_messages.addAll(evaluateTextSpacing(elements));
+        RenderedStyleTable styles = page_context.getRenderedStyles(pageStateService, elementStatePropertyLoader);
+        for (int row = 0; row < styles.size(); row++) {
+            List<UXIssueMessage> row_issues = evaluateTextSpacing(styles, row);
+            if (styles.getElement(row) != null) {
+                issue_messages.addAll(row_issues);
+                continue;
+            }
+            // loaded without the element states: relate each issue to its element state by id
+            for (UXIssueMessage issue_msg : row_issues) {
+                issue_messages.add(page_context.saveIssueMessage(issue_msg, styles.getElementId(row), issueMessageService));
+            }
+        }
 
 		String why_it_matters = "Grouping form controls within a <fieldset> element is important for accessibility because it provides a clear, semantic structure that enhances the understanding of the form's organization, especially for users with disabilities. The <fieldset> element, often paired with a <legend>, helps screen readers and other assistive technologies to convey related groups of controls as a single, coherent unit, ensuring that users can navigate and comprehend the form's layout more effectively. This practice aligns with WCAG 2.1 guidelines, supporting a more inclusive and accessible web experience.";
 		
@@ -104,7 +125,7 @@ public class TextSpacingAudit implements IExecutablePageStateAudit {
 								 true);
 
 		Objects.requireNonNull(audit, "Postcondition failed: audit must not be null");
-		return auditService.save(audit);
+		return page_context.saveAudit(audit, auditService);
 	}
 
     
@@ -118,86 +139,119 @@ public class TextSpacingAudit implements IExecutablePageStateAudit {
      */
     public static List<UXIssueMessage> evaluateTextSpacing(List<ElementState> elements) {
         Objects.requireNonNull(elements, "elements must not be null");
+        return evaluateTextSpacing(RenderedStyleTable.of(elements));
+    }
+
+    /**
+     * Evaluates every element state of a page for compliance with WCAG 2.1 Section 1.4.12
+     * (Text Spacing), reading their rendered CSS values from {@code styles}.
+     *
+     * @pre {@code styles != null}
+     * @post returned list is non-null
+     * @param styles The rendered CSS values of the page's element states.
+     * @return A list of UXIssueMessage objects representing any compliance issues found.
+     */
+    public static List<UXIssueMessage> evaluateTextSpacing(RenderedStyleTable styles) {
+        Objects.requireNonNull(styles, "styles must not be null");
+        List<UXIssueMessage> issues = new ArrayList<>();
+        for (int row = 0; row < styles.size(); row++) {
+            issues.addAll(evaluateTextSpacing(styles, row));
+        }
+        return issues;
+    }
+
+    /**
+     * Evaluates the element state of one row of {@code styles} for compliance with WCAG 2.1
+     * Section 1.4.12 (Text Spacing). The messages carry the row's element state, which is
+     * {@code null} when the table was loaded without the element states.
+     *
+     * @pre {@code styles != null}
+     * @pre {@code 0 <= row < styles.size()}
+     * @post returned list is non-null
+     */
+    static List<UXIssueMessage> evaluateTextSpacing(RenderedStyleTable styles, int row) {
         List<UXIssueMessage> issues = new ArrayList<>();
         String ada_compliance = "WCAG 2.1 Section 1.4.12 - Text Spacing";
-        for (ElementState element : elements) {
-            // Retrieve necessary CSS properties
-            double fontSize = parseCssValue(element.getRenderedCssValues().get("font-size"));
-            double lineHeight = parseCssValue(element.getRenderedCssValues().get("line-height"));
-            double letterSpacing = parseCssValue(element.getRenderedCssValues().get("letter-spacing"));
-            double wordSpacing = parseCssValue(element.getRenderedCssValues().get("word-spacing"));
-            double paragraphSpacing = parseCssValue(element.getRenderedCssValues().get("margin-bottom")); // Assuming margin-bottom is used for paragraph spacing
-
-            // Check line height (should be at least 1.5 times the font size)
-            if (lineHeight < 1.5 * fontSize) {
-                String description = "Line height is less than 1.5 times the font size.";
-                String title = "Insufficient line height";
-                String recommendation = "Increase line height to at least 1.5 times the font size.";
-                issues.add(new ElementStateIssueMessage(Priority.HIGH,
-                                                        description,
-                                                        recommendation,
-                                                        element,
-                                                        AuditCategory.ACCESSIBILITY,
-                                                        new HashSet<>(),
-                                                        ada_compliance,
-                                                        title,
-                                                        0,
-                                                        1));
-            }
+        ElementState element = styles.getElement(row);
+        // Resolve relative lengths against the element's own font size
+        double fontSize = styles.toPixels(Length.FONT_SIZE, row, CssLength.DEFAULT_FONT_SIZE_PX);
+        // a unitless line-height is a multiple of the font size
+        double lineHeight = styles.getUnit(Length.LINE_HEIGHT, row) == CssLength.Unit.NUMBER
+                ? styles.getValue(Length.LINE_HEIGHT, row) * fontSize
+                : styles.toPixels(Length.LINE_HEIGHT, row, fontSize);
+        double letterSpacing = styles.toPixels(Length.LETTER_SPACING, row, fontSize);
+        double wordSpacing = styles.toPixels(Length.WORD_SPACING, row, fontSize);
+        double paragraphSpacing = styles.toPixels(Length.MARGIN_BOTTOM, row, fontSize); // Assuming margin-bottom is used for paragraph spacing
 
-            // Check letter spacing (should be at least 0.12 times the font size)
-            if (letterSpacing < 0.12 * fontSize) {
-                String description = "Letter spacing is less than 0.12 times the font size.";
-                String title = "Insufficient letter spacing";
-                String recommendation = "Increase letter spacing to at least 0.12 times the font size.";
-
-                issues.add(new ElementStateIssueMessage(Priority.HIGH,
-                    description,
-                    recommendation,
-                    element,
-                    AuditCategory.ACCESSIBILITY,
-                    new HashSet<>(),
-                    ada_compliance,
-                    title,
-                    0,
-                    1));
-            }
+        // Check line height (should be at least 1.5 times the font size)
+        if (lineHeight < 1.5 * fontSize) {
+            String description = "Line height is less than 1.5 times the font size.";
+            String title = "Insufficient line height";
+            String recommendation = "Increase line height to at least 1.5 times the font size.";
+            issues.add(new ElementStateIssueMessage(Priority.HIGH,
+                                                    description,
+                                                    recommendation,
+                                                    element,
+                                                    AuditCategory.ACCESSIBILITY,
+                                                    new HashSet<>(),
+                                                    ada_compliance,
+                                                    title,
+                                                    0,
+                                                    1));
+        }
 
-            // Check word spacing (should be at least 0.16 times the font size)
-            if (wordSpacing < 0.16 * fontSize) {
-                String description = "Word spacing is less than 0.16 times the font size.";
-                String title = "Insufficient word spacing";
-                String recommendation = "Increase word spacing to at least 0.16 times the font size.";
-
-                issues.add(new ElementStateIssueMessage(Priority.HIGH,
-                    description,
-                    recommendation,
-                    element,
-                    AuditCategory.ACCESSIBILITY,
-                    new HashSet<>(),
-                    ada_compliance,
-                    title,
-                    0,
-                    1));
-            }
+        // Check letter spacing (should be at least 0.12 times the font size)
+        if (letterSpacing < 0.12 * fontSize) {
+            String description = "Letter spacing is less than 0.12 times the font size.";
+            String title = "Insufficient letter spacing";
+            String recommendation = "Increase letter spacing to at least 0.12 times the font size.";
 
-            // Check paragraph spacing (should be at least 2 times the font size)
-            if (paragraphSpacing < 2 * fontSize) {
-                String description = "Paragraph spacing is less than 2 times the font size.";
-                String title = "Insufficient paragraph spacing";
-                String recommendation = "Increase paragraph spacing to at least 2 times the font size.";
-
-                issues.add(new ElementStateIssueMessage(Priority.HIGH,
-                    description,
-                    recommendation,
-                    element,
-                    AuditCategory.ACCESSIBILITY,
-                    new HashSet<>(),
-                    ada_compliance,
-                    title,
-                    0,
-                    1));
-            }
+            issues.add(new ElementStateIssueMessage(Priority.HIGH,
+                description,
+                recommendation,
+                element,
+                AuditCategory.ACCESSIBILITY,
+                new HashSet<>(),
+                ada_compliance,
+                title,
+                0,
+                1));
+        }
+
+        // Check word spacing (should be at least 0.16 times the font size)
+        if (wordSpacing < 0.16 * fontSize) {
+            String description = "Word spacing is less than 0.16 times the font size.";
+            String title = "Insufficient word spacing";
+            String recommendation = "Increase word spacing to at least 0.16 times the font size.";
+
+            issues.add(new ElementStateIssueMessage(Priority.HIGH,
+                description,
+                recommendation,
+                element,
+                AuditCategory.ACCESSIBILITY,
+                new HashSet<>(),
+                ada_compliance,
+                title,
+                0,
+                1));
+        }
+
+        // Check paragraph spacing (should be at least 2 times the font size)
+        if (paragraphSpacing < 2 * fontSize) {
+            String description = "Paragraph spacing is less than 2 times the font size.";
+            String title = "Insufficient paragraph spacing";
+            String recommendation = "Increase paragraph spacing to at least 2 times the font size.";
+
+            issues.add(new ElementStateIssueMessage(Priority.HIGH,
+                description,
+                recommendation,
+                element,
+                AuditCategory.ACCESSIBILITY,
+                new HashSet<>(),
+                ada_compliance,
+                title,
+                0,
+                1));
         }
 
         return issues;
@@ -205,6 +259,9 @@ public class TextSpacingAudit implements IExecutablePageStateAudit {
 
     /**
      * Parses CSS values into pixel-equivalent double values, supporting various units.
+     * Font relative units are resolved against the default font size of
+     * {@value CssLength#DEFAULT_FONT_SIZE_PX}px; use {@link CssLength} to resolve them
+     * against an element's own font size.
      *
      * @pre none (null and empty values are handled gracefully, returning 0.0)
      * @post returned value is >= 0.0
@@ -212,34 +269,6 @@ public class TextSpacingAudit implements IExecutablePageStateAudit {
      * @return The numeric value as a double in pixels, or 0.0 for null/empty/invalid input.
      */
     public static double parseCssValue(String cssValue) {
-        if (cssValue == null || cssValue.isEmpty()) {
-            return 0.0;
-        }
-
-        // Supported units and their conversion factors to pixels (based on default browser settings)
-        Map<String, Double> unitConversionMap = new HashMap<>();
-        unitConversionMap.put("px", 1.0);
-        unitConversionMap.put("em", 16.0); // Assuming 1em = 16px (default)
-        unitConversionMap.put("rem", 16.0); // Assuming 1rem = 16px (default)
-        unitConversionMap.put("pt", 1.333); // 1pt = 1.333px
-        unitConversionMap.put("%", 0.16); // Assuming 100% = 16px
-        unitConversionMap.put("cm", 37.795); // 1cm = 37.795px
-        unitConversionMap.put("mm", 3.7795); // 1mm = 3.7795px
-        unitConversionMap.put("in", 96.0); // 1in = 96px
-        unitConversionMap.put("pc", 16.0); // 1pc = 16px
-        unitConversionMap.put("ex", 8.0); // Assuming 1ex = 8px (varies between fonts)
-
-        // Identify the unit
-        String unit = cssValue.replaceAll("[0-9.]", "").toLowerCase().trim();
-        double conversionFactor = unitConversionMap.getOrDefault(unit, 1.0);
-
-        try {
-            // Extract the numeric value
-            double value = Double.parseDouble(cssValue.replace(unit, "").trim());
-            return value * conversionFactor;
-        } catch (NumberFormatException e) {
-            // Handle invalid CSS values
-            return 0.0;
-        }
+        return Math.max(0.0, CssLength.parse(cssValue).toPixels(CssLength.DEFAULT_FONT_SIZE_PX));
     }
 }
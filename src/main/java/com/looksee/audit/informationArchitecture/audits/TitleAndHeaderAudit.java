@@ -1,6 +1,8 @@
 package com.looksee.audit.informationArchitecture.audits;
 
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Objects;
 import java.util.Set;
@@ -18,7 +20,6 @@ import com.looksee.models.PageState;
 import com.looksee.models.audit.Audit;
 import com.looksee.models.audit.AuditRecord;
 import com.looksee.models.audit.Score;
-import com.looksee.models.audit.interfaces.IExecutablePageStateAudit;
 import com.looksee.models.audit.messages.UXIssueMessage;
 import com.looksee.models.designsystem.DesignSystem;
 import com.looksee.models.enums.AuditCategory;
@@ -40,7 +41,7 @@ import com.looksee.utils.ElementStateUtils;
  * {@code issue_message_service}) are non-null after Spring construction.</p>
  */
 @Component
-public class TitleAndHeaderAudit implements IExecutablePageStateAudit {
+public class TitleAndHeaderAudit implements IExecutablePageContextAudit {
 	private static Logger log = LoggerFactory.getLogger(TitleAndHeaderAudit.class);
 	
 	@Autowired
@@ -56,23 +57,24 @@ public class TitleAndHeaderAudit implements IExecutablePageStateAudit {
 	 *
 	 * Evaluates page titles, favicons, and heading structure for quality.
 	 *
-	 * @pre {@code page_state != null}
+	 * @pre {@code page_context != null}
 	 * @post returned {@code Audit} is non-null and persisted
 	 */
 	@Override
-	public Audit execute(PageState page_state,
+	public Audit execute(PageContext page_context,
 						 AuditRecord audit_record,
 						 DesignSystem design_system
 	 ) {
-		Objects.requireNonNull(page_state, "page_state must not be null");
+		Objects.requireNonNull(page_context, "page_context must not be null");
+		PageState page_state = page_context.getPageState();
 
-		Set<UXIssueMessage> issue_messages = new HashSet<>();
+		Set<UXIssueMessage> issue_messages = Collections.newSetFromMap(new IdentityHashMap<>());
 
-		Score title_score = scorePageTitles(page_state);
-		Score favicon_score = scoreFavicon(page_state);
+		Score title_score = scorePageTitles(page_context);
+		Score favicon_score = scoreFavicon(page_context);
 		
 		//TODO : heading scores need to have issue messages created and added to issues list
-		Score heading_score = scoreHeadings(page_state);
+		Score heading_score = scoreHeadings(page_context);
 		
 		issue_messages.addAll(title_score.getIssueMessages());
 		issue_messages.addAll(favicon_score.getIssueMessages());
@@ -101,32 +103,32 @@ public class TitleAndHeaderAudit implements IExecutablePageStateAudit {
 								 true);
 
 		Objects.requireNonNull(audit, "Postcondition failed: audit must not be null");
-		return audit_service.save(audit);
+		return page_context.saveAudit(audit, audit_service);
 	}
 
 	/**
 	 * Generates a score for headers found on the page
 	 * 
-	 * @param page_state
+	 * @param page_context
 	 * @return
 	 */
-	private Score scoreHeadings(PageState page_state) {
-		Objects.requireNonNull(page_state, "page_state must not be null");
+	private Score scoreHeadings(PageContext page_context) {
+		Objects.requireNonNull(page_context, "page_context must not be null");
 
 		int points_achieved = 0;
 		int max_points = 0;
-		Set<UXIssueMessage> issue_messages = new HashSet<>();
+		Set<UXIssueMessage> issue_messages = Collections.newSetFromMap(new IdentityHashMap<>());
 		
 		//generate score for ordered and unordered lists and their headers
 		// TODO :: INCOMPLETE SCORING OF ORDERED LIST HEADERS 
-		Score list_score = scoreOrderedListHeaders(page_state);
+		Score list_score = scoreOrderedListHeaders(page_context);
 		points_achieved += list_score.getPointsAchieved();
 		max_points += list_score.getMaxPossiblePoints();
 		issue_messages.addAll(list_score.getIssueMessages());
 		
 		//score text elements and their headers
 		// TODO :: INCOMPLETE SCORING OF TEXT HEADER ELEMENTS
-		Score text_block_header_score = scoreTextElementHeaders(page_state);
+		Score text_block_header_score = scoreTextElementHeaders(page_context);
 		points_achieved += text_block_header_score.getPointsAchieved();
 		max_points += text_block_header_score.getMaxPossiblePoints();
 		issue_messages.addAll(text_block_header_score.getIssueMessages());	
@@ -142,12 +144,16 @@ public class TitleAndHeaderAudit implements IExecutablePageStateAudit {
 	 */
 	private Score scoreOrderedListHeaders(PageState page_state) {
 		Objects.requireNonNull(page_state, "page_state must not be null");
+		return scoreOrderedListHeaders(new PageContext(page_state));
+	}
+
+	private Score scoreOrderedListHeaders(PageContext page_context) {
+		Objects.requireNonNull(page_context, "page_context must not be null");
 		int score = 0;
 		int max_points = 0;
 		
-		Document html_doc = Jsoup.parse(page_state.getSrc());
 		//review element tree top down to identify elements that own text.
-		Elements body_elem = html_doc.getElementsByTag("body");
+		List<Element> body_elem = page_context.getElementsByTag("body");
 		List<Element> jsoup_elements = body_elem.get(0).children();
 		for(Element element : jsoup_elements) {
 			//ignore header tags (h1,h2,h3,h4,h5,h6)
@@ -174,14 +180,17 @@ public class TitleAndHeaderAudit implements IExecutablePageStateAudit {
 	 */
 	private Score scoreTextElementHeaders(PageState page_state) {
 		Objects.requireNonNull(page_state, "page_state must not be null");
+		return scoreTextElementHeaders(new PageContext(page_state));
+	}
+
+	private Score scoreTextElementHeaders(PageContext page_context) {
+		Objects.requireNonNull(page_context, "page_context must not be null");
 		
 		int score = 0;
 		int max_points = 0;
 		
-		Document html_doc = Jsoup.parse(page_state.getSrc());
-		
 		//review element tree top down to identify elements that own text.
-		Elements body_elem = html_doc.getElementsByTag("body");
+		List<Element> body_elem = page_context.getElementsByTag("body");
 		List<Element> jsoup_elements = body_elem.get(0).children();
 		while(!jsoup_elements.isEmpty()) {
 			Element element = jsoup_elements.remove(0);
@@ -230,18 +239,23 @@ public class TitleAndHeaderAudit implements IExecutablePageStateAudit {
 	 */
 	private Score scoreFavicon(PageState page_state) {
 		Objects.requireNonNull(page_state, "page_state must not be null");
+		return scoreFavicon(new PageContext(page_state));
+	}
+
+	private Score scoreFavicon(PageContext page_context) {
+		Objects.requireNonNull(page_context, "page_context must not be null");
 		String ada_compliance = "There are no accessibility guidelines for favicon, but favicon plays a significant role in helping users identify the tab that your website was loaded into.";
 
 		int points = 0;
 		int max_points = 1;
-		Set<UXIssueMessage> issue_messages = new HashSet<>();
+		Set<UXIssueMessage> issue_messages = Collections.newSetFromMap(new IdentityHashMap<>());
 		Set<String> labels = new HashSet<>();
 		labels.add("information_architecture");
 		labels.add("branding");
 		labels.add("seo");
 		
 		//score title of page state
-		if(hasFavicon(page_state.getSrc())) {
+		if(hasFavicon(page_context.getDocument())) {
 			points += 1;
 			String title = "Favicon is present and accounted for";
 			String description = "Well done! This page has a favicon defined which helps improve recognition of your brand by showing the icon in the browser tab. When users open another tab they'll be able to easily identify which tab is your website.";
@@ -259,7 +273,7 @@ public class TitleAndHeaderAudit implements IExecutablePageStateAudit {
 															1,
 															recommendation);
 			
-			favicon_issue = issue_message_service.save(favicon_issue);
+			favicon_issue = page_context.saveIssueMessage(favicon_issue, issue_message_service);
 			//issue_message_service.addPage(favicon_issue.getId(), page_state.getId());
 			issue_messages.add(favicon_issue);
 		}
@@ -283,7 +297,7 @@ public class TitleAndHeaderAudit implements IExecutablePageStateAudit {
 																1,
 																recommendation);
 			
-			favicon_issue = issue_message_service.save(favicon_issue);
+			favicon_issue = page_context.saveIssueMessage(favicon_issue, issue_message_service);
 			//issue_message_service.addPage(favicon_issue.getId(), page_state.getId());
 			issue_messages.add(favicon_issue);
 			points += 0;			
@@ -302,8 +316,20 @@ public class TitleAndHeaderAudit implements IExecutablePageStateAudit {
 	 */
 	public static boolean hasFavicon(String page_src) {
 		Objects.requireNonNull(page_src, "page_src must not be null");
-		
-		Document doc = Jsoup.parse(page_src);
+		return hasFavicon(Jsoup.parse(page_src));
+	}
+
+	/**
+	 * Checks if an already parsed page has a favicon defined.
+	 *
+	 * @pre {@code doc != null}
+	 * @post returns {@code true} if a link element with rel containing "icon" is found
+	 * @param doc the parsed page
+	 * @return true if a favicon link is present
+	 */
+	public static boolean hasFavicon(Document doc) {
+		Objects.requireNonNull(doc, "doc must not be null");
+
 		Elements link_elements = doc.getElementsByTag("link");
 		for(Element element: link_elements) {
 			if((element.attr("rel").contains("icon"))) {
@@ -320,8 +346,14 @@ public class TitleAndHeaderAudit implements IExecutablePageStateAudit {
 	 */
 	private Score scorePageTitles(PageState page_state) {
 		Objects.requireNonNull(page_state, "page_state must not be null");
+		return scorePageTitles(new PageContext(page_state));
+	}
+
+	private Score scorePageTitles(PageContext page_context) {
+		Objects.requireNonNull(page_context, "page_context must not be null");
+		PageState page_state = page_context.getPageState();
 		
-		Set<UXIssueMessage> issue_messages = new HashSet<>();
+		Set<UXIssueMessage> issue_messages = Collections.newSetFromMap(new IdentityHashMap<>());
 		int points = 0;
 		int max_points = 1;
 		String title = BrowserUtils.getTitle(page_state);
@@ -354,7 +386,7 @@ public class TitleAndHeaderAudit implements IExecutablePageStateAudit {
 															1,
 															recommendation);
 			
-			title_issue = issue_message_service.save(title_issue);
+			title_issue = page_context.saveIssueMessage(title_issue, issue_message_service);
 			//issue_message_service.addPage(title_issue.getId(), page_state.getId());
 			issue_messages.add(title_issue);
 		}
@@ -381,7 +413,7 @@ public class TitleAndHeaderAudit implements IExecutablePageStateAudit {
 															1,
 															recommendation);
 			
-			title_issue = issue_message_service.save(title_issue);
+			title_issue = page_context.saveIssueMessage(title_issue, issue_message_service);
 			//issue_message_service.addPage(title_issue.getId(), page_state.getId());
 			issue_messages.add(title_issue);
 		}
@@ -13,16 +13,17 @@ import java.util.regex.Pattern;
 import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
-import org.jsoup.select.Elements;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import com.looksee.audit.informationArchitecture.rules.ElementRule;
+import com.looksee.audit.informationArchitecture.rules.ElementRuleEngine;
+import com.looksee.audit.informationArchitecture.rules.ElementRuleMatches;
 import com.looksee.models.ElementState;
 import com.looksee.models.PageState;
 import com.looksee.models.audit.Audit;
 import com.looksee.models.audit.AuditRecord;
 import com.looksee.models.audit.GenericIssue;
-import com.looksee.models.audit.interfaces.IExecutablePageStateAudit;
 import com.looksee.models.audit.messages.ElementStateIssueMessage;
 import com.looksee.models.audit.messages.UXIssueMessage;
 import com.looksee.models.designsystem.DesignSystem;
@@ -42,7 +43,13 @@ import com.looksee.services.ElementStateService;
  * {@code elementStateService}) are non-null after Spring construction.</p>
  */
 @Component
-public class UseOfColorAudit implements IExecutablePageStateAudit {
+public class UseOfColorAudit implements IExecutablePageContextAudit {
+
+	// *[style], *[bgcolor]
+	static final ElementRule COLORED = new ElementRule("use-of-color.colored", Set.of(), Set.of("style", "bgcolor"), element -> true);
+
+	/** Rules backing {@link #checkMatches(ElementRuleMatches, ElementSelectorIndex)}. */
+	static final ElementRuleEngine RULES = new ElementRuleEngine(List.of(COLORED));
 
 	@Autowired
 	private AuditService auditService;
@@ -79,13 +86,14 @@ public class UseOfColorAudit implements IExecutablePageStateAudit {
 	 *
 	 * Checks elements for color-only information conveyance per WCAG 2.1 Section 1.4.1.
 	 *
-	 * @pre {@code page_state != null}
+	 * @pre {@code page_context != null}
 	 * @pre {@code audit_record != null}
 	 * @post returned {@code Audit} is non-null and persisted
 	 */
 	@Override
-	public Audit execute(PageState page_state, AuditRecord audit_record, DesignSystem design_system) {
-		Objects.requireNonNull(page_state, "page_state must not be null");
+	public Audit execute(PageContext page_context, AuditRecord audit_record, DesignSystem design_system) {
+		Objects.requireNonNull(page_context, "page_context must not be null");
+		PageState page_state = page_context.getPageState();
 		Objects.requireNonNull(audit_record, "audit_record must not be null");
 
 		//check if page state already had a link audit performed.
@@ -98,11 +106,10 @@ public class UseOfColorAudit implements IExecutablePageStateAudit {
 		labels.add("tables");
 		labels.add("wcag");
 		
-		Document jsoup_doc = Jsoup.parse(page_state.getSrc());
-        List<GenericIssue> issues = checkCompliance(jsoup_doc);
+        List<GenericIssue> issues = checkMatches(page_context.getRuleMatches(), page_context.getSelectorIndex());
         
         for(GenericIssue issue: issues){
-            ElementState element_state = elementStateService.findByPageAndCssSelector(page_state.getId(), issue.getCssSelector());
+            ElementState element_state = page_context.findElementState(issue.getCssSelector(), elementStateService);
             UXIssueMessage issue_msg = new ElementStateIssueMessage(Priority.HIGH,
                                                                 issue.getDescription(),
                                                                 issue.getRecommendation(),
@@ -143,7 +150,7 @@ public class UseOfColorAudit implements IExecutablePageStateAudit {
 								 true);
 
 		Objects.requireNonNull(audit, "Postcondition failed: audit must not be null");
-		return auditService.save(audit);
+		return page_context.saveAudit(audit, auditService);
 	}
 
     /**
@@ -156,12 +163,27 @@ public class UseOfColorAudit implements IExecutablePageStateAudit {
      */
     public static List<GenericIssue> checkCompliance(Document doc) {
         Objects.requireNonNull(doc, "Document must not be null");
+        return checkMatches(RULES.run(doc), ElementSelectorIndex.of(doc));
+    }
+
+    /**
+     * Builds the Section 1.4.1 issues from elements already matched by {@link #RULES}, so the
+     * document does not have to be walked again.
+     *
+     * @pre {@code matches != null}
+     * @pre {@code selectors != null}
+     * @post returned list is non-null
+     * @param matches matches from an engine that includes {@link #RULES}
+     * @param selectors CSS selectors of the document the matches were found in
+     * @return list of color-only information issues found
+     */
+    public static List<GenericIssue> checkMatches(ElementRuleMatches matches, ElementSelectorIndex selectors) {
+        Objects.requireNonNull(matches, "matches must not be null");
+        Objects.requireNonNull(selectors, "selectors must not be null");
         List<GenericIssue> issues = new ArrayList<>();
 
         // Check for elements that use inline styles or attributes to convey information by color
-        Elements elements = doc.select("*[style], *[bgcolor]");
-
-        for (Element element : elements) {
+        for (Element element : matches.get(COLORED)) {
             String style = element.attr("style");
 
             // Check for use of color in the inline style or the bgcolor attribute
@@ -171,7 +193,7 @@ public class UseOfColorAudit implements IExecutablePageStateAudit {
                     issues.add(new GenericIssue(
                             "Element relies on color alone to convey information.",
                             "Use of Color Violation",
-                            element.cssSelector(),
+                            selectors.cssSelector(element),
                             "Add textual indicators or non-color visual indicators to ensure the information is accessible."
                     ));
                 }
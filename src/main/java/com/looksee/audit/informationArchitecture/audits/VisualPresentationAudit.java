@@ -8,19 +8,19 @@ import java.util.List;
 import java.util.Objects;
 import java.util.Set;
 
-import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
-import org.jsoup.select.Elements;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import com.looksee.audit.informationArchitecture.rules.ElementRule;
+import com.looksee.audit.informationArchitecture.rules.ElementRuleEngine;
+import com.looksee.audit.informationArchitecture.rules.ElementRuleMatches;
 import com.looksee.models.ElementState;
 import com.looksee.models.PageState;
 import com.looksee.models.audit.Audit;
 import com.looksee.models.audit.AuditRecord;
 import com.looksee.models.audit.GenericIssue;
-import com.looksee.models.audit.interfaces.IExecutablePageStateAudit;
 import com.looksee.models.audit.messages.ElementStateIssueMessage;
 import com.looksee.models.audit.messages.UXIssueMessage;
 import com.looksee.models.designsystem.DesignSystem;
@@ -40,7 +40,16 @@ import com.looksee.services.ElementStateService;
  * {@code elementStateService}) are non-null after Spring construction.</p>
  */
 @Component
-public class VisualPresentationAudit implements IExecutablePageStateAudit {
+public class VisualPresentationAudit implements IExecutablePageContextAudit {
+
+	static final ElementRule STYLED = new ElementRule("visual-presentation.styled", Set.of(), Set.of("style"), element -> true);
+	static final ElementRule FONT_SIZE_STYLED = new ElementRule("visual-presentation.font-size", Set.of(), Set.of("style"), ElementRule.attributeContains("style", "font-size"));
+	static final ElementRule JUSTIFIED = new ElementRule("visual-presentation.justified", Set.of(), Set.of("style"), ElementRule.attributeContains("style", "text-align: justify"));
+	static final ElementRule LINE_HEIGHT_STYLED = new ElementRule("visual-presentation.line-height", Set.of(), Set.of("style"), ElementRule.attributeContains("style", "line-height"));
+	static final ElementRule MARGIN_STYLED = new ElementRule("visual-presentation.margin", Set.of(), Set.of("style"), ElementRule.attributeContains("style", "margin"));
+
+	/** Rules backing {@link #checkMatches(ElementRuleMatches, ElementSelectorIndex)}. */
+	static final ElementRuleEngine RULES = new ElementRuleEngine(List.of(STYLED, FONT_SIZE_STYLED, JUSTIFIED, LINE_HEIGHT_STYLED, MARGIN_STYLED));
 
 	@Autowired
 	private AuditService auditService;
@@ -59,13 +68,14 @@ public class VisualPresentationAudit implements IExecutablePageStateAudit {
 	 *
 	 * Checks visual presentation properties against WCAG 2.1 Section 1.4.8 requirements.
 	 *
-	 * @pre {@code page_state != null}
+	 * @pre {@code page_context != null}
 	 * @pre {@code audit_record != null}
 	 * @post returned {@code Audit} is non-null and persisted
 	 */
 	@Override
-	public Audit execute(PageState page_state, AuditRecord audit_record, DesignSystem design_system) {
-		Objects.requireNonNull(page_state, "page_state must not be null");
+	public Audit execute(PageContext page_context, AuditRecord audit_record, DesignSystem design_system) {
+		Objects.requireNonNull(page_context, "page_context must not be null");
+		PageState page_state = page_context.getPageState();
 		Objects.requireNonNull(audit_record, "audit_record must not be null");
 
 		//check if page state already had a link audit performed.
@@ -77,11 +87,10 @@ public class VisualPresentationAudit implements IExecutablePageStateAudit {
 		labels.add("accessibility");
 		labels.add("wcag");
 		
-		Document jsoup_doc = Jsoup.parse(page_state.getSrc());
-        List<GenericIssue> issues = checkCompliance(jsoup_doc);
+        List<GenericIssue> issues = checkMatches(page_context.getRuleMatches(), page_context.getSelectorIndex());
 
         for(GenericIssue issue: issues){
-            ElementState element_state = elementStateService.findByPageAndCssSelector(page_state.getId(), issue.getCssSelector());
+            ElementState element_state = page_context.findElementState(issue.getCssSelector(), elementStateService);
             UXIssueMessage issue_msg = new ElementStateIssueMessage(Priority.HIGH,
                                                                 issue.getDescription(),
                                                                 issue.getRecommendation(),
@@ -122,7 +131,7 @@ public class VisualPresentationAudit implements IExecutablePageStateAudit {
                                 true);
 
 		Objects.requireNonNull(audit, "Postcondition failed: audit must not be null");
-		return auditService.save(audit);
+		return page_context.saveAudit(audit, auditService);
 	}
 
     
@@ -136,20 +145,36 @@ public class VisualPresentationAudit implements IExecutablePageStateAudit {
      */
     public List<GenericIssue> checkCompliance(Document document) {
         Objects.requireNonNull(document, "Document must not be null");
+        return checkMatches(RULES.run(document), ElementSelectorIndex.of(document));
+    }
+
+    /**
+     * Builds the Section 1.4.8 issues from elements already matched by {@link #RULES}, so the
+     * document does not have to be walked again.
+     *
+     * @pre {@code matches != null}
+     * @pre {@code selectors != null}
+     * @post returned list is non-null
+     * @param matches matches from an engine that includes {@link #RULES}
+     * @param selectors CSS selectors of the document the matches were found in
+     * @return A list of GenericIssue objects that detail any compliance issues found.
+     */
+    public List<GenericIssue> checkMatches(ElementRuleMatches matches, ElementSelectorIndex selectors) {
+        Objects.requireNonNull(matches, "matches must not be null");
+        Objects.requireNonNull(selectors, "selectors must not be null");
         List<GenericIssue> issues = new ArrayList<>();
 
         // Check for the requirements specified in WCAG 2.1 Section 1.4.8
 
         // 1. Text should be presented with a mechanism for the user to choose foreground and background colors.
-        Elements elements = document.select("*");
-        for (Element element : elements) {
+        for (Element element : matches.get(STYLED)) {
             if (element.hasAttr("style")) {
                 String style = element.attr("style").toLowerCase();
                 if (style.contains("color:") && style.contains("background-color:")) {
                     issues.add(new GenericIssue(
                             "Foreground and background colors are hard-coded.",
                             "Foreground and Background Color Issue",
-                            element.cssSelector(),
+                            selectors.cssSelector(element),
                             "Allow users to choose foreground and background colors."
                     ));
                 }
@@ -157,7 +182,7 @@ public class VisualPresentationAudit implements IExecutablePageStateAudit {
                     issues.add(new GenericIssue(
                         "Foreground and background colors are NOT hard-coded.",
                         "Foreground and Background Color is Accessible",
-                        element.cssSelector(),
+                        selectors.cssSelector(element),
                         ""
                 ));
                 }
@@ -165,14 +190,13 @@ public class VisualPresentationAudit implements IExecutablePageStateAudit {
         }
 
         // 2. Text should be resizable up to 200% without assistive technology and without loss of content or functionality.
-        Elements fontElements = document.select("[style*=font-size]");
-        for (Element element : fontElements) {
+        for (Element element : matches.get(FONT_SIZE_STYLED)) {
             String fontSize = element.attr("style").toLowerCase();
             if (fontSize.contains("font-size") && !fontSize.contains("em") && !fontSize.contains("rem") && !fontSize.contains("%")) {
                 issues.add(new GenericIssue(
                         "Font size is not defined in relative units (em, rem, or %).",
                         "Font Size Issue",
-                        element.cssSelector(),
+                        selectors.cssSelector(element),
                         "Use relative units (em, rem, or %) for font sizes to allow text resizing."
                 ));
             }
@@ -180,7 +204,7 @@ public class VisualPresentationAudit implements IExecutablePageStateAudit {
                 issues.add(new GenericIssue(
                         "Font size is defined in relative units (em, rem, or %).",
                         "Font Size is Accessible",
-                        element.cssSelector(),
+                        selectors.cssSelector(element),
                         ""
                 ));
             }
@@ -190,19 +214,17 @@ public class VisualPresentationAudit implements IExecutablePageStateAudit {
         // This check requires a contrast calculation, which isn't directly supported by JSoup. Implementing a contrast check would require additional logic.
 
         // 4. No justification of text (left-aligned text only).
-        Elements justifiedText = document.select("[style*=text-align: justify]");
-        for (Element element : justifiedText) {
+        for (Element element : matches.get(JUSTIFIED)) {
             issues.add(new GenericIssue(
                     "Text is justified, which may cause readability issues.",
                     "Text Justification Issue",
-                    element.cssSelector(),
+                    selectors.cssSelector(element),
                     "Ensure that text is left-aligned instead of justified."
             ));
         }
 
         // 5. Line spacing (leading) is at least 1.5 times the font size, and paragraph spacing is at least 1.5 times the line spacing.
-        Elements lineHeightElements = document.select("[style*=line-height]");
-        for (Element element : lineHeightElements) {
+        for (Element element : matches.get(LINE_HEIGHT_STYLED)) {
             String lineHeight = element.attr("style").toLowerCase();
             if (lineHeight.contains("line-height")) {
                 String value = lineHeight.substring(lineHeight.indexOf("line-height:") + 12).trim();
@@ -210,7 +232,7 @@ public class VisualPresentationAudit implements IExecutablePageStateAudit {
                     issues.add(new GenericIssue(
                             "Line height is less than 1.5 times the font size.",
                             "Line Height Issue",
-                            element.cssSelector(),
+                            selectors.cssSelector(element),
                             "Ensure that line spacing (leading) is at least 1.5 times the font size."
                     ));
                 }
@@ -218,7 +240,7 @@ public class VisualPresentationAudit implements IExecutablePageStateAudit {
                     issues.add(new GenericIssue(
                         "Line height is at least 1.5 times the font size.",
                         "Line Height is accessible",
-                        element.cssSelector(),
+                        selectors.cssSelector(element),
                         ""
                 ));
                 }
@@ -226,8 +248,7 @@ public class VisualPresentationAudit implements IExecutablePageStateAudit {
         }
 
         // 6. Paragraph spacing should be at least 1.5 times the line spacing.
-        Elements marginElements = document.select("[style*=margin]");
-        for (Element element : marginElements) {
+        for (Element element : matches.get(MARGIN_STYLED)) {
             String marginStyle = element.attr("style").toLowerCase();
             if (marginStyle.contains("margin")) {
                 String[] margins = marginStyle.substring(marginStyle.indexOf("margin:") + 7).trim().split(" ");
@@ -235,7 +256,7 @@ public class VisualPresentationAudit implements IExecutablePageStateAudit {
                     issues.add(new GenericIssue(
                             "Paragraph spacing is not consistent with line spacing.",
                             "Paragraph Spacing Issue",
-                            element.cssSelector(),
+                            selectors.cssSelector(element),
                             "Ensure that paragraph spacing is at least 1.5 times the line spacing."
                     ));
                 }
@@ -243,7 +264,7 @@ public class VisualPresentationAudit implements IExecutablePageStateAudit {
                     issues.add(new GenericIssue(
                             "Paragraph spacing is consistent with line spacing.",
                             "Paragraph Spacing is accessible",
-                            element.cssSelector(),
+                            selectors.cssSelector(element),
                             ""
                     ));
                 }
@@ -0,0 +1,27 @@
+package com.looksee.audit.informationArchitecture.imagetext;
+
+import java.awt.image.BufferedImage;
+import java.util.List;
+import java.util.Objects;
+
+import org.springframework.stereotype.Component;
+
+import com.looksee.gcp.CloudVisionUtils;
+
+/**
+ * {@link OcrBackend} backed by Google Cloud Vision.
+ */
+@Component
+public class CloudVisionOcrBackend implements OcrBackend {
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @pre {@code image != null}
+	 */
+	@Override
+	public List<String> extractText(BufferedImage image) throws Exception {
+		Objects.requireNonNull(image, "image must not be null");
+		return CloudVisionUtils.extractImageText(image);
+	}
+}
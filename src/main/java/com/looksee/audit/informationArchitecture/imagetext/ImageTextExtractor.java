@@ -0,0 +1,268 @@
+package com.looksee.audit.informationArchitecture.imagetext;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.net.URLConnection;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PreDestroy;
+import javax.imageio.ImageIO;
+
+import org.jsoup.nodes.Element;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Finds the text a link without visible text presents to users, for example the text in a
+ * logo or icon.
+ *
+ * <p>Cheap signals in the markup are checked first: the {@code aria-label} and {@code title}
+ * of the link and the {@code alt}, {@code aria-label} and {@code title} of images inside it.
+ * Only when none of them is set is the link's screenshot downloaded and passed to the
+ * {@link OcrBackend}. That work runs on a dedicated pool so callers can submit every link of
+ * a page up front and collect the results later.</p>
+ *
+ * <p>Recognized text is cached by the SHA-256 hash of the screenshot bytes, so the same icon
+ * is only recognized once however many links or pages show it, and concurrent requests for
+ * the same screenshot share one download. A result that takes longer than
+ * {@code audit.image-text.timeout-ms}, counted from the request and including any wait for
+ * a worker, is reported as no text. Workers honour the same budget: a request whose time ran
+ * out while it was queued is dropped, the download may only take the time that is left, and
+ * a screenshot downloaded after the time ran out is not recognized.</p>
+ *
+ * <p>Lookups are counted in {@code audit.image_text.lookups}, tagged with {@code source}
+ * {@code local}, {@code in_flight}, {@code cache}, {@code ocr} or {@code error}.</p>
+ *
+ * <p><b>Class invariant:</b> {@code ocr_backend} and {@code meter_registry} are non-null after
+ * Spring construction, and {@code text_by_hash} holds at most {@code cache_size} entries.</p>
+ */
+@Component
+public class ImageTextExtractor {
+	private static Logger log = LoggerFactory.getLogger(ImageTextExtractor.class);
+
+	@Autowired
+	private OcrBackend ocr_backend;
+
+	@Autowired
+	private MeterRegistry meter_registry;
+
+	@Value("${audit.image-text.pool-size:4}")
+	private int pool_size = 4;
+
+	@Value("${audit.image-text.cache-size:10000}")
+	private int cache_size = 10000;
+
+	@Value("${audit.image-text.timeout-ms:30000}")
+	private long timeout_ms = 30000;
+
+	@Value("${audit.image-text.max-bytes:10485760}")
+	private int max_bytes = 10485760;
+
+	private ExecutorService executor;
+	private final ConcurrentMap<String, CompletableFuture<List<String>>> in_flight = new ConcurrentHashMap<>();
+	private final Map<String, List<String>> text_by_hash = new LinkedHashMap<String, List<String>>(16, 0.75f, true) {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, List<String>> eldest) {
+			return size() > cache_size;
+		}
+	};
+
+	/**
+	 * Reads the text a link announces through its markup.
+	 *
+	 * @param anchor parsed link element
+	 * @return non-blank {@code aria-label}, {@code title} and image {@code alt} values, in
+	 *         document order
+	 *
+	 * @pre {@code anchor != null}
+	 * @post returned value is non-null
+	 */
+	public static List<String> localText(Element anchor) {
+		Objects.requireNonNull(anchor, "anchor must not be null");
+		List<String> text = new ArrayList<>();
+		addIfPresent(text, anchor.attr("aria-label"));
+		addIfPresent(text, anchor.attr("title"));
+		for(Element image : anchor.getElementsByTag("img")) {
+			addIfPresent(text, image.attr("alt"));
+			addIfPresent(text, image.attr("aria-label"));
+			addIfPresent(text, image.attr("title"));
+		}
+		return text;
+	}
+
+	/**
+	 * Starts finding the text of a link.
+	 *
+	 * @param anchor         parsed link element
+	 * @param screenshot_url screenshot of the link; {@code null} if there is none
+	 * @return pending text blocks; never completes exceptionally, failures and timeouts
+	 *         yield an empty list
+	 *
+	 * @pre {@code anchor != null}
+	 * @post returned value is non-null
+	 */
+	public CompletableFuture<List<String>> extract(Element anchor, String screenshot_url) {
+		Objects.requireNonNull(anchor, "anchor must not be null");
+
+		List<String> local_text = localText(anchor);
+		if(!local_text.isEmpty()) {
+			record("local");
+			return CompletableFuture.completedFuture(local_text);
+		}
+		if(screenshot_url == null || screenshot_url.isEmpty()) {
+			return CompletableFuture.completedFuture(Collections.emptyList());
+		}
+
+		CompletableFuture<List<String>> pending = new CompletableFuture<>();
+		CompletableFuture<List<String>> existing = in_flight.putIfAbsent(screenshot_url, pending);
+		if(existing != null) {
+			record("in_flight");
+			return existing;
+		}
+		long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout_ms);
+		pending.completeOnTimeout(Collections.emptyList(), timeout_ms, TimeUnit.MILLISECONDS);
+
+		try {
+			executor().execute(() -> {
+				try {
+					if(!pending.isDone()) {
+						pending.complete(recognize(screenshot_url, deadline, pending));
+					}
+				}
+				catch(Exception e) {
+					record("error");
+					log.warn("Could not extract text from screenshot {} :: {}", screenshot_url, e.getMessage());
+					pending.complete(Collections.emptyList());
+				}
+				finally {
+					in_flight.remove(screenshot_url, pending);
+				}
+			});
+		}
+		catch(RejectedExecutionException e) {
+			in_flight.remove(screenshot_url, pending);
+			pending.complete(Collections.emptyList());
+		}
+		return pending;
+	}
+
+	@PreDestroy
+	public synchronized void shutdown() {
+		if(executor != null) {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Downloads a screenshot and returns its text, from the cache when the same image has been
+	 * recognized before. Gives up with no text once {@code pending} has timed out.
+	 */
+	private List<String> recognize(String screenshot_url,
+								   long deadline,
+								   CompletableFuture<List<String>> pending) throws Exception
+	{
+		byte[] bytes = download(screenshot_url, deadline);
+		String hash = sha256(bytes);
+		synchronized(text_by_hash) {
+			List<String> cached = text_by_hash.get(hash);
+			if(cached != null) {
+				record("cache");
+				return cached;
+			}
+		}
+		if(pending.isDone()) {
+			return Collections.emptyList();
+		}
+
+		BufferedImage image = ImageIO.read(new ByteArrayInputStream(bytes));
+		if(image == null) {
+			throw new IOException("Unsupported image format");
+		}
+		List<String> text = new ArrayList<>();
+		List<String> recognized = ocr_backend.extractText(image);
+		if(recognized != null) {
+			for(String block : recognized) {
+				addIfPresent(text, block);
+			}
+		}
+		text = Collections.unmodifiableList(text);
+
+		synchronized(text_by_hash) {
+			text_by_hash.put(hash, text);
+		}
+		record("ocr");
+		return text;
+	}
+
+	private byte[] download(String screenshot_url, long deadline) throws IOException {
+		long remaining_ms = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+		if(remaining_ms <= 0) {
+			throw new IOException("No time left to download the screenshot");
+		}
+		URLConnection connection = new URL(screenshot_url).openConnection();
+		connection.setConnectTimeout((int)Math.min(remaining_ms, Integer.MAX_VALUE));
+		connection.setReadTimeout((int)Math.min(remaining_ms, Integer.MAX_VALUE));
+		try(InputStream in = connection.getInputStream()) {
+			byte[] bytes = in.readNBytes(max_bytes + 1);
+			if(bytes.length > max_bytes) {
+				throw new IOException("Screenshot is larger than " + max_bytes + " bytes");
+			}
+			return bytes;
+		}
+	}
+
+	private static String sha256(byte[] bytes) {
+		try {
+			return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+		}
+		catch(NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 is not available", e);
+		}
+	}
+
+	private static void addIfPresent(List<String> text, String value) {
+		if(value != null && !value.isBlank()) {
+			text.add(value.trim());
+		}
+	}
+
+	private void record(String source) {
+		meter_registry.counter("audit.image_text.lookups", "source", source).increment();
+	}
+
+	private synchronized ExecutorService executor() {
+		if(executor == null) {
+			if(pool_size <= 0) {
+				throw new IllegalArgumentException("audit.image-text.pool-size must be greater than 0");
+			}
+			executor = Executors.newFixedThreadPool(pool_size, new CustomizableThreadFactory("image-text-"));
+		}
+		return executor;
+	}
+}
@@ -0,0 +1,23 @@
+package com.looksee.audit.informationArchitecture.imagetext;
+
+import java.awt.image.BufferedImage;
+import java.util.List;
+
+/**
+ * Recognizes text in an image.
+ *
+ * <p>Implementations may be called from several threads at once.</p>
+ */
+public interface OcrBackend {
+
+	/**
+	 * Extracts the text shown in an image.
+	 *
+	 * @param image image to read
+	 * @return text blocks found in the image; empty or {@code null} if there are none
+	 * @throws Exception if the text could not be extracted
+	 *
+	 * @pre {@code image != null}
+	 */
+	List<String> extractText(BufferedImage image) throws Exception;
+}
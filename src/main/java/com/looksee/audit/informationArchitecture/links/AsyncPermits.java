@@ -0,0 +1,73 @@
+package com.looksee.audit.informationArchitecture.links;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Non-blocking counting semaphore. {@link #acquire()} returns a future that completes once a
+ * permit is free, so waiting for a permit never ties up a thread.
+ *
+ * <p>Waiters are served in arrival order.</p>
+ *
+ * <p><b>Class invariant:</b> {@code available >= 0}, and {@code waiters} is empty whenever
+ * {@code available > 0}.</p>
+ */
+final class AsyncPermits {
+	private final Queue<CompletableFuture<Void>> waiters = new ArrayDeque<>();
+	private int available;
+	private int in_use;
+
+	/**
+	 * @param permits number of permits that may be held at once
+	 *
+	 * @pre {@code permits > 0}
+	 */
+	AsyncPermits(int permits) {
+		if(permits <= 0) {
+			throw new IllegalArgumentException("permits must be positive");
+		}
+		this.available = permits;
+	}
+
+	/**
+	 * @return a future that completes when the caller holds a permit; the caller must call
+	 *         {@link #release()} exactly once afterwards
+	 */
+	CompletableFuture<Void> acquire() {
+		synchronized(this) {
+			if(available > 0) {
+				available--;
+				in_use++;
+				return CompletableFuture.completedFuture(null);
+			}
+			CompletableFuture<Void> waiter = new CompletableFuture<>();
+			waiters.add(waiter);
+			return waiter;
+		}
+	}
+
+	/**
+	 * Returns a permit, handing it straight to the oldest waiter if there is one.
+	 */
+	void release() {
+		CompletableFuture<Void> next;
+		synchronized(this) {
+			next = waiters.poll();
+			if(next == null) {
+				available++;
+				in_use--;
+				return;
+			}
+		}
+		// completed outside the lock because it runs the waiter's continuation
+		next.complete(null);
+	}
+
+	/**
+	 * @return {@code true} if no permit is held and nobody is waiting
+	 */
+	synchronized boolean isIdle() {
+		return in_use == 0 && waiters.isEmpty();
+	}
+}
@@ -0,0 +1,313 @@
+package com.looksee.audit.informationArchitecture.links;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Checks whether link destinations can be reached, without blocking a thread per request.
+ *
+ * <p>Every check sends a {@code HEAD} request and falls back to {@code GET} when the server
+ * answers {@code HEAD} with an error status, since many servers reject or mishandle
+ * {@code HEAD}. Requests are limited three ways:</p>
+ * <ul>
+ *   <li>at most {@code audit.links.max-concurrency} requests are in flight overall,</li>
+ *   <li>at most {@code audit.links.max-per-host} requests are in flight per host, and</li>
+ *   <li>requests to the same host start at least {@code audit.links.per-host-interval-ms}
+ *       apart,</li>
+ * </ul>
+ * <p>so a page with hundreds of links to one customer site does not flood it. Each request
+ * is bounded by {@code audit.links.request-timeout-ms}, and each check, including its wait
+ * for permits and for its host's next slot, by {@code audit.links.check-timeout-ms}. A check
+ * that runs out of time reports an error, and one whose time ran out while it waited for
+ * permits sends no request, so callers never wait on a check longer than its own budget.</p>
+ *
+ * <p>Every request is timed in {@code audit.links.request}, tagged with the HTTP
+ * {@code method} and an {@code outcome} of the status class ({@code 2xx} to {@code 5xx}) or
+ * {@code error} when no response arrived.</p>
+ *
+ * <p>Callers should submit every link of a page at once with {@link #checkAll(Collection)}
+ * and only then wait for the results.</p>
+ *
+ * <p><b>Class invariant:</b> {@code meter_registry} is non-null after Spring construction,
+ * once created {@code http_client} and {@code global_permits} never change, and {@code hosts}
+ * holds at most one limiter per host and keeps every limiter a check is using.</p>
+ */
+@Component
+public class LinkChecker {
+	private static Logger log = LoggerFactory.getLogger(LinkChecker.class);
+
+	private static final String USER_AGENT = "Mozilla/5.0 (compatible; LookseeLinkChecker/1.0)";
+	private static final long HOST_IDLE_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+	@Autowired
+	private MeterRegistry meter_registry;
+
+	@Value("${audit.links.max-concurrency:64}")
+	private int max_concurrency = 64;
+
+	@Value("${audit.links.max-per-host:4}")
+	private int max_per_host = 4;
+
+	@Value("${audit.links.per-host-interval-ms:100}")
+	private long per_host_interval_ms = 100;
+
+	@Value("${audit.links.connect-timeout-ms:5000}")
+	private long connect_timeout_ms = 5000;
+
+	@Value("${audit.links.request-timeout-ms:10000}")
+	private long request_timeout_ms = 10000;
+
+	@Value("${audit.links.check-timeout-ms:30000}")
+	private long check_timeout_ms = 30000;
+
+	private HttpClient http_client;
+	private AsyncPermits global_permits;
+	private final ConcurrentMap<String, Host> hosts = new ConcurrentHashMap<>();
+	private volatile long last_sweep = System.nanoTime();
+
+	/**
+	 * Starts a check for every distinct URL.
+	 *
+	 * @param urls absolute http or https URLs
+	 * @return a pending result per distinct URL, in the iteration order of {@code urls}
+	 *
+	 * @pre {@code urls != null}
+	 * @post returned map is non-null and has a key for every distinct element of {@code urls}
+	 */
+	public Map<String, CompletableFuture<LinkStatus>> checkAll(Collection<String> urls) {
+		Objects.requireNonNull(urls, "urls must not be null");
+		Map<String, CompletableFuture<LinkStatus>> results = new LinkedHashMap<>();
+		for(String url : urls) {
+			results.computeIfAbsent(url, this::check);
+		}
+		return results;
+	}
+
+	/**
+	 * Starts a check of a single URL.
+	 *
+	 * @param url absolute http or https URL
+	 * @return pending result; never completes exceptionally, failures and checks that did not
+	 *         finish within {@code audit.links.check-timeout-ms} are reported as
+	 *         {@link LinkStatus.Verdict#ERROR}
+	 *
+	 * @pre {@code url != null}
+	 * @post returned value is non-null
+	 */
+	public CompletableFuture<LinkStatus> check(String url) {
+		Objects.requireNonNull(url, "url must not be null");
+
+		URI uri;
+		try {
+			uri = new URI(url);
+		}
+		catch(URISyntaxException e) {
+			return CompletableFuture.completedFuture(LinkStatus.error("Invalid URL: " + e.getMessage()));
+		}
+		String scheme = uri.getScheme() == null ? "" : uri.getScheme().toLowerCase(Locale.ENGLISH);
+		if(!"http".equals(scheme) && !"https".equals(scheme)) {
+			return CompletableFuture.completedFuture(LinkStatus.error("Unsupported URL scheme: " + uri.getScheme()));
+		}
+		if(uri.getHost() == null) {
+			return CompletableFuture.completedFuture(LinkStatus.error("URL has no host: " + url));
+		}
+
+		HttpClient client = client();
+		sweepIdleHosts();
+		// marked in use under the map's lock, so a sweep cannot drop it before its permits are taken
+		Host host = hosts.compute(uri.getHost().toLowerCase(Locale.ENGLISH), (k, existing) -> {
+			Host claimed = existing != null ? existing : new Host(max_per_host);
+			claimed.checkStarted();
+			return claimed;
+		});
+
+		long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(check_timeout_ms);
+		CompletableFuture<LinkStatus> result = host.permits.acquire()
+				.thenCompose(ignored -> global_permits.acquire())
+				.thenCompose(ignored -> System.nanoTime() - deadline >= 0
+						? CompletableFuture.completedFuture(timedOut())
+						: probe(client, uri, host))
+				.whenComplete((status, error) -> {
+					global_permits.release();
+					host.permits.release();
+					host.checkFinished();
+				});
+
+		return result.handle((status, error) -> {
+			if(error == null) {
+				return status;
+			}
+			Throwable cause = unwrap(error);
+			log.debug("Link check failed for {}", url, cause);
+			return LinkStatus.error(cause.getClass().getSimpleName() + (cause.getMessage() == null ? "" : ": " + cause.getMessage()));
+		}).completeOnTimeout(timedOut(), check_timeout_ms, TimeUnit.MILLISECONDS);
+	}
+
+	private LinkStatus timedOut() {
+		return LinkStatus.error("Link check did not finish within " + check_timeout_ms + " ms");
+	}
+
+	/**
+	 * Sends {@code HEAD}, then {@code GET} if {@code HEAD} came back with an error status.
+	 */
+	private CompletableFuture<LinkStatus> probe(HttpClient client, URI uri, Host host) {
+		HttpRequest head = request(uri).method("HEAD", HttpRequest.BodyPublishers.noBody()).build();
+		return afterInterval(host)
+				.thenCompose(ignored -> timedSend(client, head, HttpResponse.BodyHandlers.discarding()))
+				.thenCompose(head_response -> {
+					if(head_response.statusCode() < 400) {
+						return CompletableFuture.completedFuture(LinkStatus.fromResponse(head_response.statusCode(), head_response.uri().toString()));
+					}
+					HttpRequest get = request(uri).GET().build();
+					return afterInterval(host)
+							.thenCompose(ignored -> timedSend(client, get, HttpResponse.BodyHandlers.ofInputStream()))
+							.thenApply(get_response -> {
+								// only the status matters; closing the stream abandons the body
+								try(InputStream body = get_response.body()) {
+									return LinkStatus.fromResponse(get_response.statusCode(), get_response.uri().toString());
+								}
+								catch(IOException e) {
+									return LinkStatus.fromResponse(get_response.statusCode(), get_response.uri().toString());
+								}
+							});
+				});
+	}
+
+	/**
+	 * Sends a request and records the time until its response headers arrived, or until it
+	 * failed, in {@code audit.links.request}.
+	 */
+	private <T> CompletableFuture<HttpResponse<T>> timedSend(HttpClient client,
+															 HttpRequest request,
+															 HttpResponse.BodyHandler<T> body_handler)
+	{
+		long start = System.nanoTime();
+		return client.sendAsync(request, body_handler).whenComplete((response, error) -> {
+			String outcome = response == null ? "error" : (response.statusCode() / 100) + "xx";
+			meter_registry.timer("audit.links.request", "method", request.method(), "outcome", outcome)
+						  .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+		});
+	}
+
+	private HttpRequest.Builder request(URI uri) {
+		return HttpRequest.newBuilder(uri)
+				.timeout(Duration.ofMillis(request_timeout_ms))
+				.header("User-Agent", USER_AGENT);
+	}
+
+	/**
+	 * @return a future that completes once the host's next request slot has started
+	 */
+	private CompletableFuture<Void> afterInterval(Host host) {
+		long delay = host.reserve(TimeUnit.MILLISECONDS.toNanos(per_host_interval_ms));
+		if(delay <= 0) {
+			return CompletableFuture.completedFuture(null);
+		}
+		return CompletableFuture.runAsync(() -> {}, CompletableFuture.delayedExecutor(delay, TimeUnit.NANOSECONDS));
+	}
+
+	/**
+	 * Drops limiters of hosts that have been idle for a while, at most once a minute.
+	 */
+	private void sweepIdleHosts() {
+		long now = System.nanoTime();
+		if(now - last_sweep < HOST_IDLE_NANOS) {
+			return;
+		}
+		last_sweep = now;
+		// decided under the map's lock, so a host is never dropped while a check claims it
+		for(String host : hosts.keySet()) {
+			hosts.computeIfPresent(host, (k, limiter) -> limiter.isIdleSince(now - HOST_IDLE_NANOS) ? null : limiter);
+		}
+	}
+
+	private synchronized HttpClient client() {
+		if(http_client == null) {
+			if(max_concurrency <= 0) {
+				throw new IllegalArgumentException("audit.links.max-concurrency must be greater than 0");
+			}
+			if(max_per_host <= 0) {
+				throw new IllegalArgumentException("audit.links.max-per-host must be greater than 0");
+			}
+			global_permits = new AsyncPermits(max_concurrency);
+			http_client = HttpClient.newBuilder()
+					.connectTimeout(Duration.ofMillis(connect_timeout_ms))
+					.followRedirects(HttpClient.Redirect.NORMAL)
+					.build();
+		}
+		return http_client;
+	}
+
+	private static Throwable unwrap(Throwable error) {
+		Throwable cause = error;
+		while((cause instanceof CompletionException || cause instanceof ExecutionException) && cause.getCause() != null) {
+			cause = cause.getCause();
+		}
+		return cause;
+	}
+
+	/**
+	 * Concurrency and pacing state for one host.
+	 */
+	private static final class Host {
+		private final AsyncPermits permits;
+		private long next_start = System.nanoTime();
+		private long last_used = System.nanoTime();
+		private int checks;
+
+		Host(int max_per_host) {
+			this.permits = new AsyncPermits(max_per_host);
+		}
+
+		/**
+		 * Claims the next request slot.
+		 *
+		 * @return nanoseconds to wait before the slot starts
+		 */
+		synchronized long reserve(long interval_nanos) {
+			long now = System.nanoTime();
+			long start = Math.max(now, next_start);
+			next_start = start + interval_nanos;
+			last_used = start;
+			return start - now;
+		}
+
+		synchronized void checkStarted() {
+			checks++;
+			last_used = System.nanoTime();
+		}
+
+		synchronized void checkFinished() {
+			checks--;
+		}
+
+		synchronized boolean isIdleSince(long since) {
+			return checks == 0 && last_used < since && permits.isIdle();
+		}
+	}
+}
@@ -0,0 +1,129 @@
+package com.looksee.audit.informationArchitecture.links;
+
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * Outcome of checking whether a link destination can be reached.
+ *
+ * <p>A destination is {@link Verdict#REACHABLE} when the server answered with anything other
+ * than {@code 404 Not Found} or {@code 410 Gone}, mirroring
+ * {@code BrowserUtils.doesUrlExist}. {@link Verdict#ERROR} means no answer was received,
+ * for example because the connection was refused or the request timed out.</p>
+ *
+ * <p><b>Class invariant:</b> {@code verdict} and {@code checked_at} are non-null,
+ * {@code status_code} is set for every verdict except {@code ERROR}, and {@code error} is
+ * non-null only for {@code ERROR}.</p>
+ */
+public final class LinkStatus {
+
+	public enum Verdict {
+		REACHABLE,
+		NOT_FOUND,
+		ERROR
+	}
+
+	private final Verdict verdict;
+	private final int status_code;
+	private final String error;
+	private final String final_url;
+	private final Instant checked_at;
+
+	private LinkStatus(Verdict verdict, int status_code, String error, String final_url, Instant checked_at) {
+		this.verdict = verdict;
+		this.status_code = status_code;
+		this.error = error;
+		this.final_url = final_url;
+		this.checked_at = checked_at;
+	}
+
+	/**
+	 * Classifies an HTTP response status.
+	 *
+	 * @param status_code status returned by the server
+	 * @return {@code NOT_FOUND} for 404 and 410, otherwise {@code REACHABLE}
+	 */
+	public static LinkStatus fromStatusCode(int status_code) {
+		return fromResponse(status_code, null);
+	}
+
+	/**
+	 * Classifies an HTTP response status.
+	 *
+	 * @param status_code status returned by the server
+	 * @param final_url   URL that answered after following redirects; may be {@code null}
+	 * @return {@code NOT_FOUND} for 404 and 410, otherwise {@code REACHABLE}
+	 */
+	public static LinkStatus fromResponse(int status_code, String final_url) {
+		Verdict verdict = status_code == 404 || status_code == 410 ? Verdict.NOT_FOUND : Verdict.REACHABLE;
+		return new LinkStatus(verdict, status_code, null, final_url, Instant.now());
+	}
+
+	/**
+	 * @param error description of why no response was received
+	 *
+	 * @pre {@code error != null}
+	 */
+	public static LinkStatus error(String error) {
+		Objects.requireNonNull(error, "error must not be null");
+		return new LinkStatus(Verdict.ERROR, -1, error, null, Instant.now());
+	}
+
+	/**
+	 * Recreates a previously recorded status, for example one read back from disk.
+	 *
+	 * @pre {@code verdict != null}
+	 * @pre {@code checked_at != null}
+	 * @pre {@code verdict != Verdict.ERROR || error != null}
+	 */
+	static LinkStatus restore(Verdict verdict, int status_code, String error, String final_url, Instant checked_at) {
+		Objects.requireNonNull(verdict, "verdict must not be null");
+		Objects.requireNonNull(checked_at, "checked_at must not be null");
+		if(verdict == Verdict.ERROR) {
+			Objects.requireNonNull(error, "error must not be null");
+			return new LinkStatus(verdict, -1, error, null, checked_at);
+		}
+		return new LinkStatus(verdict, status_code, null, final_url, checked_at);
+	}
+
+	public Verdict getVerdict() {
+		return verdict;
+	}
+
+	/**
+	 * @return the HTTP status, or {@code -1} for {@link Verdict#ERROR}
+	 */
+	public int getStatusCode() {
+		return status_code;
+	}
+
+	/**
+	 * @return why the check failed, or {@code null} unless the verdict is {@link Verdict#ERROR}
+	 */
+	public String getError() {
+		return error;
+	}
+
+	/**
+	 * @return URL that answered after following redirects, or {@code null} if unknown
+	 */
+	public String getFinalUrl() {
+		return final_url;
+	}
+
+	/**
+	 * @return when the check finished
+	 */
+	public Instant getCheckedAt() {
+		return checked_at;
+	}
+
+	public boolean isReachable() {
+		return verdict == Verdict.REACHABLE;
+	}
+
+	@Override
+	public String toString() {
+		return verdict == Verdict.ERROR ? verdict + " (" + error + ")" : verdict + " (" + status_code + ")";
+	}
+}
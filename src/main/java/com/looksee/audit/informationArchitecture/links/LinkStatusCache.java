@@ -0,0 +1,309 @@
+package com.looksee.audit.informationArchitecture.links;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Link statuses shared by every page and audit record handled by this instance, so the
+ * header, footer and navigation links a site repeats on every page are only checked once.
+ *
+ * <p>Entries are keyed by normalized absolute URL and kept for
+ * {@code audit.links.cache.success-ttl-ms} when the destination was reachable and
+ * {@code audit.links.cache.failure-ttl-ms} otherwise, measured from when the check finished.
+ * At most {@code audit.links.cache.max-size} entries are kept; the least recently used entry
+ * is evicted first. A URL that is already being checked is not checked again; later callers
+ * receive the pending result of the first check.</p>
+ *
+ * <p>When {@code audit.links.cache.file} is set, unexpired entries are written to that file
+ * on shutdown and read back on startup, so a restarted instance starts warm.</p>
+ *
+ * <p>Lookups are counted in {@code audit.links.cache.lookups}, tagged with {@code result}
+ * {@code hit}, {@code in_flight} or {@code miss}. The number of entries is reported as
+ * {@code audit.links.cache.size}.</p>
+ *
+ * <p><b>Class invariant:</b> {@code link_checker} and {@code meter_registry} are non-null after
+ * Spring construction, and {@code entries} holds at most {@code max_size} entries.</p>
+ */
+@Component
+public class LinkStatusCache {
+	private static Logger log = LoggerFactory.getLogger(LinkStatusCache.class);
+
+	private static final ObjectMapper MAPPER = new ObjectMapper();
+
+	@Autowired
+	private LinkChecker link_checker;
+
+	@Autowired
+	private MeterRegistry meter_registry;
+
+	@Value("${audit.links.cache.max-size:100000}")
+	private int max_size = 100000;
+
+	@Value("${audit.links.cache.success-ttl-ms:21600000}")
+	private long success_ttl_ms = 21600000;
+
+	@Value("${audit.links.cache.failure-ttl-ms:600000}")
+	private long failure_ttl_ms = 600000;
+
+	@Value("${audit.links.cache.file:}")
+	private String cache_file = "";
+
+	private final Map<String, CompletableFuture<LinkStatus>> entries = new LinkedHashMap<String, CompletableFuture<LinkStatus>>(16, 0.75f, true) {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, CompletableFuture<LinkStatus>> eldest) {
+			return size() > max_size;
+		}
+	};
+
+	/**
+	 * Registers metrics and reads the persisted entries, if any.
+	 */
+	@PostConstruct
+	public void initialize() {
+		meter_registry.gauge("audit.links.cache.size", this, LinkStatusCache::size);
+		if(!cache_file.isEmpty()) {
+			load(Paths.get(cache_file));
+		}
+	}
+
+	/**
+	 * Writes the unexpired entries to {@code audit.links.cache.file}, if set.
+	 */
+	@PreDestroy
+	public void shutdown() {
+		if(!cache_file.isEmpty()) {
+			persist(Paths.get(cache_file));
+		}
+	}
+
+	/**
+	 * Looks up every distinct URL, starting checks for those not cached.
+	 *
+	 * @param urls absolute http or https URLs
+	 * @return a pending result per distinct URL, keyed as given, in the iteration order of
+	 *         {@code urls}
+	 *
+	 * @pre {@code urls != null}
+	 * @post returned map is non-null and has a key for every distinct element of {@code urls}
+	 */
+	public Map<String, CompletableFuture<LinkStatus>> checkAll(Collection<String> urls) {
+		Objects.requireNonNull(urls, "urls must not be null");
+		Map<String, CompletableFuture<LinkStatus>> results = new LinkedHashMap<>();
+		for(String url : urls) {
+			results.computeIfAbsent(url, this::check);
+		}
+		return results;
+	}
+
+	/**
+	 * Returns the cached status of a URL, starting a check if there is none or it has expired.
+	 *
+	 * @param url absolute http or https URL
+	 * @return pending result; never completes exceptionally
+	 *
+	 * @pre {@code url != null}
+	 * @post returned value is non-null
+	 */
+	public CompletableFuture<LinkStatus> check(String url) {
+		Objects.requireNonNull(url, "url must not be null");
+		String key = normalize(url);
+
+		CompletableFuture<LinkStatus> pending;
+		synchronized(entries) {
+			CompletableFuture<LinkStatus> cached = entries.get(key);
+			if(cached != null && !cached.isDone()) {
+				record("in_flight");
+				return cached;
+			}
+			if(cached != null && !isExpired(cached.join())) {
+				record("hit");
+				return cached;
+			}
+			pending = new CompletableFuture<>();
+			entries.put(key, pending);
+		}
+		record("miss");
+
+		try {
+			link_checker.check(key).thenAccept(pending::complete);
+		}
+		catch(RuntimeException e) {
+			synchronized(entries) {
+				entries.remove(key, pending);
+			}
+			pending.complete(LinkStatus.error(e.getClass().getSimpleName() + ": " + e.getMessage()));
+		}
+		return pending;
+	}
+
+	/**
+	 * @return number of cached and in-flight entries
+	 */
+	public int size() {
+		synchronized(entries) {
+			return entries.size();
+		}
+	}
+
+	/**
+	 * Canonical form of a URL used as the cache key: lower-case scheme and host, no default
+	 * port, no fragment and {@code /} for an empty path. URLs that cannot be parsed are used
+	 * as they are.
+	 *
+	 * @pre {@code url != null}
+	 */
+	static String normalize(String url) {
+		String trimmed = url.trim();
+		URI uri;
+		try {
+			uri = new URI(trimmed);
+		}
+		catch(URISyntaxException e) {
+			return trimmed;
+		}
+		if(uri.getScheme() == null || uri.getHost() == null) {
+			return trimmed;
+		}
+
+		String scheme = uri.getScheme().toLowerCase(Locale.ENGLISH);
+		int port = uri.getPort();
+		if(("http".equals(scheme) && port == 80) || ("https".equals(scheme) && port == 443)) {
+			port = -1;
+		}
+
+		StringBuilder key = new StringBuilder(trimmed.length());
+		key.append(scheme).append("://");
+		if(uri.getRawUserInfo() != null) {
+			key.append(uri.getRawUserInfo()).append('@');
+		}
+		key.append(uri.getHost().toLowerCase(Locale.ENGLISH));
+		if(port != -1) {
+			key.append(':').append(port);
+		}
+		key.append(uri.getRawPath() == null || uri.getRawPath().isEmpty() ? "/" : uri.getRawPath());
+		if(uri.getRawQuery() != null) {
+			key.append('?').append(uri.getRawQuery());
+		}
+		return key.toString();
+	}
+
+	private boolean isExpired(LinkStatus status) {
+		long ttl_ms = status.isReachable() ? success_ttl_ms : failure_ttl_ms;
+		return status.getCheckedAt().plus(Duration.ofMillis(ttl_ms)).isBefore(Instant.now());
+	}
+
+	private void record(String result) {
+		meter_registry.counter("audit.links.cache.lookups", "result", result).increment();
+	}
+
+	/**
+	 * Reads entries written by {@link #persist(Path)}, skipping expired ones. A missing or
+	 * unreadable file leaves the cache empty.
+	 */
+	void load(Path file) {
+		if(!Files.exists(file)) {
+			return;
+		}
+		int loaded = 0;
+		try(BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+			String line;
+			while((line = reader.readLine()) != null) {
+				if(line.isBlank()) {
+					continue;
+				}
+				JsonNode node = MAPPER.readTree(line);
+				LinkStatus status = LinkStatus.restore(
+						LinkStatus.Verdict.valueOf(node.path("verdict").asText()),
+						node.path("status_code").asInt(-1),
+						node.hasNonNull("error") ? node.get("error").asText() : null,
+						node.hasNonNull("final_url") ? node.get("final_url").asText() : null,
+						Instant.ofEpochMilli(node.path("checked_at").asLong()));
+				if(!isExpired(status)) {
+					synchronized(entries) {
+						entries.put(node.path("url").asText(), CompletableFuture.completedFuture(status));
+					}
+					loaded++;
+				}
+			}
+			log.info("Loaded {} link statuses from {}", loaded, file);
+		}
+		catch(IOException | IllegalArgumentException e) {
+			log.warn("Could not read link status cache from {} :: {}", file, e.getMessage());
+		}
+	}
+
+	/**
+	 * Writes every completed, unexpired entry as one JSON object per line. The file is
+	 * replaced atomically so a crash mid-write leaves the previous contents in place.
+	 */
+	void persist(Path file) {
+		List<Map.Entry<String, LinkStatus>> snapshot = new ArrayList<>();
+		synchronized(entries) {
+			for(Map.Entry<String, CompletableFuture<LinkStatus>> entry : entries.entrySet()) {
+				if(entry.getValue().isDone() && !isExpired(entry.getValue().join())) {
+					snapshot.add(Map.entry(entry.getKey(), entry.getValue().join()));
+				}
+			}
+		}
+
+		try {
+			Path parent = file.toAbsolutePath().getParent();
+			Files.createDirectories(parent);
+			Path temp = Files.createTempFile(parent, "link-status", ".tmp");
+			try(BufferedWriter writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+				for(Map.Entry<String, LinkStatus> entry : snapshot) {
+					LinkStatus status = entry.getValue();
+					ObjectNode node = MAPPER.createObjectNode();
+					node.put("url", entry.getKey());
+					node.put("verdict", status.getVerdict().name());
+					node.put("status_code", status.getStatusCode());
+					node.put("error", status.getError());
+					node.put("final_url", status.getFinalUrl());
+					node.put("checked_at", status.getCheckedAt().toEpochMilli());
+					writer.write(MAPPER.writeValueAsString(node));
+					writer.newLine();
+				}
+			}
+			Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			log.info("Saved {} link statuses to {}", snapshot.size(), file);
+		}
+		catch(IOException e) {
+			log.warn("Could not write link status cache to {} :: {}", file, e.getMessage());
+		}
+	}
+}
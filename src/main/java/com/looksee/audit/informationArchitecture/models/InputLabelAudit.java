@@ -8,18 +8,18 @@ import java.util.List;
 import java.util.Objects;
 import java.util.Set;
 
-import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
 import org.jsoup.select.Elements;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import com.looksee.audit.informationArchitecture.audits.IExecutablePageContextAudit;
+import com.looksee.audit.informationArchitecture.audits.PageContext;
 import com.looksee.models.ElementState;
 import com.looksee.models.PageState;
 import com.looksee.models.audit.Audit;
 import com.looksee.models.audit.AuditRecord;
-import com.looksee.models.audit.interfaces.IExecutablePageStateAudit;
 import com.looksee.models.audit.messages.ElementStateIssueMessage;
 import com.looksee.models.audit.messages.UXIssueMessage;
 import com.looksee.models.designsystem.DesignSystem;
@@ -40,7 +40,7 @@ import com.looksee.services.ElementStateService;
  * {@code elementStateService}) are non-null after Spring construction.</p>
  */
 @Component
-public class InputLabelAudit implements IExecutablePageStateAudit {
+public class InputLabelAudit implements IExecutablePageContextAudit {
 
 	@Autowired
 	private AuditService auditService;
@@ -62,8 +62,9 @@ public class InputLabelAudit implements IExecutablePageStateAudit {
 	 * @throws URISyntaxException 
 	 */
 	@Override
-	public Audit execute(PageState page_state, AuditRecord audit_record, DesignSystem design_system) {
-		Objects.requireNonNull(page_state, "page_state must not be null");
+	public Audit execute(PageContext page_context, AuditRecord audit_record, DesignSystem design_system) {
+		Objects.requireNonNull(page_context, "page_context must not be null");
+		PageState page_state = page_context.getPageState();
 		Objects.requireNonNull(audit_record, "audit_record must not be null");
 
 		//check if page state already had a link audit performed.
@@ -74,8 +75,7 @@ public class InputLabelAudit implements IExecutablePageStateAudit {
 		labels.add("tables");
 		labels.add("wcag");
 		
-		Document jsoup_doc = Jsoup.parse(page_state.getSrc());
-        issue_messages.addAll(checkWCAGCompliance(jsoup_doc, page_state));
+        issue_messages.addAll(checkWCAGCompliance(page_context.getDocument(), page_context));
 
 		String why_it_matters = "Grouping form controls within a <fieldset> element is important for accessibility because it provides a clear, semantic structure that enhances the understanding of the form's organization, especially for users with disabilities. The <fieldset> element, often paired with a <legend>, helps screen readers and other assistive technologies to convey related groups of controls as a single, coherent unit, ensuring that users can navigate and comprehend the form's layout more effectively. This practice aligns with WCAG 2.1 guidelines, supporting a more inclusive and accessible web experience.";
 		
@@ -104,7 +104,7 @@ public class InputLabelAudit implements IExecutablePageStateAudit {
 								 true);
 
 		Objects.requireNonNull(audit, "Postcondition failed: audit must not be null");
-		return auditService.save(audit);
+		return page_context.saveAudit(audit, auditService);
 	}
 
     /**
@@ -115,6 +115,22 @@ public class InputLabelAudit implements IExecutablePageStateAudit {
      * @return true if the document is compliant, false otherwise
      */
     public List<UXIssueMessage> checkWCAGCompliance(Document doc, PageState page_state) {
+        return checkWCAGCompliance(doc, new PageContext(page_state));
+    }
+
+    /**
+     * Checks the given document for WCAG 2.1 Section 3.3.2 compliance, resolving each input to
+     * its element state through {@code page_context}.
+     *
+     * @param doc the JSoup Document representing the HTML to be validated
+     * @param page_context context of the page {@code doc} was parsed from
+     * @return issue messages for every input found in a form
+     *
+     * @pre {@code doc != null}
+     * @pre {@code page_context != null}
+     */
+    public List<UXIssueMessage> checkWCAGCompliance(Document doc, PageContext page_context) {
+        Objects.requireNonNull(page_context, "page_context must not be null");
         // Design by Contract - Precondition: The document must contain at least one form
         Elements forms = doc.getElementsByTag("form");
         List<UXIssueMessage> issues = new ArrayList<>();
@@ -129,8 +145,7 @@ public class InputLabelAudit implements IExecutablePageStateAudit {
                 String inputId = input.id();
 
                 String xpath = BrowserService.getXPath(input);
-                String cssSelector = BrowserService.generateCssSelectorFromXpath(xpath);
-                ElementState input_element = elementStateService.findByPageAndCssSelector(page_state.getId(), cssSelector);
+                ElementState input_element = page_context.findElementStateByXpath(xpath, elementStateService);
 
                 // Search for a label that is associated with the input by the 'for' attribute
                 Elements labels = form.select("label[for=" + inputId + "]");
@@ -1,7 +1,9 @@
 package com.looksee.audit.informationArchitecture.models;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Objects;
 import java.util.Set;
@@ -9,6 +11,7 @@ import java.util.Set;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import com.looksee.audit.informationArchitecture.services.ElementStatePropertyLoader;
 import com.looksee.models.ElementState;
 import com.looksee.models.PageState;
 import com.looksee.models.audit.Audit;
@@ -24,13 +27,14 @@ import com.looksee.models.enums.AuditSubcategory;
 import com.looksee.models.enums.Priority;
 import com.looksee.services.AuditService;
 import com.looksee.services.PageStateService;
+import com.looksee.services.UXIssueMessageService;
 
 /**
  * Audits keyboard accessibility for WCAG 2.1 Section 2.1.1 compliance, checking that
  * interactive elements are focusable and operable via keyboard.
  *
- * <p><b>Class invariant:</b> All {@code @Autowired} dependencies ({@code auditService},
- * {@code pageStateService}) are non-null after Spring construction.</p>
+ * <p><b>Class invariant:</b> All required {@code @Autowired} dependencies ({@code auditService},
+ * {@code pageStateService}, {@code issueMessageService}) are non-null after Spring construction.</p>
  */
 @Component
 public class KeyboardAccessibleAudit implements IExecutablePageStateAudit {
@@ -41,6 +45,14 @@ public class KeyboardAccessibleAudit implements IExecutablePageStateAudit {
     @Autowired
     private PageStateService pageStateService;
 
+    @Autowired
+    private UXIssueMessageService issueMessageService;
+
+    // absent when audit.element-states.paged-load is false; every element state of the page
+    // is then loaded to read its attributes
+    @Autowired(required = false)
+    private ElementStatePropertyLoader elementStatePropertyLoader;
+
 	List<String> bad_link_text_list;
 	
 	public KeyboardAccessibleAudit() {
@@ -59,7 +71,7 @@ public class KeyboardAccessibleAudit implements IExecutablePageStateAudit {
 		Objects.requireNonNull(audit_record, "audit_record must not be null");
 
 		//check if page state already had a link audit performed.
-		Set<UXIssueMessage> issue_messages = new HashSet<>();
+		Set<UXIssueMessage> issue_messages = Collections.newSetFromMap(new IdentityHashMap<>());
 		String ada_compliance = "WCAG 2.1 Section 1.3.1 - Tables";
 
 		Set<String> labels = new HashSet<>();
@@ -67,25 +79,46 @@ public class KeyboardAccessibleAudit implements IExecutablePageStateAudit {
 		labels.add("accessibility");
 		labels.add("wcag");
 		
-        List<ElementState> allElements = pageStateService.getElementStates(page_state.getId());
-        List<ElementState> elements = checkKeyboardAccessibility(allElements);
-
-        for(ElementState element: elements){
-            String description = "Element cannot be navigated to or interacted with using only a keyboard. This can prevent users who rely on keyboard navigation from accessing important content or functionality.";
-            String recommendation = "Ensure the element is focusable with tabindex=\"0\" and can be activated using the keyboard by assigning an appropriate role (e.g., role=\"button\") and handling key events like Enter or Space.";
-            String title = "Element not keyboard accessible";
-
-            UXIssueMessage issue_msg = new ElementStateIssueMessage(Priority.HIGH,
-                                                                description,
-                                                                recommendation,
-                                                                element,
-                                                                AuditCategory.ACCESSIBILITY,
-                                                                labels,
-                                                                ada_compliance,
-                                                                title,
-                                                                0,
-                                                                1);
-            issue_messages.add(issue_msg);
+        String issue_description = "Element cannot be navigated to or interacted with using only a keyboard. This can prevent users who rely on keyboard navigation from accessing important content or functionality.";
+        String issue_recommendation = "Ensure the element is focusable with tabindex=\"0\" and can be activated using the keyboard by assigning an appropriate role (e.g., role=\"button\") and handling key events like Enter or Space.";
+        String issue_title = "Element not keyboard accessible";
+
+        if(elementStatePropertyLoader != null) {
+            // read only the two attributes and relate each issue to its element state by id
+            elementStatePropertyLoader.forEachAttribute(page_state.getId(), List.of("tabindex", "role"), (element_id, values) -> {
+                if(!isKeyboardAccessible(values.get(0), values.get(1))) {
+                    UXIssueMessage issue_msg = issueMessageService.save(new ElementStateIssueMessage(Priority.HIGH,
+                                                                                                    issue_description,
+                                                                                                    issue_recommendation,
+                                                                                                    null,
+                                                                                                    AuditCategory.ACCESSIBILITY,
+                                                                                                    labels,
+                                                                                                    ada_compliance,
+                                                                                                    issue_title,
+                                                                                                    0,
+                                                                                                    1));
+                    issueMessageService.addElement(issue_msg.getId(), element_id);
+                    issue_messages.add(issue_msg);
+                }
+            });
+        }
+        else {
+            List<ElementState> allElements = pageStateService.getElementStates(page_state.getId());
+            List<ElementState> elements = checkKeyboardAccessibility(allElements);
+
+            for(ElementState element: elements){
+                UXIssueMessage issue_msg = new ElementStateIssueMessage(Priority.HIGH,
+                                                                    issue_description,
+                                                                    issue_recommendation,
+                                                                    element,
+                                                                    AuditCategory.ACCESSIBILITY,
+                                                                    labels,
+                                                                    ada_compliance,
+                                                                    issue_title,
+                                                                    0,
+                                                                    1);
+                issue_messages.add(issue_msg);
+            }
         }
 
 		String why_it_matters = "Grouping form controls within a <fieldset> element is important for accessibility because it provides a clear, semantic structure that enhances the understanding of the form's organization, especially for users with disabilities. The <fieldset> element, often paired with a <legend>, helps screen readers and other assistive technologies to convey related groups of controls as a single, coherent unit, ensuring that users can navigate and comprehend the form's layout more effectively. This practice aligns with WCAG 2.1 guidelines, supporting a more inclusive and accessible web experience.";
@@ -135,14 +168,7 @@ public class KeyboardAccessibleAudit implements IExecutablePageStateAudit {
 
         // Loop through all elements and check if they can be focused
         for (ElementState element : elements) {
-            String tabindex = element.getAttribute("tabindex");
-            String role = element.getAttribute("role");
-            
-            // Check if element is keyboard accessible
-            boolean isAccessible = (tabindex != null && !tabindex.isEmpty()) ||
-								(role != null && !role.isEmpty());
-            
-            if (!isAccessible) {
+            if (!isKeyboardAccessible(element.getAttribute("tabindex"), element.getAttribute("role"))) {
                 nonAccessibleElements.add(element);
             }
         }
@@ -150,4 +176,16 @@ public class KeyboardAccessibleAudit implements IExecutablePageStateAudit {
         Objects.requireNonNull(nonAccessibleElements, "Postcondition failed: returned list must not be null");
         return nonAccessibleElements;
     }
+
+    /**
+     * Determines if an element with the given attributes can be reached with the keyboard.
+     *
+     * @param tabindex value of the element's tabindex attribute, or {@code null}
+     * @param role     value of the element's role attribute, or {@code null}
+     * @post returns {@code true} if either attribute is present and non-empty
+     */
+    static boolean isKeyboardAccessible(String tabindex, String role) {
+        return (tabindex != null && !tabindex.isEmpty()) ||
+               (role != null && !role.isEmpty());
+    }
 }
@@ -8,18 +8,22 @@ import java.util.List;
 import java.util.Objects;
 import java.util.Set;
 
-import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
 import org.jsoup.select.Elements;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import com.looksee.audit.informationArchitecture.audits.ElementSelectorIndex;
+import com.looksee.audit.informationArchitecture.audits.IExecutablePageContextAudit;
+import com.looksee.audit.informationArchitecture.audits.PageContext;
+import com.looksee.audit.informationArchitecture.rules.ElementRule;
+import com.looksee.audit.informationArchitecture.rules.ElementRuleEngine;
+import com.looksee.audit.informationArchitecture.rules.ElementRuleMatches;
 import com.looksee.models.ElementState;
 import com.looksee.models.PageState;
 import com.looksee.models.audit.Audit;
 import com.looksee.models.audit.AuditRecord;
-import com.looksee.models.audit.interfaces.IExecutablePageStateAudit;
 import com.looksee.models.audit.messages.ElementStateIssueMessage;
 import com.looksee.models.audit.messages.UXIssueMessage;
 import com.looksee.models.designsystem.DesignSystem;
@@ -39,7 +43,16 @@ import com.looksee.services.ElementStateService;
  * {@code elementStateService}) are non-null after Spring construction.</p>
  */
 @Component
-public class ListStructureAudit implements IExecutablePageStateAudit {
+public class ListStructureAudit implements IExecutablePageContextAudit {
+
+	private static final ElementRule UNORDERED_LISTS = ElementRule.forTags("list-structure.ul", "ul");
+	private static final ElementRule ORDERED_LISTS = ElementRule.forTags("list-structure.ol", "ol");
+
+	/**
+	 * Rules backing {@link #checkListMatches(ElementRuleMatches, ElementSelectorIndex)}; part of
+	 * the page-wide engine behind {@link PageContext#getRuleMatches()}.
+	 */
+	public static final ElementRuleEngine RULES = new ElementRuleEngine(List.of(UNORDERED_LISTS, ORDERED_LISTS));
 
 	@Autowired
 	private AuditService auditService;
@@ -72,8 +85,9 @@ public class ListStructureAudit implements IExecutablePageStateAudit {
 	 * @throws URISyntaxException 
 	 */
 	@Override
-	public Audit execute(PageState page_state, AuditRecord audit_record, DesignSystem design_system) {
-		Objects.requireNonNull(page_state, "page_state must not be null");
+	public Audit execute(PageContext page_context, AuditRecord audit_record, DesignSystem design_system) {
+		Objects.requireNonNull(page_context, "page_context must not be null");
+		PageState page_state = page_context.getPageState();
 		Objects.requireNonNull(audit_record, "audit_record must not be null");
 
 		//check if page state already had a link audit performed.
@@ -86,10 +100,8 @@ public class ListStructureAudit implements IExecutablePageStateAudit {
 		labels.add("headers");
 		labels.add("wcag");
 		
-		Document jsoup_doc = Jsoup.parse(page_state.getSrc());
-
-        for(String cssSelector: checkListCompliance(jsoup_doc)){
-            ElementState header_elem = elementStateService.findByPageAndCssSelector(page_state.getId(), cssSelector);
+        for(String cssSelector: checkListMatches(page_context.getRuleMatches(), page_context.getSelectorIndex())){
+            ElementState header_elem = page_context.findElementState(cssSelector, elementStateService);
             String issue_description = "Having headers in hierarchical order is crucial for accessibility and WCAG 2.1 compliance because it provides a clear and logical structure to the content. This hierarchy helps users, especially those using assistive technologies like screen readers, to easily navigate the webpage and understand the relationship between different sections. Properly ordered headers guide users through the content, improving their experience and ensuring the website is accessible to all.\n";
             String recommendation = "Reconfigure document so that headers are in hierarchical order. When headers are not in hierarchical order, it makes content difficult to understand for people that require assistive technology";
             String title = "Headers are not in hierarchical order.";
@@ -133,7 +145,7 @@ public class ListStructureAudit implements IExecutablePageStateAudit {
                                 true);
 
 		Objects.requireNonNull(audit, "Postcondition failed: audit must not be null");
-		return auditService.save(audit);
+		return page_context.saveAudit(audit, auditService);
 	}
 
     /**
@@ -149,23 +161,56 @@ public class ListStructureAudit implements IExecutablePageStateAudit {
      */
     public static List<String> checkListCompliance(Document doc) {
         Objects.requireNonNull(doc, "Precondition failed: document must not be null");
+        return checkListCompliance(doc, ElementSelectorIndex.of(doc));
+    }
+
+    /**
+     * Same as {@link #checkListCompliance(Document)}, with the selectors of the non-compliant
+     * lists taken from {@code selectors}.
+     *
+     * @param doc       The JSoup Document object representing the HTML content.
+     * @param selectors CSS selectors of {@code doc}
+     *
+     * @pre {@code doc != null}
+     * @pre {@code selectors != null}
+     * @post returned list is non-null
+     */
+    public static List<String> checkListCompliance(Document doc, ElementSelectorIndex selectors) {
+        Objects.requireNonNull(doc, "Precondition failed: document must not be null");
+        Objects.requireNonNull(selectors, "Precondition failed: selectors must not be null");
+        return checkListMatches(RULES.run(doc), selectors);
+    }
+
+    /**
+     * Finds the non-compliant lists among the <ul> and <ol> elements already matched by
+     * {@link #RULES}, so the document does not have to be walked again.
+     *
+     * @param matches   matches from an engine that includes {@link #RULES}
+     * @param selectors CSS selectors of the document the matches were found in
+     *
+     * @pre {@code matches != null}
+     * @pre {@code selectors != null}
+     * @post returned list is non-null
+     */
+    public static List<String> checkListMatches(ElementRuleMatches matches, ElementSelectorIndex selectors) {
+        Objects.requireNonNull(matches, "Precondition failed: matches must not be null");
+        Objects.requireNonNull(selectors, "Precondition failed: selectors must not be null");
 
         List<String> nonCompliantSelectors = new ArrayList<>();
 
-        // Select all <ul> and <ol> elements in the document
-        Elements ulElements = doc.select("ul");
-        Elements olElements = doc.select("ol");
+        List<Element> ulElements = matches.get(UNORDERED_LISTS);
+        List<Element> olElements = matches.get(ORDERED_LISTS);
 
         // Check if all <ul> and <ol> elements contain only <li> elements as children
         for (Element ul : ulElements) {
             if (!areChildrenListItems(ul)) {
-                nonCompliantSelectors.add(ul.cssSelector());
+                nonCompliantSelectors.add(selectors.cssSelector(ul));
             }
         }
 
         for (Element ol : olElements) {
             if (!areChildrenListItems(ol)) {
-                nonCompliantSelectors.add(ol.cssSelector());
+                nonCompliantSelectors.add(selectors.cssSelector(ol));
             }
         }
 
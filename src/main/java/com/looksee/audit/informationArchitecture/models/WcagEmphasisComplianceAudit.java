@@ -8,18 +8,21 @@ import java.util.List;
 import java.util.Objects;
 import java.util.Set;
 
-import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
-import org.jsoup.select.Elements;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import com.looksee.audit.informationArchitecture.audits.ElementSelectorIndex;
+import com.looksee.audit.informationArchitecture.audits.IExecutablePageContextAudit;
+import com.looksee.audit.informationArchitecture.audits.PageContext;
+import com.looksee.audit.informationArchitecture.rules.ElementRule;
+import com.looksee.audit.informationArchitecture.rules.ElementRuleEngine;
+import com.looksee.audit.informationArchitecture.rules.ElementRuleMatches;
 import com.looksee.models.ElementState;
 import com.looksee.models.PageState;
 import com.looksee.models.audit.Audit;
 import com.looksee.models.audit.AuditRecord;
-import com.looksee.models.audit.interfaces.IExecutablePageStateAudit;
 import com.looksee.models.audit.messages.ElementStateIssueMessage;
 import com.looksee.models.audit.messages.UXIssueMessage;
 import com.looksee.models.designsystem.DesignSystem;
@@ -40,7 +43,20 @@ import com.looksee.services.ElementStateService;
  * {@code elementStateService}) are non-null after Spring construction.</p>
  */
 @Component
-public class WcagEmphasisComplianceAudit implements IExecutablePageStateAudit {
+public class WcagEmphasisComplianceAudit implements IExecutablePageContextAudit {
+
+	private static final ElementRule BOLD = ElementRule.forTags("emphasis.bold", "b");
+	private static final ElementRule ITALIC = ElementRule.forTags("emphasis.italic", "i");
+	private static final ElementRule STRONG = ElementRule.forTags("emphasis.strong", "strong");
+	private static final ElementRule CODE = ElementRule.forTags("emphasis.code", "code");
+	private static final ElementRule ABBR = ElementRule.forTags("emphasis.abbr", "abbr");
+	private static final ElementRule BLOCKQUOTE = ElementRule.forTags("emphasis.blockquote", "blockquote");
+
+	/**
+	 * Rules for both the emphasis and special text checks, matched in one walk; part of the
+	 * page-wide engine behind {@link PageContext#getRuleMatches()}.
+	 */
+	public static final ElementRuleEngine RULES = new ElementRuleEngine(List.of(BOLD, ITALIC, STRONG, CODE, ABBR, BLOCKQUOTE));
 
 	@Autowired
 	private AuditService auditService;
@@ -73,8 +89,9 @@ public class WcagEmphasisComplianceAudit implements IExecutablePageStateAudit {
 	 * @throws URISyntaxException 
 	 */
 	@Override
-	public Audit execute(PageState page_state, AuditRecord audit_record, DesignSystem design_system) {
-		Objects.requireNonNull(page_state, "page_state must not be null");
+	public Audit execute(PageContext page_context, AuditRecord audit_record, DesignSystem design_system) {
+		Objects.requireNonNull(page_context, "page_context must not be null");
+		PageState page_state = page_context.getPageState();
 		Objects.requireNonNull(audit_record, "audit_record must not be null");
 
 		//check if page state already had a link audit performed.
@@ -87,10 +104,11 @@ public class WcagEmphasisComplianceAudit implements IExecutablePageStateAudit {
 		labels.add("headers");
 		labels.add("wcag");
 		
-		Document jsoup_doc = Jsoup.parse(page_state.getSrc());
+		ElementRuleMatches rule_matches = page_context.getRuleMatches();
+		ElementSelectorIndex selectors = page_context.getSelectorIndex();
 
-        for(String cssSelector: checkEmphasisCompliance(jsoup_doc)){
-            ElementState header_elem = elementStateService.findByPageAndCssSelector(page_state.getId(), cssSelector);
+        for(String cssSelector: checkEmphasisMatches(rule_matches, selectors)){
+            ElementState header_elem = page_context.findElementState(cssSelector, elementStateService);
             String issue_description = "Using HTML tags like <strong>, <code>, <abbr>, and <blockquote> is super important for making your website accessible and WCAG 2.1 compliant. These tags help make sure that special text, code snippets, abbreviations, and quotes are properly understood by screen readers and other assistive technologies. When you use these tags correctly, it makes your content clearer and easier to navigate for everyone, including people with disabilities. So, using them not only helps meet accessibility standards but also ensures your site is inclusive and user-friendly!";
             String recommendation = "Reconfigure document so that headers are in hierarchical order. When headers are not in hierarchical order, it makes content difficult to understand for people that require assistive technology";
             String title = "Headers are not in hierarchical order.";
@@ -107,8 +125,8 @@ public class WcagEmphasisComplianceAudit implements IExecutablePageStateAudit {
                 1));
         }
 
-        for(String cssSelector: checkSpecialTextCompliance(jsoup_doc)){
-            ElementState header_elem = elementStateService.findByPageAndCssSelector(page_state.getId(), cssSelector);
+        for(String cssSelector: checkSpecialTextMatches(rule_matches, selectors)){
+            ElementState header_elem = page_context.findElementState(cssSelector, elementStateService);
             String issue_description = "Having headers in hierarchical order is crucial for accessibility and WCAG 2.1 compliance because it provides a clear and logical structure to the content. This hierarchy helps users, especially those using assistive technologies like screen readers, to easily navigate the webpage and understand the relationship between different sections. Properly ordered headers guide users through the content, improving their experience and ensuring the website is accessible to all.\n";
             String recommendation = "Reconfigure document so that headers are in hierarchical order. When headers are not in hierarchical order, it makes content difficult to understand for people that require assistive technology";
             String title = "Headers are not in hierarchical order.";
@@ -152,7 +170,7 @@ public class WcagEmphasisComplianceAudit implements IExecutablePageStateAudit {
                                 true);
 
 		Objects.requireNonNull(audit, "Postcondition failed: audit must not be null");
-		return auditService.save(audit);
+		return page_context.saveAudit(audit, auditService);
 	}
 
 
@@ -169,20 +187,23 @@ public class WcagEmphasisComplianceAudit implements IExecutablePageStateAudit {
      */
     public static List<String> checkEmphasisCompliance(Document doc) {
         Objects.requireNonNull(doc, "Precondition failed: document must not be null");
+        return checkEmphasisMatches(RULES.run(doc), ElementSelectorIndex.of(doc));
+    }
 
+    private static List<String> checkEmphasisMatches(ElementRuleMatches matches, ElementSelectorIndex selectors) {
         List<String> nonCompliantSelectors = new ArrayList<>();
 
-        // Select all <b> and <i> elements in the document (non-semantic elements)
-        Elements boldElements = doc.select("b");
-        Elements italicElements = doc.select("i");
+        // All <b> and <i> elements in the document (non-semantic elements)
+        List<Element> boldElements = matches.get(BOLD);
+        List<Element> italicElements = matches.get(ITALIC);
 
         // Add CSS selectors for non-compliant <b> and <i> elements
         for (Element bold : boldElements) {
-            nonCompliantSelectors.add(bold.cssSelector());
+            nonCompliantSelectors.add(selectors.cssSelector(bold));
         }
 
         for (Element italic : italicElements) {
-            nonCompliantSelectors.add(italic.cssSelector());
+            nonCompliantSelectors.add(selectors.cssSelector(italic));
         }
 
         return nonCompliantSelectors;
@@ -202,24 +223,27 @@ public class WcagEmphasisComplianceAudit implements IExecutablePageStateAudit {
      */
     public static List<String> checkSpecialTextCompliance(Document doc) {
         Objects.requireNonNull(doc, "Precondition failed: document must not be null");
+        return checkSpecialTextMatches(RULES.run(doc), ElementSelectorIndex.of(doc));
+    }
 
+    private static List<String> checkSpecialTextMatches(ElementRuleMatches matches, ElementSelectorIndex selectors) {
         List<String> nonCompliantSelectors = new ArrayList<>();
 
-        // Select all <strong>, <code>, <abbr>, and <blockquote> elements in the document
-        Elements strongElements = doc.select("strong");
-        Elements codeElements = doc.select("code");
-        Elements abbrElements = doc.select("abbr");
-        Elements blockquoteElements = doc.select("blockquote");
+        // All <strong>, <code>, <abbr>, and <blockquote> elements in the document
+        List<Element> strongElements = matches.get(STRONG);
+        List<Element> codeElements = matches.get(CODE);
+        List<Element> abbrElements = matches.get(ABBR);
+        List<Element> blockquoteElements = matches.get(BLOCKQUOTE);
 
         // Add CSS selectors for non-compliant <strong>, <code>, <blockquote> elements
-        nonCompliantSelectors.addAll(getNonCompliantSelectors(strongElements));
-        nonCompliantSelectors.addAll(getNonCompliantSelectors(codeElements));
-        nonCompliantSelectors.addAll(getNonCompliantSelectors(blockquoteElements));
+        nonCompliantSelectors.addAll(getNonCompliantSelectors(strongElements, selectors));
+        nonCompliantSelectors.addAll(getNonCompliantSelectors(codeElements, selectors));
+        nonCompliantSelectors.addAll(getNonCompliantSelectors(blockquoteElements, selectors));
 
         // Add CSS selectors for <abbr> elements missing the title attribute
         for (Element abbr : abbrElements) {
             if (abbr.attr("title").isEmpty()) {
-                nonCompliantSelectors.add(abbr.cssSelector());
+                nonCompliantSelectors.add(selectors.cssSelector(abbr));
             }
         }
 
@@ -231,17 +255,18 @@ public class WcagEmphasisComplianceAudit implements IExecutablePageStateAudit {
      *
      * @param elements The JSoup Elements to be checked.
      *                 Precondition: elements is not null and contains elements to be checked.
+     * @param selectors CSS selectors of the document the elements belong to.
      *
      * @return A list of CSS selector strings for non-compliant elements.
      *         Postcondition: The list contains CSS selectors for elements that are used inappropriately.
      */
-    private static List<String> getNonCompliantSelectors(Elements elements) {
+    private static List<String> getNonCompliantSelectors(List<Element> elements, ElementSelectorIndex selectors) {
         List<String> nonCompliantSelectors = new ArrayList<>();
 
         // Here we could add additional checks based on specific WCAG criteria for each element if necessary.
         for (Element element : elements) {
             // Add selectors for elements that are incorrectly used, or if additional checks are needed, they would go here
-            nonCompliantSelectors.add(element.cssSelector());
+            nonCompliantSelectors.add(selectors.cssSelector(element));
         }
 
         return nonCompliantSelectors;
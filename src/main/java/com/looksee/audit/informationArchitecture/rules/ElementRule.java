@@ -0,0 +1,138 @@
+package com.looksee.audit.informationArchitecture.rules;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Predicate;
+
+import org.jsoup.nodes.Element;
+
+/**
+ * Declares which elements a check is interested in so that an {@link ElementRuleEngine}
+ * can match many checks during a single walk of the document.
+ *
+ * <p>An element matches a rule when its tag is one of {@link #getTags()} (or the rule has no
+ * tags), it has at least one of {@link #getAttributes()} (or the rule has no attributes), and
+ * the rule's filter accepts it. Tag and attribute names are compared the same way jsoup's
+ * selectors compare them, so a rule can stand in for a {@code doc.select(...)} call.</p>
+ *
+ * <p><b>Class invariant:</b> {@code name}, {@code tags}, {@code attributes} and
+ * {@code filter} are non-null, and the sets are unmodifiable and lower case.</p>
+ */
+public final class ElementRule {
+	private final String name;
+	private final Set<String> tags;
+	private final Set<String> attributes;
+	private final Predicate<Element> filter;
+
+	/**
+	 * Creates a rule.
+	 *
+	 * @param name       name used in logs and error messages
+	 * @param tags       tag names the rule applies to; empty to apply to every tag
+	 * @param attributes attribute names of which an element must declare at least one;
+	 *                   empty for no attribute requirement
+	 * @param filter     additional test applied to elements that pass the tag and attribute
+	 *                   checks
+	 *
+	 * @pre {@code name != null}
+	 * @pre {@code tags != null}
+	 * @pre {@code attributes != null}
+	 * @pre {@code filter != null}
+	 */
+	public ElementRule(String name, Collection<String> tags, Collection<String> attributes, Predicate<Element> filter) {
+		this.name = Objects.requireNonNull(name, "name must not be null");
+		this.tags = normalize(Objects.requireNonNull(tags, "tags must not be null"));
+		this.attributes = normalize(Objects.requireNonNull(attributes, "attributes must not be null"));
+		this.filter = Objects.requireNonNull(filter, "filter must not be null");
+	}
+
+	/**
+	 * Creates a rule that matches every element with one of the given tags.
+	 *
+	 * @pre {@code name != null}
+	 * @pre {@code tags != null}
+	 */
+	public static ElementRule forTags(String name, String... tags) {
+		return new ElementRule(name, Set.of(tags), Set.of(), element -> true);
+	}
+
+	/**
+	 * Equivalent of the selector {@code [attribute*=value]}: the attribute value, lower cased,
+	 * contains {@code value}.
+	 *
+	 * @pre {@code attribute != null}
+	 * @pre {@code value != null}
+	 */
+	public static Predicate<Element> attributeContains(String attribute, String value) {
+		Objects.requireNonNull(attribute, "attribute must not be null");
+		String needle = value.trim().toLowerCase(Locale.ENGLISH);
+		return element -> element.attr(attribute).toLowerCase(Locale.ENGLISH).contains(needle);
+	}
+
+	/**
+	 * Equivalent of the selector {@code [attribute=value]}: the trimmed attribute value equals
+	 * {@code value}, ignoring case.
+	 *
+	 * @pre {@code attribute != null}
+	 * @pre {@code value != null}
+	 */
+	public static Predicate<Element> attributeEquals(String attribute, String value) {
+		Objects.requireNonNull(attribute, "attribute must not be null");
+		String expected = value.trim();
+		return element -> expected.equalsIgnoreCase(element.attr(attribute).trim());
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public Set<String> getTags() {
+		return tags;
+	}
+
+	public Set<String> getAttributes() {
+		return attributes;
+	}
+
+	/**
+	 * Tests an element against this rule's attribute requirement and filter. The tag is not
+	 * checked here because the engine only offers an element to rules registered for its tag.
+	 *
+	 * @param element element to test
+	 * @return {@code true} if the element matches
+	 *
+	 * @pre {@code element != null}
+	 */
+	boolean accepts(Element element) {
+		if(!attributes.isEmpty()) {
+			boolean has_attribute = false;
+			for(String attribute : attributes) {
+				if(element.hasAttr(attribute)) {
+					has_attribute = true;
+					break;
+				}
+			}
+			if(!has_attribute) {
+				return false;
+			}
+		}
+		return filter.test(element);
+	}
+
+	@Override
+	public String toString() {
+		return name;
+	}
+
+	private static Set<String> normalize(Collection<String> names) {
+		Set<String> normalized = new LinkedHashSet<>();
+		for(String value : names) {
+			normalized.add(value.trim().toLowerCase());
+		}
+		return Collections.unmodifiableSet(normalized);
+	}
+}
@@ -0,0 +1,132 @@
+package com.looksee.audit.informationArchitecture.rules;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import org.jsoup.nodes.Element;
+import org.jsoup.select.NodeTraversor;
+
+/**
+ * Matches a fixed set of {@link ElementRule}s against a document in a single depth-first
+ * walk, instead of one {@code select(...)} traversal per check.
+ *
+ * <p>Rules are bucketed by tag up front, so each element is only offered to the rules that
+ * registered for its tag plus the rules that accept any tag. The engine is immutable and
+ * may be shared between threads; every {@link #run(Element)} call keeps its own state.</p>
+ *
+ * <p><b>Class invariant:</b> {@code rules} is non-null and unmodifiable, and every rule is
+ * present in exactly one of {@code rules_by_tag} or {@code any_tag_rules}.</p>
+ */
+public final class ElementRuleEngine {
+	private static final ElementRule[] NO_RULES = new ElementRule[0];
+
+	private final List<ElementRule> rules;
+	private final Map<String, ElementRule[]> rules_by_tag;
+	private final ElementRule[] any_tag_rules;
+
+	/**
+	 * Creates an engine for the given rules.
+	 *
+	 * @param rules rules to match; duplicates are ignored
+	 *
+	 * @pre {@code rules != null}
+	 */
+	public ElementRuleEngine(Collection<ElementRule> rules) {
+		Objects.requireNonNull(rules, "rules must not be null");
+
+		List<ElementRule> unique = new ArrayList<>();
+		Map<ElementRule, Boolean> seen = new IdentityHashMap<>();
+		Map<String, List<ElementRule>> by_tag = new HashMap<>();
+		List<ElementRule> any_tag = new ArrayList<>();
+		for(ElementRule rule : rules) {
+			Objects.requireNonNull(rule, "rules must not contain null");
+			if(seen.put(rule, Boolean.TRUE) != null) {
+				continue;
+			}
+			unique.add(rule);
+			if(rule.getTags().isEmpty()) {
+				any_tag.add(rule);
+			}
+			else {
+				for(String tag : rule.getTags()) {
+					by_tag.computeIfAbsent(tag, k -> new ArrayList<>()).add(rule);
+				}
+			}
+		}
+
+		this.rules = Collections.unmodifiableList(unique);
+		this.rules_by_tag = new HashMap<>();
+		for(Map.Entry<String, List<ElementRule>> entry : by_tag.entrySet()) {
+			this.rules_by_tag.put(entry.getKey(), entry.getValue().toArray(NO_RULES));
+		}
+		this.any_tag_rules = any_tag.toArray(NO_RULES);
+	}
+
+	/**
+	 * Creates an engine that matches every rule of the given engines.
+	 *
+	 * @pre {@code engines != null}
+	 */
+	public static ElementRuleEngine combine(ElementRuleEngine... engines) {
+		Objects.requireNonNull(engines, "engines must not be null");
+		List<ElementRule> all = new ArrayList<>();
+		for(ElementRuleEngine engine : engines) {
+			all.addAll(engine.getRules());
+		}
+		return new ElementRuleEngine(all);
+	}
+
+	public List<ElementRule> getRules() {
+		return rules;
+	}
+
+	/**
+	 * Walks {@code root} and its descendants once, offering each element to the interested
+	 * rules.
+	 *
+	 * @param root element to start from, typically a {@code Document}
+	 * @return matches for every registered rule
+	 *
+	 * @pre {@code root != null}
+	 * @post returned value is non-null and has an entry for every rule in {@link #getRules()}
+	 */
+	public ElementRuleMatches run(Element root) {
+		Objects.requireNonNull(root, "root must not be null");
+
+		Map<ElementRule, List<Element>> matches = new IdentityHashMap<>();
+		for(ElementRule rule : rules) {
+			matches.put(rule, new ArrayList<>());
+		}
+
+		NodeTraversor.traverse((node, depth) -> {
+			if(!(node instanceof Element)) {
+				return;
+			}
+			Element element = (Element)node;
+			for(ElementRule rule : any_tag_rules) {
+				if(rule.accepts(element)) {
+					matches.get(rule).add(element);
+				}
+			}
+			ElementRule[] tag_rules = rules_by_tag.get(element.normalName());
+			if(tag_rules != null) {
+				for(ElementRule rule : tag_rules) {
+					if(rule.accepts(element)) {
+						matches.get(rule).add(element);
+					}
+				}
+			}
+		}, root);
+
+		for(Map.Entry<ElementRule, List<Element>> entry : matches.entrySet()) {
+			entry.setValue(Collections.unmodifiableList(entry.getValue()));
+		}
+		return new ElementRuleMatches(matches);
+	}
+}
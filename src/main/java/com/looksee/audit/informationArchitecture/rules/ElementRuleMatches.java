@@ -0,0 +1,41 @@
+package com.looksee.audit.informationArchitecture.rules;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import org.jsoup.nodes.Element;
+
+/**
+ * Elements matched by each rule of an {@link ElementRuleEngine} during one document walk.
+ *
+ * <p><b>Class invariant:</b> every registered rule maps to an unmodifiable list of elements
+ * in document order.</p>
+ */
+public final class ElementRuleMatches {
+	private final Map<ElementRule, List<Element>> matches;
+
+	ElementRuleMatches(Map<ElementRule, List<Element>> matches) {
+		this.matches = matches;
+	}
+
+	/**
+	 * Returns the elements matched by a rule, in document order.
+	 *
+	 * @param rule rule registered with the engine that produced these matches
+	 * @return unmodifiable list of matching elements, empty if nothing matched
+	 *
+	 * @throws IllegalArgumentException if {@code rule} was not registered with the engine
+	 *
+	 * @pre {@code rule != null}
+	 * @post returned value is non-null
+	 */
+	public List<Element> get(ElementRule rule) {
+		Objects.requireNonNull(rule, "rule must not be null");
+		List<Element> elements = matches.get(rule);
+		if(elements == null) {
+			throw new IllegalArgumentException("Rule " + rule + " was not registered with this engine");
+		}
+		return elements;
+	}
+}
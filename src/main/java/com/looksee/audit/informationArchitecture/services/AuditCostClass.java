@@ -0,0 +1,46 @@
+package com.looksee.audit.informationArchitecture.services;
+
+import java.util.Objects;
+
+import com.looksee.models.enums.AuditName;
+
+/**
+ * How expensive a page audit is to run, which decides the pool it runs on and its place in
+ * the execution order. Constants are declared cheapest first.
+ */
+public enum AuditCostClass {
+	/** Audits that only inspect the parsed page source. */
+	CHEAP,
+
+	/** Audits that load every element state of the page from the repository. */
+	REPOSITORY,
+
+	/** Audits that make network requests to other sites. */
+	NETWORK;
+
+	/**
+	 * Returns the cost class of an audit.
+	 *
+	 * @pre {@code audit_name != null}
+	 * @post returned value is non-null
+	 */
+	public static AuditCostClass of(AuditName audit_name) {
+		Objects.requireNonNull(audit_name, "audit_name must not be null");
+		switch(audit_name) {
+			case LINKS:
+				return NETWORK;
+			case REFLOW:
+			case TEXT_SPACING:
+				return REPOSITORY;
+			default:
+				return CHEAP;
+		}
+	}
+
+	/**
+	 * @return lowercase name used as a metric tag
+	 */
+	public String tag() {
+		return name().toLowerCase();
+	}
+}
@@ -0,0 +1,197 @@
+package com.looksee.audit.informationArchitecture.services;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PostConstruct;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.looksee.models.enums.AuditName;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Makes page audits idempotent within this instance, so that Pub/Sub redeliveries and
+ * duplicate publishes of the same audit record do not run or persist an audit twice.
+ *
+ * <p>Jobs are keyed by page audit id and {@link AuditName}. The first delivery to
+ * {@link #claim(long, AuditName)} a job owns it and must later {@link #complete} or
+ * {@link #release} it. Concurrent deliveries receive the owner's pending result instead of
+ * running the audit themselves. Completed jobs are remembered for
+ * {@code audit.idempotency.completed-ttl-ms}, so later duplicates are answered without touching
+ * the database. Released jobs are forgotten, so a redelivery can run them again. Once more
+ * than {@code audit.idempotency.max-size} jobs are remembered, the least recently used done
+ * jobs are dropped; running jobs are never dropped, so they alone can exceed that size.</p>
+ *
+ * <p>Claims are counted in {@code audit.idempotency.claims}, tagged with {@code result}
+ * {@code claimed}, {@code in_flight} or {@code completed}.</p>
+ *
+ * <p><b>Class invariant:</b> {@code meter_registry} is non-null after Spring construction and
+ * every job in {@code jobs} that is not done has exactly one owner.</p>
+ */
+@Component
+public class AuditIdempotencyGuard {
+
+	@Autowired
+	private MeterRegistry meter_registry;
+
+	@Value("${audit.idempotency.completed-ttl-ms:3600000}")
+	private long completed_ttl_ms = 3600000;
+
+	@Value("${audit.idempotency.max-size:100000}")
+	private int max_size = 100000;
+
+	// access ordered, so eviction scans from the job least recently claimed or looked up
+	private final Map<String, Job> jobs = new LinkedHashMap<>(16, 0.75f, true);
+
+	/**
+	 * Registers the job count gauge.
+	 */
+	@PostConstruct
+	public void initialize() {
+		meter_registry.gauge("audit.idempotency.size", this, AuditIdempotencyGuard::size);
+	}
+
+	/**
+	 * Claims a job for the calling delivery.
+	 *
+	 * @return {@code null} if the caller now owns the job, otherwise the owner's result, which
+	 *         completes with the persisted audit id or exceptionally if the owner gave up
+	 *
+	 * @pre {@code audit_name != null}
+	 * @post if {@code null} is returned, the caller must call {@link #complete} or
+	 *       {@link #release} for the job
+	 */
+	public CompletableFuture<Long> claim(long page_audit_id, AuditName audit_name) {
+		Objects.requireNonNull(audit_name, "audit_name must not be null");
+		String key = key(page_audit_id, audit_name);
+
+		CompletableFuture<Long> existing = null;
+		synchronized(jobs) {
+			Job job = jobs.get(key);
+			if(job != null && !isExpired(job)) {
+				existing = job.result;
+			}
+			else {
+				jobs.put(key, new Job());
+				evictDone();
+			}
+		}
+
+		String result = existing == null ? "claimed" : existing.isDone() ? "completed" : "in_flight";
+		meter_registry.counter("audit.idempotency.claims", "result", result).increment();
+		return existing;
+	}
+
+	/**
+	 * Marks an owned job as done and hands its result to waiting duplicates.
+	 *
+	 * @param audit_id id of the persisted audit; may be {@code null}
+	 *
+	 * @pre {@code audit_name != null}
+	 */
+	public void complete(long page_audit_id, AuditName audit_name, Long audit_id) {
+		Objects.requireNonNull(audit_name, "audit_name must not be null");
+		Job job;
+		synchronized(jobs) {
+			job = jobs.get(key(page_audit_id, audit_name));
+			if(job != null) {
+				job.completed_at = System.nanoTime();
+			}
+		}
+		if(job != null) {
+			job.result.complete(audit_id);
+		}
+	}
+
+	/**
+	 * Gives up an owned job that did not finish, so that a redelivery can run it again.
+	 * Waiting duplicates see their result complete exceptionally with {@code cause}.
+	 *
+	 * @pre {@code audit_name != null}
+	 * @pre {@code cause != null}
+	 */
+	public void release(long page_audit_id, AuditName audit_name, Throwable cause) {
+		Objects.requireNonNull(audit_name, "audit_name must not be null");
+		Objects.requireNonNull(cause, "cause must not be null");
+		Job job;
+		synchronized(jobs) {
+			String key = key(page_audit_id, audit_name);
+			job = jobs.get(key);
+			if(job != null && !job.result.isDone()) {
+				jobs.remove(key);
+			}
+			else {
+				job = null;
+			}
+		}
+		if(job != null) {
+			job.result.completeExceptionally(cause);
+		}
+	}
+
+	/**
+	 * Checks whether every given job of a page audit completed within the TTL.
+	 *
+	 * @pre {@code audit_names != null}
+	 */
+	public boolean isCompleted(long page_audit_id, Collection<AuditName> audit_names) {
+		Objects.requireNonNull(audit_names, "audit_names must not be null");
+		synchronized(jobs) {
+			for(AuditName audit_name : audit_names) {
+				Job job = jobs.get(key(page_audit_id, audit_name));
+				if(job == null || job.completed_at == null || isExpired(job)) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * @return number of remembered jobs, including expired ones not yet dropped
+	 */
+	public int size() {
+		synchronized(jobs) {
+			return jobs.size();
+		}
+	}
+
+	/**
+	 * Drops done jobs, least recently used first, until at most {@code max_size} are
+	 * remembered. Jobs still running are skipped, otherwise their duplicates would run again,
+	 * so only they can keep the map above {@code max_size}.
+	 *
+	 * @pre the caller holds the lock on {@code jobs}
+	 */
+	private void evictDone() {
+		Iterator<Job> iterator = jobs.values().iterator();
+		while(jobs.size() > max_size && iterator.hasNext()) {
+			if(iterator.next().result.isDone()) {
+				iterator.remove();
+			}
+		}
+	}
+
+	private boolean isExpired(Job job) {
+		return job.completed_at != null
+				&& System.nanoTime() - job.completed_at >= TimeUnit.MILLISECONDS.toNanos(completed_ttl_ms);
+	}
+
+	private static String key(long page_audit_id, AuditName audit_name) {
+		return page_audit_id + "|" + audit_name.name();
+	}
+
+	private static final class Job {
+		private final CompletableFuture<Long> result = new CompletableFuture<>();
+		private Long completed_at;
+	}
+}
@@ -0,0 +1,158 @@
+package com.looksee.audit.informationArchitecture.services;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Bounded work queue for page audits that were acknowledged before they ran.
+ *
+ * <p>Up to {@code audit.intake.workers} audits run at once and up to
+ * {@code audit.intake.queue-capacity} more wait in the queue. {@link #submit(Runnable)}
+ * refuses work instead of blocking when the queue is full, so the caller can tell Pub/Sub to
+ * back off and redeliver later. {@link #submitAll(List)} queues the pages of a batch message
+ * together or not at all.</p>
+ *
+ * <p>The number of waiting audits is reported as {@code audit.intake.queue.depth}, the time
+ * each audit waited before a worker picked it up as {@code audit.intake.queue.wait}, and
+ * refused audits are counted in {@code audit.intake.rejected}. On shutdown, audits already
+ * accepted are given {@code audit.intake.shutdown-grace-ms} to finish.</p>
+ *
+ * <p><b>Class invariant:</b> {@code meter_registry} is non-null after Spring construction,
+ * {@code workers > 0} and {@code queue_capacity > 0}.</p>
+ */
+@Component
+public class AuditIntakeQueue {
+	private static Logger log = LoggerFactory.getLogger(AuditIntakeQueue.class);
+
+	@Autowired
+	private MeterRegistry meter_registry;
+
+	@Value("${audit.intake.workers:4}")
+	private int workers = 4;
+
+	@Value("${audit.intake.queue-capacity:32}")
+	private int queue_capacity = 32;
+
+	@Value("${audit.intake.shutdown-grace-ms:30000}")
+	private long shutdown_grace_ms = 30000;
+
+	private ThreadPoolExecutor executor;
+
+	/**
+	 * Queues a task for a worker.
+	 *
+	 * @param task work to run
+	 * @return {@code true} if the task was accepted, {@code false} if the queue is full or
+	 *         shutting down
+	 *
+	 * @pre {@code task != null}
+	 */
+	public synchronized boolean submit(Runnable task) {
+		Objects.requireNonNull(task, "task must not be null");
+		try {
+			enqueue(task);
+			return true;
+		}
+		catch(RejectedExecutionException e) {
+			meter_registry.counter("audit.intake.rejected").increment();
+			return false;
+		}
+	}
+
+	/**
+	 * Queues every task for a worker, or none of them if they do not all fit in the queue.
+	 *
+	 * @param tasks work to run
+	 * @return {@code true} if the tasks were accepted, {@code false} if the queue has room for
+	 *         fewer of them or is shutting down; tasks queued before a shutdown still run
+	 *
+	 * @pre {@code tasks != null} and contains no {@code null}
+	 */
+	public synchronized boolean submitAll(List<? extends Runnable> tasks) {
+		Objects.requireNonNull(tasks, "tasks must not be null");
+		// submitters hold the lock and workers only drain the queue, so the room cannot shrink
+		if(executor().getQueue().remainingCapacity() < tasks.size()) {
+			meter_registry.counter("audit.intake.rejected").increment(tasks.size());
+			return false;
+		}
+		try {
+			for(Runnable task : tasks) {
+				enqueue(Objects.requireNonNull(task, "task must not be null"));
+			}
+			return true;
+		}
+		catch(RejectedExecutionException e) {
+			meter_registry.counter("audit.intake.rejected").increment();
+			return false;
+		}
+	}
+
+	/**
+	 * @return number of tasks that can wait in the queue at once
+	 */
+	public int getCapacity() {
+		return queue_capacity;
+	}
+
+	private void enqueue(Runnable task) {
+		long enqueued_at = System.nanoTime();
+		executor().execute(() -> {
+			meter_registry.timer("audit.intake.queue.wait").record(System.nanoTime() - enqueued_at, TimeUnit.NANOSECONDS);
+			task.run();
+		});
+	}
+
+	/**
+	 * @return number of tasks waiting for a worker
+	 */
+	public synchronized int depth() {
+		return executor == null ? 0 : executor.getQueue().size();
+	}
+
+	@PreDestroy
+	public void shutdown() throws InterruptedException {
+		ThreadPoolExecutor pool;
+		synchronized(this) {
+			pool = executor;
+		}
+		if(pool == null) {
+			return;
+		}
+		pool.shutdown();
+		if(!pool.awaitTermination(shutdown_grace_ms, TimeUnit.MILLISECONDS)) {
+			log.warn("{} accepted page audits did not finish before shutdown", pool.shutdownNow().size() + pool.getActiveCount());
+		}
+	}
+
+	private synchronized ThreadPoolExecutor executor() {
+		if(executor == null) {
+			if(workers <= 0) {
+				throw new IllegalArgumentException("audit.intake.workers must be greater than 0");
+			}
+			if(queue_capacity <= 0) {
+				throw new IllegalArgumentException("audit.intake.queue-capacity must be greater than 0");
+			}
+			executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+											  new ArrayBlockingQueue<>(queue_capacity),
+											  new CustomizableThreadFactory("audit-intake-"),
+											  new ThreadPoolExecutor.AbortPolicy());
+			meter_registry.gauge("audit.intake.queue.depth", this, AuditIntakeQueue::depth);
+		}
+		return executor;
+	}
+}
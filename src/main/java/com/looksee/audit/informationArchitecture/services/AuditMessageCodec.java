@@ -0,0 +1,163 @@
+package com.looksee.audit.informationArchitecture.services;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Objects;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.looksee.models.message.AuditProgressUpdate;
+import com.looksee.models.message.PageAuditMessage;
+
+/**
+ * Reads the messages this service receives and writes the updates it publishes with one shared
+ * {@link ObjectMapper}, instead of building a mapper, and resolving its (de)serializers, for
+ * every message.
+ *
+ * <p>The readers and writers are created once with their root type, which makes Jackson
+ * resolve the (de)serializers up front. Pub/Sub message data is Base64 decoded as a stream
+ * straight into the JSON parser, so neither the decoded bytes nor the decoded text of a
+ * message is materialized.</p>
+ *
+ * <p>The mapper has Jackson's default configuration, the same as the per-message mappers it
+ * replaces.</p>
+ */
+public final class AuditMessageCodec {
+
+	private static final ObjectMapper MAPPER = new ObjectMapper();
+	private static final ObjectReader PAGE_AUDIT_MESSAGE_READER = MAPPER.readerFor(PageAuditMessage.class);
+	private static final ObjectReader PAGE_AUDIT_BATCH_READER = MAPPER.readerFor(PageAuditMessage[].class);
+	private static final ObjectWriter PROGRESS_UPDATE_WRITER = MAPPER.writerFor(AuditProgressUpdate.class);
+
+	private AuditMessageCodec() {
+	}
+
+	/**
+	 * Reads a {@link PageAuditMessage} from Base64 encoded JSON.
+	 *
+	 * @throws JsonProcessingException if the decoded data is not a valid
+	 *                                 {@link PageAuditMessage}, including when it is empty
+	 * @throws IOException             if {@code base64_data} is not Base64 encoded
+	 *
+	 * @pre {@code base64_data != null}
+	 */
+	public static PageAuditMessage readPageAuditMessage(String base64_data) throws IOException {
+		Objects.requireNonNull(base64_data, "base64_data must not be null");
+		return PAGE_AUDIT_MESSAGE_READER.readValue(decoding(base64_data));
+	}
+
+	/**
+	 * Reads a JSON array of {@link PageAuditMessage}s from Base64 encoded JSON.
+	 *
+	 * @throws JsonProcessingException if the decoded data is not a valid JSON array of
+	 *                                 {@link PageAuditMessage}s, including when it is empty
+	 * @throws IOException             if {@code base64_data} is not Base64 encoded
+	 *
+	 * @pre {@code base64_data != null}
+	 */
+	public static PageAuditMessage[] readPageAuditBatch(String base64_data) throws IOException {
+		Objects.requireNonNull(base64_data, "base64_data must not be null");
+		return PAGE_AUDIT_BATCH_READER.readValue(decoding(base64_data));
+	}
+
+	/**
+	 * @return JSON of the update, as published to the audit update topic
+	 *
+	 * @pre {@code update != null}
+	 */
+	public static String writeProgressUpdate(AuditProgressUpdate update) throws JsonProcessingException {
+		Objects.requireNonNull(update, "update must not be null");
+		return PROGRESS_UPDATE_WRITER.writeValueAsString(update);
+	}
+
+	/**
+	 * Decodes at most the first {@code max_chars} characters of Base64 encoded data, for
+	 * logging. Only the prefix needed is decoded.
+	 *
+	 * @return the decoded prefix, followed by {@code "..."} when the data is longer, or a
+	 *         placeholder if the prefix is not Base64 encoded
+	 *
+	 * @pre {@code base64_data != null}
+	 * @pre {@code max_chars > 0}
+	 */
+	public static String preview(String base64_data, int max_chars) {
+		Objects.requireNonNull(base64_data, "base64_data must not be null");
+		if(max_chars <= 0) {
+			throw new IllegalArgumentException("max_chars must be greater than 0");
+		}
+
+		// every 4 Base64 characters decode to 3 bytes
+		int encoded_chars = (int)Math.min(base64_data.length(), ((long)max_chars + 2) / 3 * 4);
+		byte[] decoded;
+		try {
+			decoded = Base64.getDecoder().decode(base64_data.substring(0, encoded_chars));
+		}
+		catch(IllegalArgumentException e) {
+			return "<" + base64_data.length() + " characters, not base64 encoded>";
+		}
+
+		String text = new String(decoded, StandardCharsets.UTF_8);
+		if(text.length() > max_chars) {
+			return text.substring(0, max_chars) + "...";
+		}
+		if(encoded_chars < base64_data.length()) {
+			return text + "...";
+		}
+		return text;
+	}
+
+	private static InputStream decoding(String base64_data) {
+		return Base64.getDecoder().wrap(new CharSequenceInputStream(base64_data));
+	}
+
+	/**
+	 * Reads the characters of Base64 encoded data as bytes without copying them. Characters
+	 * outside ASCII are read as a byte that is not Base64, so decoding fails on them.
+	 */
+	private static final class CharSequenceInputStream extends InputStream {
+		private final CharSequence chars;
+		private int position;
+
+		private CharSequenceInputStream(CharSequence chars) {
+			this.chars = chars;
+		}
+
+		@Override
+		public int read() {
+			if(position >= chars.length()) {
+				return -1;
+			}
+			return toByte(chars.charAt(position++));
+		}
+
+		@Override
+		public int read(byte[] buffer, int offset, int length) {
+			Objects.checkFromIndexSize(offset, length, buffer.length);
+			if(length == 0) {
+				return 0;
+			}
+			int remaining = chars.length() - position;
+			if(remaining <= 0) {
+				return -1;
+			}
+			int count = Math.min(length, remaining);
+			for(int i = 0; i < count; i++) {
+				buffer[offset + i] = (byte)toByte(chars.charAt(position++));
+			}
+			return count;
+		}
+
+		@Override
+		public int available() {
+			return chars.length() - position;
+		}
+
+		private static int toByte(char c) {
+			return c < 0x80 ? c : 0xFF;
+		}
+	}
+}
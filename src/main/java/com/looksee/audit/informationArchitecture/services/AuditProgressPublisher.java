@@ -0,0 +1,210 @@
+package com.looksee.audit.informationArchitecture.services;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import com.looksee.gcp.PubSubAuditUpdatePublisherImpl;
+import com.looksee.models.enums.AuditCategory;
+import com.looksee.models.enums.AuditLevel;
+import com.looksee.models.message.AuditProgressUpdate;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Publishes intermediate {@link AuditProgressUpdate}s while the audits of a page run, so
+ * progress moves as each audit finishes instead of jumping from 0 to 1 at the end.
+ *
+ * <p>Each audit record gets a {@link Tracker}. Only audits that completed count towards
+ * progress; audits that failed or ran out of time do not. Finished audits are coalesced: at
+ * most one update per record is published every {@code audit.progress.min-interval-ms}, and
+ * it carries the latest count. Updates are published from a single background thread so
+ * audit threads never wait on Pub/Sub.</p>
+ *
+ * <p>Intermediate updates always report progress below 1.0: once every audit has completed
+ * nothing more is published. Completion is reported only by the final update, which the
+ * caller publishes after {@link Tracker#close()} once the audits are persisted and associated
+ * with the record; {@code close()} guarantees that no intermediate update is published after
+ * it.</p>
+ *
+ * <p>Published updates are counted in {@code audit.progress.published}, and finished audits
+ * folded into an update that was already scheduled in {@code audit.progress.coalesced}.</p>
+ *
+ * <p><b>Class invariant:</b> {@code audit_update_topic} and {@code meter_registry} are
+ * non-null after Spring construction.</p>
+ */
+@Component
+public class AuditProgressPublisher {
+	private static Logger log = LoggerFactory.getLogger(AuditProgressPublisher.class);
+
+	@Autowired
+	private PubSubAuditUpdatePublisherImpl audit_update_topic;
+
+	@Autowired
+	private MeterRegistry meter_registry;
+
+	@Value("${audit.progress.incremental:true}")
+	private boolean incremental = true;
+
+	@Value("${audit.progress.min-interval-ms:1000}")
+	private long min_interval_ms = 1000;
+
+	private ScheduledExecutorService scheduler;
+
+	/**
+	 * Starts tracking the audits of one audit record.
+	 *
+	 * @param total_audits     number of audits the page has
+	 * @param completed_audits number of them that already completed, for example because they
+	 *                         were cached
+	 * @return tracker to report finished audits to; never {@code null}
+	 *
+	 * @pre {@code total_audits > 0}
+	 * @pre {@code 0 <= completed_audits <= total_audits}
+	 */
+	public Tracker start(long account_id, long page_audit_id, int total_audits, int completed_audits) {
+		if(total_audits <= 0) {
+			throw new IllegalArgumentException("total_audits must be positive");
+		}
+		if(completed_audits < 0 || completed_audits > total_audits) {
+			throw new IllegalArgumentException("completed_audits must be between 0 and total_audits");
+		}
+		return new Tracker(account_id, page_audit_id, total_audits, completed_audits);
+	}
+
+	@PreDestroy
+	public synchronized void shutdown() {
+		if(scheduler != null) {
+			scheduler.shutdownNow();
+		}
+	}
+
+	private synchronized ScheduledExecutorService scheduler() {
+		if(scheduler == null) {
+			scheduler = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("audit-progress-"));
+		}
+		return scheduler;
+	}
+
+	/**
+	 * Progress of the audits of one audit record.
+	 *
+	 * <p><b>Class invariant:</b> {@code completed_audits <= total_audits}, at most one
+	 * publish is scheduled at a time and every published progress is below 1.0.</p>
+	 */
+	public final class Tracker {
+		private final long account_id;
+		private final long page_audit_id;
+		private final int total_audits;
+		private final Object publish_lock = new Object();
+
+		private int completed_audits;
+		private boolean scheduled;
+		private boolean closed;
+		private long last_published_at;
+
+		private Tracker(long account_id, long page_audit_id, int total_audits, int completed_audits) {
+			this.account_id = account_id;
+			this.page_audit_id = page_audit_id;
+			this.total_audits = total_audits;
+			this.completed_audits = completed_audits;
+			this.last_published_at = System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(min_interval_ms);
+		}
+
+		/**
+		 * Records that one more audit finished and, if it completed, schedules an update unless
+		 * one is already pending. Safe to call from any thread.
+		 *
+		 * @param completed {@code false} if the audit failed or ran out of time, which leaves
+		 *                  progress unchanged
+		 */
+		public void auditFinished(boolean completed) {
+			long delay_nanos;
+			synchronized(this) {
+				if(!completed) {
+					return;
+				}
+				completed_audits = Math.min(completed_audits + 1, total_audits);
+				// completion is reported by the caller's final update only
+				if(!incremental || closed || completed_audits == total_audits) {
+					return;
+				}
+				if(scheduled) {
+					meter_registry.counter("audit.progress.coalesced").increment();
+					return;
+				}
+				scheduled = true;
+				delay_nanos = Math.max(0, last_published_at + TimeUnit.MILLISECONDS.toNanos(min_interval_ms) - System.nanoTime());
+			}
+
+			try {
+				scheduler().schedule(this::publish, delay_nanos, TimeUnit.NANOSECONDS);
+			}
+			catch(RejectedExecutionException e) {
+				synchronized(this) {
+					scheduled = false;
+				}
+			}
+		}
+
+		/**
+		 * Stops intermediate updates. When this returns no intermediate update is being
+		 * published and none will be, so the caller can publish the final update.
+		 */
+		public void close() {
+			synchronized(publish_lock) {
+				synchronized(this) {
+					closed = true;
+				}
+			}
+		}
+
+		/**
+		 * @return fraction of the audits that completed
+		 */
+		public synchronized double getProgress() {
+			return (double)completed_audits / total_audits;
+		}
+
+		private void publish() {
+			synchronized(publish_lock) {
+				int completed;
+				synchronized(this) {
+					scheduled = false;
+					if(closed || completed_audits == total_audits) {
+						return;
+					}
+					completed = completed_audits;
+					last_published_at = System.nanoTime();
+				}
+
+				AuditProgressUpdate update = new AuditProgressUpdate(account_id,
+																	 (double)completed / total_audits,
+																	 "Completed " + completed + " of " + total_audits + " information architecture audits",
+																	 AuditCategory.INFORMATION_ARCHITECTURE,
+																	 AuditLevel.PAGE,
+																	 page_audit_id);
+				try {
+					audit_update_topic.publish(AuditMessageCodec.writeProgressUpdate(update));
+					meter_registry.counter("audit.progress.published").increment();
+				}
+				catch(InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				catch(Exception e) {
+					log.warn("Failed to publish progress of audit record {} :: {}", page_audit_id, e.getMessage());
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,22 @@
+package com.looksee.audit.informationArchitecture.services;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Loads the {@link PageAuditInputs} of many audit records at once, so a batch of pages costs
+ * one round trip per type of entity rather than three per page.
+ */
+public interface AuditRecordBatchLoader {
+
+	/**
+	 * Loads the audit record, page state and existing audits of each of
+	 * {@code audit_record_ids}.
+	 *
+	 * @return inputs keyed by audit record id; records that do not exist have no entry
+	 *
+	 * @pre {@code audit_record_ids != null}
+	 * @post returned value is non-null
+	 */
+	Map<Long, PageAuditInputs> loadAll(Collection<Long> audit_record_ids);
+}
@@ -0,0 +1,232 @@
+package com.looksee.audit.informationArchitecture.services;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PostConstruct;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.looksee.models.PageState;
+import com.looksee.models.audit.Audit;
+import com.looksee.models.enums.AuditName;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Remembers the result produced for a page's content, so a page whose source has not changed
+ * since an earlier crawl can reuse it instead of being audited again.
+ *
+ * <p>Results are keyed by a content key and an {@link AuditName}. The content key is a
+ * SHA-256 hash of {@code audit.result-cache.version}, the page URL, whether the page was
+ * served securely and the page source. Only audits whose result is determined by those
+ * alone are cached ({@link #isCacheable(AuditName)}): audits reading rendered CSS values of
+ * element states, which can change with a stylesheet while the source stays the same, and
+ * audits checking other sites are always run. Raising {@code audit.result-cache.version}
+ * after changing audit logic makes every earlier entry unreachable;
+ * {@link #invalidate(AuditName)} and {@link #invalidateAll()} drop entries at runtime.</p>
+ *
+ * <p>Entries are {@link CachedAudit} snapshots rather than persisted audits, so a page that
+ * reuses a result gets its own copy of the audit and its issue messages, related to its own
+ * element states.</p>
+ *
+ * <p>At most {@code audit.result-cache.max-size} entries are kept, least recently used first
+ * out, and entries expire {@code audit.result-cache.ttl-ms} after they were stored. Because
+ * every cached audit is a function of the hashed content, a day old entry is as correct as a
+ * new one; the expiry only bounds how long a snapshot stays in memory. Lookups are counted in
+ * {@code audit.result_cache.lookups}, tagged with {@code result} {@code hit} or
+ * {@code miss}.</p>
+ *
+ * <p><b>Class invariant:</b> {@code meter_registry} is non-null after Spring construction and
+ * {@code entries} holds at most {@code max_size} entries, none of them for an audit that is
+ * not cacheable.</p>
+ */
+@Component
+public class AuditResultCache {
+	private static Logger log = LoggerFactory.getLogger(AuditResultCache.class);
+
+	@Autowired
+	private MeterRegistry meter_registry;
+
+	@Value("${audit.result-cache.enabled:true}")
+	private boolean enabled = true;
+
+	/** Version hashed into content keys when {@code audit.result-cache.version} is not set. */
+	public static final String DEFAULT_VERSION = "3";
+
+	@Value("${audit.result-cache.version:" + DEFAULT_VERSION + "}")
+	private String version = DEFAULT_VERSION;
+
+	@Value("${audit.result-cache.max-size:10000}")
+	private int max_size = 10000;
+
+	@Value("${audit.result-cache.ttl-ms:86400000}")
+	private long ttl_ms = 86400000;
+
+	private final Map<String, Entry> entries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+			return size() > max_size;
+		}
+	};
+
+	/**
+	 * Registers the cache size gauge.
+	 */
+	@PostConstruct
+	public void initialize() {
+		meter_registry.gauge("audit.result_cache.size", this, AuditResultCache::size);
+	}
+
+	/**
+	 * @return whether results of {@code audit_name} are determined by the page content the
+	 *         content key hashes, and so may be cached
+	 *
+	 * @pre {@code audit_name != null}
+	 */
+	public static boolean isCacheable(AuditName audit_name) {
+		// REPOSITORY audits read rendered CSS values, NETWORK audits other sites
+		return AuditCostClass.of(audit_name) == AuditCostClass.CHEAP;
+	}
+
+	/**
+	 * Computes the content key of a page.
+	 *
+	 * @return the content key, or {@code null} if the cache is disabled or the page has no
+	 *         source, in which case nothing should be looked up or stored
+	 *
+	 * @pre {@code page_state != null}
+	 */
+	public String contentKey(PageState page_state) {
+		Objects.requireNonNull(page_state, "page_state must not be null");
+		if(!enabled || page_state.getSrc() == null) {
+			return null;
+		}
+
+		MessageDigest digest;
+		try {
+			digest = MessageDigest.getInstance("SHA-256");
+		}
+		catch(NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 is not available", e);
+		}
+		digest.update(version.getBytes(StandardCharsets.UTF_8));
+		digest.update((byte)0);
+		digest.update(String.valueOf(page_state.getUrl()).getBytes(StandardCharsets.UTF_8));
+		digest.update((byte)0);
+		digest.update((byte)(page_state.isSecured() ? 1 : 0));
+		digest.update(page_state.getSrc().getBytes(StandardCharsets.UTF_8));
+		return HexFormat.of().formatHex(digest.digest());
+	}
+
+	/**
+	 * Looks up the result previously stored for a page's content.
+	 *
+	 * @param content_key key returned by {@link #contentKey(PageState)}; {@code null} always misses
+	 * @return snapshot of the audit, or {@code null} if there is none, it has expired or
+	 *         {@code audit_name} is not cacheable
+	 *
+	 * @pre {@code audit_name != null}
+	 */
+	public CachedAudit find(String content_key, AuditName audit_name) {
+		Objects.requireNonNull(audit_name, "audit_name must not be null");
+		if(content_key == null || !isCacheable(audit_name)) {
+			return null;
+		}
+
+		CachedAudit audit = null;
+		synchronized(entries) {
+			String key = key(content_key, audit_name);
+			Entry entry = entries.get(key);
+			if(entry != null && System.nanoTime() - entry.stored_at < TimeUnit.MILLISECONDS.toNanos(ttl_ms)) {
+				audit = entry.audit;
+			}
+			else if(entry != null) {
+				entries.remove(key);
+			}
+		}
+		meter_registry.counter("audit.result_cache.lookups", "result", audit == null ? "miss" : "hit").increment();
+		return audit;
+	}
+
+	/**
+	 * Records the audit produced for a page's content, as a snapshot taken now.
+	 *
+	 * @param content_key key returned by {@link #contentKey(PageState)}; {@code null} is ignored
+	 * @param audit       the audit with its issue messages; ignored if {@code audit_name} is
+	 *                    not cacheable or {@link CachedAudit#supports} rejects its messages
+	 *
+	 * @pre {@code audit_name != null}
+	 * @pre {@code audit != null}
+	 */
+	public void store(String content_key, AuditName audit_name, Audit audit) {
+		Objects.requireNonNull(audit_name, "audit_name must not be null");
+		Objects.requireNonNull(audit, "audit must not be null");
+		if(content_key == null || !isCacheable(audit_name) || !CachedAudit.supports(audit)) {
+			return;
+		}
+		CachedAudit snapshot = CachedAudit.of(audit);
+		synchronized(entries) {
+			entries.put(key(content_key, audit_name), new Entry(snapshot, System.nanoTime()));
+		}
+	}
+
+	/**
+	 * Drops every entry of one audit, for example after its logic changed.
+	 *
+	 * @pre {@code audit_name != null}
+	 */
+	public void invalidate(AuditName audit_name) {
+		Objects.requireNonNull(audit_name, "audit_name must not be null");
+		String suffix = "|" + audit_name.name();
+		synchronized(entries) {
+			entries.keySet().removeIf(key -> key.endsWith(suffix));
+		}
+		log.info("Invalidated cached {} audit results", audit_name);
+	}
+
+	/**
+	 * Drops every entry.
+	 */
+	public void invalidateAll() {
+		synchronized(entries) {
+			entries.clear();
+		}
+		log.info("Invalidated all cached audit results");
+	}
+
+	/**
+	 * @return number of stored entries, including expired ones not yet dropped
+	 */
+	public int size() {
+		synchronized(entries) {
+			return entries.size();
+		}
+	}
+
+	private static String key(String content_key, AuditName audit_name) {
+		return content_key + "|" + audit_name.name();
+	}
+
+	private static final class Entry {
+		private final CachedAudit audit;
+		private final long stored_at;
+
+		Entry(CachedAudit audit, long stored_at) {
+			this.audit = audit;
+			this.stored_at = stored_at;
+		}
+	}
+}
@@ -0,0 +1,212 @@
+package com.looksee.audit.informationArchitecture.services;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+import com.looksee.audit.informationArchitecture.audits.PageContext;
+import com.looksee.models.ElementState;
+import com.looksee.models.audit.Audit;
+import com.looksee.models.audit.messages.ElementStateIssueMessage;
+import com.looksee.models.audit.messages.UXIssueMessage;
+import com.looksee.models.enums.AuditCategory;
+import com.looksee.models.enums.AuditLevel;
+import com.looksee.models.enums.AuditName;
+import com.looksee.models.enums.AuditSubcategory;
+import com.looksee.models.enums.ObservationType;
+import com.looksee.models.enums.Priority;
+import com.looksee.services.ElementStateService;
+
+/**
+ * The result of an audit of a page's content, kept by the {@link AuditResultCache} so it can
+ * be given to a later crawl of the same content.
+ *
+ * <p>A snapshot holds the scores and texts of the audit and of each of its issue messages,
+ * and the CSS selector of the element each message is about, but no persisted entity. Every
+ * page that reuses it gets its own copy through {@link #copyFor}, with its messages related
+ * to that page's element states, so audit records never share audit or issue nodes.</p>
+ *
+ * <p>Only audits whose messages are plain {@link UXIssueMessage}s or
+ * {@link ElementStateIssueMessage}s can be snapshotted ({@link #supports}); a copy carries
+ * every field of the original message, so it is persisted exactly as a fresh run would be.</p>
+ *
+ * <p><b>Class invariant:</b> {@code messages} is non-null and unmodifiable; snapshots are
+ * immutable and may be shared by several threads.</p>
+ */
+public final class CachedAudit {
+
+	private final AuditCategory category;
+	private final AuditSubcategory subcategory;
+	private final AuditName name;
+	private final int points;
+	private final AuditLevel level;
+	private final int max_points;
+	private final String why_it_matters;
+	private final String description;
+	private final boolean accessibility;
+	private final List<CachedMessage> messages;
+
+	private CachedAudit(Audit audit, List<CachedMessage> messages) {
+		this.category = audit.getCategory();
+		this.subcategory = audit.getSubcategory();
+		this.name = audit.getName();
+		this.points = audit.getPoints();
+		this.level = audit.getLevel();
+		this.max_points = audit.getTotalPossiblePoints();
+		this.why_it_matters = audit.getWhyItMatters();
+		this.description = audit.getDescription();
+		this.accessibility = audit.isAccessibility();
+		this.messages = messages;
+	}
+
+	/**
+	 * @return {@code true} if every issue message of {@code audit} is of a type that
+	 *         {@link #copyFor} reproduces field for field
+	 *
+	 * @pre {@code audit != null}
+	 */
+	public static boolean supports(Audit audit) {
+		Objects.requireNonNull(audit, "audit must not be null");
+		if(audit.getMessages() == null) {
+			return true;
+		}
+		for(UXIssueMessage message : audit.getMessages()) {
+			if(message != null
+					&& message.getClass() != UXIssueMessage.class
+					&& message.getClass() != ElementStateIssueMessage.class) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Takes a snapshot of {@code audit} and its issue messages.
+	 *
+	 * @pre {@code audit != null}
+	 * @pre {@code supports(audit)}
+	 * @post returned value is non-null
+	 */
+	public static CachedAudit of(Audit audit) {
+		Objects.requireNonNull(audit, "audit must not be null");
+		if(!supports(audit)) {
+			throw new IllegalArgumentException("audit has issue messages that cannot be snapshotted");
+		}
+		List<CachedMessage> messages = new ArrayList<>();
+		if(audit.getMessages() != null) {
+			for(UXIssueMessage message : audit.getMessages()) {
+				if(message != null) {
+					messages.add(new CachedMessage(message));
+				}
+			}
+		}
+		return new CachedAudit(audit, Collections.unmodifiableList(messages));
+	}
+
+	/**
+	 * Builds a new, unsaved audit of the page of {@code page_context} from this snapshot.
+	 * Messages about an element are related to the element state of that page with the same
+	 * CSS selector, or to none if the page has no such element state.
+	 *
+	 * @pre {@code page_context != null}
+	 * @pre {@code element_state_service != null}
+	 * @post returned value is non-null, has no id and shares no entity with any other copy
+	 */
+	public Audit copyFor(PageContext page_context, ElementStateService element_state_service) {
+		Objects.requireNonNull(page_context, "page_context must not be null");
+		Objects.requireNonNull(element_state_service, "element_state_service must not be null");
+
+		Set<UXIssueMessage> copies = Collections.newSetFromMap(new IdentityHashMap<>());
+		for(CachedMessage message : messages) {
+			copies.add(message.copyFor(page_context, element_state_service));
+		}
+		return new Audit(category,
+						 subcategory,
+						 name,
+						 points,
+						 copies,
+						 level,
+						 max_points,
+						 page_context.getPageState().getUrl(),
+						 why_it_matters,
+						 description,
+						 accessibility);
+	}
+
+	/**
+	 * @return number of issue messages in the snapshot
+	 */
+	public int getMessageCount() {
+		return messages.size();
+	}
+
+	private static final class CachedMessage {
+		private final boolean element_message;
+		private final String element_css_selector;
+		private final Priority priority;
+		private final String description;
+		private final ObservationType type;
+		private final AuditCategory category;
+		private final String wcag_compliance;
+		private final Set<String> labels;
+		private final String why_it_matters;
+		private final String title;
+		private final int points;
+		private final int max_points;
+		private final String recommendation;
+
+		CachedMessage(UXIssueMessage message) {
+			this.element_message = message instanceof ElementStateIssueMessage;
+			ElementState element = element_message ? ((ElementStateIssueMessage)message).getElement() : null;
+			this.element_css_selector = element != null ? element.getCssSelector() : null;
+			this.priority = message.getPriority();
+			this.description = message.getDescription();
+			this.type = message.getType();
+			this.category = message.getCategory();
+			this.wcag_compliance = message.getWcagCompliance();
+			this.labels = message.getLabels() != null ? new HashSet<>(message.getLabels()) : new HashSet<>();
+			this.why_it_matters = message.getWhyItMatters();
+			this.title = message.getTitle();
+			this.points = message.getPoints();
+			this.max_points = message.getMaxPoints();
+			this.recommendation = message.getRecommendation();
+		}
+
+		UXIssueMessage copyFor(PageContext page_context, ElementStateService element_state_service) {
+			if(element_message) {
+				ElementState element = element_css_selector != null
+						? page_context.findElementState(element_css_selector, element_state_service)
+						: null;
+				ElementStateIssueMessage copy = new ElementStateIssueMessage(priority,
+																			 description,
+																			 recommendation,
+																			 element,
+																			 category,
+																			 new HashSet<>(labels),
+																			 wcag_compliance,
+																			 title,
+																			 points,
+																			 max_points);
+				//the element message constructor takes neither of these
+				copy.setType(type);
+				copy.setWhyItMatters(why_it_matters);
+				return copy;
+			}
+			return new UXIssueMessage(priority,
+									  description,
+									  type,
+									  category,
+									  wcag_compliance,
+									  new HashSet<>(labels),
+									  why_it_matters,
+									  title,
+									  points,
+									  max_points,
+									  recommendation);
+		}
+	}
+}
@@ -0,0 +1,44 @@
+package com.looksee.audit.informationArchitecture.services;
+
+import java.util.List;
+
+/**
+ * Reads a few properties of every element state of a page, a page of ids at a time, without
+ * loading the element state entities, so an audit that scans the whole page keeps only what
+ * it derives from each row.
+ */
+public interface ElementStatePropertyLoader {
+
+	/**
+	 * Receives the properties of one element state.
+	 */
+	@FunctionalInterface
+	interface RowConsumer {
+
+		/**
+		 * @param element_state_id id of the element state
+		 * @param values           values of the requested properties, in the order they were
+		 *                         requested; {@code null} where the element state does not
+		 *                         have the property
+		 */
+		void accept(long element_state_id, List<String> values);
+	}
+
+	/**
+	 * Reads the rendered CSS values {@code css_properties} of every element state of a page
+	 * and hands them to {@code consumer} in ascending element state id order.
+	 *
+	 * @pre {@code css_properties != null}
+	 * @pre {@code consumer != null}
+	 */
+	void forEachRenderedCss(long page_state_id, List<String> css_properties, RowConsumer consumer);
+
+	/**
+	 * Reads the attributes {@code attributes} of every element state of a page and hands them
+	 * to {@code consumer} in ascending element state id order.
+	 *
+	 * @pre {@code attributes != null}
+	 * @pre {@code consumer != null}
+	 */
+	void forEachAttribute(long page_state_id, List<String> attributes, RowConsumer consumer);
+}
@@ -0,0 +1,129 @@
+package com.looksee.audit.informationArchitecture.services;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.neo4j.core.Neo4jClient;
+import org.springframework.data.neo4j.core.Neo4jTemplate;
+import org.springframework.stereotype.Component;
+
+import com.looksee.models.PageState;
+import com.looksee.models.audit.Audit;
+import com.looksee.models.audit.AuditRecord;
+
+/**
+ * {@link AuditRecordBatchLoader} backed by Neo4j. Whatever the size of the batch it makes five
+ * queries: one for the audit records, one each for the ids of the page states and audits
+ * related to them, and one each to load those page states and audits. The relationships are
+ * the {@code HAS} relationships {@code AuditRecordService} reads one record at a time.
+ *
+ * <p>Records, page states and audits are loaded with queries that return only the nodes
+ * themselves, so none of their relationships is hydrated; the related ids are read with
+ * separate projections.</p>
+ *
+ * <p>Enabled unless {@code audit.batch.bulk-load} is {@code false}, in which case batches load
+ * each record through the services.</p>
+ *
+ * <p><b>Class invariant:</b> All {@code @Autowired} dependencies are non-null after Spring
+ * construction.</p>
+ */
+@Component
+@ConditionalOnProperty(name = "audit.batch.bulk-load", havingValue = "true", matchIfMissing = true)
+public class Neo4jAuditRecordBatchLoader implements AuditRecordBatchLoader {
+
+	static final String PAGE_STATE_IDS_QUERY = "MATCH (record:PageAuditRecord)-[:HAS]->(page:PageState) "
+			+ "WHERE id(record) IN $record_ids "
+			+ "RETURN id(record) AS record_id, id(page) AS related_id";
+
+	static final String AUDIT_IDS_QUERY = "MATCH (record:AuditRecord)-[:HAS]->(audit:Audit) "
+			+ "WHERE id(record) IN $record_ids "
+			+ "RETURN id(record) AS record_id, id(audit) AS related_id";
+
+	static final String AUDIT_RECORDS_QUERY = "MATCH (record:AuditRecord) WHERE id(record) IN $ids RETURN record";
+
+	static final String PAGE_STATES_QUERY = "MATCH (page:PageState) WHERE id(page) IN $ids RETURN page";
+
+	static final String AUDITS_QUERY = "MATCH (audit:Audit) WHERE id(audit) IN $ids RETURN audit";
+
+	@Autowired
+	private Neo4jTemplate neo4j_template;
+
+	@Autowired
+	private Neo4jClient neo4j_client;
+
+	@Override
+	public Map<Long, PageAuditInputs> loadAll(Collection<Long> audit_record_ids) {
+		Objects.requireNonNull(audit_record_ids, "audit_record_ids must not be null");
+		Map<Long, PageAuditInputs> inputs = new LinkedHashMap<>();
+		if(audit_record_ids.isEmpty()) {
+			return inputs;
+		}
+		List<Long> record_ids = new ArrayList<>(new HashSet<>(audit_record_ids));
+
+		Map<Long, List<Long>> page_state_ids = relatedIds(PAGE_STATE_IDS_QUERY, record_ids);
+		Map<Long, List<Long>> audit_ids = relatedIds(AUDIT_IDS_QUERY, record_ids);
+		Map<Long, PageState> page_states = findAllById(PAGE_STATES_QUERY, page_state_ids, PageState.class, PageState::getId);
+		Map<Long, Audit> audits = findAllById(AUDITS_QUERY, audit_ids, Audit.class, Audit::getId);
+
+		for(AuditRecord audit_record : neo4j_template.findAll(AUDIT_RECORDS_QUERY, Map.of("ids", record_ids), AuditRecord.class)) {
+			PageState page_state = null;
+			for(Long page_state_id : page_state_ids.getOrDefault(audit_record.getId(), List.of())) {
+				page_state = page_states.get(page_state_id);
+				if(page_state != null) {
+					break;
+				}
+			}
+			Set<Audit> record_audits = new HashSet<>();
+			for(Long audit_id : audit_ids.getOrDefault(audit_record.getId(), List.of())) {
+				Audit audit = audits.get(audit_id);
+				if(audit != null) {
+					record_audits.add(audit);
+				}
+			}
+			inputs.put(audit_record.getId(), new PageAuditInputs(audit_record, page_state, record_audits));
+		}
+		return inputs;
+	}
+
+	/**
+	 * @return ids of the nodes {@code query} relates to each record, keyed by record id
+	 */
+	private Map<Long, List<Long>> relatedIds(String query, List<Long> record_ids) {
+		Map<Long, List<Long>> related_ids = new HashMap<>();
+		for(Map<String, Object> row : neo4j_client.query(query).bind(record_ids).to("record_ids").fetch().all()) {
+			long record_id = ((Number)row.get("record_id")).longValue();
+			long related_id = ((Number)row.get("related_id")).longValue();
+			related_ids.computeIfAbsent(record_id, id -> new ArrayList<>()).add(related_id);
+		}
+		return related_ids;
+	}
+
+	/**
+	 * Loads every node {@code related_ids} names with {@code query}, without their
+	 * relationships.
+	 *
+	 * @return the loaded entities keyed by id
+	 */
+	private <T> Map<Long, T> findAllById(String query, Map<Long, List<Long>> related_ids, Class<T> domain_type, Function<T, Long> id_of) {
+		Set<Long> ids = new HashSet<>();
+		related_ids.values().forEach(ids::addAll);
+		Map<Long, T> entities = new HashMap<>();
+		if(ids.isEmpty()) {
+			return entities;
+		}
+		for(T entity : neo4j_template.findAll(query, Map.of("ids", new ArrayList<>(ids)), domain_type)) {
+			entities.put(id_of.apply(entity), entity);
+		}
+		return entities;
+	}
+}
@@ -0,0 +1,74 @@
+package com.looksee.audit.informationArchitecture.services;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.neo4j.core.Neo4jClient;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.stereotype.Component;
+
+import com.looksee.models.audit.Audit;
+import com.looksee.models.audit.messages.UXIssueMessage;
+
+/**
+ * {@link PersistenceBulkWriter} backed by the Neo4j repositories of issue messages and audits.
+ * Messages and audits are written with {@code saveAll}; relations are written by one
+ * {@code UNWIND} query per batch, creating the same {@code FOR} relationship as
+ * {@code UXIssueMessageService#addElement}.
+ *
+ * <p>Enabled unless {@code audit.persistence.bulk-writes} is {@code false}, in which case the
+ * {@link PersistenceBuffer} saves each entity through its service.</p>
+ *
+ * <p><b>Class invariant:</b> All {@code @Autowired} dependencies are non-null after Spring
+ * construction.</p>
+ */
+@Component
+@ConditionalOnProperty(name = "audit.persistence.bulk-writes", havingValue = "true", matchIfMissing = true)
+public class Neo4jBulkWriter implements PersistenceBulkWriter {
+
+	static final String ADD_ELEMENTS_QUERY = "UNWIND $relations AS relation "
+			+ "MATCH (issue:UXIssueMessage) WHERE id(issue) = relation.issue_id "
+			+ "MATCH (element:ElementState) WHERE id(element) = relation.element_id "
+			+ "MERGE (issue)-[:FOR]->(element)";
+
+	@Autowired
+	private CrudRepository<UXIssueMessage, Long> issue_message_repository;
+
+	@Autowired
+	private CrudRepository<Audit, Long> audit_repository;
+
+	@Autowired
+	private Neo4jClient neo4j_client;
+
+	@Override
+	public List<UXIssueMessage> saveIssueMessages(List<UXIssueMessage> issue_messages) {
+		Objects.requireNonNull(issue_messages, "issue_messages must not be null");
+		List<UXIssueMessage> saved = new ArrayList<>(issue_messages.size());
+		issue_message_repository.saveAll(issue_messages).forEach(saved::add);
+		return saved;
+	}
+
+	@Override
+	public void addElements(long[] issue_message_ids, long[] element_ids) {
+		if(issue_message_ids.length != element_ids.length) {
+			throw new IllegalArgumentException("issue_message_ids and element_ids must have the same length");
+		}
+		List<Map<String, Object>> relations = new ArrayList<>(issue_message_ids.length);
+		for(int i = 0; i < issue_message_ids.length; i++) {
+			relations.add(Map.of("issue_id", issue_message_ids[i], "element_id", element_ids[i]));
+		}
+		neo4j_client.query(ADD_ELEMENTS_QUERY).bind(relations).to("relations").run();
+	}
+
+	@Override
+	public List<Audit> saveAudits(List<Audit> audits) {
+		Objects.requireNonNull(audits, "audits must not be null");
+		List<Audit> saved = new ArrayList<>(audits.size());
+		audit_repository.saveAll(audits).forEach(saved::add);
+		return saved;
+	}
+}
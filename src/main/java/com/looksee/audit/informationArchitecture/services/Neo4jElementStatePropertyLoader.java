@@ -0,0 +1,91 @@
+package com.looksee.audit.informationArchitecture.services;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.neo4j.core.Neo4jClient;
+import org.springframework.stereotype.Component;
+
+/**
+ * {@link ElementStatePropertyLoader} backed by Neo4j. Element states are read with keyset
+ * pagination: each query returns the next {@code audit.element-states.fetch-size} element states
+ * of the page whose id is above the last one read, and only the id and the requested properties
+ * of each, never the node with its relationships.
+ *
+ * <p>The rendered CSS values and attributes of an element state are composite properties, stored
+ * on its node under the keys {@value #RENDERED_CSS_PREFIX}{@code <property>} and
+ * {@value #ATTRIBUTE_PREFIX}{@code <attribute>}.</p>
+ *
+ * <p>Enabled unless {@code audit.element-states.paged-load} is {@code false}, in which case audits
+ * read the page's element states from the bulk load shared through their page context.</p>
+ *
+ * <p><b>Class invariant:</b> All {@code @Autowired} dependencies are non-null after Spring
+ * construction, and {@code fetch_size} is positive.</p>
+ */
+@Component
+@ConditionalOnProperty(name = "audit.element-states.paged-load", havingValue = "true", matchIfMissing = true)
+public class Neo4jElementStatePropertyLoader implements ElementStatePropertyLoader {
+
+	static final String RENDERED_CSS_PREFIX = "renderedCssValues.";
+	static final String ATTRIBUTE_PREFIX = "attributes.";
+
+	static final String PAGE_QUERY = "MATCH (p:PageState)-[:HAS]->(e:ElementState) "
+			+ "WHERE id(p) = $id AND id(e) > $after "
+			+ "RETURN id(e) AS id, [property IN $properties | e[property]] AS values "
+			+ "ORDER BY id(e) LIMIT $n";
+
+	@Autowired
+	private Neo4jClient neo4j_client;
+
+	@Value("${audit.element-states.fetch-size:1000}")
+	private int fetch_size = 1000;
+
+	@Override
+	public void forEachRenderedCss(long page_state_id, List<String> css_properties, RowConsumer consumer) {
+		forEach(page_state_id, RENDERED_CSS_PREFIX, css_properties, consumer);
+	}
+
+	@Override
+	public void forEachAttribute(long page_state_id, List<String> attributes, RowConsumer consumer) {
+		forEach(page_state_id, ATTRIBUTE_PREFIX, attributes, consumer);
+	}
+
+	/**
+	 * Reads the properties {@code prefix + name} of each name in {@code names}, one page of
+	 * element states per query, until a page comes back short.
+	 */
+	private void forEach(long page_state_id, String prefix, List<String> names, RowConsumer consumer) {
+		Objects.requireNonNull(names, "names must not be null");
+		Objects.requireNonNull(consumer, "consumer must not be null");
+
+		List<String> properties = new ArrayList<>(names.size());
+		for(String name : names) {
+			properties.add(prefix + name);
+		}
+		long after = -1;
+		Collection<Map<String, Object>> rows;
+		do {
+			rows = neo4j_client.query(PAGE_QUERY)
+							   .bind(page_state_id).to("id")
+							   .bind(after).to("after")
+							   .bind(properties).to("properties")
+							   .bind(fetch_size).to("n")
+							   .fetch()
+							   .all();
+			for(Map<String, Object> row : rows) {
+				after = ((Number)row.get("id")).longValue();
+				List<String> values = new ArrayList<>(properties.size());
+				for(Object value : (List<?>)row.get("values")) {
+					values.add(value != null ? value.toString() : null);
+				}
+				consumer.accept(after, values);
+			}
+		} while(rows.size() == fetch_size);
+	}
+}
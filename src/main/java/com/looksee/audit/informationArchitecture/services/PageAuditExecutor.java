@@ -0,0 +1,462 @@
+package com.looksee.audit.informationArchitecture.services;
+
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import com.looksee.audit.informationArchitecture.audits.IExecutablePageContextAudit;
+import com.looksee.audit.informationArchitecture.audits.PageContext;
+import com.looksee.models.audit.Audit;
+import com.looksee.models.audit.AuditRecord;
+import com.looksee.models.audit.interfaces.IExecutablePageStateAudit;
+import com.looksee.models.enums.AuditCategory;
+import com.looksee.models.enums.AuditLevel;
+import com.looksee.models.enums.AuditName;
+import com.looksee.models.enums.AuditSubcategory;
+import com.looksee.services.AuditService;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+
+/**
+ * Runs the page audits for a single page either concurrently on bounded thread pools or
+ * sequentially on the calling thread, depending on configuration. Every audit receives the
+ * same {@link PageContext}, so the page source is parsed at most once per call.
+ *
+ * <p>Audits are started in {@link AuditCostClass} order, cheapest first, so results that
+ * need nothing but the page source land first. In parallel mode each cost class has its own
+ * pool, sized by {@code audit.executor.pool-size}, {@code audit.executor.repository-pool-size}
+ * and {@code audit.executor.network-pool-size}, so slow repository or network audits cannot
+ * take the workers cheap audits need. Every audit is submitted at once, so page latency is
+ * bounded by the slowest audit rather than the sum of all audits. Each audit has its own
+ * budget of {@code audit.executor.audit-timeout-ms}, counted from when it starts running, so
+ * time spent waiting for a worker of its class does not count against it. All of them share
+ * the {@code audit.executor.page-deadline-ms} ceiling, counted from submission. An audit that
+ * runs out of time is given up on and its task cancelled. Cancelling is best effort: audits
+ * that wait on the network free their worker because {@code LinkChecker} and
+ * {@code ImageTextExtractor} bound every wait by their own timeouts.</p>
+ *
+ * <p>In both modes a failing or cancelled audit does not affect the others, whether it threw
+ * an exception or an error such as {@link StackOverflowError}. It is reported as
+ * incomplete in the {@link PageAuditResults}, with a placeholder audit queued on the page
+ * context that records why it did not complete, and counted in {@code audit.page.incomplete}
+ * tagged with the {@code audit} and a {@code reason} of {@code timeout} or {@code error}.
+ * Sequential mode cannot interrupt an audit running on the calling thread, so it applies no
+ * time budget.</p>
+ *
+ * <p>Both modes record {@code audit.page.wall} (elapsed time for the page) and
+ * {@code audit.page.work} (sum of the individual audit durations) tagged with the
+ * {@code mode}, which makes the two strategies directly comparable. Each audit's own duration
+ * is recorded as {@code audit.duration} tagged with the {@code audit}, its
+ * {@code cost_class} and an {@code outcome} of {@code success}, {@code empty} (no result) or
+ * {@code error}. Issue messages of completed audits are counted in
+ * {@code audit.issues.produced} tagged with the {@code audit}. The number of element state
+ * queries the audits needed for the page is recorded as
+ * {@code audit.page.element_state.round_trips}. Each pool reports its waiting audits as
+ * {@code audit.executor.queue.depth} and its busy workers as {@code audit.executor.active},
+ * both tagged with the {@code cost_class}, and the pages being audited are reported as
+ * {@code audit.pages.in_flight}.</p>
+ *
+ * <p><b>Class invariant:</b> {@code meter_registry} and {@code audit_service} are non-null
+ * after Spring construction and every pool size is greater than 0.</p>
+ */
+@Component
+public class PageAuditExecutor {
+	private static Logger log = LoggerFactory.getLogger(PageAuditExecutor.class);
+
+	@Autowired
+	private MeterRegistry meter_registry;
+
+	@Autowired
+	private AuditService audit_service;
+
+	@Value("${audit.executor.parallel:true}")
+	private boolean parallel = true;
+
+	@Value("${audit.executor.pool-size:16}")
+	private int pool_size = 16;
+
+	@Value("${audit.executor.repository-pool-size:4}")
+	private int repository_pool_size = 4;
+
+	@Value("${audit.executor.network-pool-size:4}")
+	private int network_pool_size = 4;
+
+	@Value("${audit.executor.page-deadline-ms:300000}")
+	private long page_deadline_ms = 300000;
+
+	@Value("${audit.executor.audit-timeout-ms:120000}")
+	private long audit_timeout_ms = 120000;
+
+	private final Map<AuditCostClass, ExecutorService> executors = new EnumMap<>(AuditCostClass.class);
+	private final AtomicInteger pages_in_flight = new AtomicInteger();
+
+	/** Audits whose results are not reported as accessibility findings. */
+	private static final Set<AuditName> ACCESSIBILITY_EXEMPT = EnumSet.of(AuditName.ENCRYPTED, AuditName.METADATA);
+
+	/**
+	 * Registers the in-flight page gauge.
+	 */
+	@PostConstruct
+	public void initialize() {
+		meter_registry.gauge("audit.pages.in_flight", pages_in_flight);
+	}
+
+	/**
+	 * Executes every audit in {@code audits} against the given page.
+	 *
+	 * @param audits       audits to run keyed by name, in the order results should be returned
+	 * @param page_context context for the page being audited, shared by every audit
+	 * @param audit_record audit record the page belongs to
+	 * @return completed and incomplete audits, each keyed by name in the iteration order of
+	 *         {@code audits}
+	 *
+	 * @throws InterruptedException if the calling thread is interrupted while waiting
+	 *
+	 * @pre {@code audits != null}
+	 * @pre {@code page_context != null}
+	 * @pre {@code audit_record != null}
+	 * @post returned value is non-null and every key of {@code audits} is either completed or
+	 *       incomplete
+	 */
+	public PageAuditResults executeAll(Map<AuditName, ? extends IExecutablePageStateAudit> audits,
+									   PageContext page_context,
+									   AuditRecord audit_record)
+			throws InterruptedException
+	{
+		return executeAll(audits, page_context, audit_record, (audit_name, audit_completed) -> {});
+	}
+
+	/**
+	 * Executes every audit in {@code audits} against the given page and reports each audit as
+	 * soon as it finishes.
+	 *
+	 * @param on_finished called once per audit when it completes, fails or runs out of time,
+	 *                    possibly from an audit thread, with {@code true} only if the audit
+	 *                    returned a result
+	 *
+	 * @see #executeAll(Map, PageContext, AuditRecord)
+	 *
+	 * @pre {@code on_finished != null}
+	 */
+	public PageAuditResults executeAll(Map<AuditName, ? extends IExecutablePageStateAudit> audits,
+									   PageContext page_context,
+									   AuditRecord audit_record,
+									   BiConsumer<AuditName, Boolean> on_finished)
+			throws InterruptedException
+	{
+		Objects.requireNonNull(audits, "audits must not be null");
+		Objects.requireNonNull(page_context, "page_context must not be null");
+		Objects.requireNonNull(audit_record, "audit_record must not be null");
+		Objects.requireNonNull(on_finished, "on_finished must not be null");
+
+		String mode = parallel ? "parallel" : "sequential";
+		AtomicLong work_nanos = new AtomicLong();
+		long start = System.nanoTime();
+
+		Map<AuditName, IExecutablePageStateAudit> execution_order = new LinkedHashMap<>();
+		for(AuditCostClass cost_class : AuditCostClass.values()) {
+			for(Map.Entry<AuditName, ? extends IExecutablePageStateAudit> entry : audits.entrySet()) {
+				if(AuditCostClass.of(entry.getKey()) == cost_class) {
+					execution_order.put(entry.getKey(), entry.getValue());
+				}
+			}
+		}
+
+		Map<AuditName, Audit> completed = new LinkedHashMap<>();
+		Map<AuditName, Audit> incomplete = new LinkedHashMap<>();
+		pages_in_flight.incrementAndGet();
+		try {
+			if(parallel) {
+				executeParallel(execution_order, page_context, audit_record, work_nanos, on_finished, completed, incomplete);
+			}
+			else {
+				executeSequential(execution_order, page_context, audit_record, work_nanos, on_finished, completed, incomplete);
+			}
+		}
+		finally {
+			pages_in_flight.decrementAndGet();
+		}
+		PageAuditResults results = new PageAuditResults(inOrder(completed, audits.keySet()),
+														inOrder(incomplete, audits.keySet()));
+
+		meter_registry.timer("audit.page.wall", "mode", mode).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+		meter_registry.timer("audit.page.work", "mode", mode).record(work_nanos.get(), TimeUnit.NANOSECONDS);
+		meter_registry.summary("audit.page.element_state.round_trips").record(page_context.getElementStateRoundTrips());
+
+		Objects.requireNonNull(results, "Postcondition failed: results must not be null");
+		return results;
+	}
+
+	/**
+	 * Runs each audit in order on the calling thread.
+	 */
+	private void executeSequential(Map<AuditName, ? extends IExecutablePageStateAudit> audits,
+								   PageContext page_context,
+								   AuditRecord audit_record,
+								   AtomicLong work_nanos,
+								   BiConsumer<AuditName, Boolean> on_finished,
+								   Map<AuditName, Audit> completed,
+								   Map<AuditName, Audit> incomplete)
+	{
+		for(Map.Entry<AuditName, ? extends IExecutablePageStateAudit> entry : audits.entrySet()) {
+			try {
+				collect(entry.getKey(), timedExecute(entry.getKey(), entry.getValue(), page_context, audit_record, work_nanos),
+						page_context, completed, incomplete);
+			}
+			catch(RuntimeException | Error e) {
+				incomplete.put(entry.getKey(), incompleteAudit(entry.getKey(), page_context, "error", "failed: " + e));
+			}
+			on_finished.accept(entry.getKey(), completed.containsKey(entry.getKey()));
+		}
+	}
+
+	/**
+	 * Submits every audit to the pool and joins each of them against its own budget, counted
+	 * from when it starts running, and the page deadline, counted from submission.
+	 */
+	private void executeParallel(Map<AuditName, ? extends IExecutablePageStateAudit> audits,
+								 PageContext page_context,
+								 AuditRecord audit_record,
+								 AtomicLong work_nanos,
+								 BiConsumer<AuditName, Boolean> on_finished,
+								 Map<AuditName, Audit> completed,
+								 Map<AuditName, Audit> incomplete)
+			throws InterruptedException
+	{
+		// an audit that is given up on may still finish afterwards; report it only once
+		Set<AuditName> reported = ConcurrentHashMap.newKeySet();
+		BiConsumer<AuditName, Boolean> report_once = (audit_name, audit_completed) -> {
+			if(reported.add(audit_name)) {
+				on_finished.accept(audit_name, audit_completed);
+			}
+		};
+
+		long page_deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(page_deadline_ms);
+		Map<AuditName, CompletableFuture<Audit>> outcomes = new LinkedHashMap<>();
+		Map<AuditName, Future<?>> tasks = new LinkedHashMap<>();
+		for(Map.Entry<AuditName, ? extends IExecutablePageStateAudit> entry : audits.entrySet()) {
+			AuditName audit_name = entry.getKey();
+			IExecutablePageStateAudit audit = entry.getValue();
+			CompletableFuture<Audit> outcome = new CompletableFuture<>();
+			outcome.whenComplete((result, error) -> report_once.accept(audit_name, error == null && result != null));
+			outcomes.put(audit_name, outcome);
+			tasks.put(audit_name, executor(AuditCostClass.of(audit_name)).submit(() -> {
+				// the audit's budget starts now, not while it waited for a worker
+				outcome.orTimeout(audit_timeout_ms, TimeUnit.MILLISECONDS);
+				try {
+					outcome.complete(timedExecute(audit_name, audit, page_context, audit_record, work_nanos));
+				}
+				catch(Throwable e) {
+					outcome.completeExceptionally(e);
+				}
+			}));
+		}
+
+		try {
+			for(Map.Entry<AuditName, CompletableFuture<Audit>> entry : outcomes.entrySet()) {
+				AuditName audit_name = entry.getKey();
+				long remaining = Math.max(0, page_deadline - System.nanoTime());
+				try {
+					collect(audit_name, entry.getValue().get(remaining, TimeUnit.NANOSECONDS),
+							page_context, completed, incomplete);
+				}
+				catch(TimeoutException e) {
+					tasks.get(audit_name).cancel(true);
+					incomplete.put(audit_name, incompleteAudit(audit_name, page_context, "timeout",
+															   "did not finish within the page deadline of " + page_deadline_ms + " ms"));
+					report_once.accept(audit_name, false);
+				}
+				catch(ExecutionException e) {
+					if(e.getCause() instanceof TimeoutException) {
+						tasks.get(audit_name).cancel(true);
+						incomplete.put(audit_name, incompleteAudit(audit_name, page_context, "timeout",
+																   "did not finish within " + audit_timeout_ms + " ms of starting"));
+					}
+					else {
+						incomplete.put(audit_name, incompleteAudit(audit_name, page_context, "error",
+																   "failed: " + e.getCause()));
+					}
+				}
+			}
+		}
+		catch(InterruptedException e) {
+			for(Future<?> task : tasks.values()) {
+				task.cancel(true);
+			}
+			throw e;
+		}
+	}
+
+	private void collect(AuditName audit_name,
+						 Audit result,
+						 PageContext page_context,
+						 Map<AuditName, Audit> completed,
+						 Map<AuditName, Audit> incomplete)
+	{
+		if(result == null) {
+			incomplete.put(audit_name, incompleteAudit(audit_name, page_context, "error", "returned no result"));
+		}
+		else {
+			completed.put(audit_name, result);
+			if(result.getMessages() != null) {
+				meter_registry.counter("audit.issues.produced", "audit", audit_name.name()).increment(result.getMessages().size());
+			}
+		}
+	}
+
+	/**
+	 * Records an audit that did not complete and queues its placeholder on the page context.
+	 *
+	 * @param reason_tag {@code timeout} or {@code error}
+	 * @param reason     why the audit did not complete, for the audit description
+	 */
+	private Audit incompleteAudit(AuditName audit_name, PageContext page_context, String reason_tag, String reason) {
+		meter_registry.counter("audit.page.incomplete", "audit", audit_name.name(), "reason", reason_tag).increment();
+		log.warn("{} audit for page {} {}", audit_name, page_context.getPageState().getUrl(), reason);
+
+		Audit audit = new Audit(AuditCategory.INFORMATION_ARCHITECTURE,
+								subcategory(audit_name),
+								audit_name,
+								0,
+								new HashSet<>(),
+								AuditLevel.PAGE,
+								0,
+								page_context.getPageState().getUrl(),
+								"",
+								"Incomplete: this audit " + reason + " and was not scored.",
+								!ACCESSIBILITY_EXEMPT.contains(audit_name));
+		return page_context.saveAudit(audit, audit_service);
+	}
+
+	private static AuditSubcategory subcategory(AuditName audit_name) {
+		switch(audit_name) {
+			case ENCRYPTED:
+				return AuditSubcategory.SECURITY;
+			case METADATA:
+			case TITLES:
+				return AuditSubcategory.SEO;
+			default:
+				return AuditSubcategory.NAVIGATION;
+		}
+	}
+
+	/**
+	 * Copies {@code results} into a map ordered like {@code order}.
+	 */
+	private static Map<AuditName, Audit> inOrder(Map<AuditName, Audit> results, Iterable<AuditName> order) {
+		Map<AuditName, Audit> ordered = new LinkedHashMap<>();
+		for(AuditName audit_name : order) {
+			if(results.containsKey(audit_name)) {
+				ordered.put(audit_name, results.get(audit_name));
+			}
+		}
+		return ordered;
+	}
+
+	private Audit timedExecute(AuditName audit_name,
+							   IExecutablePageStateAudit audit,
+							   PageContext page_context,
+							   AuditRecord audit_record,
+							   AtomicLong work_nanos)
+	{
+		long start = System.nanoTime();
+		String outcome = "error";
+		try {
+			Audit result;
+			if(audit instanceof IExecutablePageContextAudit) {
+				result = ((IExecutablePageContextAudit)audit).execute(page_context, audit_record, null);
+			}
+			else {
+				result = audit.execute(page_context.getPageState(), audit_record, null);
+			}
+			outcome = result == null ? "empty" : "success";
+			return result;
+		}
+		finally {
+			long elapsed = System.nanoTime() - start;
+			work_nanos.addAndGet(elapsed);
+			meter_registry.timer("audit.duration",
+								 "audit", audit_name.name(),
+								 "cost_class", AuditCostClass.of(audit_name).tag(),
+								 "outcome", outcome)
+						  .record(elapsed, TimeUnit.NANOSECONDS);
+		}
+	}
+
+	private synchronized ExecutorService executor(AuditCostClass cost_class) {
+		ExecutorService executor = executors.get(cost_class);
+		if(executor == null) {
+			int size;
+			String property;
+			switch(cost_class) {
+				case REPOSITORY:
+					size = repository_pool_size;
+					property = "audit.executor.repository-pool-size";
+					break;
+				case NETWORK:
+					size = network_pool_size;
+					property = "audit.executor.network-pool-size";
+					break;
+				default:
+					size = pool_size;
+					property = "audit.executor.pool-size";
+			}
+			if(size <= 0) {
+				throw new IllegalArgumentException(property + " must be greater than 0");
+			}
+			ThreadPoolExecutor pool = new ThreadPoolExecutor(size, size, 0L, TimeUnit.MILLISECONDS,
+															 new LinkedBlockingQueue<>(),
+															 new CustomizableThreadFactory("page-audit-" + cost_class.tag() + "-"));
+			meter_registry.gauge("audit.executor.queue.depth", Tags.of("cost_class", cost_class.tag()), pool, p -> p.getQueue().size());
+			meter_registry.gauge("audit.executor.active", Tags.of("cost_class", cost_class.tag()), pool, ThreadPoolExecutor::getActiveCount);
+			executor = pool;
+			executors.put(cost_class, executor);
+		}
+		return executor;
+	}
+
+	/**
+	 * @return the time budget of a whole page, {@code audit.executor.page-deadline-ms}
+	 */
+	public long getPageDeadlineMs() {
+		return page_deadline_ms;
+	}
+
+	/**
+	 * Stops the audit pools when the application context shuts down.
+	 */
+	@PreDestroy
+	public synchronized void shutdown() {
+		for(ExecutorService executor : executors.values()) {
+			executor.shutdownNow();
+		}
+		executors.clear();
+	}
+}
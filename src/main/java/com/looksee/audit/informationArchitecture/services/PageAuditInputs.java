@@ -0,0 +1,47 @@
+package com.looksee.audit.informationArchitecture.services;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+
+import com.looksee.models.PageState;
+import com.looksee.models.audit.Audit;
+import com.looksee.models.audit.AuditRecord;
+
+/**
+ * What the audits of one page need loaded before they run: the audit record, the page state
+ * it refers to and the audits already associated with it.
+ *
+ * <p><b>Class invariant:</b> {@code audit_record} and {@code audits} are non-null and
+ * {@code audits} is unmodifiable.</p>
+ */
+public final class PageAuditInputs {
+	private final AuditRecord audit_record;
+	private final PageState page_state;
+	private final Set<Audit> audits;
+
+	/**
+	 * @param page_state page state of the record; may be {@code null} if none is related
+	 * @param audits     audits already associated with the record; {@code null} for none
+	 *
+	 * @pre {@code audit_record != null}
+	 */
+	public PageAuditInputs(AuditRecord audit_record, PageState page_state, Set<Audit> audits) {
+		this.audit_record = Objects.requireNonNull(audit_record, "audit_record must not be null");
+		this.page_state = page_state;
+		this.audits = audits == null ? Collections.emptySet() : Collections.unmodifiableSet(new HashSet<>(audits));
+	}
+
+	public AuditRecord getAuditRecord() {
+		return audit_record;
+	}
+
+	public PageState getPageState() {
+		return page_state;
+	}
+
+	public Set<Audit> getAudits() {
+		return audits;
+	}
+}
@@ -0,0 +1,50 @@
+package com.looksee.audit.informationArchitecture.services;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+import com.looksee.models.audit.Audit;
+import com.looksee.models.enums.AuditName;
+
+/**
+ * Audits produced by {@link PageAuditExecutor} for one page.
+ *
+ * <p>Audits that finished are <em>completed</em>. Audits that failed or ran out of time are
+ * <em>incomplete</em>: each of them is represented by a placeholder {@link Audit} without
+ * points or issue messages whose description states why it did not complete.</p>
+ *
+ * <p><b>Class invariant:</b> both maps are non-null, unmodifiable and have no key in
+ * common.</p>
+ */
+public final class PageAuditResults {
+	private final Map<AuditName, Audit> completed;
+	private final Map<AuditName, Audit> incomplete;
+
+	/**
+	 * @pre {@code completed != null}
+	 * @pre {@code incomplete != null}
+	 */
+	PageAuditResults(Map<AuditName, Audit> completed, Map<AuditName, Audit> incomplete) {
+		Objects.requireNonNull(completed, "completed must not be null");
+		Objects.requireNonNull(incomplete, "incomplete must not be null");
+		this.completed = Collections.unmodifiableMap(new LinkedHashMap<>(completed));
+		this.incomplete = Collections.unmodifiableMap(new LinkedHashMap<>(incomplete));
+	}
+
+	/**
+	 * @return audits that finished, keyed by name in execution order
+	 */
+	public Map<AuditName, Audit> getCompleted() {
+		return completed;
+	}
+
+	/**
+	 * @return placeholder audits for audits that failed or timed out, keyed by name in
+	 *         execution order
+	 */
+	public Map<AuditName, Audit> getIncomplete() {
+		return incomplete;
+	}
+}
@@ -0,0 +1,86 @@
+package com.looksee.audit.informationArchitecture.services;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Runs the pages of a batch request on a bounded worker pool, so a batch is audited
+ * {@code audit.batch.workers} pages at a time instead of one after the other.
+ *
+ * <p>Each page still runs its audits on the {@link PageAuditExecutor} pool; this pool only
+ * bounds how many pages are in progress at once. Batch sizes are recorded as
+ * {@code audit.batch.pages} and the elapsed time of each batch as {@code audit.batch.wall}.</p>
+ *
+ * <p><b>Class invariant:</b> {@code meter_registry} is non-null after Spring construction and
+ * {@code workers > 0}.</p>
+ */
+@Component
+public class PageBatchExecutor {
+
+	@Autowired
+	private MeterRegistry meter_registry;
+
+	@Value("${audit.batch.workers:4}")
+	private int workers = 4;
+
+	private ExecutorService executor;
+
+	/**
+	 * Runs every page task and waits for all of them.
+	 *
+	 * @param pages one task per page
+	 * @return futures of the tasks, all done, in the iteration order of {@code pages}
+	 *
+	 * @throws InterruptedException if the calling thread is interrupted while waiting, in which
+	 *                              case unfinished tasks are cancelled
+	 *
+	 * @pre {@code pages != null}
+	 */
+	public <T> List<Future<T>> runAll(Collection<? extends Callable<T>> pages) throws InterruptedException {
+		Objects.requireNonNull(pages, "pages must not be null");
+		long start = System.nanoTime();
+		try {
+			return executor().invokeAll(pages);
+		}
+		finally {
+			meter_registry.summary("audit.batch.pages").record(pages.size());
+			meter_registry.timer("audit.batch.wall").record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+		}
+	}
+
+	private synchronized ExecutorService executor() {
+		if(executor == null) {
+			if(workers <= 0) {
+				throw new IllegalArgumentException("audit.batch.workers must be greater than 0");
+			}
+			executor = Executors.newFixedThreadPool(workers, new CustomizableThreadFactory("page-batch-"));
+		}
+		return executor;
+	}
+
+	/**
+	 * Stops the batch pool when the application context shuts down.
+	 */
+	@PreDestroy
+	public synchronized void shutdown() {
+		if(executor != null) {
+			executor.shutdownNow();
+			executor = null;
+		}
+	}
+}
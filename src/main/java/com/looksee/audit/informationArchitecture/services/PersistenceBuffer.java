@@ -0,0 +1,348 @@
+package com.looksee.audit.informationArchitecture.services;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.looksee.models.audit.Audit;
+import com.looksee.models.audit.messages.UXIssueMessage;
+import com.looksee.services.AuditService;
+import com.looksee.services.UXIssueMessageService;
+
+/**
+ * Write-behind buffer for the issue messages, message-to-element relations and audits
+ * produced while auditing a single page.
+ *
+ * <p>Audits queue their writes here instead of saving them one at a time. {@link #flush()}
+ * then writes everything in order (issue messages, then element relations, then audits) in
+ * transactions of at most {@code flush_size} writes each. With a {@link PersistenceBulkWriter}
+ * each transaction makes one bulk write per type it contains, so a page costs a handful of
+ * round trips; without one, each write is made through the service it was queued with.</p>
+ *
+ * <p>Queued issue messages and audits are returned to the caller unsaved, without ids, so
+ * callers collecting them must compare by identity, not with {@code equals}. Messages are
+ * saved before the audits that reference them, and saving fills in the id of the instance
+ * passed in, so by the time an audit is saved its messages already exist. Use
+ * {@link #resolve(Audit)} to get the saved instance of a queued audit after a flush.</p>
+ *
+ * <p>{@link #close()} flushes for the last time and rejects every later write, so an audit
+ * that outlives its page, for example after timing out, cannot queue writes that would never
+ * be flushed.</p>
+ *
+ * <p>The buffer may be written from several audit threads at once.</p>
+ *
+ * <p><b>Class invariant:</b> {@code flush_size > 0} and the pending lists are non-null; once
+ * {@code closed}, the pending lists stay empty.</p>
+ */
+public class PersistenceBuffer {
+	private static Logger log = LoggerFactory.getLogger(PersistenceBuffer.class);
+
+	private final TransactionTemplate transaction_template;
+	private final PersistenceBulkWriter bulk_writer;
+	private final int flush_size;
+
+	private List<PendingMessage> messages = new ArrayList<>();
+	private List<PendingElement> elements = new ArrayList<>();
+	private List<PendingAudit> audits = new ArrayList<>();
+	private final Map<Audit, Audit> saved_audits = new IdentityHashMap<>();
+	private boolean closed;
+
+	/**
+	 * Creates an empty buffer that writes each entity through the service it was queued with.
+	 *
+	 * @param transaction_manager manager used to group each batch of writes into one
+	 *                            transaction; {@code null} to write without a transaction
+	 * @param flush_size          maximum number of writes per transaction
+	 *
+	 * @pre {@code flush_size > 0}
+	 */
+	public PersistenceBuffer(PlatformTransactionManager transaction_manager, int flush_size) {
+		this(transaction_manager, null, flush_size);
+	}
+
+	/**
+	 * Creates an empty buffer.
+	 *
+	 * @param transaction_manager manager used to group each batch of writes into one
+	 *                            transaction; {@code null} to write without a transaction
+	 * @param bulk_writer         writer making one write per type and batch; {@code null} to
+	 *                            write each entity through the service it was queued with
+	 * @param flush_size          maximum number of writes per transaction
+	 *
+	 * @pre {@code flush_size > 0}
+	 */
+	public PersistenceBuffer(PlatformTransactionManager transaction_manager, PersistenceBulkWriter bulk_writer, int flush_size) {
+		if(flush_size <= 0) {
+			throw new IllegalArgumentException("flush_size must be positive");
+		}
+		this.transaction_template = transaction_manager == null ? null : new TransactionTemplate(transaction_manager);
+		this.bulk_writer = bulk_writer;
+		this.flush_size = flush_size;
+	}
+
+	/**
+	 * Queues an issue message to be saved on the next flush.
+	 *
+	 * @return {@code issue_message}, not yet saved
+	 *
+	 * @pre {@code issue_message != null}
+	 * @pre {@code issue_message_service != null}
+	 * @throws IllegalStateException if the buffer is closed
+	 */
+	public synchronized UXIssueMessage saveIssueMessage(UXIssueMessage issue_message, UXIssueMessageService issue_message_service) {
+		Objects.requireNonNull(issue_message, "issue_message must not be null");
+		Objects.requireNonNull(issue_message_service, "issue_message_service must not be null");
+		requireOpen();
+		messages.add(new PendingMessage(issue_message, issue_message_service));
+		return issue_message;
+	}
+
+	/**
+	 * Queues a relation between an issue message and an element state. The relation is
+	 * written after the message has been saved.
+	 *
+	 * @pre {@code issue_message != null}
+	 * @pre {@code issue_message_service != null}
+	 * @throws IllegalStateException if the buffer is closed
+	 */
+	public synchronized void addElement(UXIssueMessage issue_message, long element_id, UXIssueMessageService issue_message_service) {
+		Objects.requireNonNull(issue_message, "issue_message must not be null");
+		Objects.requireNonNull(issue_message_service, "issue_message_service must not be null");
+		requireOpen();
+		elements.add(new PendingElement(issue_message, element_id, issue_message_service));
+	}
+
+	/**
+	 * Queues an audit to be saved on the next flush, after every queued issue message.
+	 *
+	 * @return {@code audit}, not yet saved
+	 *
+	 * @pre {@code audit != null}
+	 * @pre {@code audit_service != null}
+	 * @throws IllegalStateException if the buffer is closed
+	 */
+	public synchronized Audit saveAudit(Audit audit, AuditService audit_service) {
+		Objects.requireNonNull(audit, "audit must not be null");
+		Objects.requireNonNull(audit_service, "audit_service must not be null");
+		requireOpen();
+		audits.add(new PendingAudit(audit, audit_service));
+		return audit;
+	}
+
+	/**
+	 * @return number of writes waiting for the next flush
+	 */
+	public synchronized int size() {
+		return messages.size() + elements.size() + audits.size();
+	}
+
+	/**
+	 * Writes every queued message, relation and audit, in that order, in transactions of at
+	 * most {@code flush_size} writes. Writes queued while a flush is running are left for the
+	 * next flush.
+	 *
+	 * @return number of transactions used
+	 *
+	 * @post {@code size()} does not include any write queued before this call
+	 */
+	public int flush() {
+		List<PendingMessage> pending_messages;
+		List<PendingElement> pending_elements;
+		List<PendingAudit> pending_audits;
+		synchronized(this) {
+			pending_messages = messages;
+			pending_elements = elements;
+			pending_audits = audits;
+			messages = new ArrayList<>();
+			elements = new ArrayList<>();
+			audits = new ArrayList<>();
+		}
+
+		Map<UXIssueMessage, UXIssueMessage> saved_messages = new IdentityHashMap<>();
+		int element_offset = pending_messages.size();
+		int audit_offset = element_offset + pending_elements.size();
+		int writes = audit_offset + pending_audits.size();
+
+		int transactions = 0;
+		for(int start = 0; start < writes; start += flush_size) {
+			int end = Math.min(start + flush_size, writes);
+			List<PendingMessage> batch_messages = slice(pending_messages, start, end);
+			List<PendingElement> batch_elements = slice(pending_elements, start - element_offset, end - element_offset);
+			List<PendingAudit> batch_audits = slice(pending_audits, start - audit_offset, end - audit_offset);
+			Runnable batch = () -> {
+				writeMessages(batch_messages, saved_messages);
+				writeElements(batch_elements, saved_messages);
+				writeAudits(batch_audits);
+			};
+			if(transaction_template == null) {
+				batch.run();
+			}
+			else {
+				transaction_template.executeWithoutResult(status -> batch.run());
+			}
+			transactions++;
+		}
+		log.debug("Flushed {} issue messages, {} element relations and {} audits in {} transactions",
+				pending_messages.size(), pending_elements.size(), pending_audits.size(), transactions);
+		return transactions;
+	}
+
+	/**
+	 * Flushes every queued write and rejects all later ones. Closing a closed buffer does
+	 * nothing.
+	 *
+	 * @return number of transactions used by the final flush
+	 *
+	 * @post {@code size() == 0} and every later write throws {@link IllegalStateException}
+	 */
+	public int close() {
+		synchronized(this) {
+			if(closed) {
+				return 0;
+			}
+			closed = true;
+		}
+		return flush();
+	}
+
+	private void writeMessages(List<PendingMessage> batch, Map<UXIssueMessage, UXIssueMessage> saved_messages) {
+		if(batch.isEmpty()) {
+			return;
+		}
+		if(bulk_writer == null) {
+			for(PendingMessage pending : batch) {
+				saved_messages.put(pending.issue_message, pending.service.save(pending.issue_message));
+			}
+			return;
+		}
+		List<UXIssueMessage> issue_messages = new ArrayList<>(batch.size());
+		for(PendingMessage pending : batch) {
+			issue_messages.add(pending.issue_message);
+		}
+		List<UXIssueMessage> saved = bulk_writer.saveIssueMessages(issue_messages);
+		if(saved.size() != issue_messages.size()) {
+			throw new IllegalStateException("Saved " + saved.size() + " of " + issue_messages.size() + " issue messages");
+		}
+		for(int i = 0; i < saved.size(); i++) {
+			saved_messages.put(issue_messages.get(i), saved.get(i));
+		}
+	}
+
+	private void writeElements(List<PendingElement> batch, Map<UXIssueMessage, UXIssueMessage> saved_messages) {
+		if(batch.isEmpty()) {
+			return;
+		}
+		if(bulk_writer == null) {
+			for(PendingElement pending : batch) {
+				UXIssueMessage saved = saved_messages.getOrDefault(pending.issue_message, pending.issue_message);
+				pending.service.addElement(saved.getId(), pending.element_id);
+			}
+			return;
+		}
+		long[] issue_message_ids = new long[batch.size()];
+		long[] element_ids = new long[batch.size()];
+		for(int i = 0; i < batch.size(); i++) {
+			PendingElement pending = batch.get(i);
+			issue_message_ids[i] = saved_messages.getOrDefault(pending.issue_message, pending.issue_message).getId();
+			element_ids[i] = pending.element_id;
+		}
+		bulk_writer.addElements(issue_message_ids, element_ids);
+	}
+
+	private void writeAudits(List<PendingAudit> batch) {
+		if(batch.isEmpty()) {
+			return;
+		}
+		List<Audit> saved;
+		if(bulk_writer == null) {
+			saved = new ArrayList<>(batch.size());
+			for(PendingAudit pending : batch) {
+				saved.add(pending.service.save(pending.audit));
+			}
+		}
+		else {
+			List<Audit> audits = new ArrayList<>(batch.size());
+			for(PendingAudit pending : batch) {
+				audits.add(pending.audit);
+			}
+			saved = bulk_writer.saveAudits(audits);
+			if(saved.size() != audits.size()) {
+				throw new IllegalStateException("Saved " + saved.size() + " of " + audits.size() + " audits");
+			}
+		}
+		synchronized(this) {
+			for(int i = 0; i < batch.size(); i++) {
+				saved_audits.put(batch.get(i).audit, saved.get(i));
+			}
+		}
+	}
+
+	/**
+	 * @return the part of {@code list} between {@code from} and {@code to}, both clamped to
+	 *         its bounds
+	 */
+	private static <T> List<T> slice(List<T> list, int from, int to) {
+		int clamped_from = Math.max(0, Math.min(from, list.size()));
+		int clamped_to = Math.max(clamped_from, Math.min(to, list.size()));
+		return list.subList(clamped_from, clamped_to);
+	}
+
+	private void requireOpen() {
+		if(closed) {
+			throw new IllegalStateException("Persistence buffer is closed; the page has already been flushed");
+		}
+	}
+
+	/**
+	 * Returns the saved instance of an audit queued with {@link #saveAudit}.
+	 *
+	 * @param audit audit as returned by {@link #saveAudit}
+	 * @return the instance returned by the audit service, or {@code audit} itself if it has
+	 *         not been flushed
+	 *
+	 * @pre {@code audit != null}
+	 */
+	public synchronized Audit resolve(Audit audit) {
+		Objects.requireNonNull(audit, "audit must not be null");
+		return saved_audits.getOrDefault(audit, audit);
+	}
+
+	private static final class PendingMessage {
+		private final UXIssueMessage issue_message;
+		private final UXIssueMessageService service;
+
+		PendingMessage(UXIssueMessage issue_message, UXIssueMessageService service) {
+			this.issue_message = issue_message;
+			this.service = service;
+		}
+	}
+
+	private static final class PendingElement {
+		private final UXIssueMessage issue_message;
+		private final long element_id;
+		private final UXIssueMessageService service;
+
+		PendingElement(UXIssueMessage issue_message, long element_id, UXIssueMessageService service) {
+			this.issue_message = issue_message;
+			this.element_id = element_id;
+			this.service = service;
+		}
+	}
+
+	private static final class PendingAudit {
+		private final Audit audit;
+		private final AuditService service;
+
+		PendingAudit(Audit audit, AuditService service) {
+			this.audit = audit;
+			this.service = service;
+		}
+	}
+}
@@ -0,0 +1,44 @@
+package com.looksee.audit.informationArchitecture.services;
+
+import java.util.List;
+
+import com.looksee.models.audit.Audit;
+import com.looksee.models.audit.messages.UXIssueMessage;
+
+/**
+ * Writes many issue messages, message-to-element relations or audits in one call, so a
+ * {@link PersistenceBuffer} flush costs one round trip per type and batch rather than one per
+ * entity.
+ *
+ * <p>Every method is called inside the transaction of the batch it belongs to.</p>
+ */
+public interface PersistenceBulkWriter {
+
+	/**
+	 * Saves {@code issue_messages} in one write.
+	 *
+	 * @return the saved messages, in the order of {@code issue_messages}
+	 *
+	 * @pre {@code issue_messages != null} and non-empty
+	 * @post returned value has the same size as {@code issue_messages}
+	 */
+	List<UXIssueMessage> saveIssueMessages(List<UXIssueMessage> issue_messages);
+
+	/**
+	 * Relates each saved issue message {@code issue_message_ids[i]} to the element state
+	 * {@code element_ids[i]} in one write.
+	 *
+	 * @pre {@code issue_message_ids.length == element_ids.length > 0}
+	 */
+	void addElements(long[] issue_message_ids, long[] element_ids);
+
+	/**
+	 * Saves {@code audits} in one write.
+	 *
+	 * @return the saved audits, in the order of {@code audits}
+	 *
+	 * @pre {@code audits != null} and non-empty
+	 * @post returned value has the same size as {@code audits}
+	 */
+	List<Audit> saveAudits(List<Audit> audits);
+}
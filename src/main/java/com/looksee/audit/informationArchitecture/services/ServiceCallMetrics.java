@@ -0,0 +1,137 @@
+package com.looksee.audit.informationArchitecture.services;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.aop.framework.Advised;
+import org.springframework.aop.framework.AopConfigException;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+import com.looksee.services.AuditRecordService;
+import com.looksee.services.AuditService;
+import com.looksee.services.ElementStateService;
+import com.looksee.services.PageStateService;
+import com.looksee.services.UXIssueMessageService;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Times every call the audits make to the persistence services, so a slow repository call can
+ * be told apart from a slow audit.
+ *
+ * <p>The {@link AuditService}, {@link AuditRecordService}, {@link ElementStateService},
+ * {@link PageStateService} and {@link UXIssueMessageService} beans are wrapped in a proxy
+ * that records each call in {@code audit.repository.call}, tagged with the {@code service},
+ * the {@code method} and an {@code outcome} of {@code success} or {@code error}. Timers are
+ * resolved once per method and outcome, so a call costs two clock reads and a map lookup on
+ * top of the call itself.</p>
+ *
+ * <p>The meter registry is looked up on the first call rather than injected, so this post
+ * processor does not force the registry to be created before the rest of the context.</p>
+ *
+ * <p><b>Class invariant:</b> {@code meter_registry} is non-null after Spring construction.</p>
+ */
+@Component
+public class ServiceCallMetrics implements BeanPostProcessor {
+	private static Logger log = LoggerFactory.getLogger(ServiceCallMetrics.class);
+
+	private static final List<Class<?>> TIMED_SERVICES = List.of(AuditService.class,
+																  AuditRecordService.class,
+																  ElementStateService.class,
+																  PageStateService.class,
+																  UXIssueMessageService.class);
+
+	@Autowired
+	private ObjectProvider<MeterRegistry> meter_registry;
+
+	/**
+	 * Wraps beans of the timed services in a timing proxy and returns every other bean
+	 * unchanged. A bean that is already an AOP proxy gets the timing advice added instead.
+	 */
+	@Override
+	public Object postProcessAfterInitialization(Object bean, String bean_name) {
+		Class<?> service = TIMED_SERVICES.stream().filter(type -> type.isInstance(bean)).findFirst().orElse(null);
+		if(service == null) {
+			return bean;
+		}
+
+		TimingInterceptor interceptor = new TimingInterceptor(service.getSimpleName(), meter_registry::getObject);
+		if(bean instanceof Advised && !((Advised)bean).isFrozen()) {
+			((Advised)bean).addAdvice(0, interceptor);
+			return bean;
+		}
+		try {
+			ProxyFactory proxy_factory = new ProxyFactory(bean);
+			proxy_factory.setProxyTargetClass(true);
+			proxy_factory.addAdvice(interceptor);
+			return proxy_factory.getProxy(bean.getClass().getClassLoader());
+		}
+		catch(AopConfigException e) {
+			log.warn("Calls to {} will not be timed :: {}", bean_name, e.getMessage());
+			return bean;
+		}
+	}
+
+	/**
+	 * Records the duration and outcome of each call to one service.
+	 *
+	 * <p><b>Class invariant:</b> {@code service} and {@code meter_registry} are non-null.</p>
+	 */
+	public static final class TimingInterceptor implements MethodInterceptor {
+		private final String service;
+		private final Supplier<MeterRegistry> meter_registry;
+		private final ConcurrentMap<Method, Timer> success_timers = new ConcurrentHashMap<>();
+		private final ConcurrentMap<Method, Timer> error_timers = new ConcurrentHashMap<>();
+
+		/**
+		 * @param service        value of the {@code service} tag
+		 * @param meter_registry supplies the registry the first time a method is called
+		 *
+		 * @pre {@code service != null}
+		 * @pre {@code meter_registry != null}
+		 */
+		public TimingInterceptor(String service, Supplier<MeterRegistry> meter_registry) {
+			this.service = Objects.requireNonNull(service, "service must not be null");
+			this.meter_registry = Objects.requireNonNull(meter_registry, "meter_registry must not be null");
+		}
+
+		@Override
+		public Object invoke(MethodInvocation invocation) throws Throwable {
+			Method method = invocation.getMethod();
+			if(method.getDeclaringClass() == Object.class) {
+				return invocation.proceed();
+			}
+
+			long start = System.nanoTime();
+			boolean success = false;
+			try {
+				Object result = invocation.proceed();
+				success = true;
+				return result;
+			}
+			finally {
+				ConcurrentMap<Method, Timer> timers = success ? success_timers : error_timers;
+				String outcome = success ? "success" : "error";
+				timers.computeIfAbsent(method, m -> meter_registry.get().timer("audit.repository.call",
+																				"service", service,
+																				"method", m.getName(),
+																				"outcome", outcome))
+					  .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+			}
+		}
+	}
+}
@@ -2,33 +2,53 @@ package audits;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
+import java.util.Arrays;
 import java.util.Base64;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
 import com.looksee.audit.informationArchitecture.AuditController;
 import com.looksee.audit.informationArchitecture.audits.*;
+import com.looksee.audit.informationArchitecture.services.AuditIdempotencyGuard;
+import com.looksee.audit.informationArchitecture.services.AuditIntakeQueue;
+import com.looksee.audit.informationArchitecture.services.AuditProgressPublisher;
+import com.looksee.audit.informationArchitecture.services.AuditRecordBatchLoader;
+import com.looksee.audit.informationArchitecture.services.AuditResultCache;
+import com.looksee.audit.informationArchitecture.services.PageAuditExecutor;
+import com.looksee.audit.informationArchitecture.services.PageAuditInputs;
+import com.looksee.audit.informationArchitecture.services.PageBatchExecutor;
 import com.looksee.gcp.PubSubAuditUpdatePublisherImpl;
 import com.looksee.mapper.Body;
 import com.looksee.models.PageState;
 import com.looksee.models.audit.Audit;
 import com.looksee.models.audit.AuditRecord;
+import com.looksee.models.audit.messages.UXIssueMessage;
 import com.looksee.models.enums.AuditName;
 import com.looksee.services.AuditRecordService;
+import com.looksee.services.AuditService;
+import com.looksee.services.ElementStateService;
 import com.looksee.services.PageStateService;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
 public class AuditControllerTest {
 
     private AuditController controller;
@@ -53,6 +73,12 @@ public class AuditControllerTest {
     private TitleAndHeaderAudit mockTitleAndHeaderAudit;
     private TextSpacingAudit mockTextSpacingAudit;
     private SecurityAudit mockSecurityAudit;
+    private AuditIdempotencyGuard idempotencyGuard;
+    private AuditService mockAuditService;
+    private AuditProgressPublisher progressPublisher;
+    private PubSubAuditUpdatePublisherImpl mockProgressTopic;
+    private PageBatchExecutor batchExecutor;
+    private SimpleMeterRegistry meterRegistry;
 
     @BeforeEach
     void setUp() throws Exception {
@@ -99,6 +125,57 @@ public class AuditControllerTest {
         injectField("title_and_header_auditor", mockTitleAndHeaderAudit);
         injectField("textSpacingAudit", mockTextSpacingAudit);
         injectField("security_auditor", mockSecurityAudit);
+
+        PageAuditExecutor executor = new PageAuditExecutor();
+        Field registry = PageAuditExecutor.class.getDeclaredField("meter_registry");
+        registry.setAccessible(true);
+        registry.set(executor, new SimpleMeterRegistry());
+        mockAuditService = mock(AuditService.class);
+        when(mockAuditService.save(any(Audit.class))).thenAnswer(inv -> inv.getArgument(0));
+        Field auditService = PageAuditExecutor.class.getDeclaredField("audit_service");
+        auditService.setAccessible(true);
+        auditService.set(executor, mockAuditService);
+        injectField("page_audit_executor", executor);
+        injectField("audit_service", mockAuditService);
+        injectField("element_state_service", mock(ElementStateService.class));
+
+        AuditResultCache resultCache = new AuditResultCache();
+        Field cacheRegistry = AuditResultCache.class.getDeclaredField("meter_registry");
+        cacheRegistry.setAccessible(true);
+        cacheRegistry.set(resultCache, new SimpleMeterRegistry());
+        injectField("audit_result_cache", resultCache);
+
+        idempotencyGuard = new AuditIdempotencyGuard();
+        Field guardRegistry = AuditIdempotencyGuard.class.getDeclaredField("meter_registry");
+        guardRegistry.setAccessible(true);
+        guardRegistry.set(idempotencyGuard, new SimpleMeterRegistry());
+        injectField("audit_idempotency_guard", idempotencyGuard);
+
+        // intermediate updates go to their own topic so tests can count the final update
+        progressPublisher = new AuditProgressPublisher();
+        mockProgressTopic = mock(PubSubAuditUpdatePublisherImpl.class);
+        Field progressTopic = AuditProgressPublisher.class.getDeclaredField("audit_update_topic");
+        progressTopic.setAccessible(true);
+        progressTopic.set(progressPublisher, mockProgressTopic);
+        Field progressRegistry = AuditProgressPublisher.class.getDeclaredField("meter_registry");
+        progressRegistry.setAccessible(true);
+        progressRegistry.set(progressPublisher, new SimpleMeterRegistry());
+        injectField("audit_progress_publisher", progressPublisher);
+
+        batchExecutor = new PageBatchExecutor();
+        Field batchRegistry = PageBatchExecutor.class.getDeclaredField("meter_registry");
+        batchRegistry.setAccessible(true);
+        batchRegistry.set(batchExecutor, new SimpleMeterRegistry());
+        injectField("page_batch_executor", batchExecutor);
+
+        meterRegistry = new SimpleMeterRegistry();
+        injectField("meter_registry", meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        progressPublisher.shutdown();
+        batchExecutor.shutdown();
     }
 
     private void injectField(String fieldName, Object value) throws Exception {
@@ -119,6 +196,23 @@ public class AuditControllerTest {
         return Base64.getEncoder().encodeToString(value.getBytes());
     }
 
+    private void stubPageAudit(long pageAuditId, Audit audit) throws Exception {
+        AuditRecord mockRecord = mock(AuditRecord.class);
+        when(mockRecord.getId()).thenReturn(pageAuditId);
+        when(mockAuditRecordService.findById(pageAuditId)).thenReturn(Optional.of(mockRecord));
+        PageState mockPageState = mock(PageState.class);
+        when(mockPageStateService.getPageStateForAuditRecord(pageAuditId)).thenReturn(mockPageState);
+        when(mockAuditRecordService.getAllAudits(pageAuditId)).thenReturn(new HashSet<>());
+
+        for (IExecutablePageContextAudit pageAudit : new IExecutablePageContextAudit[] {
+                mockHeaderStructureAudit, mockTableStructureAudit, mockFormStructureAudit, mockOrientationAudit,
+                mockInputPurposeAudit, mockIdentifyPurposeAudit, mockUseOfColorAudit, mockAudioControlAudit,
+                mockVisualPresentationAudit, mockReflowAudit, mockTextSpacingAudit, mockPageLanguageAudit,
+                mockLinksAudit, mockTitleAndHeaderAudit, mockSecurityAudit, mockMetadataAudit }) {
+            when(pageAudit.execute(any(PageContext.class), any(), any())).thenReturn(audit);
+        }
+    }
+
     // --- Input validation tests ---
 
     @Test
@@ -204,26 +298,27 @@ public class AuditControllerTest {
         Audit mockAudit = mock(Audit.class);
         when(mockAudit.getId()).thenReturn(1L);
 
-        when(mockHeaderStructureAudit.execute(any(), any(), any())).thenReturn(mockAudit);
-        when(mockTableStructureAudit.execute(any(), any(), any())).thenReturn(mockAudit);
-        when(mockFormStructureAudit.execute(any(), any(), any())).thenReturn(mockAudit);
-        when(mockOrientationAudit.execute(any(), any(), any())).thenReturn(mockAudit);
-        when(mockInputPurposeAudit.execute(any(), any(), any())).thenReturn(mockAudit);
-        when(mockIdentifyPurposeAudit.execute(any(), any(), any())).thenReturn(mockAudit);
-        when(mockUseOfColorAudit.execute(any(), any(), any())).thenReturn(mockAudit);
-        when(mockAudioControlAudit.execute(any(), any(), any())).thenReturn(mockAudit);
-        when(mockVisualPresentationAudit.execute(any(), any(), any())).thenReturn(mockAudit);
-        when(mockReflowAudit.execute(any(), any(), any())).thenReturn(mockAudit);
-        when(mockTextSpacingAudit.execute(any(), any(), any())).thenReturn(mockAudit);
-        when(mockPageLanguageAudit.execute(any(), any(), any())).thenReturn(mockAudit);
-        when(mockLinksAudit.execute(any(), any(), any())).thenReturn(mockAudit);
-        when(mockTitleAndHeaderAudit.execute(any(), any(), any())).thenReturn(mockAudit);
-        when(mockSecurityAudit.execute(any(), any(), any())).thenReturn(mockAudit);
-        when(mockMetadataAudit.execute(any(), any(), any())).thenReturn(mockAudit);
+        when(mockHeaderStructureAudit.execute(any(PageContext.class), any(), any())).thenReturn(mockAudit);
+        when(mockTableStructureAudit.execute(any(PageContext.class), any(), any())).thenReturn(mockAudit);
+        when(mockFormStructureAudit.execute(any(PageContext.class), any(), any())).thenReturn(mockAudit);
+        when(mockOrientationAudit.execute(any(PageContext.class), any(), any())).thenReturn(mockAudit);
+        when(mockInputPurposeAudit.execute(any(PageContext.class), any(), any())).thenReturn(mockAudit);
+        when(mockIdentifyPurposeAudit.execute(any(PageContext.class), any(), any())).thenReturn(mockAudit);
+        when(mockUseOfColorAudit.execute(any(PageContext.class), any(), any())).thenReturn(mockAudit);
+        when(mockAudioControlAudit.execute(any(PageContext.class), any(), any())).thenReturn(mockAudit);
+        when(mockVisualPresentationAudit.execute(any(PageContext.class), any(), any())).thenReturn(mockAudit);
+        when(mockReflowAudit.execute(any(PageContext.class), any(), any())).thenReturn(mockAudit);
+        when(mockTextSpacingAudit.execute(any(PageContext.class), any(), any())).thenReturn(mockAudit);
+        when(mockPageLanguageAudit.execute(any(PageContext.class), any(), any())).thenReturn(mockAudit);
+        when(mockLinksAudit.execute(any(PageContext.class), any(), any())).thenReturn(mockAudit);
+        when(mockTitleAndHeaderAudit.execute(any(PageContext.class), any(), any())).thenReturn(mockAudit);
+        when(mockSecurityAudit.execute(any(PageContext.class), any(), any())).thenReturn(mockAudit);
+        when(mockMetadataAudit.execute(any(PageContext.class), any(), any())).thenReturn(mockAudit);
 
         ResponseEntity<String> response = controller.receiveMessage(body);
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertTrue(response.getBody().contains("Successfully audited"));
+        verify(mockAuditRecordService, times(16)).addAudit(1L, 1L);
     }
 
     @Test
@@ -251,9 +346,427 @@ public class AuditControllerTest {
         assertEquals(HttpStatus.OK, response.getStatusCode());
 
         // No audit should have been executed since all already exist
-        verify(mockHeaderStructureAudit, never()).execute(any(), any(), any());
-        verify(mockTableStructureAudit, never()).execute(any(), any(), any());
-        verify(mockLinksAudit, never()).execute(any(), any(), any());
+        verify(mockHeaderStructureAudit, never()).execute(any(PageContext.class), any(), any());
+        verify(mockTableStructureAudit, never()).execute(any(PageContext.class), any(), any());
+        verify(mockLinksAudit, never()).execute(any(PageContext.class), any(), any());
+    }
+
+    @Test
+    void testReceiveMessage_unchangedPageReusesCachedAudits() throws Exception {
+        String json = "{\"pageAuditId\":1,\"accountId\":100}";
+
+        AuditRecord mockRecord = mock(AuditRecord.class);
+        when(mockRecord.getId()).thenReturn(1L);
+        when(mockAuditRecordService.findById(1L)).thenReturn(Optional.of(mockRecord));
+
+        PageState mockPageState = mock(PageState.class);
+        when(mockPageState.getUrl()).thenReturn("https://example.com");
+        when(mockPageState.getSrc()).thenReturn("<html><body><h1>Unchanged</h1></body></html>");
+        when(mockPageStateService.getPageStateForAuditRecord(1L)).thenReturn(mockPageState);
+        when(mockAuditRecordService.getAllAudits(1L)).thenReturn(new HashSet<>());
+
+        Audit mockAudit = mock(Audit.class);
+        when(mockAudit.getId()).thenReturn(1L);
+        when(mockAuditService.save(any(Audit.class))).thenAnswer(inv -> {
+            Audit saved = inv.getArgument(0);
+            if (saved != mockAudit) {
+                saved.setId(99L);
+            }
+            return saved;
+        });
+        for (IExecutablePageContextAudit pageAudit : new IExecutablePageContextAudit[] {
+                mockHeaderStructureAudit, mockTableStructureAudit, mockFormStructureAudit, mockOrientationAudit,
+                mockInputPurposeAudit, mockIdentifyPurposeAudit, mockUseOfColorAudit, mockAudioControlAudit,
+                mockVisualPresentationAudit, mockReflowAudit, mockTextSpacingAudit, mockPageLanguageAudit,
+                mockLinksAudit, mockTitleAndHeaderAudit, mockSecurityAudit, mockMetadataAudit }) {
+            when(pageAudit.execute(any(PageContext.class), any(), any())).thenReturn(mockAudit);
+        }
+
+        AuditRecord secondRecord = mock(AuditRecord.class);
+        when(secondRecord.getId()).thenReturn(2L);
+        when(mockAuditRecordService.findById(2L)).thenReturn(Optional.of(secondRecord));
+        when(mockPageStateService.getPageStateForAuditRecord(2L)).thenReturn(mockPageState);
+        when(mockAuditRecordService.getAllAudits(2L)).thenReturn(new HashSet<>());
+
+        assertEquals(HttpStatus.OK, controller.receiveMessage(createBody(encodeBase64(json))).getStatusCode());
+        assertEquals(HttpStatus.OK, controller.receiveMessage(
+                createBody(encodeBase64("{\"pageAuditId\":2,\"accountId\":100}"))).getStatusCode());
+
+        // the second crawl of the page gets copies of the cached audits that depend only on its
+        // source; audits reading rendered styles or other sites run again
+        verify(mockMetadataAudit, times(1)).execute(any(PageContext.class), any(), any());
+        verify(mockLinksAudit, times(2)).execute(any(PageContext.class), any(), any());
+        verify(mockReflowAudit, times(2)).execute(any(PageContext.class), any(), any());
+        verify(mockTextSpacingAudit, times(2)).execute(any(PageContext.class), any(), any());
+        verify(mockAuditRecordService, times(16)).addAudit(1L, 1L);
+        verify(mockAuditRecordService, times(3)).addAudit(2L, 1L);
+        verify(mockAuditRecordService, times(13)).addAudit(2L, 99L);
+    }
+
+    @Test
+    void testReceiveMessage_failingAuditIsRecordedAsIncomplete() throws Exception {
+        Audit mockAudit = mock(Audit.class);
+        when(mockAudit.getId()).thenReturn(1L);
+        stubPageAudit(1L, mockAudit);
+        when(mockLinksAudit.execute(any(PageContext.class), any(), any())).thenThrow(new IllegalStateException("tarpit"));
+
+        ResponseEntity<String> response = controller.receiveMessage(
+                createBody(encodeBase64("{\"pageAuditId\":1,\"accountId\":100}")));
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertTrue(response.getBody().contains("incomplete audits: LINKS"));
+        verify(mockAuditRecordService, times(15)).addAudit(1L, 1L);
+        verify(mockAuditService, times(1)).save(any(Audit.class));
+
+        ArgumentCaptor<String> update = ArgumentCaptor.forClass(String.class);
+        verify(mockPubSubPublisher).publish(update.capture());
+        assertTrue(update.getValue().contains("incomplete audits: LINKS"));
+    }
+
+    @Test
+    void testReceiveMessage_countsSavedIssueMessages() throws Exception {
+        UXIssueMessage saved = mock(UXIssueMessage.class);
+        when(saved.getId()).thenReturn(5L);
+        Audit mockAudit = mock(Audit.class);
+        when(mockAudit.getId()).thenReturn(1L);
+        when(mockAudit.getMessages()).thenReturn(new HashSet<>(Arrays.asList(saved, mock(UXIssueMessage.class))));
+        stubPageAudit(1L, mockAudit);
+
+        controller.receiveMessage(createBody(encodeBase64("{\"pageAuditId\":1,\"accountId\":100}")));
+
+        assertEquals(1.0, meterRegistry.find("audit.issues.saved").tag("audit", "LINKS").counter().count());
+    }
+
+    @Test
+    void testReceiveMessage_duplicateDeliveryOfCompletedAuditIsIgnored() throws Exception {
+        Audit mockAudit = mock(Audit.class);
+        when(mockAudit.getId()).thenReturn(1L);
+        stubPageAudit(1L, mockAudit);
+        String json = "{\"pageAuditId\":1,\"accountId\":100}";
+
+        assertEquals(HttpStatus.OK, controller.receiveMessage(createBody(encodeBase64(json))).getStatusCode());
+        assertEquals(HttpStatus.OK, controller.receiveMessage(createBody(encodeBase64(json))).getStatusCode());
+
+        verify(mockAuditRecordService, times(1)).findById(1L);
+        verify(mockLinksAudit, times(1)).execute(any(PageContext.class), any(), any());
+        verify(mockAuditRecordService, times(16)).addAudit(1L, 1L);
+    }
+
+    @Test
+    void testReceiveMessage_waitsForAuditRunByConcurrentDelivery() throws Exception {
+        Audit mockAudit = mock(Audit.class);
+        when(mockAudit.getId()).thenReturn(1L);
+        stubPageAudit(1L, mockAudit);
+        assertNull(idempotencyGuard.claim(1L, AuditName.LINKS));
+
+        Thread owner = new Thread(() -> {
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            idempotencyGuard.complete(1L, AuditName.LINKS, 7L);
+        });
+        owner.start();
+
+        ResponseEntity<String> response = controller.receiveMessage(
+                createBody(encodeBase64("{\"pageAuditId\":1,\"accountId\":100}")));
+        owner.join();
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        verify(mockLinksAudit, never()).execute(any(PageContext.class), any(), any());
+        verify(mockAuditRecordService, times(15)).addAudit(1L, 1L);
+        verify(mockAuditRecordService, never()).addAudit(1L, 7L);
+    }
+
+    @Test
+    void testReceiveMessage_concurrentDeliveryFailureIsReported() throws Exception {
+        Audit mockAudit = mock(Audit.class);
+        when(mockAudit.getId()).thenReturn(1L);
+        stubPageAudit(1L, mockAudit);
+        assertNull(idempotencyGuard.claim(1L, AuditName.LINKS));
+
+        Thread owner = new Thread(() -> {
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            idempotencyGuard.release(1L, AuditName.LINKS, new IllegalStateException("owner failed"));
+        });
+        owner.start();
+
+        ResponseEntity<String> response = controller.receiveMessage(
+                createBody(encodeBase64("{\"pageAuditId\":1,\"accountId\":100}")));
+        owner.join();
+
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
+        verify(mockPubSubPublisher, never()).publish(anyString());
+        // the released audit can be claimed by a redelivery
+        assertNull(idempotencyGuard.claim(1L, AuditName.LINKS));
+    }
+
+    @Test
+    void testReceiveMessage_concurrentDeliveryStillRunningAsksForRedelivery() throws Exception {
+        injectField("duplicate_wait_ms", 100L);
+        Audit mockAudit = mock(Audit.class);
+        when(mockAudit.getId()).thenReturn(1L);
+        stubPageAudit(1L, mockAudit);
+        assertNull(idempotencyGuard.claim(1L, AuditName.LINKS));
+
+        ResponseEntity<String> response = controller.receiveMessage(
+                createBody(encodeBase64("{\"pageAuditId\":1,\"accountId\":100}")));
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+        verify(mockPubSubPublisher, never()).publish(anyString());
+        verify(mockLinksAudit, never()).execute(any(PageContext.class), any(), any());
+        verify(mockAuditRecordService, times(15)).addAudit(1L, 1L);
+        // the owner still holds the audit
+        assertFalse(idempotencyGuard.claim(1L, AuditName.LINKS).isDone());
+    }
+
+    @Test
+    void testReceiveMessage_claimsAreReleasedWhenProgressCannotStart() throws Exception {
+        Audit mockAudit = mock(Audit.class);
+        when(mockAudit.getId()).thenReturn(1L);
+        stubPageAudit(1L, mockAudit);
+        AuditProgressPublisher failingPublisher = mock(AuditProgressPublisher.class);
+        when(failingPublisher.start(anyLong(), anyLong(), anyInt(), anyInt())).thenThrow(new IllegalStateException("boom"));
+        injectField("audit_progress_publisher", failingPublisher);
+
+        assertThrows(IllegalStateException.class, () -> controller.receiveMessage(
+                createBody(encodeBase64("{\"pageAuditId\":1,\"accountId\":100}"))));
+
+        // a redelivery can run every audit again
+        assertNull(idempotencyGuard.claim(1L, AuditName.LINKS));
+        assertNull(idempotencyGuard.claim(1L, AuditName.TITLES));
+    }
+
+    @Test
+    void testReceiveMessage_asyncIntakeAcksBeforeAuditing() throws Exception {
+        AuditIntakeQueue mockQueue = mock(AuditIntakeQueue.class);
+        when(mockQueue.submit(any(Runnable.class))).thenReturn(true);
+        injectField("audit_intake_queue", mockQueue);
+        injectField("async_intake", true);
+
+        Audit mockAudit = mock(Audit.class);
+        when(mockAudit.getId()).thenReturn(1L);
+        stubPageAudit(1L, mockAudit);
+
+        ResponseEntity<String> response = controller.receiveMessage(
+                createBody(encodeBase64("{\"pageAuditId\":1,\"accountId\":100}")));
+
+        assertEquals(HttpStatus.ACCEPTED, response.getStatusCode());
+        verify(mockLinksAudit, never()).execute(any(PageContext.class), any(), any());
+
+        ArgumentCaptor<Runnable> task = ArgumentCaptor.forClass(Runnable.class);
+        verify(mockQueue).submit(task.capture());
+        task.getValue().run();
+
+        verify(mockLinksAudit, times(1)).execute(any(PageContext.class), any(), any());
+        verify(mockAuditRecordService, times(16)).addAudit(1L, 1L);
+        verify(mockPubSubPublisher, times(1)).publish(anyString());
+    }
+
+    @Test
+    void testReceiveMessage_asyncIntakeQueueFull() throws Exception {
+        AuditIntakeQueue mockQueue = mock(AuditIntakeQueue.class);
+        when(mockQueue.submit(any(Runnable.class))).thenReturn(false);
+        injectField("audit_intake_queue", mockQueue);
+        injectField("async_intake", true);
+
+        ResponseEntity<String> response = controller.receiveMessage(
+                createBody(encodeBase64("{\"pageAuditId\":1,\"accountId\":100}")));
+
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, response.getStatusCode());
+        verifyNoInteractions(mockAuditRecordService);
+    }
+
+    @Test
+    void testReceiveMessage_asyncIntakeStillRejectsInvalidPayload() throws Exception {
+        AuditIntakeQueue mockQueue = mock(AuditIntakeQueue.class);
+        injectField("audit_intake_queue", mockQueue);
+        injectField("async_intake", true);
+
+        ResponseEntity<String> response = controller.receiveMessage(createBody(encodeBase64("not-json-at-all")));
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        verifyNoInteractions(mockQueue);
+    }
+
+    // --- batch tests ---
+
+    @Test
+    void testReceiveBatch_auditsEveryPageOnce() throws Exception {
+        Audit mockAudit = mock(Audit.class);
+        when(mockAudit.getId()).thenReturn(1L);
+        stubPageAudit(1L, mockAudit);
+        stubPageAudit(2L, mockAudit);
+        String json = "[{\"pageAuditId\":1,\"accountId\":100},{\"pageAuditId\":2,\"accountId\":100},"
+                + "{\"pageAuditId\":1,\"accountId\":100}]";
+
+        ResponseEntity<String> response = controller.receiveBatch(createBody(encodeBase64(json)));
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("Audited 2 of 2 pages; 0 not found; 0 failed", response.getBody());
+        verify(mockAuditRecordService, times(1)).findById(1L);
+        verify(mockAuditRecordService, times(16)).addAudit(1L, 1L);
+        verify(mockAuditRecordService, times(16)).addAudit(2L, 1L);
+
+        // one final update per page and one summary for the account
+        ArgumentCaptor<String> updates = ArgumentCaptor.forClass(String.class);
+        verify(mockPubSubPublisher, times(3)).publish(updates.capture());
+        assertTrue(updates.getAllValues().get(2).contains("2 of 2 pages in batch"));
+    }
+
+    @Test
+    void testReceiveBatch_missingRecordIsNotRetried() throws Exception {
+        Audit mockAudit = mock(Audit.class);
+        when(mockAudit.getId()).thenReturn(1L);
+        stubPageAudit(1L, mockAudit);
+        when(mockAuditRecordService.findById(3L)).thenReturn(Optional.empty());
+        String json = "[{\"pageAuditId\":1,\"accountId\":100},{\"pageAuditId\":3,\"accountId\":100}]";
+
+        ResponseEntity<String> response = controller.receiveBatch(createBody(encodeBase64(json)));
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("Audited 1 of 2 pages; 1 not found; 0 failed", response.getBody());
+    }
+
+    @Test
+    void testReceiveBatch_failedPageRequestsRedelivery() throws Exception {
+        Audit mockAudit = mock(Audit.class);
+        when(mockAudit.getId()).thenReturn(1L);
+        stubPageAudit(1L, mockAudit);
+        AuditRecord brokenRecord = mock(AuditRecord.class);
+        when(brokenRecord.getId()).thenReturn(2L);
+        when(mockAuditRecordService.findById(2L)).thenReturn(Optional.of(brokenRecord));
+        when(mockPageStateService.getPageStateForAuditRecord(2L)).thenThrow(new IllegalStateException("database unavailable"));
+        String json = "[{\"pageAuditId\":1,\"accountId\":100},{\"pageAuditId\":2,\"accountId\":100}]";
+
+        ResponseEntity<String> response = controller.receiveBatch(createBody(encodeBase64(json)));
+
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
+        assertEquals("Audited 1 of 2 pages; 0 not found; 1 failed", response.getBody());
+        verify(mockAuditRecordService, times(16)).addAudit(1L, 1L);
+    }
+
+    @Test
+    void testReceiveBatch_loadsInputsOfWholeBatchAtOnce() throws Exception {
+        Audit mockAudit = mock(Audit.class);
+        when(mockAudit.getId()).thenReturn(1L);
+        stubPageAudit(1L, mockAudit);
+        stubPageAudit(2L, mockAudit);
+        AuditRecordBatchLoader loader = mock(AuditRecordBatchLoader.class);
+        Map<Long, PageAuditInputs> inputs = new HashMap<>();
+        for (long id : new long[] { 1L, 2L }) {
+            AuditRecord record = mock(AuditRecord.class);
+            when(record.getId()).thenReturn(id);
+            inputs.put(id, new PageAuditInputs(record, mock(PageState.class), new HashSet<>()));
+        }
+        when(loader.loadAll(any())).thenReturn(inputs);
+        injectField("audit_record_batch_loader", loader);
+        String json = "[{\"pageAuditId\":1,\"accountId\":100},{\"pageAuditId\":2,\"accountId\":100},"
+                + "{\"pageAuditId\":3,\"accountId\":100}]";
+
+        ResponseEntity<String> response = controller.receiveBatch(createBody(encodeBase64(json)));
+
+        assertEquals("Audited 2 of 3 pages; 1 not found; 0 failed", response.getBody());
+        verify(loader, times(1)).loadAll(any());
+        verify(mockAuditRecordService, never()).findById(anyLong());
+        verify(mockPageStateService, never()).getPageStateForAuditRecord(anyLong());
+        verify(mockAuditRecordService, never()).getAllAudits(anyLong());
+        verify(mockAuditRecordService, times(16)).addAudit(1L, 1L);
+        verify(mockAuditRecordService, times(16)).addAudit(2L, 1L);
+    }
+
+    @Test
+    void testReceiveBatch_asyncIntakeQueuesEveryPage() throws Exception {
+        AuditIntakeQueue mockQueue = mock(AuditIntakeQueue.class);
+        when(mockQueue.getCapacity()).thenReturn(32);
+        when(mockQueue.submitAll(any())).thenReturn(true);
+        injectField("audit_intake_queue", mockQueue);
+        injectField("async_intake", true);
+        Audit mockAudit = mock(Audit.class);
+        when(mockAudit.getId()).thenReturn(1L);
+        stubPageAudit(1L, mockAudit);
+        stubPageAudit(2L, mockAudit);
+        String json = "[{\"pageAuditId\":1,\"accountId\":100},{\"pageAuditId\":2,\"accountId\":100}]";
+
+        ResponseEntity<String> response = controller.receiveBatch(createBody(encodeBase64(json)));
+
+        assertEquals(HttpStatus.ACCEPTED, response.getStatusCode());
+        verifyNoInteractions(mockAuditRecordService);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Runnable>> tasks = ArgumentCaptor.forClass(List.class);
+        verify(mockQueue).submitAll(tasks.capture());
+        assertEquals(2, tasks.getValue().size());
+        tasks.getValue().get(0).run();
+        // the summary is published by the last page
+        verify(mockPubSubPublisher, times(1)).publish(anyString());
+        tasks.getValue().get(1).run();
+
+        verify(mockAuditRecordService, times(1)).findById(1L);
+        verify(mockAuditRecordService, times(16)).addAudit(1L, 1L);
+        verify(mockAuditRecordService, times(16)).addAudit(2L, 1L);
+        ArgumentCaptor<String> updates = ArgumentCaptor.forClass(String.class);
+        verify(mockPubSubPublisher, times(3)).publish(updates.capture());
+        assertTrue(updates.getAllValues().get(2).contains("2 of 2 pages in batch"));
+    }
+
+    @Test
+    void testReceiveBatch_asyncIntakeRefusesBatchThatDoesNotFit() throws Exception {
+        AuditIntakeQueue mockQueue = mock(AuditIntakeQueue.class);
+        when(mockQueue.getCapacity()).thenReturn(1);
+        injectField("audit_intake_queue", mockQueue);
+        injectField("async_intake", true);
+        String json = "[{\"pageAuditId\":1,\"accountId\":100},{\"pageAuditId\":2,\"accountId\":100}]";
+
+        assertEquals(HttpStatus.PAYLOAD_TOO_LARGE, controller.receiveBatch(createBody(encodeBase64(json))).getStatusCode());
+
+        when(mockQueue.getCapacity()).thenReturn(32);
+        when(mockQueue.submitAll(any())).thenReturn(false);
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, controller.receiveBatch(createBody(encodeBase64(json))).getStatusCode());
+        verifyNoInteractions(mockAuditRecordService);
+    }
+
+    @Test
+    void testReceiveBatch_pagesThatCannotFinishInBudgetAreDeferred() throws Exception {
+        // pages may only start within 100 ms of receiving the batch
+        injectField("duplicate_wait_ms", 0L);
+        injectField("batch_time_budget_ms", 300000L + 100L);
+        Audit mockAudit = mock(Audit.class);
+        when(mockAudit.getId()).thenReturn(1L);
+        stubPageAudit(1L, mockAudit);
+        stubPageAudit(2L, mockAudit);
+        when(mockAuditRecordService.getAllAudits(2L)).thenAnswer(inv -> {
+            Thread.sleep(300);
+            return new HashSet<>();
+        });
+        String json = "[{\"pageAuditId\":1,\"accountId\":100},{\"pageAuditId\":2,\"accountId\":100}]";
+
+        ResponseEntity<String> response = controller.receiveBatch(createBody(encodeBase64(json)));
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+        assertEquals("Audited 0 of 2 pages; 0 not found; 0 failed; 2 deferred", response.getBody());
+        verify(mockLinksAudit, never()).execute(any(PageContext.class), any(), any());
+    }
+
+    @Test
+    void testReceiveBatch_rejectsInvalidBatches() throws Exception {
+        assertEquals(HttpStatus.BAD_REQUEST, controller.receiveBatch(null).getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST,
+                controller.receiveBatch(createBody(encodeBase64("{\"pageAuditId\":1,\"accountId\":100}"))).getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST, controller.receiveBatch(createBody(encodeBase64("[]"))).getStatusCode());
+        ResponseEntity<String> invalidEncoding = controller.receiveBatch(createBody("!!!not-valid-base64!!!"));
+        assertEquals(HttpStatus.BAD_REQUEST, invalidEncoding.getStatusCode());
+        assertTrue(invalidEncoding.getBody().contains("base64"));
+
+        injectField("batch_max_size", 1);
+        String json = "[{\"pageAuditId\":1,\"accountId\":100},{\"pageAuditId\":2,\"accountId\":100}]";
+        assertEquals(HttpStatus.PAYLOAD_TOO_LARGE, controller.receiveBatch(createBody(encodeBase64(json))).getStatusCode());
+        verifyNoInteractions(mockAuditRecordService);
     }
 
     // --- auditAlreadyExists tests ---
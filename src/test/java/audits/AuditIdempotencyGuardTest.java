@@ -0,0 +1,128 @@
+package audits;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.reflect.Field;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.looksee.audit.informationArchitecture.services.AuditIdempotencyGuard;
+import com.looksee.models.enums.AuditName;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class AuditIdempotencyGuardTest {
+
+    private AuditIdempotencyGuard guard;
+    private SimpleMeterRegistry registry;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        guard = new AuditIdempotencyGuard();
+        registry = new SimpleMeterRegistry();
+        setField("meter_registry", registry);
+    }
+
+    private void setField(String name, Object value) throws Exception {
+        Field f = AuditIdempotencyGuard.class.getDeclaredField(name);
+        f.setAccessible(true);
+        f.set(guard, value);
+    }
+
+    private double claims(String result) {
+        return registry.counter("audit.idempotency.claims", "result", result).count();
+    }
+
+    @Test
+    void testClaim_duplicatesShareOwnersResult() throws Exception {
+        assertNull(guard.claim(1L, AuditName.LINKS));
+
+        CompletableFuture<Long> duplicate = guard.claim(1L, AuditName.LINKS);
+        assertNotNull(duplicate);
+        assertFalse(duplicate.isDone());
+        assertNull(guard.claim(1L, AuditName.METADATA));
+        assertNull(guard.claim(2L, AuditName.LINKS));
+
+        guard.complete(1L, AuditName.LINKS, 42L);
+
+        assertEquals(Long.valueOf(42L), duplicate.get());
+        assertEquals(Long.valueOf(42L), guard.claim(1L, AuditName.LINKS).get());
+        assertEquals(3.0, claims("claimed"));
+        assertEquals(1.0, claims("in_flight"));
+        assertEquals(1.0, claims("completed"));
+    }
+
+    @Test
+    void testRelease_failsDuplicatesAndAllowsRetry() {
+        assertNull(guard.claim(1L, AuditName.LINKS));
+        CompletableFuture<Long> duplicate = guard.claim(1L, AuditName.LINKS);
+
+        guard.release(1L, AuditName.LINKS, new IllegalStateException("audit failed"));
+
+        ExecutionException e = assertThrows(ExecutionException.class, duplicate::get);
+        assertTrue(e.getCause() instanceof IllegalStateException);
+        assertNull(guard.claim(1L, AuditName.LINKS));
+    }
+
+    @Test
+    void testRelease_ignoresCompletedJobs() throws Exception {
+        assertNull(guard.claim(1L, AuditName.LINKS));
+        guard.complete(1L, AuditName.LINKS, 42L);
+
+        guard.release(1L, AuditName.LINKS, new IllegalStateException("late failure"));
+
+        assertEquals(Long.valueOf(42L), guard.claim(1L, AuditName.LINKS).get());
+    }
+
+    @Test
+    void testIsCompleted_requiresEveryAudit() {
+        List<AuditName> names = List.of(AuditName.LINKS, AuditName.METADATA);
+        guard.claim(1L, AuditName.LINKS);
+        guard.claim(1L, AuditName.METADATA);
+        guard.complete(1L, AuditName.LINKS, 1L);
+
+        assertFalse(guard.isCompleted(1L, names));
+
+        guard.complete(1L, AuditName.METADATA, 2L);
+        assertTrue(guard.isCompleted(1L, names));
+        assertFalse(guard.isCompleted(2L, names));
+    }
+
+    @Test
+    void testCompletedJobs_expireAfterTtl() throws Exception {
+        setField("completed_ttl_ms", 0L);
+        guard.claim(1L, AuditName.LINKS);
+        guard.complete(1L, AuditName.LINKS, 1L);
+
+        assertFalse(guard.isCompleted(1L, List.of(AuditName.LINKS)));
+        assertNull(guard.claim(1L, AuditName.LINKS));
+    }
+
+    @Test
+    void testMaxSize_keepsJobsStillRunning() throws Exception {
+        setField("max_size", 1);
+        assertNull(guard.claim(1L, AuditName.LINKS));
+        assertNull(guard.claim(2L, AuditName.LINKS));
+
+        assertNotNull(guard.claim(1L, AuditName.LINKS));
+        assertEquals(2, guard.size());
+    }
+
+    @Test
+    void testMaxSize_evictsCompletedJobsBehindRunningOne() throws Exception {
+        setField("max_size", 2);
+        assertNull(guard.claim(1L, AuditName.LINKS));
+        for (long id = 2; id <= 10; id++) {
+            assertNull(guard.claim(id, AuditName.LINKS));
+            guard.complete(id, AuditName.LINKS, id);
+        }
+
+        assertEquals(2, guard.size());
+        assertFalse(guard.claim(1L, AuditName.LINKS).isDone());
+        assertTrue(guard.isCompleted(10L, List.of(AuditName.LINKS)));
+    }
+}
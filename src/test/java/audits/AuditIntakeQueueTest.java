@@ -0,0 +1,109 @@
+package audits;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.reflect.Field;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.looksee.audit.informationArchitecture.services.AuditIntakeQueue;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class AuditIntakeQueueTest {
+
+    private AuditIntakeQueue queue;
+    private SimpleMeterRegistry registry;
+    private CountDownLatch release;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        queue = new AuditIntakeQueue();
+        registry = new SimpleMeterRegistry();
+        release = new CountDownLatch(1);
+        setField("meter_registry", registry);
+        setField("workers", 1);
+        setField("queue_capacity", 1);
+        setField("shutdown_grace_ms", 5000L);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        release.countDown();
+        queue.shutdown();
+    }
+
+    private void setField(String name, Object value) throws Exception {
+        Field f = AuditIntakeQueue.class.getDeclaredField(name);
+        f.setAccessible(true);
+        f.set(queue, value);
+    }
+
+    private void blockUntilReleased() {
+        try {
+            release.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Test
+    void testSubmit_refusesWorkWhenQueueIsFull() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        assertTrue(queue.submit(() -> {
+            started.countDown();
+            blockUntilReleased();
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        assertTrue(queue.submit(this::blockUntilReleased));
+        assertEquals(1, queue.depth());
+
+        assertFalse(queue.submit(() -> {}));
+        assertEquals(1.0, registry.counter("audit.intake.rejected").count());
+    }
+
+    @Test
+    void testSubmitAll_queuesAllTasksOrNone() throws Exception {
+        setField("queue_capacity", 2);
+        CountDownLatch started = new CountDownLatch(1);
+        assertTrue(queue.submit(() -> {
+            started.countDown();
+            blockUntilReleased();
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        assertFalse(queue.submitAll(List.of(() -> {}, () -> {}, () -> {})));
+        assertEquals(0, queue.depth());
+        assertEquals(3.0, registry.counter("audit.intake.rejected").count());
+
+        assertTrue(queue.submitAll(List.of(this::blockUntilReleased, this::blockUntilReleased)));
+        assertEquals(2, queue.depth());
+    }
+
+    @Test
+    void testSubmit_recordsQueueWait() throws Exception {
+        CountDownLatch done = new CountDownLatch(1);
+        assertTrue(queue.submit(done::countDown));
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(1, registry.timer("audit.intake.queue.wait").count());
+    }
+
+    @Test
+    void testShutdown_finishesAcceptedWork() throws Exception {
+        CountDownLatch done = new CountDownLatch(2);
+        assertTrue(queue.submit(done::countDown));
+        assertTrue(queue.submit(done::countDown));
+
+        queue.shutdown();
+
+        assertEquals(0, done.getCount());
+        assertFalse(queue.submit(() -> {}));
+    }
+}
@@ -0,0 +1,68 @@
+package audits;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.looksee.audit.informationArchitecture.services.AuditMessageCodec;
+import com.looksee.models.message.PageAuditMessage;
+
+public class AuditMessageCodecTest {
+
+    private String encodeBase64(String value) {
+        return Base64.getEncoder().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testReadPageAuditMessage_decodesStreamedPayload() throws Exception {
+        PageAuditMessage msg = AuditMessageCodec.readPageAuditMessage(encodeBase64("{\"pageAuditId\":7,\"accountId\":3}"));
+        assertEquals(Long.valueOf(7), Long.valueOf(msg.getPageAuditId()));
+        assertEquals(Long.valueOf(3), Long.valueOf(msg.getAccountId()));
+    }
+
+    @Test
+    void testReadPageAuditBatch_decodesArray() throws Exception {
+        PageAuditMessage[] msgs = AuditMessageCodec.readPageAuditBatch(
+                encodeBase64("[{\"pageAuditId\":1,\"accountId\":3},{\"pageAuditId\":2,\"accountId\":3}]"));
+        assertEquals(2, msgs.length);
+        assertEquals(Long.valueOf(2), Long.valueOf(msgs[1].getPageAuditId()));
+    }
+
+    @Test
+    void testReadPageAuditMessage_invalidBase64IsNotReportedAsInvalidJson() {
+        IOException e = assertThrows(IOException.class,
+                () -> AuditMessageCodec.readPageAuditMessage("!!!not-valid-base64!!!"));
+        assertFalse(e instanceof JsonProcessingException);
+    }
+
+    @Test
+    void testReadPageAuditMessage_nonAsciiDataIsNotBase64() {
+        // U+0141 would read as 'A' if characters were simply truncated to bytes
+        IOException e = assertThrows(IOException.class,
+                () -> AuditMessageCodec.readPageAuditMessage("ŁŁŁŁ"));
+        assertFalse(e instanceof JsonProcessingException);
+    }
+
+    @Test
+    void testReadPageAuditMessage_invalidJson() {
+        assertThrows(JsonProcessingException.class,
+                () -> AuditMessageCodec.readPageAuditMessage(encodeBase64("not-json-at-all")));
+    }
+
+    @Test
+    void testPreview_capsDecodedLength() {
+        String data = encodeBase64("{\"pageAuditId\":7,\"accountId\":3}");
+        assertEquals("{\"pageAudit...", AuditMessageCodec.preview(data, 11));
+        assertEquals("{\"pageAuditId\":7,\"accountId\":3}", AuditMessageCodec.preview(data, 1000));
+    }
+
+    @Test
+    void testPreview_invalidBase64() {
+        assertTrue(AuditMessageCodec.preview("!!!!", 10).contains("not base64 encoded"));
+    }
+}
@@ -0,0 +1,154 @@
+package audits;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+import java.lang.reflect.Field;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.looksee.audit.informationArchitecture.services.AuditProgressPublisher;
+import com.looksee.gcp.PubSubAuditUpdatePublisherImpl;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class AuditProgressPublisherTest {
+
+    private AuditProgressPublisher publisher;
+    private SimpleMeterRegistry registry;
+    private List<String> published;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        publisher = new AuditProgressPublisher();
+        registry = new SimpleMeterRegistry();
+        published = new CopyOnWriteArrayList<>();
+        PubSubAuditUpdatePublisherImpl topic = mock(PubSubAuditUpdatePublisherImpl.class);
+        doAnswer(inv -> {
+            published.add(inv.getArgument(0));
+            return null;
+        }).when(topic).publish(anyString());
+        setField("audit_update_topic", topic);
+        setField("meter_registry", registry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        publisher.shutdown();
+    }
+
+    private void setField(String name, Object value) throws Exception {
+        Field f = AuditProgressPublisher.class.getDeclaredField(name);
+        f.setAccessible(true);
+        f.set(publisher, value);
+    }
+
+    private void awaitPublished(int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (published.size() < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(count, published.size());
+    }
+
+    @Test
+    void testAuditFinished_firstUpdateIsPublishedRightAway() throws Exception {
+        AuditProgressPublisher.Tracker tracker = publisher.start(100L, 1L, 4, 1);
+
+        tracker.auditFinished(true);
+
+        awaitPublished(1);
+        assertTrue(published.get(0).contains("Completed 2 of 4"));
+        assertEquals(0.5, tracker.getProgress());
+    }
+
+    @Test
+    void testAuditFinished_burstsAreCoalesced() throws Exception {
+        setField("min_interval_ms", 300L);
+        AuditProgressPublisher.Tracker tracker = publisher.start(100L, 1L, 5, 0);
+
+        tracker.auditFinished(true);
+        awaitPublished(1);
+        tracker.auditFinished(true);
+        tracker.auditFinished(true);
+        tracker.auditFinished(true);
+
+        awaitPublished(2);
+        Thread.sleep(400);
+        assertEquals(2, published.size());
+        assertTrue(published.get(1).contains("Completed 4 of 5"));
+        assertEquals(2.0, registry.counter("audit.progress.coalesced").count());
+        assertEquals(2.0, registry.counter("audit.progress.published").count());
+    }
+
+    @Test
+    void testAuditFinished_failedAuditsDoNotCount() throws Exception {
+        AuditProgressPublisher.Tracker tracker = publisher.start(100L, 1L, 4, 0);
+
+        tracker.auditFinished(false);
+        tracker.auditFinished(false);
+
+        Thread.sleep(100);
+        assertTrue(published.isEmpty());
+        assertEquals(0.0, tracker.getProgress());
+
+        tracker.auditFinished(true);
+        awaitPublished(1);
+        assertTrue(published.get(0).contains("Completed 1 of 4"));
+    }
+
+    @Test
+    void testAuditFinished_completionIsLeftToTheFinalUpdate() throws Exception {
+        setField("min_interval_ms", 300L);
+        AuditProgressPublisher.Tracker tracker = publisher.start(100L, 1L, 3, 1);
+
+        tracker.auditFinished(true);
+        awaitPublished(1);
+        tracker.auditFinished(true);
+
+        Thread.sleep(500);
+        assertEquals(1, published.size());
+        assertTrue(published.get(0).contains("Completed 2 of 3"));
+        assertEquals(1.0, tracker.getProgress());
+    }
+
+    @Test
+    void testClose_stopsPendingUpdates() throws Exception {
+        setField("min_interval_ms", 300L);
+        AuditProgressPublisher.Tracker tracker = publisher.start(100L, 1L, 4, 0);
+        tracker.auditFinished(true);
+        awaitPublished(1);
+
+        tracker.auditFinished(true);
+        tracker.close();
+        tracker.auditFinished(true);
+
+        Thread.sleep(500);
+        assertEquals(1, published.size());
+        assertEquals(0.75, tracker.getProgress());
+    }
+
+    @Test
+    void testAuditFinished_nothingPublishedWhenIncrementalUpdatesAreOff() throws Exception {
+        setField("incremental", false);
+        AuditProgressPublisher.Tracker tracker = publisher.start(100L, 1L, 2, 0);
+
+        tracker.auditFinished(true);
+        tracker.auditFinished(true);
+
+        Thread.sleep(100);
+        assertTrue(published.isEmpty());
+        assertEquals(1.0, tracker.getProgress());
+    }
+
+    @Test
+    void testStart_rejectsInvalidCounts() {
+        assertThrows(IllegalArgumentException.class, () -> publisher.start(100L, 1L, 0, 0));
+        assertThrows(IllegalArgumentException.class, () -> publisher.start(100L, 1L, 2, 3));
+    }
+}
@@ -0,0 +1,230 @@
+package audits;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import java.lang.reflect.Field;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.looksee.audit.informationArchitecture.audits.PageContext;
+import com.looksee.audit.informationArchitecture.services.AuditResultCache;
+import com.looksee.audit.informationArchitecture.services.CachedAudit;
+import com.looksee.models.ElementState;
+import com.looksee.models.PageState;
+import com.looksee.models.audit.Audit;
+import com.looksee.models.audit.messages.ElementStateIssueMessage;
+import com.looksee.models.audit.messages.UXIssueMessage;
+import com.looksee.models.enums.AuditCategory;
+import com.looksee.models.enums.AuditLevel;
+import com.looksee.models.enums.AuditName;
+import com.looksee.models.enums.AuditSubcategory;
+import com.looksee.models.enums.ObservationType;
+import com.looksee.models.enums.Priority;
+import com.looksee.services.ElementStateService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class AuditResultCacheTest {
+
+    private AuditResultCache cache;
+    private SimpleMeterRegistry registry;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        cache = new AuditResultCache();
+        registry = new SimpleMeterRegistry();
+        setField("meter_registry", registry);
+    }
+
+    private void setField(String name, Object value) throws Exception {
+        Field f = AuditResultCache.class.getDeclaredField(name);
+        f.setAccessible(true);
+        f.set(cache, value);
+    }
+
+    private Audit audit(AuditName name, int points) {
+        Set<UXIssueMessage> messages = new HashSet<>();
+        messages.add(new UXIssueMessage(Priority.LOW, "Description", ObservationType.SEO, AuditCategory.INFORMATION_ARCHITECTURE,
+                "", new HashSet<>(), "Why", "Title", points, 3, "Recommendation"));
+        return new Audit(AuditCategory.INFORMATION_ARCHITECTURE, AuditSubcategory.SEO, name, points, messages,
+                AuditLevel.PAGE, 3, "https://example.com", "Why", "Description", false);
+    }
+
+    private PageState page(String url, String src) {
+        PageState pageState = mock(PageState.class);
+        when(pageState.getUrl()).thenReturn(url);
+        when(pageState.getSrc()).thenReturn(src);
+        return pageState;
+    }
+
+    @Test
+    void testContentKey_dependsOnSourceUrlAndVersion() throws Exception {
+        String key = cache.contentKey(page("https://example.com", "<html>a</html>"));
+
+        assertEquals(key, cache.contentKey(page("https://example.com", "<html>a</html>")));
+        assertNotEquals(key, cache.contentKey(page("https://example.com", "<html>b</html>")));
+        assertNotEquals(key, cache.contentKey(page("https://example.com/other", "<html>a</html>")));
+
+        setField("version", "2");
+        assertNotEquals(key, cache.contentKey(page("https://example.com", "<html>a</html>")));
+    }
+
+    @Test
+    void testContentKey_nullWithoutSourceOrWhenDisabled() throws Exception {
+        assertNull(cache.contentKey(page("https://example.com", null)));
+
+        setField("enabled", false);
+        assertNull(cache.contentKey(page("https://example.com", "<html></html>")));
+    }
+
+    @Test
+    void testStoreAndFind_perAuditName() {
+        String key = cache.contentKey(page("https://example.com", "<html></html>"));
+        cache.store(key, AuditName.METADATA, audit(AuditName.METADATA, 3));
+
+        assertNotNull(cache.find(key, AuditName.METADATA));
+        assertNull(cache.find(key, AuditName.TITLES));
+        assertNull(cache.find(null, AuditName.METADATA));
+        assertEquals(1.0, registry.counter("audit.result_cache.lookups", "result", "hit").count());
+        assertEquals(1.0, registry.counter("audit.result_cache.lookups", "result", "miss").count());
+    }
+
+    @Test
+    void testAuditsReadingRenderedStylesOrOtherSites_areNotCached() {
+        String key = cache.contentKey(page("https://example.com", "<html></html>"));
+        for (AuditName name : new AuditName[] { AuditName.LINKS, AuditName.REFLOW, AuditName.TEXT_SPACING }) {
+            assertFalse(AuditResultCache.isCacheable(name));
+            cache.store(key, name, audit(name, 1));
+            assertNull(cache.find(key, name));
+        }
+        assertTrue(AuditResultCache.isCacheable(AuditName.METADATA));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void testFind_returnsSnapshotThatCopiesOntoNewPage() {
+        String key = cache.contentKey(page("https://example.com", "<html></html>"));
+        Audit original = audit(AuditName.METADATA, 3);
+        original.setId(7L);
+        cache.store(key, AuditName.METADATA, original);
+
+        PageContext pageContext = new PageContext(page("https://example.com/", "<html></html>"));
+        CachedAudit cached = cache.find(key, AuditName.METADATA);
+        Audit first = cached.copyFor(pageContext, mock(ElementStateService.class));
+        Audit second = cached.copyFor(pageContext, mock(ElementStateService.class));
+
+        assertNotSame(original, first);
+        assertNotSame(first, second);
+        assertNull(first.getId());
+        assertEquals(3, first.getPoints());
+        assertEquals(1, cached.getMessageCount());
+        assertEquals(1, first.getMessages().size());
+        assertNotSame(original.getMessages().iterator().next(), first.getMessages().iterator().next());
+        assertEquals("https://example.com/", first.getUrl());
+    }
+
+    private static List<Object> persistedFields(UXIssueMessage message) {
+        return Arrays.asList(message.getClass(), message.getPriority(), message.getDescription(), message.getType(),
+                message.getCategory(), message.getWcagCompliance(), message.getLabels(), message.getWhyItMatters(),
+                message.getTitle(), message.getPoints(), message.getMaxPoints(), message.getRecommendation(),
+                message instanceof ElementStateIssueMessage ? ((ElementStateIssueMessage) message).getElement() : null);
+    }
+
+    @Test
+    void testCopy_persistsSameFieldsAsFreshRun() {
+        ElementState element = mock(ElementState.class);
+        when(element.getCssSelector()).thenReturn("#main a");
+        Set<String> labels = new HashSet<>();
+        labels.add("links");
+        labels.add(null);
+        ElementStateIssueMessage elementMessage = new ElementStateIssueMessage(Priority.HIGH, "Element description",
+                "Element recommendation", element, AuditCategory.INFORMATION_ARCHITECTURE, labels, "WCAG 2.4.4",
+                "Element title", 0, 1);
+        elementMessage.setWhyItMatters("Element why");
+        elementMessage.setType(ObservationType.ELEMENT);
+        UXIssueMessage pageMessage = new UXIssueMessage(Priority.LOW, "Page description", ObservationType.SEO,
+                AuditCategory.INFORMATION_ARCHITECTURE, "", new HashSet<>(), "Page why", "Page title", 1, 1,
+                "Page recommendation");
+        Set<UXIssueMessage> messages = new HashSet<>();
+        messages.add(elementMessage);
+        messages.add(pageMessage);
+        Audit fresh = new Audit(AuditCategory.INFORMATION_ARCHITECTURE, AuditSubcategory.SEO, AuditName.METADATA, 1,
+                messages, AuditLevel.PAGE, 2, "https://example.com", "Why", "Description", false);
+
+        ElementStateService elementStateService = mock(ElementStateService.class);
+        when(elementStateService.findByPageAndCssSelector(anyLong(), eq("#main a"))).thenReturn(element);
+        PageState pageState = page("https://example.com", "<html></html>");
+        when(pageState.getId()).thenReturn(1L);
+        Audit copy = CachedAudit.of(fresh).copyFor(new PageContext(pageState), elementStateService);
+
+        assertEquals(2, copy.getMessages().size());
+        for (UXIssueMessage original : fresh.getMessages()) {
+            UXIssueMessage copied = copy.getMessages().stream()
+                    .filter(message -> message.getTitle().equals(original.getTitle()))
+                    .findFirst()
+                    .orElseThrow();
+            assertNotSame(original, copied);
+            assertEquals(persistedFields(original), persistedFields(copied));
+        }
+    }
+
+    @Test
+    void testAuditWithOtherMessageType_isNotCached() {
+        Set<UXIssueMessage> messages = new HashSet<>();
+        messages.add(new UXIssueMessage(Priority.LOW, "Description", ObservationType.SEO, AuditCategory.INFORMATION_ARCHITECTURE,
+                "", new HashSet<>(), "Why", "Title", 1, 1, "Recommendation") {});
+        Audit audit = new Audit(AuditCategory.INFORMATION_ARCHITECTURE, AuditSubcategory.SEO, AuditName.METADATA, 1,
+                messages, AuditLevel.PAGE, 1, "https://example.com", "Why", "Description", false);
+
+        assertFalse(CachedAudit.supports(audit));
+        cache.store("a", AuditName.METADATA, audit);
+        assertEquals(0, cache.size());
+        assertThrows(IllegalArgumentException.class, () -> CachedAudit.of(audit));
+    }
+
+    @Test
+    void testExpiredEntry_misses() throws Exception {
+        setField("ttl_ms", 0L);
+        String key = cache.contentKey(page("https://example.com", "<html></html>"));
+        cache.store(key, AuditName.METADATA, audit(AuditName.METADATA, 1));
+
+        assertNull(cache.find(key, AuditName.METADATA));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void testInvalidate_dropsOnlyThatAudit() {
+        String key = cache.contentKey(page("https://example.com", "<html></html>"));
+        cache.store(key, AuditName.METADATA, audit(AuditName.METADATA, 1));
+        cache.store(key, AuditName.TITLES, audit(AuditName.TITLES, 2));
+
+        cache.invalidate(AuditName.METADATA);
+
+        assertNull(cache.find(key, AuditName.METADATA));
+        assertNotNull(cache.find(key, AuditName.TITLES));
+
+        cache.invalidateAll();
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void testMaxSize_evictsLeastRecentlyUsed() throws Exception {
+        setField("max_size", 2);
+        cache.store("a", AuditName.METADATA, audit(AuditName.METADATA, 1));
+        cache.store("b", AuditName.METADATA, audit(AuditName.METADATA, 2));
+        cache.find("a", AuditName.METADATA);
+        cache.store("c", AuditName.METADATA, audit(AuditName.METADATA, 3));
+
+        assertEquals(2, cache.size());
+        assertNotNull(cache.find("a", AuditName.METADATA));
+        assertNull(cache.find("b", AuditName.METADATA));
+    }
+}
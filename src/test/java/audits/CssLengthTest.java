@@ -0,0 +1,70 @@
+package audits;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import com.looksee.audit.informationArchitecture.audits.CssLength;
+import com.looksee.audit.informationArchitecture.audits.CssLength.Unit;
+
+public class CssLengthTest {
+
+    @Test
+    void testScan_readsValueAndUnit() {
+        CssLength length = CssLength.scan("1.5em");
+        assertEquals(1.5, length.getValue(), 0.0);
+        assertEquals(Unit.EM, length.getUnit());
+
+        assertEquals(Unit.REM, CssLength.scan("2rem").getUnit());
+        assertEquals(Unit.PERCENT, CssLength.scan("120%").getUnit());
+        assertEquals(Unit.PX, CssLength.scan("  16PX ").getUnit());
+        assertEquals(16.0, CssLength.scan("  16PX ").getValue(), 0.0);
+        assertEquals(Unit.NUMBER, CssLength.scan("1.2").getUnit());
+        assertEquals(0.5, CssLength.scan(".5px").getValue(), 0.0);
+        assertEquals(-0.25, CssLength.scan("-0.25px").getValue(), 0.0);
+        assertEquals(1.333, CssLength.scan("+1.333pt").getValue(), 0.0);
+    }
+
+    @Test
+    void testScan_exponentIsNotMistakenForEmOrEx() {
+        assertEquals(1000.0, CssLength.scan("1e3px").getValue(), 0.0);
+        assertEquals(0.015, CssLength.scan("1.5E-2").getValue(), 1e-12);
+        assertEquals(Unit.EM, CssLength.scan("3em").getUnit());
+        assertEquals(Unit.EX, CssLength.scan("3ex").getUnit());
+        assertFalse(CssLength.scan("3e").isValid());
+    }
+
+    @Test
+    void testScan_invalidValues() {
+        for (String value : new String[] {null, "", "   ", "normal", "auto", "px", ".", "-", "1.2.3px",
+                                          "calc(1em + 2px)", "10vmax", "1 px"}) {
+            CssLength length = CssLength.scan(value);
+            assertSame(CssLength.INVALID, length, String.valueOf(value));
+            assertEquals(0.0, length.toPixels(20.0), 0.0);
+        }
+    }
+
+    @Test
+    void testToPixels_resolvesFontRelativeUnitsAgainstFontSize() {
+        assertEquals(2.0, CssLength.scan("0.1em").toPixels(20.0), 1e-9);
+        assertEquals(30.0, CssLength.scan("150%").toPixels(20.0), 1e-9);
+        assertEquals(10.0, CssLength.scan("1ex").toPixels(20.0), 1e-9);
+        assertEquals(16.0, CssLength.scan("1rem").toPixels(20.0), 1e-9);
+        assertEquals(12.0, CssLength.scan("12px").toPixels(20.0), 1e-9);
+        assertEquals(16.0, CssLength.scan("12pt").toPixels(20.0), 1e-9);
+        assertEquals(96.0, CssLength.scan("2.54cm").toPixels(20.0), 1e-9);
+    }
+
+    @Test
+    void testParse_returnsCachedInstanceForRepeatedValue() {
+        String value = "13.75px";
+        CssLength first = CssLength.parse(value);
+        CssLength second = CssLength.parse(new String(value));
+
+        assertSame(first, second);
+        assertEquals(13.75, second.getValue(), 0.0);
+        assertEquals(Unit.PX, second.getUnit());
+        assertSame(CssLength.INVALID, CssLength.parse("inherit"));
+        assertSame(CssLength.INVALID, CssLength.parse(null));
+    }
+}
@@ -0,0 +1,101 @@
+package audits;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.util.List;
+import java.util.Set;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.junit.jupiter.api.Test;
+
+import com.looksee.audit.informationArchitecture.audits.PageContext;
+import com.looksee.audit.informationArchitecture.rules.ElementRule;
+import com.looksee.audit.informationArchitecture.rules.ElementRuleEngine;
+import com.looksee.audit.informationArchitecture.rules.ElementRuleMatches;
+import com.looksee.models.PageState;
+
+public class ElementRuleEngineTest {
+
+    private static final String HTML = "<html><body>"
+            + "<div style=\"Text-Align: Justify\">a</div>"
+            + "<H2>b</H2><p style=\"color:red\">c</p><h1>d</h1>"
+            + "<meta name=\" Viewport \"><img src=\"x.png\" ALT=\"\">"
+            + "</body></html>";
+
+    private final Document doc = Jsoup.parse(HTML);
+
+    @Test
+    void testRun_matchesLikeSelect() {
+        ElementRule headers = ElementRule.forTags("headers", "h1", "h2");
+        ElementRule styled = new ElementRule("styled", Set.of(), Set.of("style"), element -> true);
+        ElementRule justified = new ElementRule("justified", Set.of(), Set.of("style"),
+                ElementRule.attributeContains("style", "text-align: justify"));
+        ElementRule viewport = new ElementRule("viewport", Set.of("meta"), Set.of("name"),
+                ElementRule.attributeEquals("name", "viewport"));
+        ElementRule alt = new ElementRule("alt", Set.of("IMG"), Set.of("alt"), element -> true);
+
+        ElementRuleMatches matches = new ElementRuleEngine(List.of(headers, styled, justified, viewport, alt)).run(doc);
+
+        assertEquals(doc.select("h1, h2"), matches.get(headers));
+        assertEquals(doc.select("[style]"), matches.get(styled));
+        assertEquals(doc.select("[style*=text-align: justify]"), matches.get(justified));
+        assertEquals(doc.select("meta[name=viewport]"), matches.get(viewport));
+        assertEquals(doc.select("img[alt]"), matches.get(alt));
+    }
+
+    @Test
+    void testRun_preservesDocumentOrder() {
+        ElementRule headers = ElementRule.forTags("headers", "h1", "h2");
+        List<Element> matched = new ElementRuleEngine(List.of(headers)).run(doc).get(headers);
+
+        assertEquals("h2", matched.get(0).tagName().toLowerCase());
+        assertEquals("h1", matched.get(1).tagName());
+    }
+
+    @Test
+    void testRun_unregisteredRuleRejected() {
+        ElementRule registered = ElementRule.forTags("p", "p");
+        ElementRule other = ElementRule.forTags("div", "div");
+        ElementRuleMatches matches = new ElementRuleEngine(List.of(registered)).run(doc);
+
+        assertThrows(IllegalArgumentException.class, () -> matches.get(other));
+    }
+
+    @Test
+    void testRun_matchesAreUnmodifiable() {
+        ElementRule paragraphs = ElementRule.forTags("p", "p");
+        List<Element> matched = new ElementRuleEngine(List.of(paragraphs)).run(doc).get(paragraphs);
+
+        assertThrows(UnsupportedOperationException.class, () -> matched.clear());
+    }
+
+    @Test
+    void testCombine_deduplicatesSharedRules() {
+        ElementRule paragraphs = ElementRule.forTags("p", "p");
+        ElementRuleEngine first = new ElementRuleEngine(List.of(paragraphs));
+        ElementRuleEngine combined = ElementRuleEngine.combine(first, first);
+
+        assertEquals(1, combined.getRules().size());
+        assertEquals(1, combined.run(doc).get(paragraphs).size());
+    }
+
+    @Test
+    void testPageContext_runsRulesOnce() {
+        PageState pageState = mock(PageState.class);
+        when(pageState.getSrc()).thenReturn(HTML);
+        PageContext context = new PageContext(pageState);
+
+        assertSame(context.getRuleMatches(), context.getRuleMatches());
+        verify(pageState, times(1)).getSrc();
+    }
+
+    @Test
+    void testConstructor_nullArguments() {
+        assertThrows(NullPointerException.class, () -> new ElementRuleEngine(null));
+        assertThrows(NullPointerException.class, () -> new ElementRule("r", null, Set.of(), element -> true));
+        assertThrows(NullPointerException.class, () -> new ElementRuleEngine(List.of()).run(null));
+    }
+}
@@ -0,0 +1,76 @@
+package audits;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Random;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.junit.jupiter.api.Test;
+
+import com.looksee.audit.informationArchitecture.audits.ElementSelectorIndex;
+
+public class ElementSelectorIndexTest {
+
+    private static void assertMatchesJsoup(Document doc) {
+        ElementSelectorIndex index = ElementSelectorIndex.of(doc);
+        for (Element element : doc.getAllElements()) {
+            if (element instanceof Document) {
+                continue;
+            }
+            assertEquals(element.cssSelector(), index.cssSelector(element), element.outerHtml());
+        }
+    }
+
+    @Test
+    void testCssSelector_matchesJsoupForIdsClassesAndSiblings() {
+        assertMatchesJsoup(Jsoup.parse("<div id=\"main\"><p class=\"x y\">1</p><p class=\"x\">2</p><p class=\"y\">3</p>"
+                + "<span id=\"main\">duplicate id</span></div>"
+                + "<ul><li>1</li><li class=\"Foo\">2</li><li class=\"foo\">3</li></ul>"
+                + "<table><tr><td>1</td><td>2</td></tr></table><p id=\"123\">numeric id</p><p>plain</p>"));
+    }
+
+    @Test
+    void testCssSelector_identifierCharactersAndFallback() {
+        // an id with a space is left to jsoup, as are its descendants
+        assertMatchesJsoup(Jsoup.parse("<div id=\"has space\"><i>q</i></div><section class=\"a_b c-d\"><b>x</b></section>"
+                + "<x-widget class=\"a-b\"><x-widget class=\"a-b _c\"></x-widget><x-widget class=\"_c a-b\"></x-widget></x-widget>"));
+    }
+
+    @Test
+    void testCssSelector_matchesJsoupOnGeneratedPage() {
+        String[] tags = {"div", "p", "span", "ul", "li", "a", "section"};
+        String[] classes = {"", "a", "b", "a b", "B", "item"};
+        Random random = new Random(7);
+        StringBuilder html = new StringBuilder("<body>");
+        for (int i = 0; i < 400; i++) {
+            String tag = tags[random.nextInt(tags.length)];
+            String className = classes[random.nextInt(classes.length)];
+            html.append('<').append(tag);
+            if (!className.isEmpty()) {
+                html.append(" class=\"").append(className).append('"');
+            }
+            if (random.nextInt(10) == 0) {
+                html.append(" id=\"i").append(random.nextInt(20)).append('"');
+            }
+            html.append('>');
+            if (random.nextInt(3) == 0) {
+                html.append("</").append(tag).append('>');
+            }
+        }
+        assertMatchesJsoup(Jsoup.parse(html.toString()));
+    }
+
+    @Test
+    void testDirect_usesJsoup() {
+        Document doc = Jsoup.parse("<div><p>1</p><p>2</p></div>");
+        Element second = doc.select("p").get(1);
+        assertEquals(second.cssSelector(), ElementSelectorIndex.direct().cssSelector(second));
+    }
+
+    @Test
+    void testOf_nullDocument() {
+        assertThrows(NullPointerException.class, () -> ElementSelectorIndex.of(null));
+    }
+}
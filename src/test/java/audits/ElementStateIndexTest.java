@@ -0,0 +1,68 @@
+package audits;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.looksee.audit.informationArchitecture.audits.ElementStateIndex;
+import com.looksee.models.ElementState;
+
+public class ElementStateIndexTest {
+
+    private static ElementState element(String css, String xpath) {
+        ElementState element = mock(ElementState.class);
+        when(element.getCssSelector()).thenReturn(css);
+        when(element.getXpath()).thenReturn(xpath);
+        return element;
+    }
+
+    @Test
+    void testLookupByCssSelectorAndXpath() {
+        ElementState header = element("body > h1", "/html/body/h1");
+        ElementState image = element("body > img", "/html/body/img");
+
+        ElementStateIndex index = ElementStateIndex.of(Arrays.asList(header, image));
+
+        assertEquals(2, index.size());
+        assertSame(header, index.findByCssSelector("body > h1"));
+        assertSame(image, index.findByXpath("/html/body/img"));
+        assertNull(index.findByCssSelector("body > p"));
+        assertNull(index.findByXpath("/html/body/p"));
+    }
+
+    @Test
+    void testFirstElementWinsForDuplicateKeys() {
+        ElementState first = element("div", "/html/body/div");
+        ElementState second = element("div", "/html/body/div");
+
+        ElementStateIndex index = ElementStateIndex.of(Arrays.asList(first, second));
+
+        assertSame(first, index.findByCssSelector("div"));
+        assertSame(first, index.findByXpath("/html/body/div"));
+    }
+
+    @Test
+    void testSkipsNullEntriesAndKeys() {
+        List<ElementState> elements = new ArrayList<>();
+        elements.add(null);
+        elements.add(element(null, "/html/body/span"));
+
+        ElementStateIndex index = ElementStateIndex.of(elements);
+
+        assertEquals(0, index.size());
+        assertNotNull(index.findByXpath("/html/body/span"));
+    }
+
+    @Test
+    void testNullArguments() {
+        assertThrows(NullPointerException.class, () -> ElementStateIndex.of(null));
+        ElementStateIndex index = ElementStateIndex.of(new ArrayList<>());
+        assertThrows(NullPointerException.class, () -> index.findByCssSelector(null));
+        assertThrows(NullPointerException.class, () -> index.findByXpath(null));
+    }
+}
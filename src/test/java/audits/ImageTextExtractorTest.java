@@ -0,0 +1,148 @@
+package audits;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.lang.reflect.Field;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.imageio.ImageIO;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Element;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.looksee.audit.informationArchitecture.imagetext.ImageTextExtractor;
+import com.looksee.audit.informationArchitecture.imagetext.OcrBackend;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class ImageTextExtractorTest {
+
+    @TempDir
+    Path dir;
+
+    private ImageTextExtractor extractor;
+    private SimpleMeterRegistry registry;
+    private AtomicInteger ocrCalls;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        extractor = new ImageTextExtractor();
+        registry = new SimpleMeterRegistry();
+        ocrCalls = new AtomicInteger();
+        setField("meter_registry", registry);
+        setBackend(image -> {
+            ocrCalls.incrementAndGet();
+            return List.of("Logo", " ");
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        extractor.shutdown();
+    }
+
+    private void setField(String name, Object value) throws Exception {
+        Field f = ImageTextExtractor.class.getDeclaredField(name);
+        f.setAccessible(true);
+        f.set(extractor, value);
+    }
+
+    private void setBackend(OcrBackend backend) throws Exception {
+        setField("ocr_backend", backend);
+    }
+
+    private static Element anchor(String html) {
+        return Jsoup.parseBodyFragment(html).getElementsByTag("a").first();
+    }
+
+    private String screenshot(String name) throws Exception {
+        BufferedImage image = new BufferedImage(4, 4, BufferedImage.TYPE_INT_RGB);
+        File file = dir.resolve(name).toFile();
+        ImageIO.write(image, "png", file);
+        return file.toURI().toURL().toString();
+    }
+
+    private double lookups(String source) {
+        return registry.counter("audit.image_text.lookups", "source", source).count();
+    }
+
+    @Test
+    void testLocalText_readsLabelsAndAltText() {
+        Element a = anchor("<a href=\"/\" aria-label=\"Home\"><img alt=\"Company logo\" title=\" \"></a>");
+
+        assertEquals(List.of("Home", "Company logo"), ImageTextExtractor.localText(a));
+    }
+
+    @Test
+    void testExtract_prefersLocalSignalsOverOcr() throws Exception {
+        List<String> text = extractor.extract(anchor("<a href=\"/\"><img alt=\"Search\"></a>"), screenshot("a.png")).join();
+
+        assertEquals(List.of("Search"), text);
+        assertEquals(0, ocrCalls.get());
+        assertEquals(1.0, lookups("local"));
+    }
+
+    @Test
+    void testExtract_ocrResultIsCachedByImageContent() throws Exception {
+        String first = screenshot("first.png");
+        String second = screenshot("second.png");
+        Element a = anchor("<a href=\"/\"><img src=\"logo.png\"></a>");
+
+        assertEquals(List.of("Logo"), extractor.extract(a, first).join());
+        assertEquals(List.of("Logo"), extractor.extract(a, second).join());
+
+        assertEquals(1, ocrCalls.get());
+        assertEquals(1.0, lookups("ocr"));
+        assertEquals(1.0, lookups("cache"));
+    }
+
+    @Test
+    void testExtract_failuresYieldNoText() throws Exception {
+        setBackend(image -> {
+            throw new IllegalStateException("backend unavailable");
+        });
+        Element a = anchor("<a href=\"/\"></a>");
+
+        assertTrue(extractor.extract(a, screenshot("broken.png")).join().isEmpty());
+        assertTrue(extractor.extract(a, dir.resolve("missing.png").toUri().toString()).join().isEmpty());
+        assertTrue(extractor.extract(a, null).join().isEmpty());
+        assertEquals(2.0, lookups("error"));
+    }
+
+    @Test
+    void testExtract_slowBackendTimesOut() throws Exception {
+        setField("timeout_ms", 100L);
+        setBackend(image -> {
+            Thread.sleep(2000);
+            return List.of("Too late");
+        });
+
+        assertTrue(extractor.extract(anchor("<a href=\"/\"></a>"), screenshot("slow.png")).join().isEmpty());
+    }
+
+    @Test
+    void testExtract_requestTimedOutWhileQueuedIsNotRecognized() throws Exception {
+        setField("pool_size", 1);
+        setField("timeout_ms", 200L);
+        setBackend(image -> {
+            ocrCalls.incrementAndGet();
+            Thread.sleep(500);
+            return List.of("Too late");
+        });
+
+        assertTrue(extractor.extract(anchor("<a href=\"/\"></a>"), screenshot("first.png")).join().isEmpty());
+        assertTrue(extractor.extract(anchor("<a href=\"/\"></a>"), screenshot("queued.png")).join().isEmpty());
+        Thread.sleep(700);
+
+        // the second screenshot was still queued when its time ran out
+        assertEquals(1, ocrCalls.get());
+    }
+}
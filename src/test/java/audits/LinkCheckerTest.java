@@ -0,0 +1,191 @@
+package audits;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.looksee.audit.informationArchitecture.links.LinkChecker;
+import com.looksee.audit.informationArchitecture.links.LinkStatus;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class LinkCheckerTest {
+
+    private HttpServer server;
+    private String base;
+    private LinkChecker checker;
+    private SimpleMeterRegistry registry;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+        base = "http://127.0.0.1:" + server.getAddress().getPort();
+
+        checker = new LinkChecker();
+        registry = new SimpleMeterRegistry();
+        setField("meter_registry", registry);
+        setField("per_host_interval_ms", 0L);
+        setField("request_timeout_ms", 2000L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    private void setField(String name, Object value) throws Exception {
+        Field f = LinkChecker.class.getDeclaredField(name);
+        f.setAccessible(true);
+        f.set(checker, value);
+    }
+
+    private static void respond(HttpExchange exchange, int status) throws IOException {
+        exchange.sendResponseHeaders(status, -1);
+        exchange.close();
+    }
+
+    @Test
+    void testHeadSuccess_isReachable() {
+        List<String> methods = new CopyOnWriteArrayList<>();
+        server.createContext("/ok", exchange -> {
+            methods.add(exchange.getRequestMethod());
+            respond(exchange, 200);
+        });
+
+        LinkStatus status = checker.check(base + "/ok").join();
+
+        assertTrue(status.isReachable());
+        assertEquals(200, status.getStatusCode());
+        assertEquals(List.of("HEAD"), methods);
+    }
+
+    @Test
+    void testHeadRejected_fallsBackToGet() {
+        List<String> methods = new CopyOnWriteArrayList<>();
+        server.createContext("/no-head", exchange -> {
+            methods.add(exchange.getRequestMethod());
+            respond(exchange, "HEAD".equals(exchange.getRequestMethod()) ? 405 : 200);
+        });
+
+        LinkStatus status = checker.check(base + "/no-head").join();
+
+        assertTrue(status.isReachable());
+        assertEquals(List.of("HEAD", "GET"), methods);
+        assertEquals(1, registry.find("audit.links.request").tag("method", "HEAD").tag("outcome", "4xx").timer().count());
+        assertEquals(1, registry.find("audit.links.request").tag("method", "GET").tag("outcome", "2xx").timer().count());
+    }
+
+    @Test
+    void testMissingPage_isNotFound() {
+        server.createContext("/missing", exchange -> respond(exchange, 404));
+
+        LinkStatus status = checker.check(base + "/missing").join();
+
+        assertEquals(LinkStatus.Verdict.NOT_FOUND, status.getVerdict());
+        assertFalse(status.isReachable());
+    }
+
+    @Test
+    void testSlowServer_timesOutAsError() throws Exception {
+        setField("request_timeout_ms", 200L);
+        server.createContext("/slow", exchange -> {
+            try {
+                Thread.sleep(2000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            respond(exchange, 200);
+        });
+
+        LinkStatus status = checker.check(base + "/slow").get(5, TimeUnit.SECONDS);
+
+        assertEquals(LinkStatus.Verdict.ERROR, status.getVerdict());
+        assertNotNull(status.getError());
+    }
+
+    @Test
+    void testUnsupportedScheme_isErrorWithoutRequest() {
+        LinkStatus status = checker.check("itms-apps://itunes.apple.com/app/id1").join();
+
+        assertEquals(LinkStatus.Verdict.ERROR, status.getVerdict());
+    }
+
+    @Test
+    void testCheckAll_limitsRequestsPerHost() throws Exception {
+        setField("max_per_host", 2);
+        AtomicInteger in_flight = new AtomicInteger();
+        AtomicInteger max_in_flight = new AtomicInteger();
+        server.createContext("/", exchange -> {
+            int current = in_flight.incrementAndGet();
+            max_in_flight.accumulateAndGet(current, Math::max);
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            in_flight.decrementAndGet();
+            respond(exchange, 200);
+        });
+
+        List<String> urls = new ArrayList<>();
+        for(int i = 0; i < 10; i++) {
+            urls.add(base + "/page" + i);
+        }
+        urls.add(base + "/page0");
+
+        Map<String, CompletableFuture<LinkStatus>> results = checker.checkAll(urls);
+        CompletableFuture.allOf(results.values().toArray(new CompletableFuture[0])).get(10, TimeUnit.SECONDS);
+
+        assertEquals(10, results.size());
+        for(CompletableFuture<LinkStatus> result : results.values()) {
+            assertTrue(result.join().isReachable());
+        }
+        assertTrue(max_in_flight.get() <= 2, "at most 2 requests per host, saw " + max_in_flight.get());
+    }
+
+    @Test
+    void testCheck_timesOutWhileWaitingForPermitWithoutRequest() throws Exception {
+        setField("max_per_host", 1);
+        setField("check_timeout_ms", 300L);
+        AtomicInteger queued_requests = new AtomicInteger();
+        server.createContext("/slow", exchange -> {
+            try {
+                Thread.sleep(600);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            respond(exchange, 200);
+        });
+        server.createContext("/queued", exchange -> {
+            queued_requests.incrementAndGet();
+            respond(exchange, 200);
+        });
+
+        CompletableFuture<LinkStatus> slow = checker.check(base + "/slow");
+        LinkStatus queued = checker.check(base + "/queued").get(2, TimeUnit.SECONDS);
+
+        assertEquals(LinkStatus.Verdict.ERROR, queued.getVerdict());
+        assertEquals(LinkStatus.Verdict.ERROR, slow.get(2, TimeUnit.SECONDS).getVerdict());
+        Thread.sleep(700);
+        // the permit was released after the check had run out of time, so nothing was sent
+        assertEquals(0, queued_requests.get());
+    }
+}
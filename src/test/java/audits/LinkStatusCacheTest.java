@@ -0,0 +1,137 @@
+package audits;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+import java.lang.reflect.Field;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.looksee.audit.informationArchitecture.links.LinkChecker;
+import com.looksee.audit.informationArchitecture.links.LinkStatus;
+import com.looksee.audit.informationArchitecture.links.LinkStatusCache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class LinkStatusCacheTest {
+
+    private LinkChecker checker;
+    private SimpleMeterRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        checker = mock(LinkChecker.class);
+        when(checker.check(anyString())).thenAnswer(inv -> CompletableFuture.completedFuture(LinkStatus.fromStatusCode(200)));
+        registry = new SimpleMeterRegistry();
+    }
+
+    private LinkStatusCache newCache() throws Exception {
+        LinkStatusCache cache = new LinkStatusCache();
+        setField(cache, "link_checker", checker);
+        setField(cache, "meter_registry", registry);
+        return cache;
+    }
+
+    private static void setField(Object target, String name, Object value) throws Exception {
+        Field f = LinkStatusCache.class.getDeclaredField(name);
+        f.setAccessible(true);
+        f.set(target, value);
+    }
+
+    private double lookups(String result) {
+        return registry.counter("audit.links.cache.lookups", "result", result).count();
+    }
+
+    @Test
+    void testRepeatedUrl_isCheckedOnce() throws Exception {
+        LinkStatusCache cache = newCache();
+
+        assertTrue(cache.check("https://example.com/about").join().isReachable());
+        assertTrue(cache.check("https://example.com/about").join().isReachable());
+
+        verify(checker, times(1)).check(anyString());
+        assertEquals(1.0, lookups("miss"));
+        assertEquals(1.0, lookups("hit"));
+    }
+
+    @Test
+    void testEquivalentUrls_shareOneEntry() throws Exception {
+        LinkStatusCache cache = newCache();
+
+        cache.check("HTTPS://Example.COM:443#top").join();
+        cache.check("https://example.com/").join();
+
+        verify(checker, times(1)).check("https://example.com/");
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void testInFlightCheck_isShared() throws Exception {
+        CompletableFuture<LinkStatus> pending = new CompletableFuture<>();
+        when(checker.check(anyString())).thenReturn(pending);
+        LinkStatusCache cache = newCache();
+
+        CompletableFuture<LinkStatus> first = cache.check("https://example.com/slow");
+        CompletableFuture<LinkStatus> second = cache.check("https://example.com/slow");
+        assertFalse(first.isDone());
+
+        pending.complete(LinkStatus.fromStatusCode(404));
+
+        assertEquals(LinkStatus.Verdict.NOT_FOUND, second.join().getVerdict());
+        verify(checker, times(1)).check(anyString());
+        assertEquals(1.0, lookups("in_flight"));
+    }
+
+    @Test
+    void testFailureTtl_isSeparateFromSuccessTtl() throws Exception {
+        when(checker.check("https://example.com/gone")).thenAnswer(inv -> CompletableFuture.completedFuture(LinkStatus.fromStatusCode(410)));
+        LinkStatusCache cache = newCache();
+        setField(cache, "failure_ttl_ms", -1L);
+
+        cache.checkAll(List.of("https://example.com/ok", "https://example.com/gone"));
+        Map<String, CompletableFuture<LinkStatus>> again = cache.checkAll(List.of("https://example.com/ok", "https://example.com/gone"));
+
+        assertEquals(LinkStatus.Verdict.NOT_FOUND, again.get("https://example.com/gone").join().getVerdict());
+        verify(checker, times(1)).check("https://example.com/ok");
+        verify(checker, times(2)).check("https://example.com/gone");
+    }
+
+    @Test
+    void testMaxSize_evictsLeastRecentlyUsed() throws Exception {
+        LinkStatusCache cache = newCache();
+        setField(cache, "max_size", 1);
+
+        cache.check("https://example.com/a").join();
+        cache.check("https://example.com/b").join();
+        cache.check("https://example.com/a").join();
+
+        assertEquals(1, cache.size());
+        verify(checker, times(2)).check("https://example.com/a");
+    }
+
+    @Test
+    void testPersistedEntries_surviveRestart(@TempDir Path dir) throws Exception {
+        String file = dir.resolve("links.jsonl").toString();
+        LinkStatusCache cache = newCache();
+        setField(cache, "cache_file", file);
+        cache.initialize();
+        cache.check("https://example.com/about").join();
+        cache.shutdown();
+
+        LinkStatusCache restarted = newCache();
+        setField(restarted, "cache_file", file);
+        restarted.initialize();
+        LinkStatus status = restarted.check("https://example.com/about").join();
+
+        assertTrue(status.isReachable());
+        assertEquals(200, status.getStatusCode());
+        verify(checker, times(1)).check(anyString());
+    }
+}
@@ -2,14 +2,20 @@ package audits;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.*;
 
 import java.lang.reflect.Field;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.AtomicLong;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -18,6 +24,10 @@ import org.mockito.MockedStatic;
 import org.mockito.invocation.InvocationOnMock;
 
 import com.looksee.audit.informationArchitecture.audits.LinksAudit;
+import com.looksee.audit.informationArchitecture.imagetext.ImageTextExtractor;
+import com.looksee.audit.informationArchitecture.imagetext.OcrBackend;
+import com.looksee.audit.informationArchitecture.links.LinkStatus;
+import com.looksee.audit.informationArchitecture.links.LinkStatusCache;
 import com.looksee.models.ElementState;
 import com.looksee.models.PageState;
 import com.looksee.models.audit.Audit;
@@ -28,12 +38,16 @@ import com.looksee.services.PageStateService;
 import com.looksee.services.UXIssueMessageService;
 import com.looksee.utils.BrowserUtils;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
 public class LinksAuditExecuteTest {
 
     private LinksAudit audit;
     private PageStateService mockPageStateService;
     private AuditService mockAuditService;
     private UXIssueMessageService mockIssueService;
+    private LinkStatusCache mockLinkStatusCache;
+    private ImageTextExtractor mockImageTextExtractor;
     private AtomicLong idCounter;
 
     @BeforeEach
@@ -42,6 +56,8 @@ public class LinksAuditExecuteTest {
         mockPageStateService = mock(PageStateService.class);
         mockAuditService = mock(AuditService.class);
         mockIssueService = mock(UXIssueMessageService.class);
+        mockLinkStatusCache = mock(LinkStatusCache.class);
+        mockImageTextExtractor = mock(ImageTextExtractor.class);
         idCounter = new AtomicLong(1000L);
 
         Field f1 = LinksAudit.class.getDeclaredField("page_state_service");
@@ -56,6 +72,14 @@ public class LinksAuditExecuteTest {
         f3.setAccessible(true);
         f3.set(audit, mockIssueService);
 
+        Field f4 = LinksAudit.class.getDeclaredField("link_status_cache");
+        f4.setAccessible(true);
+        f4.set(audit, mockLinkStatusCache);
+
+        Field f5 = LinksAudit.class.getDeclaredField("image_text_extractor");
+        f5.setAccessible(true);
+        f5.set(audit, mockImageTextExtractor);
+
         when(mockIssueService.save(any(UXIssueMessage.class))).thenAnswer(inv -> {
             UXIssueMessage msg = inv.getArgument(0);
             msg.setId(idCounter.getAndIncrement());
@@ -63,6 +87,23 @@ public class LinksAuditExecuteTest {
         });
         doNothing().when(mockIssueService).addElement(anyLong(), anyLong());
         when(mockAuditService.save(any(Audit.class))).thenAnswer(inv -> inv.getArgument(0));
+        stubLinkStatus(CompletableFuture.completedFuture(LinkStatus.fromStatusCode(200)));
+        when(mockImageTextExtractor.extract(any(), any()))
+                .thenReturn(CompletableFuture.completedFuture(Collections.emptyList()));
+    }
+
+    /**
+     * Answers every destination looked up in the link status cache with {@code status}.
+     */
+    private void stubLinkStatus(CompletableFuture<LinkStatus> status) {
+        when(mockLinkStatusCache.checkAll(any())).thenAnswer(inv -> {
+            Collection<String> urls = inv.getArgument(0);
+            Map<String, CompletableFuture<LinkStatus>> statuses = new LinkedHashMap<>();
+            for (String url : urls) {
+                statuses.put(url, status);
+            }
+            return statuses;
+        });
     }
 
     /**
@@ -75,7 +116,6 @@ public class LinksAuditExecuteTest {
             case "sanitizeUrl": return "https://example.com";
             case "formatUrl": return "https://example.com/page";
             case "isJavascript": return false;
-            case "doesUrlExist": return true;
             default: return null;
         }
     }
@@ -86,7 +126,6 @@ public class LinksAuditExecuteTest {
             case "sanitizeUrl": return "https://example.com";
             case "formatUrl": return "https://example.com/dead";
             case "isJavascript": return false;
-            case "doesUrlExist": return false;
             default: return null;
         }
     }
@@ -97,7 +136,6 @@ public class LinksAuditExecuteTest {
             case "sanitizeUrl": return "https://example.com";
             case "formatUrl": return "https://example.com";
             case "isJavascript": return true;
-            case "doesUrlExist": return false;
             default: return null;
         }
     }
@@ -247,7 +285,6 @@ public class LinksAuditExecuteTest {
         AuditRecord auditRecord = mock(AuditRecord.class);
         ElementState linkElem = createMockLinkElement(8L,
                 "<a href=\"https://example.com\"></a>", "");
-        when(linkElem.getScreenshotUrl()).thenThrow(new RuntimeException("No screenshot"));
         when(mockPageStateService.getLinkElementStates(pageState.getId()))
                 .thenReturn(List.of(linkElem));
 
@@ -261,6 +298,39 @@ public class LinksAuditExecuteTest {
         }
     }
 
+    @Test
+    void testExecute_imageLinkWithAltTextSkipsOcr() throws Exception {
+        OcrBackend ocrBackend = mock(OcrBackend.class);
+        ImageTextExtractor extractor = new ImageTextExtractor();
+        Field backend = ImageTextExtractor.class.getDeclaredField("ocr_backend");
+        backend.setAccessible(true);
+        backend.set(extractor, ocrBackend);
+        Field registry = ImageTextExtractor.class.getDeclaredField("meter_registry");
+        registry.setAccessible(true);
+        registry.set(extractor, new SimpleMeterRegistry());
+        Field f5 = LinksAudit.class.getDeclaredField("image_text_extractor");
+        f5.setAccessible(true);
+        f5.set(audit, extractor);
+
+        PageState pageState = createMockPageState();
+        AuditRecord auditRecord = mock(AuditRecord.class);
+        ElementState linkElem = createMockLinkElement(18L,
+                "<a href=\"https://example.com\"><img src=\"logo.png\" alt=\"Example home\"></a>", "");
+        when(mockPageStateService.getLinkElementStates(pageState.getId()))
+                .thenReturn(List.of(linkElem));
+
+        try (MockedStatic<BrowserUtils> mock = mockStatic(BrowserUtils.class,
+                LinksAuditExecuteTest::browserUtilsDefaultAnswer)) {
+            Audit result = audit.execute(pageState, auditRecord, null);
+
+            assertTrue(result.getMessages().stream()
+                    .anyMatch(msg -> msg.getTitle().contains("Link is setup correctly")));
+            verifyNoInteractions(ocrBackend);
+        } finally {
+            extractor.shutdown();
+        }
+    }
+
     @Test
     void testExecute_deadLink() {
         PageState pageState = createMockPageState();
@@ -269,6 +339,7 @@ public class LinksAuditExecuteTest {
                 "<a href=\"https://example.com/dead\">Dead Link</a>", "Dead Link");
         when(mockPageStateService.getLinkElementStates(pageState.getId()))
                 .thenReturn(List.of(linkElem));
+        stubLinkStatus(CompletableFuture.completedFuture(LinkStatus.fromStatusCode(404)));
 
         try (MockedStatic<BrowserUtils> mock = mockStatic(BrowserUtils.class,
                 LinksAuditExecuteTest::browserUtilsDeadLinkAnswer)) {
@@ -323,29 +394,6 @@ public class LinksAuditExecuteTest {
             case "sanitizeUrl": return "https://example.com";
             case "formatUrl": return "not a valid url ://broken";
             case "isJavascript": return false;
-            case "doesUrlExist": return false;
-            default: return null;
-        }
-    }
-
-    private static Object browserUtilsIOExceptionAnswer(InvocationOnMock inv) throws Exception {
-        String methodName = inv.getMethod().getName();
-        switch (methodName) {
-            case "sanitizeUrl": return "https://example.com";
-            case "formatUrl": return "https://example.com/page";
-            case "isJavascript": return false;
-            case "doesUrlExist": throw new java.io.IOException("Connection refused");
-            default: return null;
-        }
-    }
-
-    private static Object browserUtilsExceptionAnswer(InvocationOnMock inv) throws Exception {
-        String methodName = inv.getMethod().getName();
-        switch (methodName) {
-            case "sanitizeUrl": return "https://example.com";
-            case "formatUrl": return "https://example.com/page";
-            case "isJavascript": return false;
-            case "doesUrlExist": throw new RuntimeException("Unexpected error");
             default: return null;
         }
     }
@@ -358,9 +406,10 @@ public class LinksAuditExecuteTest {
                 "<a href=\"https://example.com/broken\">IO Error Link</a>", "IO Error Link");
         when(mockPageStateService.getLinkElementStates(pageState.getId()))
                 .thenReturn(List.of(linkElem));
+        stubLinkStatus(CompletableFuture.completedFuture(LinkStatus.error("Connection refused")));
 
         try (MockedStatic<BrowserUtils> mock = mockStatic(BrowserUtils.class,
-                LinksAuditExecuteTest::browserUtilsIOExceptionAnswer)) {
+                LinksAuditExecuteTest::browserUtilsDefaultAnswer)) {
             Audit result = audit.execute(pageState, auditRecord, null);
 
             assertNotNull(result);
@@ -377,9 +426,10 @@ public class LinksAuditExecuteTest {
                 "<a href=\"https://example.com/error\">Error Link</a>", "Error Link");
         when(mockPageStateService.getLinkElementStates(pageState.getId()))
                 .thenReturn(List.of(linkElem));
+        stubLinkStatus(CompletableFuture.failedFuture(new RuntimeException("Unexpected error")));
 
         try (MockedStatic<BrowserUtils> mock = mockStatic(BrowserUtils.class,
-                LinksAuditExecuteTest::browserUtilsExceptionAnswer)) {
+                LinksAuditExecuteTest::browserUtilsDefaultAnswer)) {
             Audit result = audit.execute(pageState, auditRecord, null);
 
             assertNotNull(result);
@@ -463,6 +513,31 @@ public class LinksAuditExecuteTest {
         }
     }
 
+    @Test
+    void testExecute_sharedDestinationCheckedOnce() {
+        PageState pageState = createMockPageState();
+        AuditRecord auditRecord = mock(AuditRecord.class);
+        ElementState link1 = createMockLinkElement(15L,
+                "<a href=\"https://example.com/page\">Home</a>", "Home");
+        ElementState link2 = createMockLinkElement(16L,
+                "<a href=\"https://example.com/page\">Home</a>", "Home");
+        ElementState link3 = createMockLinkElement(17L,
+                "<a href=\"https://example.com/page\">Start</a>", "Start");
+        when(mockPageStateService.getLinkElementStates(pageState.getId()))
+                .thenReturn(List.of(link1, link2, link3));
+
+        try (MockedStatic<BrowserUtils> mock = mockStatic(BrowserUtils.class,
+                LinksAuditExecuteTest::browserUtilsDefaultAnswer)) {
+            Audit result = audit.execute(pageState, auditRecord, null);
+
+            assertNotNull(result);
+            verify(mockLinkStatusCache, times(1)).checkAll(argThat(urls -> urls.size() == 1));
+            mock.verify(() -> BrowserUtils.formatUrl(anyString(), anyString(), anyString(), anyBoolean()), times(1));
+            // every link still gets its own href, format, destination and text messages
+            verify(mockIssueService, times(15)).addElement(anyLong(), anyLong());
+        }
+    }
+
     @Test
     void testExecute_rolePresentationLink() {
         PageState pageState = createMockPageState();
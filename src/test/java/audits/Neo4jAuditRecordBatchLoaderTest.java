@@ -0,0 +1,83 @@
+package audits;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.neo4j.core.Neo4jClient;
+import org.springframework.data.neo4j.core.Neo4jTemplate;
+
+import com.looksee.audit.informationArchitecture.services.Neo4jAuditRecordBatchLoader;
+import com.looksee.audit.informationArchitecture.services.PageAuditInputs;
+import com.looksee.models.PageState;
+import com.looksee.models.audit.Audit;
+import com.looksee.models.audit.AuditRecord;
+
+public class Neo4jAuditRecordBatchLoaderTest {
+
+    private Neo4jAuditRecordBatchLoader loader;
+    private Neo4jTemplate template;
+    private Neo4jClient client;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        loader = new Neo4jAuditRecordBatchLoader();
+        template = mock(Neo4jTemplate.class);
+        client = mock(Neo4jClient.class, RETURNS_DEEP_STUBS);
+        setField("neo4j_template", template);
+        setField("neo4j_client", client);
+    }
+
+    private void setField(String name, Object value) throws Exception {
+        Field f = Neo4jAuditRecordBatchLoader.class.getDeclaredField(name);
+        f.setAccessible(true);
+        f.set(loader, value);
+    }
+
+    @Test
+    void testLoadAll_readsOnlyTheNodesWithoutRelationships() {
+        when(client.query(anyString()).bind(any()).to("record_ids").fetch().all())
+                .thenReturn(List.of(Map.of("record_id", 1L, "related_id", 2L)));
+        AuditRecord record = mock(AuditRecord.class);
+        when(record.getId()).thenReturn(1L);
+        PageState pageState = mock(PageState.class);
+        when(pageState.getId()).thenReturn(2L);
+        Audit audit = mock(Audit.class);
+        when(audit.getId()).thenReturn(2L);
+        when(template.findAll(anyString(), anyMap(), eq(AuditRecord.class))).thenReturn(List.of(record));
+        when(template.findAll(anyString(), anyMap(), eq(PageState.class))).thenReturn(List.of(pageState));
+        when(template.findAll(anyString(), anyMap(), eq(Audit.class))).thenReturn(List.of(audit));
+
+        Map<Long, PageAuditInputs> inputs = loader.loadAll(List.of(1L));
+
+        assertSame(record, inputs.get(1L).getAuditRecord());
+        assertSame(pageState, inputs.get(1L).getPageState());
+        assertEquals(1, inputs.get(1L).getAudits().size());
+
+        ArgumentCaptor<String> queries = ArgumentCaptor.forClass(String.class);
+        verify(template, times(3)).findAll(queries.capture(), anyMap(), any());
+        List<String> nodeQueries = new ArrayList<>(queries.getAllValues());
+        assertTrue(nodeQueries.contains("MATCH (record:AuditRecord) WHERE id(record) IN $ids RETURN record"));
+        assertTrue(nodeQueries.contains("MATCH (page:PageState) WHERE id(page) IN $ids RETURN page"));
+        assertTrue(nodeQueries.contains("MATCH (audit:Audit) WHERE id(audit) IN $ids RETURN audit"));
+        verify(template, never()).findAllById(any(), any());
+    }
+
+    @Test
+    void testLoadAll_emptyBatchMakesNoQueries() {
+        assertTrue(loader.loadAll(List.of()).isEmpty());
+
+        verifyNoInteractions(template, client);
+    }
+}
@@ -0,0 +1,84 @@
+package audits;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.neo4j.core.Neo4jClient;
+
+import com.looksee.audit.informationArchitecture.services.Neo4jElementStatePropertyLoader;
+
+public class Neo4jElementStatePropertyLoaderTest {
+
+    private Neo4jElementStatePropertyLoader loader;
+    private Neo4jClient client;
+    private Neo4jClient.RunnableSpec spec;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        loader = new Neo4jElementStatePropertyLoader();
+        client = mock(Neo4jClient.class, RETURNS_DEEP_STUBS);
+        spec = mock(Neo4jClient.RunnableSpec.class, RETURNS_DEEP_STUBS);
+        when(client.query(anyString())).thenReturn(spec);
+        when(spec.bind(any()).to(anyString())).thenReturn(spec);
+        setField("neo4j_client", client);
+        setField("fetch_size", 2);
+    }
+
+    private void setField(String name, Object value) throws Exception {
+        Field f = Neo4jElementStatePropertyLoader.class.getDeclaredField(name);
+        f.setAccessible(true);
+        f.set(loader, value);
+    }
+
+    private static Map<String, Object> row(long id, String... values) {
+        return Map.of("id", id, "values", Arrays.asList(values));
+    }
+
+    @Test
+    void testForEachRenderedCss_pagesByIdUntilAShortPage() {
+        when(spec.fetch().all())
+                .thenReturn(List.of(row(4L, "12px"), row(8L, (String) null)))
+                .thenReturn(List.of(row(15L, "2em")));
+
+        List<Long> ids = new ArrayList<>();
+        List<String> values = new ArrayList<>();
+        loader.forEachRenderedCss(3L, List.of("font-size"), (id, vals) -> {
+            ids.add(id);
+            values.addAll(vals);
+        });
+
+        assertEquals(List.of(4L, 8L, 15L), ids);
+        assertEquals(Arrays.asList("12px", null, "2em"), values);
+
+        ArgumentCaptor<String> query = ArgumentCaptor.forClass(String.class);
+        verify(client, times(2)).query(query.capture());
+        assertTrue(query.getValue().startsWith("MATCH (p:PageState)-[:HAS]->(e:ElementState) WHERE id(p) = $id AND id(e) > $after"));
+        assertTrue(query.getValue().endsWith("ORDER BY id(e) LIMIT $n"));
+        verify(spec, times(2)).bind(3L);
+        verify(spec).bind(-1L);
+        verify(spec).bind(8L);
+        verify(spec, times(2)).bind(List.of("renderedCssValues.font-size"));
+        verify(spec, times(2)).bind(2);
+    }
+
+    @Test
+    void testForEachAttribute_readsAttributeProperties() {
+        when(spec.fetch().all()).thenReturn(List.of());
+
+        loader.forEachAttribute(3L, List.of("tabindex", "role"), (id, vals) -> fail("no rows"));
+
+        verify(client, times(1)).query(anyString());
+        verify(spec).bind(List.of("attributes.tabindex", "attributes.role"));
+    }
+}
@@ -0,0 +1,399 @@
+package audits;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.looksee.audit.informationArchitecture.audits.IExecutablePageContextAudit;
+import com.looksee.audit.informationArchitecture.audits.PageContext;
+import com.looksee.audit.informationArchitecture.services.AuditCostClass;
+import com.looksee.audit.informationArchitecture.services.PageAuditExecutor;
+import com.looksee.audit.informationArchitecture.services.PageAuditResults;
+import com.looksee.models.PageState;
+import com.looksee.models.audit.Audit;
+import com.looksee.models.audit.AuditRecord;
+import com.looksee.models.audit.interfaces.IExecutablePageStateAudit;
+import com.looksee.models.enums.AuditName;
+import com.looksee.services.AuditService;
+import com.looksee.services.ElementStateService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class PageAuditExecutorTest {
+
+    private PageAuditExecutor executor;
+    private SimpleMeterRegistry registry;
+    private PageState pageState;
+    private PageContext pageContext;
+    private AuditRecord auditRecord;
+    private AuditService auditService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        executor = new PageAuditExecutor();
+        registry = new SimpleMeterRegistry();
+        setField("meter_registry", registry);
+        auditService = mock(AuditService.class);
+        when(auditService.save(any(Audit.class))).thenAnswer(inv -> inv.getArgument(0));
+        setField("audit_service", auditService);
+        pageState = mock(PageState.class);
+        pageContext = new PageContext(pageState);
+        auditRecord = mock(AuditRecord.class);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    private void setField(String name, Object value) throws Exception {
+        Field field = PageAuditExecutor.class.getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(executor, value);
+    }
+
+    private IExecutablePageStateAudit auditReturning(Audit result) {
+        IExecutablePageStateAudit audit = mock(IExecutablePageStateAudit.class);
+        when(audit.execute(any(), any(), any())).thenReturn(result);
+        return audit;
+    }
+
+    @Test
+    void testExecuteAll_parallelReturnsResultsInInputOrder() throws Exception {
+        Map<AuditName, IExecutablePageStateAudit> audits = new LinkedHashMap<>();
+        Audit links = mock(Audit.class);
+        Audit headers = mock(Audit.class);
+        audits.put(AuditName.LINKS, auditReturning(links));
+        audits.put(AuditName.HEADER_STRUCTURE, auditReturning(headers));
+
+        Map<AuditName, Audit> results = executor.executeAll(audits, pageContext, auditRecord).getCompleted();
+
+        assertEquals(List.of(AuditName.LINKS, AuditName.HEADER_STRUCTURE), new ArrayList<>(results.keySet()));
+        assertSame(links, results.get(AuditName.LINKS));
+        assertSame(headers, results.get(AuditName.HEADER_STRUCTURE));
+    }
+
+    @Test
+    void testExecuteAll_parallelRunsAuditsConcurrently() throws Exception {
+        CountDownLatch bothStarted = new CountDownLatch(2);
+        Map<AuditName, IExecutablePageStateAudit> audits = new LinkedHashMap<>();
+        for (AuditName name : List.of(AuditName.LINKS, AuditName.METADATA)) {
+            IExecutablePageStateAudit audit = mock(IExecutablePageStateAudit.class);
+            Audit result = mock(Audit.class);
+            when(audit.execute(any(), any(), any())).thenAnswer(inv -> {
+                bothStarted.countDown();
+                // only completes if the other audit is running at the same time
+                assertTrue(bothStarted.await(5, TimeUnit.SECONDS));
+                return result;
+            });
+            audits.put(name, audit);
+        }
+
+        Map<AuditName, Audit> results = executor.executeAll(audits, pageContext, auditRecord).getCompleted();
+
+        assertEquals(2, results.size());
+    }
+
+    @Test
+    void testExecuteAll_sequentialRunsOnCallingThread() throws Exception {
+        setField("parallel", false);
+        Thread caller = Thread.currentThread();
+        IExecutablePageStateAudit audit = mock(IExecutablePageStateAudit.class);
+        Audit result = mock(Audit.class);
+        when(audit.execute(any(), any(), any())).thenAnswer(inv -> {
+            assertSame(caller, Thread.currentThread());
+            return result;
+        });
+        Map<AuditName, IExecutablePageStateAudit> audits = new LinkedHashMap<>();
+        audits.put(AuditName.TITLES, audit);
+
+        Map<AuditName, Audit> results = executor.executeAll(audits, pageContext, auditRecord).getCompleted();
+
+        assertSame(result, results.get(AuditName.TITLES));
+        assertEquals(1, registry.find("audit.page.wall").tag("mode", "sequential").timer().count());
+    }
+
+    private IExecutablePageStateAudit slowAudit() {
+        IExecutablePageStateAudit slow = mock(IExecutablePageStateAudit.class);
+        when(slow.execute(any(), any(), any())).thenAnswer(inv -> {
+            Thread.sleep(5000);
+            return mock(Audit.class);
+        });
+        return slow;
+    }
+
+    @Test
+    void testExecuteAll_auditMissingDeadlineIsIncomplete() throws Exception {
+        setField("page_deadline_ms", 100L);
+        Audit fastResult = mock(Audit.class);
+        Map<AuditName, IExecutablePageStateAudit> audits = new LinkedHashMap<>();
+        audits.put(AuditName.LINKS, slowAudit());
+        audits.put(AuditName.ENCRYPTED, auditReturning(fastResult));
+
+        PageAuditResults results = executor.executeAll(audits, pageContext, auditRecord);
+
+        assertFalse(results.getCompleted().containsKey(AuditName.LINKS));
+        assertNotNull(results.getIncomplete().get(AuditName.LINKS));
+        assertSame(fastResult, results.getCompleted().get(AuditName.ENCRYPTED));
+        assertEquals(1.0, registry.counter("audit.page.incomplete", "audit", "LINKS", "reason", "timeout").count());
+        verify(auditService).save(same(results.getIncomplete().get(AuditName.LINKS)));
+    }
+
+    @Test
+    void testExecuteAll_eachAuditHasItsOwnTimeout() throws Exception {
+        setField("audit_timeout_ms", 200L);
+        Map<AuditName, IExecutablePageStateAudit> audits = new LinkedHashMap<>();
+        audits.put(AuditName.LINKS, slowAudit());
+        audits.put(AuditName.TITLES, auditReturning(mock(Audit.class)));
+
+        long start = System.nanoTime();
+        PageAuditResults results = executor.executeAll(audits, pageContext, auditRecord);
+
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 2000);
+        assertEquals(List.of(AuditName.LINKS), new ArrayList<>(results.getIncomplete().keySet()));
+        assertEquals(List.of(AuditName.TITLES), new ArrayList<>(results.getCompleted().keySet()));
+    }
+
+    @Test
+    void testExecuteAll_waitForWorkerDoesNotCountAgainstAuditTimeout() throws Exception {
+        setField("pool_size", 1);
+        setField("audit_timeout_ms", 400L);
+        Map<AuditName, IExecutablePageStateAudit> audits = new LinkedHashMap<>();
+        for (AuditName name : List.of(AuditName.TITLES, AuditName.METADATA)) {
+            IExecutablePageStateAudit audit = mock(IExecutablePageStateAudit.class);
+            Audit result = mock(Audit.class);
+            when(audit.execute(any(), any(), any())).thenAnswer(inv -> {
+                Thread.sleep(name == AuditName.TITLES ? 300 : 200);
+                return result;
+            });
+            audits.put(name, audit);
+        }
+
+        PageAuditResults results = executor.executeAll(audits, pageContext, auditRecord);
+
+        // METADATA finishes 500 ms after submission but only 200 ms after it started
+        assertEquals(List.of(AuditName.TITLES, AuditName.METADATA), new ArrayList<>(results.getCompleted().keySet()));
+        assertTrue(results.getIncomplete().isEmpty());
+    }
+
+    @Test
+    void testExecuteAll_reportsEachAuditOnceAsItFinishes() throws Exception {
+        setField("audit_timeout_ms", 200L);
+        IExecutablePageStateAudit failing = mock(IExecutablePageStateAudit.class);
+        when(failing.execute(any(), any(), any())).thenThrow(new IllegalStateException("boom"));
+        Map<AuditName, IExecutablePageStateAudit> audits = new LinkedHashMap<>();
+        audits.put(AuditName.LINKS, slowAudit());
+        audits.put(AuditName.REFLOW, failing);
+        audits.put(AuditName.TITLES, auditReturning(mock(Audit.class)));
+        List<AuditName> finished = new CopyOnWriteArrayList<>();
+        Set<AuditName> succeeded = ConcurrentHashMap.newKeySet();
+
+        executor.executeAll(audits, pageContext, auditRecord, (auditName, completed) -> {
+            finished.add(auditName);
+            if (completed) {
+                succeeded.add(auditName);
+            }
+        });
+        Thread.sleep(100);
+
+        assertEquals(3, finished.size());
+        assertEquals(Set.of(AuditName.TITLES), succeeded);
+        assertEquals(Set.of(AuditName.LINKS, AuditName.REFLOW, AuditName.TITLES), new HashSet<>(finished));
+        // the timed out audit is reported when it is given up on, after the others
+        assertEquals(AuditName.LINKS, finished.get(2));
+    }
+
+    @Test
+    void testExecuteAll_auditExceptionDoesNotAffectOthers() throws Exception {
+        IExecutablePageStateAudit failing = mock(IExecutablePageStateAudit.class);
+        when(failing.execute(any(), any(), any())).thenThrow(new IllegalStateException("boom"));
+        Audit titles = mock(Audit.class);
+        Map<AuditName, IExecutablePageStateAudit> audits = new LinkedHashMap<>();
+        audits.put(AuditName.REFLOW, failing);
+        audits.put(AuditName.TITLES, auditReturning(titles));
+
+        PageAuditResults results = executor.executeAll(audits, pageContext, auditRecord);
+
+        assertTrue(results.getIncomplete().containsKey(AuditName.REFLOW));
+        assertSame(titles, results.getCompleted().get(AuditName.TITLES));
+        assertEquals(1.0, registry.counter("audit.page.incomplete", "audit", "REFLOW", "reason", "error").count());
+    }
+
+    @Test
+    void testExecuteAll_sequentialAuditExceptionDoesNotAffectOthers() throws Exception {
+        setField("parallel", false);
+        IExecutablePageStateAudit failing = mock(IExecutablePageStateAudit.class);
+        when(failing.execute(any(), any(), any())).thenThrow(new IllegalStateException("boom"));
+        Map<AuditName, IExecutablePageStateAudit> audits = new LinkedHashMap<>();
+        audits.put(AuditName.REFLOW, failing);
+        audits.put(AuditName.TITLES, auditReturning(mock(Audit.class)));
+        audits.put(AuditName.METADATA, auditReturning(null));
+
+        PageAuditResults results = executor.executeAll(audits, pageContext, auditRecord);
+
+        assertEquals(List.of(AuditName.REFLOW, AuditName.METADATA), new ArrayList<>(results.getIncomplete().keySet()));
+        assertEquals(List.of(AuditName.TITLES), new ArrayList<>(results.getCompleted().keySet()));
+    }
+
+    @Test
+    void testExecuteAll_sequentialAuditErrorIsIncomplete() throws Exception {
+        setField("parallel", false);
+        IExecutablePageStateAudit failing = mock(IExecutablePageStateAudit.class);
+        when(failing.execute(any(), any(), any())).thenThrow(new StackOverflowError());
+        Audit titles = mock(Audit.class);
+        Map<AuditName, IExecutablePageStateAudit> audits = new LinkedHashMap<>();
+        audits.put(AuditName.REFLOW, failing);
+        audits.put(AuditName.TITLES, auditReturning(titles));
+
+        PageAuditResults results = executor.executeAll(audits, pageContext, auditRecord);
+
+        assertNotNull(results.getIncomplete().get(AuditName.REFLOW));
+        assertSame(titles, results.getCompleted().get(AuditName.TITLES));
+        assertEquals(1.0, registry.counter("audit.page.incomplete", "audit", "REFLOW", "reason", "error").count());
+    }
+
+    @Test
+    void testExecuteAll_sequentialRunsCheapAuditsFirst() throws Exception {
+        setField("parallel", false);
+        List<AuditName> started = new ArrayList<>();
+        Map<AuditName, IExecutablePageStateAudit> audits = new LinkedHashMap<>();
+        for (AuditName name : List.of(AuditName.LINKS, AuditName.REFLOW, AuditName.TITLES)) {
+            IExecutablePageStateAudit audit = mock(IExecutablePageStateAudit.class);
+            Audit result = mock(Audit.class);
+            when(audit.execute(any(), any(), any())).thenAnswer(inv -> {
+                started.add(name);
+                return result;
+            });
+            audits.put(name, audit);
+        }
+
+        Map<AuditName, Audit> results = executor.executeAll(audits, pageContext, auditRecord).getCompleted();
+
+        assertEquals(List.of(AuditName.TITLES, AuditName.REFLOW, AuditName.LINKS), started);
+        assertEquals(List.of(AuditName.LINKS, AuditName.REFLOW, AuditName.TITLES), new ArrayList<>(results.keySet()));
+    }
+
+    @Test
+    void testExecuteAll_costClassesRunOnSeparatePools() throws Exception {
+        setField("pool_size", 1);
+        setField("network_pool_size", 1);
+        CountDownLatch cheapDone = new CountDownLatch(1);
+        Map<AuditName, String> threads = new ConcurrentHashMap<>();
+
+        IExecutablePageStateAudit links = mock(IExecutablePageStateAudit.class);
+        Audit linksResult = mock(Audit.class);
+        when(links.execute(any(), any(), any())).thenAnswer(inv -> {
+            threads.put(AuditName.LINKS, Thread.currentThread().getName());
+            // the network audit holds its only worker until the cheap audit has finished
+            assertTrue(cheapDone.await(5, TimeUnit.SECONDS));
+            return linksResult;
+        });
+        IExecutablePageStateAudit titles = mock(IExecutablePageStateAudit.class);
+        Audit titlesResult = mock(Audit.class);
+        when(titles.execute(any(), any(), any())).thenAnswer(inv -> {
+            threads.put(AuditName.TITLES, Thread.currentThread().getName());
+            cheapDone.countDown();
+            return titlesResult;
+        });
+        Map<AuditName, IExecutablePageStateAudit> audits = new LinkedHashMap<>();
+        audits.put(AuditName.LINKS, links);
+        audits.put(AuditName.TITLES, titles);
+
+        Map<AuditName, Audit> results = executor.executeAll(audits, pageContext, auditRecord).getCompleted();
+
+        assertEquals(2, results.size());
+        assertTrue(threads.get(AuditName.LINKS).startsWith("page-audit-network-"));
+        assertTrue(threads.get(AuditName.TITLES).startsWith("page-audit-cheap-"));
+        assertEquals(1, registry.find("audit.duration").tag("cost_class", "network").timer().count());
+        assertEquals(1, registry.find("audit.duration").tag("cost_class", "cheap").timer().count());
+    }
+
+    @Test
+    void testAuditCostClass_labelsNetworkAndRepositoryAudits() {
+        assertEquals(AuditCostClass.NETWORK, AuditCostClass.of(AuditName.LINKS));
+        assertEquals(AuditCostClass.REPOSITORY, AuditCostClass.of(AuditName.REFLOW));
+        assertEquals(AuditCostClass.REPOSITORY, AuditCostClass.of(AuditName.TEXT_SPACING));
+        assertEquals(AuditCostClass.CHEAP, AuditCostClass.of(AuditName.ENCRYPTED));
+        assertEquals(AuditCostClass.CHEAP, AuditCostClass.of(AuditName.PAGE_LANGUAGE));
+    }
+
+    @Test
+    void testExecuteAll_recordsWallAndWorkTimers() throws Exception {
+        Map<AuditName, IExecutablePageStateAudit> audits = new LinkedHashMap<>();
+        audits.put(AuditName.LINKS, auditReturning(mock(Audit.class)));
+
+        executor.executeAll(audits, pageContext, auditRecord);
+
+        assertEquals(1, registry.find("audit.page.wall").tag("mode", "parallel").timer().count());
+        assertEquals(1, registry.find("audit.page.work").tag("mode", "parallel").timer().count());
+    }
+
+    @Test
+    void testExecuteAll_nullAudits() {
+        assertThrows(NullPointerException.class, () -> executor.executeAll(null, pageContext, auditRecord));
+    }
+
+    @Test
+    void testExecuteAll_contextAuditsShareOneContext() throws Exception {
+        Map<AuditName, IExecutablePageStateAudit> audits = new LinkedHashMap<>();
+        IExecutablePageContextAudit first = mock(IExecutablePageContextAudit.class);
+        IExecutablePageContextAudit second = mock(IExecutablePageContextAudit.class);
+        when(first.execute(any(PageContext.class), any(), any())).thenReturn(mock(Audit.class));
+        when(second.execute(any(PageContext.class), any(), any())).thenReturn(mock(Audit.class));
+        audits.put(AuditName.LINKS, first);
+        audits.put(AuditName.TITLES, second);
+
+        executor.executeAll(audits, pageContext, auditRecord);
+
+        verify(first).execute(same(pageContext), same(auditRecord), isNull());
+        verify(second).execute(same(pageContext), same(auditRecord), isNull());
+        verify(first, never()).execute(any(PageState.class), any(), any());
+    }
+
+    @Test
+    void testExecuteAll_plainAuditsReceivePageState() throws Exception {
+        IExecutablePageStateAudit audit = auditReturning(mock(Audit.class));
+        Map<AuditName, IExecutablePageStateAudit> audits = new LinkedHashMap<>();
+        audits.put(AuditName.LINKS, audit);
+
+        executor.executeAll(audits, pageContext, auditRecord);
+
+        verify(audit).execute(same(pageState), same(auditRecord), isNull());
+    }
+
+    @Test
+    void testExecuteAll_recordsElementStateRoundTrips() throws Exception {
+        ElementStateService elementStateService = mock(ElementStateService.class);
+        IExecutablePageContextAudit audit = mock(IExecutablePageContextAudit.class);
+        when(audit.execute(any(PageContext.class), any(), any())).thenAnswer(inv -> {
+            PageContext context = inv.getArgument(0);
+            context.findElementState("h1", elementStateService);
+            context.findElementState("h2", elementStateService);
+            context.findElementState("h1", elementStateService);
+            return mock(Audit.class);
+        });
+        Map<AuditName, IExecutablePageStateAudit> audits = new LinkedHashMap<>();
+        audits.put(AuditName.HEADER_STRUCTURE, audit);
+
+        executor.executeAll(audits, pageContext, auditRecord);
+
+        assertEquals(1, registry.find("audit.page.element_state.round_trips").summary().count());
+        assertEquals(2.0, registry.find("audit.page.element_state.round_trips").summary().totalAmount());
+    }
+}
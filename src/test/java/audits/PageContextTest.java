@@ -0,0 +1,239 @@
+package audits;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.looksee.audit.informationArchitecture.audits.PageContext;
+import com.looksee.audit.informationArchitecture.audits.RenderedStyleTable;
+import com.looksee.audit.informationArchitecture.services.ElementStatePropertyLoader;
+import com.looksee.models.ElementState;
+import com.looksee.models.PageState;
+import com.looksee.services.ElementStateService;
+import com.looksee.services.PageStateService;
+
+public class PageContextTest {
+
+    private static final String HTML = "<html lang=\"en\"><head><title>Test</title>"
+            + "<meta name=\"description\" content=\"desc\"><meta name=\"viewport\" content=\"width=device-width\"></head>"
+            + "<body><div id=\"main\"><IMG src=\"a.png\" alt=\"A\"><img src=\"b.png\"></div>"
+            + "<p id=\"main\">duplicate id</p></body></html>";
+
+    private PageState pageState;
+    private PageContext context;
+
+    @BeforeEach
+    void setUp() {
+        pageState = mock(PageState.class);
+        when(pageState.getId()).thenReturn(7L);
+        when(pageState.getSrc()).thenReturn(HTML);
+        context = new PageContext(pageState);
+    }
+
+    @Test
+    void testConstructor_nullPageState() {
+        assertThrows(NullPointerException.class, () -> new PageContext(null));
+    }
+
+    @Test
+    void testConstructor_doesNotReadSource() {
+        verify(pageState, never()).getSrc();
+        assertSame(pageState, context.getPageState());
+    }
+
+    @Test
+    void testGetDocument_parsesOnce() {
+        Document first = context.getDocument();
+        Document second = context.getDocument();
+
+        assertSame(first, second);
+        assertEquals("Test", first.title());
+        verify(pageState, times(1)).getSrc();
+    }
+
+    @Test
+    void testGetSelectorIndex_builtOnceFromSharedDocument() {
+        assertSame(context.getSelectorIndex(), context.getSelectorIndex());
+
+        Element image = context.getDocument().select("img").get(1);
+        assertEquals(image.cssSelector(), context.getSelectorIndex().cssSelector(image));
+        verify(pageState, times(1)).getSrc();
+    }
+
+    @Test
+    void testGetDocument_nullSource() {
+        when(pageState.getSrc()).thenReturn(null);
+        assertThrows(NullPointerException.class, () -> context.getDocument());
+    }
+
+    @Test
+    void testGetElementsByTag_caseInsensitiveAndOrdered() {
+        List<Element> images = context.getElementsByTag("IMG");
+
+        assertEquals(2, images.size());
+        assertEquals("a.png", images.get(0).attr("src"));
+        assertEquals("b.png", images.get(1).attr("src"));
+        assertEquals(2, context.getElementsByTag("meta").size());
+    }
+
+    @Test
+    void testGetElementsByTag_missingTag() {
+        assertTrue(context.getElementsByTag("table").isEmpty());
+    }
+
+    @Test
+    void testGetElementsByTag_unmodifiable() {
+        List<Element> images = context.getElementsByTag("img");
+        assertThrows(UnsupportedOperationException.class, () -> images.clear());
+    }
+
+    @Test
+    void testGetElementById_returnsFirstInDocumentOrder() {
+        Element main = context.getElementById("main");
+
+        assertNotNull(main);
+        assertEquals("div", main.tagName());
+        assertNull(context.getElementById("missing"));
+    }
+
+    @Test
+    void testGetElementsWithAttribute() {
+        assertEquals(1, context.getElementsWithAttribute("alt").size());
+        assertEquals(2, context.getElementsWithAttribute("NAME").size());
+        assertEquals(1, context.getElementsWithAttribute("lang").size());
+        assertTrue(context.getElementsWithAttribute("aria-label").isEmpty());
+    }
+
+    @Test
+    void testIndexesShareParsedDocument() {
+        Element fromIndex = context.getElementsByTag("title").get(0);
+        assertSame(context.getDocument().selectFirst("title"), fromIndex);
+        verify(pageState, times(1)).getSrc();
+    }
+
+    @Test
+    void testFindElementState_bulkLoadsOnce() {
+        ElementState main = mock(ElementState.class);
+        when(main.getCssSelector()).thenReturn("#main");
+        when(main.getXpath()).thenReturn("/html/body/div");
+        PageStateService pageStateService = mock(PageStateService.class);
+        when(pageStateService.getElementStates(7L)).thenReturn(Arrays.asList(main));
+        ElementStateService elementStateService = mock(ElementStateService.class);
+        PageContext bulk = new PageContext(pageState, pageStateService);
+
+        assertSame(main, bulk.findElementState("#main", elementStateService));
+        assertSame(main, bulk.findElementStateByXpath("/html/body/div", elementStateService));
+        assertNull(bulk.findElementState("#missing", elementStateService));
+
+        verify(pageStateService, times(1)).getElementStates(7L);
+        verify(elementStateService, never()).findByPageAndCssSelector(anyLong(), anyString());
+        assertEquals(1, bulk.getElementStateRoundTrips());
+    }
+
+    @Test
+    void testFindElementState_withoutBulkLoaderQueriesEachSelectorOnce() {
+        ElementState main = mock(ElementState.class);
+        ElementStateService elementStateService = mock(ElementStateService.class);
+        when(elementStateService.findByPageAndCssSelector(7L, "#main")).thenReturn(main);
+
+        assertSame(main, context.findElementState("#main", elementStateService));
+        assertSame(main, context.findElementState("#main", elementStateService));
+        assertNull(context.findElementState("#missing", elementStateService));
+        assertNull(context.findElementState("#missing", elementStateService));
+
+        verify(elementStateService, times(1)).findByPageAndCssSelector(7L, "#main");
+        verify(elementStateService, times(1)).findByPageAndCssSelector(7L, "#missing");
+        assertEquals(2, context.getElementStateRoundTrips());
+    }
+
+    @Test
+    void testFindElementState_bulkLoadFailureFallsBack() {
+        PageStateService pageStateService = mock(PageStateService.class);
+        when(pageStateService.getElementStates(7L)).thenThrow(new IllegalStateException("database unavailable"));
+        ElementStateService elementStateService = mock(ElementStateService.class);
+        PageContext bulk = new PageContext(pageState, pageStateService);
+
+        assertNull(bulk.findElementState("#main", elementStateService));
+        assertNull(bulk.findElementState("#other", elementStateService));
+
+        verify(pageStateService, times(1)).getElementStates(7L);
+        verify(elementStateService, times(2)).findByPageAndCssSelector(anyLong(), anyString());
+        assertEquals(3, bulk.getElementStateRoundTrips());
+    }
+
+    @Test
+    void testGetRenderedStyles_sharesBulkLoadWithElementStateLookups() {
+        ElementState main = mock(ElementState.class);
+        when(main.getCssSelector()).thenReturn("#main");
+        when(main.getRenderedCssValues()).thenReturn(Map.of("font-size", "20px"));
+        PageStateService pageStateService = mock(PageStateService.class);
+        when(pageStateService.getElementStates(7L)).thenReturn(Arrays.asList(main));
+        ElementStateService elementStateService = mock(ElementStateService.class);
+        PageContext bulk = new PageContext(pageState, pageStateService);
+
+        RenderedStyleTable styles = bulk.getRenderedStyles(mock(PageStateService.class));
+
+        assertSame(styles, bulk.getRenderedStyles(pageStateService));
+        assertEquals(1, styles.size());
+        assertEquals(20.0, styles.getValue(RenderedStyleTable.Length.FONT_SIZE, 0), 0.0);
+        assertSame(main, bulk.findElementState("#main", elementStateService));
+        assertEquals(1, bulk.getElementStates(pageStateService).size());
+
+        verify(pageStateService, times(1)).getElementStates(7L);
+        assertEquals(1, bulk.getElementStateRoundTrips());
+    }
+
+    @Test
+    void testGetElementStates_withoutBulkLoaderUsesGivenServiceOnce() {
+        PageStateService pageStateService = mock(PageStateService.class);
+        when(pageStateService.getElementStates(7L)).thenReturn(Arrays.asList(new ElementState()));
+
+        List<ElementState> states = context.getElementStates(pageStateService);
+
+        assertSame(states, context.getElementStates(pageStateService));
+        assertEquals(1, context.getRenderedStyles(pageStateService).size());
+        assertThrows(UnsupportedOperationException.class, () -> states.add(new ElementState()));
+        verify(pageStateService, times(1)).getElementStates(7L);
+    }
+
+    @Test
+    void testGetRenderedStyles_withLoaderReadsPropertiesInsteadOfElementStates() {
+        PageStateService pageStateService = mock(PageStateService.class);
+        ElementStatePropertyLoader loader = mock(ElementStatePropertyLoader.class);
+        doAnswer(invocation -> {
+            ElementStatePropertyLoader.RowConsumer consumer = invocation.getArgument(2);
+            consumer.accept(11L, Arrays.asList(new String[invocation.<List<String>>getArgument(1).size()]));
+            return null;
+        }).when(loader).forEachRenderedCss(eq(7L), anyList(), any());
+
+        RenderedStyleTable styles = context.getRenderedStyles(pageStateService, loader);
+
+        assertSame(styles, context.getRenderedStyles(pageStateService, loader));
+        assertEquals(1, styles.size());
+        assertEquals(Long.valueOf(11L), styles.getElementId(0));
+        verify(loader, times(1)).forEachRenderedCss(eq(7L), anyList(), any());
+        verifyNoInteractions(pageStateService);
+    }
+
+    @Test
+    void testGetRenderedStyles_withLoadedElementStatesIgnoresLoader() {
+        PageStateService pageStateService = mock(PageStateService.class);
+        when(pageStateService.getElementStates(7L)).thenReturn(Arrays.asList(new ElementState()));
+        ElementStatePropertyLoader loader = mock(ElementStatePropertyLoader.class);
+        context.getElementStates(pageStateService);
+
+        assertEquals(1, context.getRenderedStyles(pageStateService, loader).size());
+        verifyNoInteractions(loader);
+    }
+}
@@ -0,0 +1,205 @@
+package audits;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.looksee.audit.informationArchitecture.audits.PageContext;
+import com.looksee.audit.informationArchitecture.services.PersistenceBuffer;
+import com.looksee.audit.informationArchitecture.services.PersistenceBulkWriter;
+import com.looksee.models.PageState;
+import com.looksee.models.audit.Audit;
+import com.looksee.models.audit.messages.UXIssueMessage;
+import com.looksee.services.AuditService;
+import com.looksee.services.UXIssueMessageService;
+
+public class PersistenceBufferTest {
+
+    private UXIssueMessageService issueService;
+    private AuditService auditService;
+
+    @BeforeEach
+    void setUp() {
+        issueService = mock(UXIssueMessageService.class);
+        auditService = mock(AuditService.class);
+    }
+
+    @Test
+    void testConstructor_rejectsNonPositiveFlushSize() {
+        assertThrows(IllegalArgumentException.class, () -> new PersistenceBuffer(null, 0));
+    }
+
+    @Test
+    void testQueuedWritesWaitForFlush() {
+        PersistenceBuffer buffer = new PersistenceBuffer(null, 10);
+        UXIssueMessage message = mock(UXIssueMessage.class);
+        Audit audit = mock(Audit.class);
+
+        assertSame(message, buffer.saveIssueMessage(message, issueService));
+        buffer.addElement(message, 5L, issueService);
+        assertSame(audit, buffer.saveAudit(audit, auditService));
+
+        assertEquals(3, buffer.size());
+        verifyNoInteractions(issueService, auditService);
+    }
+
+    @Test
+    void testFlush_writesMessagesThenElementsThenAudits() {
+        PersistenceBuffer buffer = new PersistenceBuffer(null, 10);
+        UXIssueMessage message = mock(UXIssueMessage.class);
+        UXIssueMessage savedMessage = mock(UXIssueMessage.class);
+        when(savedMessage.getId()).thenReturn(42L);
+        when(issueService.save(message)).thenReturn(savedMessage);
+        Audit audit = mock(Audit.class);
+        Audit savedAudit = mock(Audit.class);
+        when(auditService.save(audit)).thenReturn(savedAudit);
+
+        buffer.saveAudit(audit, auditService);
+        buffer.addElement(message, 5L, issueService);
+        buffer.saveIssueMessage(message, issueService);
+
+        assertEquals(1, buffer.flush());
+
+        InOrder order = inOrder(issueService, auditService);
+        order.verify(issueService).save(message);
+        order.verify(issueService).addElement(42L, 5L);
+        order.verify(auditService).save(audit);
+        assertSame(savedAudit, buffer.resolve(audit));
+        assertEquals(0, buffer.size());
+    }
+
+    @Test
+    void testFlush_batchesWritesIntoTransactions() {
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        PersistenceBuffer buffer = new PersistenceBuffer(transactionManager, 2);
+        when(issueService.save(any(UXIssueMessage.class))).thenAnswer(inv -> inv.getArgument(0));
+        for (int i = 0; i < 5; i++) {
+            buffer.saveIssueMessage(mock(UXIssueMessage.class), issueService);
+        }
+
+        assertEquals(3, buffer.flush());
+
+        verify(issueService, times(5)).save(any(UXIssueMessage.class));
+        verify(transactionManager, times(3)).commit(any());
+    }
+
+    @Test
+    void testFlush_emptyBufferUsesNoTransactions() {
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        PersistenceBuffer buffer = new PersistenceBuffer(transactionManager, 2);
+
+        assertEquals(0, buffer.flush());
+        verifyNoInteractions(transactionManager);
+    }
+
+    @Test
+    void testResolve_unflushedAuditReturnsItself() {
+        PersistenceBuffer buffer = new PersistenceBuffer(null, 10);
+        Audit audit = mock(Audit.class);
+
+        assertSame(audit, buffer.resolve(audit));
+    }
+
+    @Test
+    void testPageContext_writesThroughWithoutBuffer() {
+        PageContext context = new PageContext(mock(PageState.class));
+        UXIssueMessage message = mock(UXIssueMessage.class);
+        UXIssueMessage savedMessage = mock(UXIssueMessage.class);
+        when(savedMessage.getId()).thenReturn(7L);
+        when(issueService.save(message)).thenReturn(savedMessage);
+
+        UXIssueMessage result = context.saveIssueMessage(message, issueService);
+        context.addElement(result, 3L, issueService);
+
+        assertSame(savedMessage, result);
+        verify(issueService).addElement(7L, 3L);
+    }
+
+    @Test
+    void testPageContext_queuesWithBuffer() {
+        PersistenceBuffer buffer = new PersistenceBuffer(null, 10);
+        PageContext context = new PageContext(mock(PageState.class), null, buffer);
+        Audit audit = mock(Audit.class);
+
+        assertSame(audit, context.saveAudit(audit, auditService));
+        verify(auditService, never()).save(any());
+        assertEquals(1, buffer.size());
+    }
+
+    @Test
+    void testFlush_bulkWriterWritesOncePerTypeAndBatch() {
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        PersistenceBulkWriter bulkWriter = mock(PersistenceBulkWriter.class);
+        PersistenceBuffer buffer = new PersistenceBuffer(transactionManager, bulkWriter, 3);
+        List<UXIssueMessage> messages = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            UXIssueMessage message = mock(UXIssueMessage.class);
+            when(message.getId()).thenReturn(10L + i);
+            messages.add(message);
+            buffer.saveIssueMessage(message, issueService);
+            buffer.addElement(message, 20L + i, issueService);
+        }
+        Audit audit = mock(Audit.class);
+        Audit savedAudit = mock(Audit.class);
+        buffer.saveAudit(audit, auditService);
+        when(bulkWriter.saveIssueMessages(any())).thenAnswer(inv -> new ArrayList<>(inv.<List<UXIssueMessage>>getArgument(0)));
+        when(bulkWriter.saveAudits(any())).thenReturn(List.of(savedAudit));
+
+        // messages [0, 2), relations [2, 4), audit [4, 5) in batches of 3
+        assertEquals(2, buffer.flush());
+
+        verify(bulkWriter).saveIssueMessages(messages);
+        verify(bulkWriter).addElements(new long[] {10L}, new long[] {20L});
+        verify(bulkWriter).addElements(new long[] {11L}, new long[] {21L});
+        verify(bulkWriter).saveAudits(List.of(audit));
+        verify(transactionManager, times(2)).commit(any());
+        verifyNoInteractions(issueService, auditService);
+        assertSame(savedAudit, buffer.resolve(audit));
+    }
+
+    @Test
+    void testFlush_bulkWriterMustSaveEveryMessage() {
+        PersistenceBulkWriter bulkWriter = mock(PersistenceBulkWriter.class);
+        PersistenceBuffer buffer = new PersistenceBuffer(null, bulkWriter, 10);
+        buffer.saveIssueMessage(mock(UXIssueMessage.class), issueService);
+        when(bulkWriter.saveIssueMessages(any())).thenReturn(new ArrayList<>());
+
+        assertThrows(IllegalStateException.class, buffer::flush);
+    }
+
+    @Test
+    void testClose_flushesAndRejectsLaterWrites() {
+        PersistenceBuffer buffer = new PersistenceBuffer(null, 10);
+        Audit audit = mock(Audit.class);
+        when(auditService.save(audit)).thenReturn(audit);
+        buffer.saveAudit(audit, auditService);
+
+        assertEquals(1, buffer.close());
+        verify(auditService).save(audit);
+        assertEquals(0, buffer.close());
+
+        UXIssueMessage late = mock(UXIssueMessage.class);
+        assertThrows(IllegalStateException.class, () -> buffer.saveIssueMessage(late, issueService));
+        assertThrows(IllegalStateException.class, () -> buffer.addElement(late, 1L, issueService));
+        assertThrows(IllegalStateException.class, () -> buffer.saveAudit(mock(Audit.class), auditService));
+        assertEquals(0, buffer.size());
+    }
+
+    @Test
+    void testPageContext_rejectsWritesAfterClose() {
+        PersistenceBuffer buffer = new PersistenceBuffer(null, 10);
+        PageContext context = new PageContext(mock(PageState.class), null, buffer);
+        buffer.close();
+
+        assertThrows(IllegalStateException.class, () -> context.saveAudit(mock(Audit.class), auditService));
+        verifyNoInteractions(auditService);
+    }
+}
@@ -0,0 +1,116 @@
+package audits;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.looksee.audit.informationArchitecture.audits.CssLength;
+import com.looksee.audit.informationArchitecture.audits.RenderedStyleTable;
+import com.looksee.audit.informationArchitecture.audits.RenderedStyleTable.Keyword;
+import com.looksee.audit.informationArchitecture.audits.RenderedStyleTable.Length;
+import com.looksee.audit.informationArchitecture.services.ElementStatePropertyLoader;
+import com.looksee.models.ElementState;
+
+public class RenderedStyleTableTest {
+
+    private static ElementState element(String... css) {
+        ElementState element = new ElementState();
+        for (int i = 0; i < css.length; i += 2) {
+            element.getRenderedCssValues().put(css[i], css[i + 1]);
+        }
+        return element;
+    }
+
+    @Test
+    void testOf_readsLengthColumnsInRowOrder() {
+        ElementState first = element("font-size", "20px", "letter-spacing", "0.1em", "width", "50%");
+        ElementState second = element("font-size", "12pt", "line-height", "1.5", "width", "auto");
+
+        RenderedStyleTable styles = RenderedStyleTable.of(Arrays.asList(first, null, second));
+
+        assertEquals(2, styles.size());
+        assertSame(first, styles.getElement(0));
+        assertSame(second, styles.getElement(1));
+
+        assertEquals(20.0, styles.getValue(Length.FONT_SIZE, 0), 0.0);
+        assertEquals(CssLength.Unit.PX, styles.getUnit(Length.FONT_SIZE, 0));
+        assertEquals(2.0, styles.toPixels(Length.LETTER_SPACING, 0, 20.0), 1e-9);
+        assertEquals(CssLength.Unit.PERCENT, styles.getUnit(Length.WIDTH, 0));
+
+        assertEquals(16.0, styles.toPixels(Length.FONT_SIZE, 1, CssLength.DEFAULT_FONT_SIZE_PX), 1e-9);
+        assertEquals(CssLength.Unit.NUMBER, styles.getUnit(Length.LINE_HEIGHT, 1));
+        assertNull(styles.getUnit(Length.WIDTH, 1), "auto is not a length");
+        assertNull(styles.getUnit(Length.LINE_HEIGHT, 0), "missing properties have no unit");
+        assertEquals(0.0, styles.toPixels(Length.MARGIN_BOTTOM, 0, 20.0), 0.0);
+    }
+
+    @Test
+    void testOf_dictionaryEncodesKeywordColumns() {
+        List<ElementState> elements = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            elements.add(element("overflow", i % 2 == 0 ? "hidden" : "visible"));
+        }
+        elements.add(element("width", "10px"));
+
+        RenderedStyleTable styles = RenderedStyleTable.of(elements);
+
+        int hidden = styles.codeOf(Keyword.OVERFLOW, "hidden");
+        int visible = styles.codeOf(Keyword.OVERFLOW, "visible");
+        assertNotEquals(RenderedStyleTable.MISSING, hidden);
+        assertNotEquals(hidden, visible);
+        assertEquals(RenderedStyleTable.MISSING, styles.codeOf(Keyword.OVERFLOW, "scroll"));
+
+        assertEquals(hidden, styles.getCode(Keyword.OVERFLOW, 0));
+        assertEquals(visible, styles.getCode(Keyword.OVERFLOW, 999));
+        assertEquals("visible", styles.getKeyword(Keyword.OVERFLOW, 1));
+        assertEquals(RenderedStyleTable.MISSING, styles.getCode(Keyword.OVERFLOW, 1000));
+        assertNull(styles.getKeyword(Keyword.OVERFLOW, 1000));
+    }
+
+    @Test
+    void testOf_emptyAndNullInput() {
+        assertEquals(0, RenderedStyleTable.of(new ArrayList<>()).size());
+        assertThrows(NullPointerException.class, () -> RenderedStyleTable.of(null));
+    }
+
+    @Test
+    void testLoad_readsRowsByIdWithoutElementStates() {
+        Map<Long, Map<String, String>> css = Map.of(
+                7L, Map.of("font-size", "20px", "overflow", "hidden"),
+                9L, Map.of("width", "50%"));
+        ElementStatePropertyLoader loader = new ElementStatePropertyLoader() {
+            @Override
+            public void forEachRenderedCss(long page_state_id, List<String> css_properties, RowConsumer consumer) {
+                assertEquals(3L, page_state_id);
+                for (long id : new long[] {7L, 9L}) {
+                    List<String> values = new ArrayList<>();
+                    for (String property : css_properties) {
+                        values.add(css.get(id).get(property));
+                    }
+                    consumer.accept(id, values);
+                }
+            }
+
+            @Override
+            public void forEachAttribute(long page_state_id, List<String> attributes, RowConsumer consumer) {
+                fail("attributes are not read");
+            }
+        };
+
+        RenderedStyleTable styles = RenderedStyleTable.load(3L, loader);
+
+        assertEquals(2, styles.size());
+        assertNull(styles.getElement(0));
+        assertEquals(Long.valueOf(7L), styles.getElementId(0));
+        assertEquals(Long.valueOf(9L), styles.getElementId(1));
+        assertEquals(20.0, styles.getValue(Length.FONT_SIZE, 0), 0.0);
+        assertEquals("hidden", styles.getKeyword(Keyword.OVERFLOW, 0));
+        assertEquals(CssLength.Unit.PERCENT, styles.getUnit(Length.WIDTH, 1));
+        assertNull(styles.getKeyword(Keyword.OVERFLOW, 1));
+    }
+}
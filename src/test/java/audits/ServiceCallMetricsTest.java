@@ -0,0 +1,60 @@
+package audits;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+
+import com.looksee.audit.informationArchitecture.services.ServiceCallMetrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class ServiceCallMetricsTest {
+
+    private SimpleMeterRegistry registry;
+    private List<String> service;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        ProxyFactory factory = new ProxyFactory(new ArrayList<String>());
+        factory.addAdvice(new ServiceCallMetrics.TimingInterceptor("ListService", () -> registry));
+        service = (List<String>) factory.getProxy();
+    }
+
+    @Test
+    void testInvoke_timesSuccessfulCalls() {
+        service.add("a");
+        service.add("b");
+
+        assertEquals(1, service.indexOf("b"));
+        assertEquals(2, registry.find("audit.repository.call")
+                .tag("service", "ListService").tag("method", "add").tag("outcome", "success").timer().count());
+    }
+
+    @Test
+    void testInvoke_timesFailedCallsSeparately() {
+        assertThrows(IndexOutOfBoundsException.class, () -> service.get(3));
+
+        assertEquals(1, registry.find("audit.repository.call").tag("method", "get").tag("outcome", "error").timer().count());
+        assertNull(registry.find("audit.repository.call").tag("method", "get").tag("outcome", "success").timer());
+    }
+
+    @Test
+    void testInvoke_doesNotTimeObjectMethods() {
+        service.toString();
+
+        assertNull(registry.find("audit.repository.call").timer());
+    }
+
+    @Test
+    void testPostProcess_leavesOtherBeansUnchanged() {
+        Object bean = new Object();
+        assertSame(bean, new ServiceCallMetrics().postProcessAfterInitialization(bean, "other"));
+    }
+}
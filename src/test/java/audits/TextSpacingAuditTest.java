@@ -66,6 +66,24 @@ public class TextSpacingAuditTest {
         assertEquals("Insufficient paragraph spacing", issues.get(0).getTitle(), "The issue title should be 'Insufficient Paragraph Spacing'.");
     }
 
+    @Test
+    public void testEvaluateTextSpacing_RelativeUnitsUseElementFontSize() {
+        List<ElementState> elements = new ArrayList<>();
+        // at 20px, 0.15em is 3px of letter spacing and 0.2em is 4px of word spacing
+        elements.add(createElementState("20px", "1.5", "0.15em", "0.2em", "2em"));
+
+        assertTrue(TextSpacingAudit.evaluateTextSpacing(elements).isEmpty(), "Relative values should resolve against the 20px font size.");
+
+        elements.clear();
+        // 0.1em of 20px is 2px, less than the 2.4px required
+        elements.add(createElementState("20px", "30px", "0.1em", "4px", "40px"));
+
+        List<UXIssueMessage> issues = TextSpacingAudit.evaluateTextSpacing(elements);
+
+        assertEquals(1, issues.size(), "One issue should be found for non-compliant letter spacing.");
+        assertEquals("Insufficient letter spacing", issues.get(0).getTitle());
+    }
+
     @Test
     public void testParseCssValue_HandlesVariousUnits() {
         assertEquals(16.0, TextSpacingAudit.parseCssValue("16px"), 0.01, "16px should equal 16.0 pixels");
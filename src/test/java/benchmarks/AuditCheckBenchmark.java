@@ -0,0 +1,238 @@
+package benchmarks;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.looksee.audit.informationArchitecture.audits.ElementSelectorIndex;
+import com.looksee.audit.informationArchitecture.audits.FormStructureAudit;
+import com.looksee.audit.informationArchitecture.audits.HeaderStructureAudit;
+import com.looksee.audit.informationArchitecture.audits.InputPurposeAudit;
+import com.looksee.audit.informationArchitecture.audits.PageLanguageAudit;
+import com.looksee.audit.informationArchitecture.audits.RenderedStyleTable;
+import com.looksee.audit.informationArchitecture.audits.TableStructureAudit;
+import com.looksee.audit.informationArchitecture.audits.TextSpacingAudit;
+import com.looksee.audit.informationArchitecture.audits.UseOfColorAudit;
+import com.looksee.audit.informationArchitecture.audits.VisualPresentationAudit;
+import com.looksee.audit.informationArchitecture.models.ListStructureAudit;
+import com.looksee.audit.informationArchitecture.models.WcagEmphasisComplianceAudit;
+import com.looksee.models.ElementState;
+import com.looksee.models.audit.GenericIssue;
+import com.looksee.models.audit.messages.UXIssueMessage;
+
+/**
+ * Throughput of the pure check methods of the page audits on small, medium and pathological
+ * (100k-node) pages, so a regression in one of them shows up before it is deployed.
+ *
+ * <p>Pages are parsed once per fixture; only the checks are measured. The pathological page
+ * also ends in a header nested a few hundred elements deep, which is where recursive walks
+ * degrade. {@link TextSpacingAudit#evaluateTextSpacing} gets one element state per ten
+ * nodes of the page, either as a list or as the {@link RenderedStyleTable} a page context
+ * builds once and shares.</p>
+ *
+ * <p>Run with {@code mvn -P benchmark test-compile exec:exec -Dbenchmark.args=AuditCheckBenchmark};
+ * allocations per operation are reported as {@code gc.alloc.rate.norm}.</p>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AuditCheckBenchmark {
+
+	private static final String[] FRAGMENTS = {
+		"<div class=\"card\" style=\"margin: 4px 8px; color: #333\"><h3>Product</h3><p style=\"font-size: 14px; line-height: 1.2em\">Lorem <b>ipsum</b> dolor sit amet.</p></div>",
+		"<section role=\"region\"><h2>Section</h2><p style=\"text-align: justify\">Consectetur <i>adipiscing</i> elit, <em>sed</em> do.</p><h5>Skipped level</h5></section>",
+		"<nav role=\"navigation\"><ul><li><a href=\"/a\">A</a></li><li><a href=\"/b\">B</a></li><span>stray</span></ul></nav>",
+		"<form><label for=\"q\">Search</label><input id=\"q\" type=\"text\" name=\"q\"><input type=\"email\" name=\"email\"><input type=\"tel\" name=\"phone\" autocomplete=\"tel\"><input type=\"button\" value=\"Go\"></form>",
+		"<form><fieldset><legend>Address</legend><input type=\"text\" name=\"street\"><input type=\"text\" name=\"city\" aria-label=\"City\"></fieldset><select name=\"country\"><option>NL</option></select></form>",
+		"<table bgcolor=\"#eee\"><tr><th>Name</th><th scope=\"col\">Price</th></tr><tr><td>1</td><td>2</td></tr></table>",
+		"<table><tr><td>No</td><td>headers</td></tr><tr><td>at</td><td>all</td></tr></table>",
+		"<ol><li>One</li><li>Two <font color=\"red\">required</font></li></ol><dl><dt>Term</dt><dd>Definition</dd></dl>",
+		"<article lang=\"fr\"><h4>Post</h4><p style=\"color: red\">Champs en rouge obligatoires.</p><blockquote>Quote</blockquote><code>x = 1</code></article>",
+		"<div style=\"background-color: #fff; color: #000\"><span style=\"color: green\">Valid</span> <strong>strong</strong> <u>underline</u></div>",
+	};
+
+	private static final String[] CSS_VALUES = {
+		"16px", "1.5em", "1.2rem", "12pt", "150%", "0.5cm", "4mm", "0.25in", "1pc", "2ex", "normal", "", null, "auto", "calc(1em + 2px)",
+	};
+
+	/**
+	 * A parsed page of the requested size together with the parts of it the checks take as input.
+	 */
+	@State(Scope.Benchmark)
+	public static class Fixture {
+
+		@Param({"small", "medium", "pathological"})
+		public String size;
+
+		Document doc;
+		List<Element> tables;
+		List<Element> forms;
+		List<ElementState> element_states;
+		RenderedStyleTable rendered_styles;
+		VisualPresentationAudit visual_presentation_audit;
+
+		@Setup
+		public void setUp() {
+			int target_nodes;
+			int nesting_depth;
+			switch(size) {
+				case "small":
+					target_nodes = 200;
+					nesting_depth = 0;
+					break;
+				case "medium":
+					target_nodes = 5_000;
+					nesting_depth = 0;
+					break;
+				default:
+					target_nodes = 100_000;
+					nesting_depth = 400;
+			}
+
+			int[] fragment_nodes = new int[FRAGMENTS.length];
+			for(int i = 0; i < FRAGMENTS.length; i++) {
+				fragment_nodes[i] = Jsoup.parseBodyFragment(FRAGMENTS[i]).body().getAllElements().size() - 1;
+			}
+
+			StringBuilder builder = new StringBuilder("<html lang=\"en\"><head><title>Benchmark</title>"
+					+ "<meta name=\"viewport\" content=\"width=device-width\"></head><body><h1>Page</h1>");
+			Random random = new Random(42);
+			int nodes = 0;
+			while(nodes < target_nodes - nesting_depth) {
+				int fragment = random.nextInt(FRAGMENTS.length);
+				builder.append(FRAGMENTS[fragment]);
+				nodes += fragment_nodes[fragment];
+			}
+			builder.append("<div>".repeat(nesting_depth)).append("<h6>Deep</h6>").append("</div>".repeat(nesting_depth));
+			doc = Jsoup.parse(builder.append("</body></html>").toString());
+
+			tables = doc.select("table");
+			forms = doc.select("form");
+			visual_presentation_audit = new VisualPresentationAudit();
+
+			element_states = new ArrayList<>();
+			for(int i = 0; i < target_nodes / 10; i++) {
+				ElementState element_state = new ElementState();
+				Map<String, String> css = element_state.getRenderedCssValues();
+				css.put("font-size", CSS_VALUES[i % CSS_VALUES.length]);
+				css.put("line-height", CSS_VALUES[(i + 1) % CSS_VALUES.length]);
+				css.put("letter-spacing", CSS_VALUES[(i + 2) % CSS_VALUES.length]);
+				css.put("word-spacing", CSS_VALUES[(i + 3) % CSS_VALUES.length]);
+				css.put("margin-bottom", CSS_VALUES[(i + 4) % CSS_VALUES.length]);
+				element_states.add(element_state);
+			}
+			rendered_styles = RenderedStyleTable.of(element_states);
+		}
+	}
+
+	@Benchmark
+	public List<GenericIssue> useOfColor(Fixture fixture) {
+		return UseOfColorAudit.checkCompliance(fixture.doc);
+	}
+
+	@Benchmark
+	public List<GenericIssue> visualPresentation(Fixture fixture) {
+		return fixture.visual_presentation_audit.checkCompliance(fixture.doc);
+	}
+
+	@Benchmark
+	public void tableStructure(Fixture fixture, Blackhole blackhole) {
+		Set<String> labels = new HashSet<>();
+		for(Element table : fixture.tables) {
+			blackhole.consume(TableStructureAudit.validateTable(1L, table, labels));
+		}
+	}
+
+	@Benchmark
+	public void formStructure(Fixture fixture, Blackhole blackhole) {
+		for(Element form : fixture.forms) {
+			blackhole.consume(FormStructureAudit.validateForm(form));
+		}
+	}
+
+	@Benchmark
+	public List<GenericIssue> inputPurpose(Fixture fixture) {
+		return InputPurposeAudit.checkCompliance(fixture.doc);
+	}
+
+	@Benchmark
+	public List<Element> outOfOrderHeaders(Fixture fixture) {
+		return HeaderStructureAudit.findOutOfOrderHeaders(fixture.doc);
+	}
+
+	@Benchmark
+	public Map<Element, List<Element>> headersByAncestor(Fixture fixture) {
+		return HeaderStructureAudit.mapHeadersByAncestor(fixture.doc);
+	}
+
+	@Benchmark
+	public List<UXIssueMessage> textSpacing(Fixture fixture) {
+		return TextSpacingAudit.evaluateTextSpacing(fixture.element_states);
+	}
+
+	@Benchmark
+	public List<UXIssueMessage> textSpacingColumns(Fixture fixture) {
+		return TextSpacingAudit.evaluateTextSpacing(fixture.rendered_styles);
+	}
+
+	@Benchmark
+	public RenderedStyleTable renderedStyles(Fixture fixture) {
+		return RenderedStyleTable.of(fixture.element_states);
+	}
+
+	@Benchmark
+	public double parseCssValue() {
+		double total = 0;
+		for(String value : CSS_VALUES) {
+			total += TextSpacingAudit.parseCssValue(value);
+		}
+		return total;
+	}
+
+	@Benchmark
+	public ElementSelectorIndex selectorIndex(Fixture fixture) {
+		return ElementSelectorIndex.of(fixture.doc);
+	}
+
+	@Benchmark
+	public List<String> listStructure(Fixture fixture) {
+		return ListStructureAudit.checkListCompliance(fixture.doc);
+	}
+
+	@Benchmark
+	public List<String> emphasis(Fixture fixture) {
+		return WcagEmphasisComplianceAudit.checkEmphasisCompliance(fixture.doc);
+	}
+
+	@Benchmark
+	public List<String> specialText(Fixture fixture) {
+		return WcagEmphasisComplianceAudit.checkSpecialTextCompliance(fixture.doc);
+	}
+
+	@Benchmark
+	public List<UXIssueMessage> pageLanguage(Fixture fixture) {
+		return PageLanguageAudit.checkLanguageCompliance(fixture.doc);
+	}
+}
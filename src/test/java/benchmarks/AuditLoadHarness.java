@@ -0,0 +1,527 @@
+package benchmarks;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.RETURNS_DEFAULTS;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.context.annotation.PropertySource;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.http.ResponseEntity;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.looksee.audit.informationArchitecture.Application;
+import com.looksee.audit.informationArchitecture.AuditController;
+import com.looksee.audit.informationArchitecture.imagetext.CloudVisionOcrBackend;
+import com.looksee.audit.informationArchitecture.imagetext.OcrBackend;
+import com.looksee.audit.informationArchitecture.services.Neo4jAuditRecordBatchLoader;
+import com.looksee.audit.informationArchitecture.services.Neo4jElementStatePropertyLoader;
+import com.looksee.audit.informationArchitecture.services.Neo4jBulkWriter;
+import com.looksee.audit.informationArchitecture.services.ServiceCallMetrics;
+import com.looksee.gcp.PubSubAuditUpdatePublisherImpl;
+import com.looksee.mapper.Body;
+import com.looksee.models.ElementState;
+import com.looksee.models.PageState;
+import com.looksee.models.audit.Audit;
+import com.looksee.models.audit.AuditRecord;
+import com.looksee.models.audit.messages.UXIssueMessage;
+import com.looksee.services.AuditRecordService;
+import com.looksee.services.AuditService;
+import com.looksee.services.ElementStateService;
+import com.looksee.services.PageStateService;
+import com.looksee.services.UXIssueMessageService;
+import com.sun.net.httpserver.HttpServer;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Replays page audit messages against {@link AuditController} in a full application context
+ * whose persistence services, Pub/Sub publisher and OCR backend are in-memory stand-ins, and
+ * whose link targets are served by a local HTTP server. It measures what the JMH benchmarks
+ * cannot: scheduling across the audit pools, the link checker and result persistence together.
+ *
+ * <p>Reports pages per second, p50 and p99 latency of {@code POST /}, bytes allocated and
+ * collections run during the measured replay, and the {@code audit.duration} of each audit.
+ * Latency is measured from the time a message was due, so a harness that cannot keep up with
+ * {@code load.rate} shows it as latency instead of silently sending fewer messages.</p>
+ *
+ * <p>Pages come from {@code load.corpus} when set: a directory with a {@code messages.jsonl}
+ * of recorded page audit messages and, for each, a {@code <pageAuditId>.html} with the page
+ * source. Otherwise pages of a few hundred to a few thousand elements are generated. Every
+ * replayed message gets a new page audit id, so the idempotency guard does not skip repeats.
+ * The result cache is off unless {@code load.result-cache=true}.</p>
+ *
+ * <p>Run with {@code mvn -P load-test test-compile exec:exec}; the {@code load.*} properties
+ * of the profile set the number of messages, rate, concurrency, corpus and link latency.</p>
+ */
+public class AuditLoadHarness {
+
+	private static final String[] FRAGMENTS = {
+		"<div class=\"card\" style=\"margin: 4px 8px; color: #333\"><h3>Product</h3><p style=\"font-size: 14px; line-height: 1.2em\">Lorem <b>ipsum</b> dolor sit amet.</p></div>",
+		"<section role=\"region\"><h2>Section</h2><p style=\"text-align: justify\">Consectetur <i>adipiscing</i> elit, <em>sed</em> do.</p><h5>Skipped level</h5></section>",
+		"<nav role=\"navigation\"><ul><li><a href=\"%1$s/ok/%2$d\">Products</a></li><li><a href=\"%1$s/missing/%2$d\">here</a></li><span>stray</span></ul></nav>",
+		"<form><label for=\"q\">Search</label><input id=\"q\" type=\"text\" name=\"q\"><input type=\"email\" name=\"email\"><input type=\"tel\" name=\"phone\" autocomplete=\"tel\"><input type=\"button\" value=\"Go\"></form>",
+		"<table bgcolor=\"#eee\"><tr><th>Name</th><th scope=\"col\">Price</th></tr><tr><td>1</td><td>2</td></tr></table>",
+		"<ol><li>One</li><li>Two <font color=\"red\">required</font></li></ol><p>Read the <a href=\"%1$s/ok/%2$d\">release notes</a> and <a href=\"%1$s/slow/%2$d\">more</a>.</p>",
+		"<article lang=\"fr\"><h4>Post</h4><p style=\"color: red\">Champs en rouge obligatoires.</p><blockquote>Quote</blockquote><code>x = 1</code></article>",
+		"<div style=\"background-color: #fff; color: #000\"><span style=\"color: green\">Valid</span> <strong>strong</strong> <u>underline</u></div>",
+	};
+
+	private static final String[][] RENDERED_CSS = {
+		{"font-size", "16px"}, {"line-height", "1.5em"}, {"letter-spacing", "normal"},
+		{"word-spacing", "0.16em"}, {"margin-bottom", "12px"}, {"color", "#333333"},
+		{"background-color", "#ffffff"}, {"text-align", "left"},
+	};
+
+	/** A page in the corpus with the stand-in entities the services return for it. */
+	private static final class CorpusPage {
+		final ObjectNode message;
+		final PageState page_state;
+		final List<ElementState> element_states;
+		final List<ElementState> link_states;
+
+		CorpusPage(ObjectNode message, PageState page_state, List<ElementState> element_states, List<ElementState> link_states) {
+			this.message = message;
+			this.page_state = page_state;
+			this.element_states = element_states;
+			this.link_states = link_states;
+		}
+	}
+
+	/** Latencies, in nanoseconds, and response statuses of one replay. */
+	private static final class Replay {
+		final long[] latencies;
+		final Map<Integer, Integer> statuses = new TreeMap<>();
+		long elapsed_nanos;
+		long allocated_bytes;
+
+		Replay(int messages) {
+			latencies = new long[messages];
+		}
+	}
+
+	@Configuration
+	@PropertySource("classpath:application.properties")
+	@ComponentScan(basePackages = "com.looksee.audit.informationArchitecture",
+				   excludeFilters = @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE,
+														  classes = {Application.class, CloudVisionOcrBackend.class, ServiceCallMetrics.class, Neo4jBulkWriter.class, Neo4jAuditRecordBatchLoader.class, Neo4jElementStatePropertyLoader.class}))
+	static class HarnessConfiguration {
+	}
+
+	/**
+	 * In-memory persistence. Pages are registered up front, so that building the stand-ins is
+	 * not part of what is measured; saved issue messages only get an id.
+	 */
+	private static final class StandIns {
+		final AtomicLong next_id = new AtomicLong(1_000_000);
+		final AtomicLong published_updates = new AtomicLong();
+		final Map<Long, AuditRecord> records = new ConcurrentHashMap<>();
+		final Map<Long, PageState> record_pages = new ConcurrentHashMap<>();
+		final Map<Long, CorpusPage> pages = new ConcurrentHashMap<>();
+
+		final AuditRecordService audit_record_service = mock(AuditRecordService.class, withSettings().stubOnly());
+		final PageStateService page_state_service = mock(PageStateService.class, withSettings().stubOnly());
+		final ElementStateService element_state_service = mock(ElementStateService.class, withSettings().stubOnly());
+		final AuditService audit_service = mock(AuditService.class, withSettings().stubOnly());
+		final UXIssueMessageService issue_message_service = mock(UXIssueMessageService.class, withSettings().stubOnly());
+		final PubSubAuditUpdatePublisherImpl audit_update_topic = mock(PubSubAuditUpdatePublisherImpl.class, withSettings().stubOnly());
+		final OcrBackend ocr_backend = image -> List.of();
+
+		StandIns() throws Exception {
+			when(audit_record_service.findById(anyLong())).thenAnswer(inv -> Optional.ofNullable(records.get(inv.getArgument(0))));
+			when(audit_record_service.getAllAudits(anyLong())).thenAnswer(inv -> new HashSet<>());
+			when(page_state_service.getPageStateForAuditRecord(anyLong())).thenAnswer(inv -> record_pages.get(inv.getArgument(0)));
+			when(page_state_service.getElementStates(anyLong())).thenAnswer(inv -> new ArrayList<>(pages.get(inv.getArgument(0)).element_states));
+			when(page_state_service.getLinkElementStates(anyLong())).thenAnswer(inv -> new ArrayList<>(pages.get(inv.getArgument(0)).link_states));
+			when(audit_service.save(any(Audit.class))).thenAnswer(inv -> inv.getArgument(0));
+			when(issue_message_service.save(any(UXIssueMessage.class))).thenAnswer(inv -> {
+				UXIssueMessage issue_message = inv.getArgument(0);
+				issue_message.setId(next_id.incrementAndGet());
+				return issue_message;
+			});
+			doAnswer(inv -> published_updates.incrementAndGet()).when(audit_update_topic).publish(anyString());
+		}
+
+		/** Registers a page of the corpus so its element states can be looked up by page id. */
+		void addPage(CorpusPage page) {
+			pages.put(page.page_state.getId(), page);
+		}
+
+		/**
+		 * Creates an audit record of {@code page} and returns the Base64 encoded message that
+		 * asks for it to be audited.
+		 */
+		String newMessage(CorpusPage page) {
+			long record_id = next_id.incrementAndGet();
+			AuditRecord record = mock(AuditRecord.class, withSettings().stubOnly());
+			when(record.getId()).thenReturn(record_id);
+			records.put(record_id, record);
+			record_pages.put(record_id, page.page_state);
+
+			ObjectNode message = page.message.deepCopy();
+			message.put("pageAuditId", record_id);
+			return Base64.getEncoder().encodeToString(message.toString().getBytes(StandardCharsets.UTF_8));
+		}
+	}
+
+	public static void main(String[] args) throws Exception {
+		int messages = Integer.getInteger("load.messages", 1000);
+		int warmup = Integer.getInteger("load.warmup", 200);
+		double rate = Double.parseDouble(System.getProperty("load.rate", "0"));
+		int concurrency = Integer.getInteger("load.concurrency", 8);
+		String corpus_dir = System.getProperty("load.corpus", "");
+		long link_latency_ms = Long.getLong("load.link-latency-ms", 20);
+		boolean result_cache = Boolean.parseBoolean(System.getProperty("load.result-cache", "false"));
+
+		HttpServer link_server = startLinkServer(link_latency_ms);
+		try {
+			String base_url = "http://127.0.0.1:" + link_server.getAddress().getPort();
+			StandIns stand_ins = new StandIns();
+			List<CorpusPage> corpus = corpus_dir.isEmpty() ? syntheticCorpus(base_url)
+															: recordedCorpus(Paths.get(corpus_dir), base_url);
+			corpus.forEach(stand_ins::addPage);
+
+			try(AnnotationConfigApplicationContext context = startContext(stand_ins, result_cache)) {
+				AuditController controller = context.getBean(AuditController.class);
+				SimpleMeterRegistry meter_registry = context.getBean(SimpleMeterRegistry.class);
+
+				System.out.printf("Warming up with %d messages over %d pages%n", warmup, corpus.size());
+				replay(controller, prepare(stand_ins, corpus, warmup), 0, concurrency);
+				meter_registry.clear();
+
+				List<String> data = prepare(stand_ins, corpus, messages);
+				System.gc();
+				long[] gc_before = collections();
+				Replay replay = replay(controller, data, rate, concurrency);
+				long[] gc_after = collections();
+
+				report(replay, gc_after[0] - gc_before[0], gc_after[1] - gc_before[1], meter_registry, stand_ins);
+			}
+		}
+		finally {
+			link_server.stop(0);
+		}
+	}
+
+	private static AnnotationConfigApplicationContext startContext(StandIns stand_ins, boolean result_cache) {
+		AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+		context.getEnvironment().getPropertySources().addFirst(
+				new MapPropertySource("load", Map.of("audit.result-cache.enabled", String.valueOf(result_cache),
+													 "audit.intake.log-sample-rate", "0")));
+		context.getBeanFactory().registerSingleton("meterRegistry", new SimpleMeterRegistry());
+		context.getBeanFactory().registerSingleton("auditRecordService", stand_ins.audit_record_service);
+		context.getBeanFactory().registerSingleton("pageStateService", stand_ins.page_state_service);
+		context.getBeanFactory().registerSingleton("elementStateService", stand_ins.element_state_service);
+		context.getBeanFactory().registerSingleton("auditService", stand_ins.audit_service);
+		context.getBeanFactory().registerSingleton("uxIssueMessageService", stand_ins.issue_message_service);
+		context.getBeanFactory().registerSingleton("pubSubAuditUpdatePublisherImpl", stand_ins.audit_update_topic);
+		context.getBeanFactory().registerSingleton("ocrBackend", stand_ins.ocr_backend);
+		context.register(HarnessConfiguration.class);
+		context.refresh();
+		return context;
+	}
+
+	/**
+	 * Serves the link targets of the corpus: {@code /missing/*} answers 404, {@code /slow/*}
+	 * takes five times the configured latency and everything else answers 200.
+	 */
+	private static HttpServer startLinkServer(long latency_ms) throws IOException {
+		HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		server.setExecutor(Executors.newCachedThreadPool());
+		server.createContext("/", exchange -> {
+			String path = exchange.getRequestURI().getPath();
+			try {
+				Thread.sleep(path.startsWith("/slow/") ? latency_ms * 5 : latency_ms);
+			}
+			catch(InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			byte[] body = "<html><body>ok</body></html>".getBytes(StandardCharsets.UTF_8);
+			boolean head = "HEAD".equals(exchange.getRequestMethod());
+			exchange.sendResponseHeaders(path.startsWith("/missing/") ? 404 : 200, head ? -1 : body.length);
+			if(!head) {
+				try(OutputStream out = exchange.getResponseBody()) {
+					out.write(body);
+				}
+			}
+			exchange.close();
+		});
+		server.start();
+		return server;
+	}
+
+	private static List<CorpusPage> syntheticCorpus(String base_url) {
+		Random random = new Random(42);
+		List<CorpusPage> corpus = new ArrayList<>();
+		for(int i = 0; i < 24; i++) {
+			int fragments = 20 + random.nextInt(300);
+			StringBuilder builder = new StringBuilder("<html lang=\"en\"><head><title>Page " + i + "</title>"
+					+ "<meta name=\"viewport\" content=\"width=device-width\"></head><body><h1>Page " + i + "</h1>");
+			for(int f = 0; f < fragments; f++) {
+				builder.append(String.format(FRAGMENTS[random.nextInt(FRAGMENTS.length)], base_url, random.nextInt(500)));
+			}
+			String src = builder.append("</body></html>").toString();
+			ObjectNode message = new ObjectMapper().createObjectNode().put("accountId", 1L);
+			corpus.add(page(message, base_url + "/pages/" + i, src, i));
+		}
+		return corpus;
+	}
+
+	/**
+	 * Reads {@code messages.jsonl} and the page source of each message from {@code dir}.
+	 * Messages without a page source are skipped.
+	 */
+	private static List<CorpusPage> recordedCorpus(Path dir, String base_url) throws IOException {
+		ObjectMapper mapper = new ObjectMapper();
+		List<CorpusPage> corpus = new ArrayList<>();
+		int index = 0;
+		for(String line : Files.readAllLines(dir.resolve("messages.jsonl"), StandardCharsets.UTF_8)) {
+			if(line.isBlank()) {
+				continue;
+			}
+			ObjectNode message = (ObjectNode)mapper.readTree(line);
+			Path src = dir.resolve(message.path("pageAuditId").asText() + ".html");
+			if(!Files.exists(src)) {
+				System.out.printf("Skipping %s, no page source%n", src);
+				continue;
+			}
+			corpus.add(page(message, base_url + "/pages/" + index, Files.readString(src, StandardCharsets.UTF_8), index));
+			index++;
+		}
+		if(corpus.isEmpty()) {
+			throw new IllegalArgumentException("no replayable messages in " + dir);
+		}
+		return corpus;
+	}
+
+	/**
+	 * Builds the page state and element states of a page source, as the crawler would have
+	 * stored them: every element of the body with its selector and rendered CSS, and every
+	 * anchor as a link element as well.
+	 */
+	private static CorpusPage page(ObjectNode message, String url, String src, int index) {
+		long page_id = 10_000L + index;
+		Document doc = Jsoup.parse(src, url);
+
+		PageState page_state = mock(PageState.class, withSettings().stubOnly());
+		when(page_state.getId()).thenReturn(page_id);
+		when(page_state.getUrl()).thenReturn(url);
+		when(page_state.getSrc()).thenReturn(src);
+		when(page_state.getTitle()).thenReturn(doc.title());
+		when(page_state.isSecured()).thenReturn(false);
+
+		List<ElementState> element_states = new ArrayList<>();
+		List<ElementState> link_states = new ArrayList<>();
+		long element_id = page_id * 100_000;
+		for(Element element : doc.body().getAllElements()) {
+			ElementState element_state = elementState(++element_id, element, url);
+			element_states.add(element_state);
+			if("a".equals(element.tagName())) {
+				link_states.add(element_state);
+			}
+		}
+		return new CorpusPage(message, page_state, element_states, link_states);
+	}
+
+	/**
+	 * Answers from the captured values rather than recorded stubbings, which keeps the tens of
+	 * thousands of element states of a corpus small.
+	 */
+	private static ElementState elementState(long id, Element element, String page_url) {
+		String css_selector = element.cssSelector();
+		String tag_name = element.tagName();
+		boolean link = "a".equals(tag_name);
+		String outer_html = link ? element.outerHtml() : null;
+		String all_text = link ? element.text() : null;
+		String screenshot_url = link ? page_url + "/screenshots/" + id + ".png" : null;
+		Map<String, String> rendered_css = new ConcurrentHashMap<>();
+		for(String[] css : RENDERED_CSS) {
+			rendered_css.put(css[0], css[1]);
+		}
+
+		return mock(ElementState.class, withSettings().stubOnly().defaultAnswer(inv -> {
+			switch(inv.getMethod().getName()) {
+				case "getId":
+					return id;
+				case "getCssSelector":
+					return css_selector;
+				case "getName":
+					return tag_name;
+				case "getRenderedCssValues":
+					return rendered_css;
+				case "getOuterHtml":
+					return outer_html;
+				case "getAllText":
+					return all_text;
+				case "getScreenshotUrl":
+					return screenshot_url;
+				default:
+					return RETURNS_DEFAULTS.answer(inv);
+			}
+		}));
+	}
+
+	/** Creates the audit records of {@code count} messages, cycling through the corpus. */
+	private static List<String> prepare(StandIns stand_ins, List<CorpusPage> corpus, int count) {
+		List<String> data = new ArrayList<>(count);
+		for(int i = 0; i < count; i++) {
+			data.add(stand_ins.newMessage(corpus.get(i % corpus.size())));
+		}
+		return data;
+	}
+
+	/**
+	 * Sends every message to the controller from {@code concurrency} clients. With a positive
+	 * {@code rate}, message {@code i} is due {@code i / rate} seconds after the start and is
+	 * not sent before then; otherwise every message is due at the start and the clients send
+	 * as fast as the controller answers.
+	 */
+	private static Replay replay(AuditController controller, List<String> data, double rate, int concurrency) throws Exception {
+		Replay replay = new Replay(data.size());
+		ExecutorService clients = Executors.newFixedThreadPool(concurrency);
+		try {
+			// start the clients so their allocations are seen from the first message on
+			for(int i = 0; i < concurrency; i++) {
+				clients.submit(() -> null).get();
+			}
+			Map<Long, Long> allocated_before = allocatedBytes();
+			List<Future<Integer>> statuses = new ArrayList<>(data.size());
+			long start = System.nanoTime();
+			for(int i = 0; i < data.size(); i++) {
+				int index = i;
+				long due = rate > 0 ? start + (long)(index * 1_000_000_000L / rate) : start;
+				statuses.add(clients.submit(() -> {
+					long wait = due - System.nanoTime();
+					if(wait > 0) {
+						TimeUnit.NANOSECONDS.sleep(wait);
+					}
+					ResponseEntity<String> response = controller.receiveMessage(body(data.get(index)));
+					replay.latencies[index] = System.nanoTime() - due;
+					return response.getStatusCodeValue();
+				}));
+			}
+			for(Future<Integer> status : statuses) {
+				replay.statuses.merge(status.get(), 1, Integer::sum);
+			}
+			replay.elapsed_nanos = System.nanoTime() - start;
+			replay.allocated_bytes = allocatedSince(allocated_before, allocatedBytes());
+		}
+		finally {
+			clients.shutdownNow();
+		}
+		return replay;
+	}
+
+	private static Body body(String data) {
+		Body body = new Body();
+		Body.Message message = body.new Message();
+		message.setData(data);
+		body.setMessage(message);
+		return body;
+	}
+
+	/**
+	 * @return bytes allocated so far by each live thread, by thread id. Allocations of threads
+	 *         that end between two snapshots are not seen, so the replay snapshots before its
+	 *         clients stop.
+	 */
+	private static Map<Long, Long> allocatedBytes() {
+		com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean)ManagementFactory.getThreadMXBean();
+		long[] ids = threads.getAllThreadIds();
+		long[] allocated = threads.getThreadAllocatedBytes(ids);
+		Map<Long, Long> by_thread = new HashMap<>();
+		for(int i = 0; i < ids.length; i++) {
+			if(allocated[i] >= 0) {
+				by_thread.put(ids[i], allocated[i]);
+			}
+		}
+		return by_thread;
+	}
+
+	private static long allocatedSince(Map<Long, Long> before, Map<Long, Long> after) {
+		long total = 0;
+		for(Map.Entry<Long, Long> thread : after.entrySet()) {
+			total += Math.max(0, thread.getValue() - before.getOrDefault(thread.getKey(), 0L));
+		}
+		return total;
+	}
+
+	/** @return total number and total milliseconds of garbage collections so far */
+	private static long[] collections() {
+		long[] totals = new long[2];
+		for(GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+			totals[0] += Math.max(0, collector.getCollectionCount());
+			totals[1] += Math.max(0, collector.getCollectionTime());
+		}
+		return totals;
+	}
+
+	private static void report(Replay replay, long gc_count, long gc_ms, SimpleMeterRegistry meter_registry, StandIns stand_ins) {
+		long[] latencies = replay.latencies.clone();
+		Arrays.sort(latencies);
+		double seconds = replay.elapsed_nanos / 1e9;
+
+		System.out.printf("%n%d pages in %.1f s: %.1f pages/s%n", latencies.length, seconds, latencies.length / seconds);
+		System.out.printf("latency p50 %.1f ms, p99 %.1f ms, max %.1f ms%n",
+						  percentile(latencies, 0.50) / 1e6, percentile(latencies, 0.99) / 1e6, latencies[latencies.length - 1] / 1e6);
+		System.out.printf("allocated %.1f MB (%.1f KB/page), %d collections taking %d ms%n",
+						  replay.allocated_bytes / 1e6, replay.allocated_bytes / 1e3 / latencies.length, gc_count, gc_ms);
+		System.out.printf("responses %s, %d updates published%n", replay.statuses, stand_ins.published_updates.get());
+
+		System.out.printf("%n%-28s %10s %10s %10s %10s%n", "audit", "outcome", "count", "mean ms", "max ms");
+		List<Timer> timers = new ArrayList<>(meter_registry.find("audit.duration").timers());
+		timers.sort((a, b) -> Double.compare(b.totalTime(TimeUnit.MILLISECONDS), a.totalTime(TimeUnit.MILLISECONDS)));
+		for(Timer timer : timers) {
+			System.out.printf("%-28s %10s %10d %10.1f %10.1f%n",
+							  timer.getId().getTag("audit"),
+							  timer.getId().getTag("outcome"),
+							  timer.count(),
+							  timer.mean(TimeUnit.MILLISECONDS),
+							  timer.max(TimeUnit.MILLISECONDS));
+		}
+	}
+
+	private static long percentile(long[] sorted, double percentile) {
+		int index = (int)Math.ceil(percentile * sorted.length) - 1;
+		return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+	}
+}
@@ -0,0 +1,97 @@
+package benchmarks;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.looksee.audit.informationArchitecture.audits.CssLength;
+
+/**
+ * Compares the CSS value parsing {@code TextSpacingAudit} used to do for every property of
+ * every element, a map of unit factors built per call and the unit stripped with a regular
+ * expression, against {@link CssLength#scan} and the cached {@link CssLength#parse}.
+ *
+ * <p>{@code cachedParse} is the path the audit takes once a page's values have been seen and
+ * should report a {@code gc.alloc.rate.norm} of 0 bytes per operation.</p>
+ *
+ * <p>Run with {@code mvn -P benchmark test-compile exec:exec -Dbenchmark.args=CssValueBenchmark}.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CssValueBenchmark {
+
+	private static final String[] CSS_VALUES = {
+		"16px", "1.5em", "1.2rem", "12pt", "150%", "0.5cm", "4mm", "0.25in", "1pc", "2ex", "normal", "", null, "auto", "calc(1em + 2px)",
+	};
+
+	@Benchmark
+	public double legacyParse() {
+		double total = 0;
+		for(String value : CSS_VALUES) {
+			total += legacyParseCssValue(value);
+		}
+		return total;
+	}
+
+	@Benchmark
+	public double scan() {
+		double total = 0;
+		for(String value : CSS_VALUES) {
+			total += CssLength.scan(value).toPixels(CssLength.DEFAULT_FONT_SIZE_PX);
+		}
+		return total;
+	}
+
+	@Benchmark
+	public double cachedParse() {
+		double total = 0;
+		for(String value : CSS_VALUES) {
+			total += CssLength.parse(value).toPixels(CssLength.DEFAULT_FONT_SIZE_PX);
+		}
+		return total;
+	}
+
+	/**
+	 * {@code TextSpacingAudit.parseCssValue} as it was before {@link CssLength}.
+	 */
+	private static double legacyParseCssValue(String css_value) {
+		if(css_value == null || css_value.isEmpty()) {
+			return 0.0;
+		}
+
+		Map<String, Double> unit_conversion_map = new HashMap<>();
+		unit_conversion_map.put("px", 1.0);
+		unit_conversion_map.put("em", 16.0);
+		unit_conversion_map.put("rem", 16.0);
+		unit_conversion_map.put("pt", 1.333);
+		unit_conversion_map.put("%", 0.16);
+		unit_conversion_map.put("cm", 37.795);
+		unit_conversion_map.put("mm", 3.7795);
+		unit_conversion_map.put("in", 96.0);
+		unit_conversion_map.put("pc", 16.0);
+		unit_conversion_map.put("ex", 8.0);
+
+		String unit = css_value.replaceAll("[0-9.]", "").toLowerCase().trim();
+		double conversion_factor = unit_conversion_map.getOrDefault(unit, 1.0);
+		try {
+			return Double.parseDouble(css_value.replace(unit, "").trim()) * conversion_factor;
+		}
+		catch(NumberFormatException e) {
+			return 0.0;
+		}
+	}
+}
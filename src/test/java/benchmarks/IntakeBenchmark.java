@@ -0,0 +1,74 @@
+package benchmarks;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.looksee.audit.informationArchitecture.services.AuditMessageCodec;
+import com.looksee.models.enums.AuditCategory;
+import com.looksee.models.enums.AuditLevel;
+import com.looksee.models.message.AuditProgressUpdate;
+import com.looksee.models.message.PageAuditMessage;
+
+/**
+ * Compares the intake path {@code AuditController} used to run for every message, a new
+ * {@link ObjectMapper} per message, a decoded {@link String} of the payload and the payload
+ * logged in full, against the shared readers and streamed decoding of
+ * {@link AuditMessageCodec}. Both read the message and write its completion update.
+ *
+ * <p>Run with {@code mvn -P benchmark test-compile exec:exec -Dbenchmark.args=IntakeBenchmark};
+ * allocations per message are reported as {@code gc.alloc.rate.norm}.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IntakeBenchmark {
+
+	private String data;
+	private AuditProgressUpdate update;
+
+	@Setup
+	public void setUp() {
+		String json = "{\"pageAuditId\":1234567,\"accountId\":7654321}";
+		data = Base64.getEncoder().encodeToString(json.getBytes(StandardCharsets.UTF_8));
+		update = new AuditProgressUpdate(7654321L,
+										 1.0,
+										 "Completed information architecture audit",
+										 AuditCategory.INFORMATION_ARCHITECTURE,
+										 AuditLevel.PAGE,
+										 1234567L);
+	}
+
+	@Benchmark
+	public void perMessageMapper(Blackhole blackhole) throws IOException {
+		String target = new String(Base64.getDecoder().decode(data));
+		blackhole.consume("page audit msg received = " + target);
+		PageAuditMessage msg = new ObjectMapper().readValue(target, PageAuditMessage.class);
+		blackhole.consume(msg);
+		blackhole.consume(new ObjectMapper().writeValueAsString(update));
+	}
+
+	@Benchmark
+	public void sharedCodec(Blackhole blackhole) throws IOException {
+		PageAuditMessage msg = AuditMessageCodec.readPageAuditMessage(data);
+		blackhole.consume(msg);
+		blackhole.consume(AuditMessageCodec.writeProgressUpdate(update));
+	}
+}
@@ -0,0 +1,166 @@
+package benchmarks;
+
+import static org.mockito.Mockito.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.select.Elements;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.looksee.audit.informationArchitecture.audits.PageContext;
+import com.looksee.audit.informationArchitecture.rules.ElementRuleMatches;
+import com.looksee.models.PageState;
+
+/**
+ * Compares the per-audit {@code select(...)} calls the page audits used to make against the
+ * single fused walk behind {@link PageContext#getRuleMatches()}.
+ *
+ * <p>Pages come from {@code corpus} when set: a directory of page sources ({@code *.html}), such
+ * as the {@code <pageAuditId>.html} files of an {@link AuditLoadHarness} corpus. Each invocation
+ * then goes through every page of the corpus. Otherwise one page of {@code sections} generated
+ * sections is used.</p>
+ *
+ * <p>Run with {@code mvn -P benchmark test-compile exec:exec}; add
+ * {@code -Dbenchmark.args="RuleEngineBenchmark -p corpus=<dir> -p sections=0"} to use a corpus.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RuleEngineBenchmark {
+
+	/** Selectors previously evaluated one at a time by the page audits, in audit order. */
+	private static final String[] SELECTORS = {
+		"h1",
+		"h1, h2, h3, h4, h5, h6",
+		"style",
+		"meta[name=viewport]",
+		"input",
+		"img:not([alt]), img[alt='']",
+		"button:not([aria-label]):not([aria-labelledby]), input[type='button']:not([aria-label]):not([aria-labelledby])",
+		"div[role], section[role], nav[role], header[role], footer[role]",
+		"*[style], *[bgcolor]",
+		"audio[autoplay], video[autoplay]",
+		"iframe",
+		"*",
+		"[style*=font-size]",
+		"[style*=text-align: justify]",
+		"[style*=line-height]",
+		"[style*=margin]",
+		"ul",
+		"ol",
+		"b",
+		"i",
+		"strong",
+		"code",
+		"abbr",
+		"blockquote",
+	};
+
+	private static final String[] FRAGMENTS = {
+		"<div class=\"card\" style=\"margin: 4px 8px; color: #333\"><h3>Product</h3><p style=\"font-size: 14px\">Lorem ipsum dolor sit amet.</p></div>",
+		"<section role=\"region\"><h2>Section</h2><p style=\"line-height: 1.2em\">Consectetur adipiscing elit.</p></section>",
+		"<nav role=\"navigation\"><ul><li><a href=\"/a\">A</a></li><li><a href=\"/b\">B</a></li></ul></nav>",
+		"<form><label for=\"q\">Search</label><input id=\"q\" type=\"text\" name=\"q\"><input type=\"button\" value=\"Go\"></form>",
+		"<figure><img src=\"hero.png\"><img src=\"logo.png\" alt=\"\"><img src=\"icon.png\" alt=\"Icon\"></figure>",
+		"<div style=\"text-align: justify; background-color: #fff; color: #000\"><span>Justified copy</span></div>",
+		"<table bgcolor=\"#eee\"><tr><td>1</td><td>2</td></tr></table>",
+		"<video autoplay src=\"clip.mp4\"></video><iframe src=\"https://example.com/embed?autoplay=1\"></iframe>",
+		"<button>Open</button><button aria-label=\"Close\">x</button>",
+		"<article><h4>Post</h4><p>Plain paragraph with <b>bold</b> and <i>italic</i> text.</p></article>",
+	};
+
+	@Param({"1000", "10000"})
+	public int sections;
+
+	@Param({""})
+	public String corpus;
+
+	private List<String> pages;
+	private List<PageState> page_states;
+
+	@Setup
+	public void setUp() throws IOException {
+		pages = corpus.isEmpty() ? List.of(syntheticPage()) : recordedPages(Paths.get(corpus));
+		page_states = new ArrayList<>(pages.size());
+		for(String html : pages) {
+			PageState page_state = mock(PageState.class);
+			when(page_state.getSrc()).thenReturn(html);
+			page_states.add(page_state);
+		}
+	}
+
+	/** Builds a page of {@code sections} sections picked at random from {@link #FRAGMENTS}. */
+	private String syntheticPage() {
+		StringBuilder builder = new StringBuilder("<html><head><title>Benchmark</title>"
+				+ "<meta name=\"viewport\" content=\"width=device-width\"><style>body{margin:0}</style></head><body><h1>Page</h1>");
+		Random random = new Random(42);
+		for(int i = 0; i < sections; i++) {
+			builder.append(FRAGMENTS[random.nextInt(FRAGMENTS.length)]);
+		}
+		return builder.append("</body></html>").toString();
+	}
+
+	/** Reads the source of every {@code *.html} file in {@code dir}, in file name order. */
+	private static List<String> recordedPages(Path dir) throws IOException {
+		List<Path> files;
+		try(Stream<Path> listing = Files.list(dir)) {
+			files = listing.filter(file -> file.getFileName().toString().endsWith(".html"))
+						   .sorted()
+						   .collect(Collectors.toList());
+		}
+		if(files.isEmpty()) {
+			throw new IllegalArgumentException("no page sources in " + dir);
+		}
+		List<String> sources = new ArrayList<>(files.size());
+		for(Path file : files) {
+			sources.add(Files.readString(file, StandardCharsets.UTF_8));
+		}
+		return sources;
+	}
+
+	@Benchmark
+	public void perAuditSelect(Blackhole blackhole) {
+		for(String html : pages) {
+			Document doc = Jsoup.parse(html);
+			List<Elements> results = new ArrayList<>(SELECTORS.length);
+			for(String selector : SELECTORS) {
+				results.add(doc.select(selector));
+			}
+			blackhole.consume(results);
+		}
+	}
+
+	@Benchmark
+	public void fusedWalk(Blackhole blackhole) {
+		for(PageState page_state : page_states) {
+			ElementRuleMatches matches = new PageContext(page_state).getRuleMatches();
+			blackhole.consume(matches);
+		}
+	}
+}